@@ -0,0 +1,243 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky.test;
+
+import com.jme3.app.SimpleApplication;
+import com.jme3.app.StatsAppState;
+import com.jme3.math.FastMath;
+import com.jme3.math.Quaternion;
+import com.jme3.math.Vector3f;
+import com.jme3.renderer.Camera;
+import com.jme3.renderer.ViewPort;
+import com.jme3.scene.Node;
+import com.jme3.system.AppSettings;
+import com.jme3.texture.Image;
+import java.util.logging.Logger;
+import jme3utilities.Heart;
+import jme3utilities.sky.SkyControl;
+import jme3utilities.sky.SkyCubeBaker;
+import jme3utilities.sky.SkyView;
+import jme3utilities.sky.StarsOption;
+
+/**
+ * Measure the cost of showing the sky in secondary viewports, such as
+ * reflections and minimaps, either by rendering the domes in each viewport
+ * (using a SkyView) or by sampling a cube map baked by a SkyCubeBaker.
+ * <p>
+ * For each mode, it prints the mean frame time. For the baked mode, it also
+ * prints the refresh metrics of the baker.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class BakedSkyBenchmark extends SimpleApplication {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * number of secondary viewports
+     */
+    final private static int numSecondaryViews = 4;
+    /**
+     * number of frames timed for each mode
+     */
+    final private static int numTimedFrames = 1_000;
+    /**
+     * number of frames rendered before timing begins
+     */
+    final private static int numWarmupFrames = 100;
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(BakedSkyBenchmark.class.getName());
+    // *************************************************************************
+    // fields
+
+    /**
+     * total time of the timed frames (in seconds)
+     */
+    private float timedSeconds;
+    /**
+     * number of frames rendered in the current mode
+     */
+    private int frameCount;
+    /**
+     * index of the current mode: 0 for domes, 1 for the baked cube map
+     */
+    private int modeIndex = -1;
+    /**
+     * scene shared by the secondary viewports
+     */
+    final private Node secondaryRoot = new Node("secondary root");
+    /**
+     * baker for the baked mode, or null if none
+     */
+    private SkyCubeBaker baker;
+    /**
+     * control that models the sky (not null once initialized)
+     */
+    private SkyControl skyControl;
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Main entry point for the BakedSkyBenchmark application.
+     *
+     * @param arguments array of command-line arguments (not null)
+     */
+    public static void main(String[] arguments) {
+        SimpleApplication application = new BakedSkyBenchmark();
+        Heart.parseAppArgs(application, arguments);
+
+        boolean loadDefaults = true;
+        AppSettings settings = new AppSettings(loadDefaults);
+        settings.setFrameRate(0); // unlimited
+        settings.setResolution(1920, 1080);
+        settings.setTitle("BakedSkyBenchmark");
+        settings.setVSync(false);
+        application.setSettings(settings);
+        application.setShowSettings(false);
+        application.start();
+    }
+    // *************************************************************************
+    // SimpleApplication methods
+
+    /**
+     * Initialize this application.
+     */
+    @Override
+    public void simpleInitApp() {
+        Heart.detachAll(stateManager, StatsAppState.class);
+        flyCam.setEnabled(false);
+
+        float cloudFlattening = 0.8f;
+        boolean bottomDome = true;
+        this.skyControl = new SkyControl(assetManager, cam, cloudFlattening,
+                StarsOption.TopDome, bottomDome);
+        rootNode.addControl(skyControl);
+        skyControl.setCloudiness(0.8f);
+        skyControl.setCloudsRate(2f);
+        skyControl.getSunAndStars().setHour(10f);
+        skyControl.setEnabled(true);
+
+        addSecondaryViews();
+        nextMode();
+    }
+
+    /**
+     * Callback invoked once per frame.
+     *
+     * @param tpf the time interval between frames (in seconds, &ge;0)
+     */
+    @Override
+    public void simpleUpdate(float tpf) {
+        secondaryRoot.updateLogicalState(tpf);
+        secondaryRoot.updateGeometricState();
+
+        ++frameCount;
+        if (frameCount == numWarmupFrames && baker != null) {
+            baker.resetCounters();
+        } else if (frameCount > numWarmupFrames) {
+            this.timedSeconds += tpf;
+        }
+
+        if (frameCount == numWarmupFrames + numTimedFrames) {
+            float meanMillis = 1000f * timedSeconds / numTimedFrames;
+            String mode = (baker == null) ? "domes" : "baked cube map";
+            System.out.printf("%s: %.3f ms per frame%n", mode, meanMillis);
+            if (baker != null) {
+                float updateMillis = baker.getUpdateNanos() / 1e6f;
+                System.out.printf("  %d refreshes, %d faces, %.3f ms of CPU"
+                        + " time preparing faces%n", baker.getRefreshCount(),
+                        baker.getFaceCount(), updateMillis);
+            }
+            nextMode();
+        }
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Add a row of secondary viewports along the bottom of the display, each
+     * looking in a different horizontal direction.
+     */
+    private void addSecondaryViews() {
+        Quaternion turn = new Quaternion();
+        for (int viewIndex = 0; viewIndex < numSecondaryViews; ++viewIndex) {
+            Camera camera = cam.clone();
+            float left = viewIndex / (float) numSecondaryViews;
+            float right = (viewIndex + 1) / (float) numSecondaryViews;
+            camera.setViewPort(left, right, 0f, 0.25f);
+
+            float angle = FastMath.TWO_PI * viewIndex / numSecondaryViews;
+            turn.fromAngles(0f, angle, 0f);
+            Vector3f direction = turn.mult(new Vector3f(0f, 0.3f, 1f));
+            camera.lookAtDirection(direction, Vector3f.UNIT_Y);
+
+            String name = "secondary " + viewIndex;
+            ViewPort view = renderManager.createMainView(name, camera);
+            view.setClearFlags(true, true, true);
+            view.attachScene(secondaryRoot);
+        }
+    }
+
+    /**
+     * Configure the secondary scene for the next mode, or stop the
+     * application if no modes remain.
+     */
+    private void nextMode() {
+        secondaryRoot.detachAllChildren();
+        SkyView skyView = secondaryRoot.getControl(SkyView.class);
+        if (skyView != null) {
+            secondaryRoot.removeControl(skyView);
+        }
+        if (baker != null) {
+            stateManager.detach(baker);
+            this.baker = null;
+        }
+        ++modeIndex;
+        if (modeIndex > 1) {
+            stop();
+            return;
+        }
+
+        if (modeIndex == 0) {
+            // Render the domes in each secondary viewport.
+            skyView = new SkyView(skyControl);
+            secondaryRoot.addControl(skyView);
+        } else {
+            // Bake the sky into a cube map and sample it.
+            int resolution = 512;
+            this.baker = new SkyCubeBaker(
+                    skyControl, Image.Format.RGBA8, resolution);
+            stateManager.attach(baker);
+            secondaryRoot.attachChild(baker.createSkyGeometry(assetManager));
+        }
+
+        this.frameCount = 0;
+        this.timedSeconds = 0f;
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky.test;
+
+import com.jme3.app.SimpleApplication;
+import com.jme3.app.StatsAppState;
+import com.jme3.math.Vector2f;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.shape.Quad;
+import com.jme3.system.AppSettings;
+import java.util.Collections;
+import java.util.logging.Logger;
+import jme3utilities.Heart;
+import jme3utilities.sky.SkyMaterial;
+import jme3utilities.sky.SkyShaders;
+
+/**
+ * Compare the compile time and fragment cost of the "dome66" material
+ * definitions, which select shader variants using defines, with the
+ * "array66" definitions, which use uniform arrays.
+ * <p>
+ * For each definition, it configures a material with stars, haze, 6 objects,
+ * and 6 cloud layers, times the compilation of its shaders, then draws
+ * several full-screen layers of it and prints the mean frame time.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class DomeShaderBenchmark extends SimpleApplication {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * number of full-screen layers drawn per frame
+     */
+    final private static int numLayers = 8;
+    /**
+     * number of frames timed for each material
+     */
+    final private static int numTimedFrames = 1_000;
+    /**
+     * number of frames rendered before timing begins
+     */
+    final private static int numWarmupFrames = 100;
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(DomeShaderBenchmark.class.getName());
+    /**
+     * asset paths of the material definitions to compare
+     */
+    final private static String[] matDefsPaths = {
+        "MatDefs/skies/dome66/dome66.j3md",
+        "MatDefs/skies/array66/array66.j3md"
+    };
+    // *************************************************************************
+    // fields
+
+    /**
+     * total time of the timed frames (in seconds)
+     */
+    private float timedSeconds;
+    /**
+     * number of frames rendered using the current material
+     */
+    private int frameCount;
+    /**
+     * index of the current material definitions in matDefsPaths
+     */
+    private int pathIndex = -1;
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Main entry point for the DomeShaderBenchmark application.
+     *
+     * @param arguments array of command-line arguments (not null)
+     */
+    public static void main(String[] arguments) {
+        SimpleApplication application = new DomeShaderBenchmark();
+        Heart.parseAppArgs(application, arguments);
+
+        boolean loadDefaults = true;
+        AppSettings settings = new AppSettings(loadDefaults);
+        settings.setFrameRate(0); // unlimited
+        settings.setTitle("DomeShaderBenchmark");
+        settings.setVSync(false);
+        application.setSettings(settings);
+        application.setShowSettings(false);
+        application.start();
+    }
+    // *************************************************************************
+    // SimpleApplication methods
+
+    /**
+     * Initialize this application.
+     */
+    @Override
+    public void simpleInitApp() {
+        Heart.detachAll(stateManager, StatsAppState.class);
+        flyCam.setEnabled(false);
+        nextMaterial();
+    }
+
+    /**
+     * Callback invoked once per frame.
+     *
+     * @param tpf the time interval between frames (in seconds, &ge;0)
+     */
+    @Override
+    public void simpleUpdate(float tpf) {
+        ++frameCount;
+        if (frameCount > numWarmupFrames) {
+            this.timedSeconds += tpf;
+        }
+
+        if (frameCount == numWarmupFrames + numTimedFrames) {
+            float meanMillis = 1000f * timedSeconds / numTimedFrames;
+            System.out.printf("%s: %.3f ms per frame (%d layers)%n",
+                    matDefsPaths[pathIndex], meanMillis, numLayers);
+            nextMaterial();
+        }
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Configure a material with all features enabled.
+     *
+     * @param matDefsPath the asset path to the material definitions (not
+     * null)
+     * @return a new material
+     */
+    private SkyMaterial createMaterial(String matDefsPath) {
+        SkyMaterial result = new SkyMaterial(assetManager, matDefsPath);
+        result.initialize();
+        result.addStars();
+        result.addHaze();
+
+        int numObjects = result.getMaxObjects();
+        for (int objectIndex = 0; objectIndex < numObjects; ++objectIndex) {
+            result.addObject(objectIndex, SkyMaterial.sunMapPath);
+            Vector2f center = new Vector2f(0.2f + 0.12f * objectIndex, 0.5f);
+            result.setObjectTransform(objectIndex, center, 4f, null);
+        }
+
+        int numCloudLayers = result.getMaxCloudLayers();
+        for (int layerIndex = 0; layerIndex < numCloudLayers; ++layerIndex) {
+            result.addClouds(layerIndex);
+            result.setCloudsOffset(layerIndex, 0.1f * layerIndex, 0f);
+        }
+
+        return result;
+    }
+
+    /**
+     * Replace the layers with ones using the next material definitions, or
+     * stop the application if none remain.
+     */
+    private void nextMaterial() {
+        guiNode.detachAllChildren();
+        ++pathIndex;
+        if (pathIndex >= matDefsPaths.length) {
+            stop();
+            return;
+        }
+
+        String path = matDefsPaths[pathIndex];
+        SkyMaterial material = createMaterial(path);
+        long startNanos = System.nanoTime();
+        SkyShaders.precompile(
+                renderManager, Collections.singletonList(material));
+        long compileNanos = System.nanoTime() - startNanos;
+        System.out.printf("%s: compiled in %.1f ms%n", path,
+                1e-6 * compileNanos);
+
+        float width = cam.getWidth();
+        float height = cam.getHeight();
+        for (int layerIndex = 0; layerIndex < numLayers; ++layerIndex) {
+            Geometry layer = new Geometry("layer", new Quad(width, height));
+            layer.setMaterial(material);
+            guiNode.attachChild(layer);
+        }
+
+        this.frameCount = 0;
+        this.timedSeconds = 0f;
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky.test;
+
+import com.jme3.app.SimpleApplication;
+import com.jme3.app.StatsAppState;
+import com.jme3.collision.CollisionResults;
+import com.jme3.material.Material;
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.Ray;
+import com.jme3.math.Vector2f;
+import com.jme3.math.Vector3f;
+import com.jme3.renderer.ViewPort;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Node;
+import com.jme3.scene.shape.Box;
+import com.jme3.system.AppSettings;
+import java.util.Random;
+import java.util.logging.Logger;
+import jme3utilities.Heart;
+import jme3utilities.MyAsset;
+import jme3utilities.sky.SkyControl;
+import jme3utilities.sky.StarsOption;
+
+/**
+ * Measure the fragments saved by rendering the sky after opaque geometry, in
+ * a city scene where buildings hide most of the sky.
+ * <p>
+ * It first renders the sky in a pre-view, so it's drawn before (and mostly
+ * overwritten by) the buildings, then in the main view's Sky bucket, which
+ * jME renders after the Opaque bucket at the far plane, so that occluded sky
+ * fragments fail the depth test before shading. For each mode, it prints the
+ * mean frame time.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class OccludedSkyBenchmark extends SimpleApplication {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * number of buildings along each side of the city
+     */
+    final private static int citySize = 24;
+    /**
+     * number of frames timed for each mode
+     */
+    final private static int numTimedFrames = 1_000;
+    /**
+     * number of frames rendered before timing begins
+     */
+    final private static int numWarmupFrames = 100;
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(OccludedSkyBenchmark.class.getName());
+    /**
+     * name of the pre-view for the draw-first mode
+     */
+    final private static String preViewName = "sky first";
+    // *************************************************************************
+    // fields
+
+    /**
+     * total time of the timed frames (in seconds)
+     */
+    private float timedSeconds;
+    /**
+     * number of frames rendered in the current mode
+     */
+    private int frameCount;
+    /**
+     * index of the current mode: 0 for sky first, 1 for sky after opaque
+     */
+    private int modeIndex = -1;
+    /**
+     * parent of the sky in the pre-view, or null if none
+     */
+    private Node preViewRoot;
+    /**
+     * control under test, or null if none
+     */
+    private SkyControl skyControl;
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Main entry point for the OccludedSkyBenchmark application.
+     *
+     * @param arguments array of command-line arguments (not null)
+     */
+    public static void main(String[] arguments) {
+        SimpleApplication application = new OccludedSkyBenchmark();
+        Heart.parseAppArgs(application, arguments);
+
+        boolean loadDefaults = true;
+        AppSettings settings = new AppSettings(loadDefaults);
+        settings.setFrameRate(0); // unlimited
+        settings.setResolution(1920, 1080);
+        settings.setTitle("OccludedSkyBenchmark");
+        settings.setVSync(false);
+        application.setSettings(settings);
+        application.setShowSettings(false);
+        application.start();
+    }
+    // *************************************************************************
+    // SimpleApplication methods
+
+    /**
+     * Initialize this application.
+     */
+    @Override
+    public void simpleInitApp() {
+        Heart.detachAll(stateManager, StatsAppState.class);
+        flyCam.setEnabled(false);
+        cam.setLocation(new Vector3f(-15f, 2f, -15f));
+        cam.lookAt(new Vector3f(40f, 20f, 60f), Vector3f.UNIT_Y);
+
+        addCity();
+        float coverage = measureCoverage();
+        System.out.printf("buildings cover %.0f%% of the screen%n",
+                100f * coverage);
+        nextMode();
+    }
+
+    /**
+     * Callback invoked once per frame.
+     *
+     * @param tpf the time interval between frames (in seconds, &ge;0)
+     */
+    @Override
+    public void simpleUpdate(float tpf) {
+        if (preViewRoot != null) {
+            preViewRoot.updateLogicalState(tpf);
+            preViewRoot.updateGeometricState();
+        }
+
+        ++frameCount;
+        if (frameCount > numWarmupFrames) {
+            this.timedSeconds += tpf;
+        }
+
+        if (frameCount == numWarmupFrames + numTimedFrames) {
+            float meanMillis = 1000f * timedSeconds / numTimedFrames;
+            String mode = (modeIndex == 0) ? "sky first" : "sky after opaque";
+            System.out.printf("%s: %.3f ms per frame%n", mode, meanMillis);
+            nextMode();
+        }
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Add a grid of box-shaped buildings with random heights to the scene.
+     */
+    private void addCity() {
+        Material material
+                = MyAsset.createUnshadedMaterial(assetManager, ColorRGBA.Gray);
+        Random random = new Random(1L);
+        float spacing = 10f;
+        float halfWidth = 3.5f;
+        for (int i = 0; i < citySize; ++i) {
+            for (int j = 0; j < citySize; ++j) {
+                float halfHeight = 5f + 20f * random.nextFloat();
+                Box mesh = new Box(halfWidth, halfHeight, halfWidth);
+                Geometry building = new Geometry("building", mesh);
+                building.setLocalTranslation(
+                        i * spacing, halfHeight, j * spacing);
+                building.setMaterial(material);
+                rootNode.attachChild(building);
+            }
+        }
+
+        Box groundMesh = new Box(500f, 0.1f, 500f);
+        Geometry ground = new Geometry("ground", groundMesh);
+        ground.setLocalTranslation(0f, -0.1f, 0f);
+        ground.setMaterial(material);
+        rootNode.attachChild(ground);
+    }
+
+    /**
+     * Estimate the fraction of the screen covered by the scene, by casting a
+     * grid of rays from the camera.
+     *
+     * @return the fraction (&ge;0, &le;1)
+     */
+    private float measureCoverage() {
+        rootNode.updateGeometricState();
+
+        int numColumns = 64;
+        int numRows = 36;
+        int numHits = 0;
+        Vector2f screenXY = new Vector2f();
+        for (int row = 0; row < numRows; ++row) {
+            screenXY.y = (row + 0.5f) * cam.getHeight() / numRows;
+            for (int column = 0; column < numColumns; ++column) {
+                screenXY.x = (column + 0.5f) * cam.getWidth() / numColumns;
+                Vector3f near = cam.getWorldCoordinates(screenXY, 0f);
+                Vector3f far = cam.getWorldCoordinates(screenXY, 1f);
+                Vector3f direction = far.subtractLocal(near).normalizeLocal();
+                Ray ray = new Ray(near, direction);
+                CollisionResults results = new CollisionResults();
+                if (rootNode.collideWith(ray, results) > 0) {
+                    ++numHits;
+                }
+            }
+        }
+        float result = numHits / (float) (numColumns * numRows);
+
+        return result;
+    }
+
+    /**
+     * Replace the control under test with one for the next mode, or stop the
+     * application if no modes remain.
+     */
+    private void nextMode() {
+        if (skyControl != null) {
+            skyControl.setEnabled(false);
+            skyControl.getSpatial().removeControl(skyControl);
+        }
+        if (preViewRoot != null) {
+            ViewPort preView = renderManager.getPreView(preViewName);
+            renderManager.removePreView(preView);
+            this.preViewRoot = null;
+            viewPort.setClearFlags(true, true, true);
+        }
+        ++modeIndex;
+        if (modeIndex > 1) {
+            stop();
+            return;
+        }
+
+        Node parent;
+        if (modeIndex == 0) {
+            // Draw the sky first, then the buildings over it.
+            this.preViewRoot = new Node("pre-view root");
+            ViewPort preView = renderManager.createPreView(preViewName, cam);
+            preView.setClearFlags(true, true, true);
+            preView.attachScene(preViewRoot);
+            viewPort.setClearFlags(false, true, true);
+            parent = preViewRoot;
+        } else {
+            parent = rootNode;
+        }
+
+        float cloudFlattening = 0.8f;
+        boolean bottomDome = true;
+        this.skyControl = new SkyControl(assetManager, cam, cloudFlattening,
+                StarsOption.TopDome, bottomDome);
+        parent.addControl(skyControl);
+        skyControl.setCloudiness(0.8f);
+        skyControl.getSunAndStars().setHour(10f);
+        skyControl.setEnabled(true);
+
+        this.frameCount = 0;
+        this.timedSeconds = 0f;
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky.test;
+
+import com.jme3.app.SimpleApplication;
+import com.jme3.app.StatsAppState;
+import com.jme3.system.AppSettings;
+import java.util.logging.Logger;
+import jme3utilities.Heart;
+import jme3utilities.sky.SkyControl;
+import jme3utilities.sky.StarsOption;
+
+/**
+ * Measure the fill-rate savings of single-pass clouds at 4K resolution.
+ * <p>
+ * It renders a flattened, cloudy sky filling a 3840x2160 window, first with
+ * a separate clouds-only dome and then with the clouds rendered by the top
+ * dome, and prints the mean frame time of each.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class SinglePassCloudsBenchmark extends SimpleApplication {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * number of frames timed for each mode
+     */
+    final private static int numTimedFrames = 1_000;
+    /**
+     * number of frames rendered before timing begins
+     */
+    final private static int numWarmupFrames = 100;
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(SinglePassCloudsBenchmark.class.getName());
+    // *************************************************************************
+    // fields
+
+    /**
+     * total time of the timed frames (in seconds)
+     */
+    private float timedSeconds;
+    /**
+     * number of frames rendered in the current mode
+     */
+    private int frameCount;
+    /**
+     * index of the current mode: 0 for 2 passes, 1 for a single pass
+     */
+    private int modeIndex = -1;
+    /**
+     * control under test, or null if none
+     */
+    private SkyControl skyControl;
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Main entry point for the SinglePassCloudsBenchmark application.
+     *
+     * @param arguments array of command-line arguments (not null)
+     */
+    public static void main(String[] arguments) {
+        SimpleApplication application = new SinglePassCloudsBenchmark();
+        Heart.parseAppArgs(application, arguments);
+
+        boolean loadDefaults = true;
+        AppSettings settings = new AppSettings(loadDefaults);
+        settings.setFrameRate(0); // unlimited
+        settings.setResolution(3840, 2160);
+        settings.setTitle("SinglePassCloudsBenchmark");
+        settings.setVSync(false);
+        application.setSettings(settings);
+        application.setShowSettings(false);
+        application.start();
+    }
+    // *************************************************************************
+    // SimpleApplication methods
+
+    /**
+     * Initialize this application.
+     */
+    @Override
+    public void simpleInitApp() {
+        Heart.detachAll(stateManager, StatsAppState.class);
+        flyCam.setEnabled(false);
+        nextMode();
+    }
+
+    /**
+     * Callback invoked once per frame.
+     *
+     * @param tpf the time interval between frames (in seconds, &ge;0)
+     */
+    @Override
+    public void simpleUpdate(float tpf) {
+        ++frameCount;
+        if (frameCount > numWarmupFrames) {
+            this.timedSeconds += tpf;
+        }
+
+        if (frameCount == numWarmupFrames + numTimedFrames) {
+            float meanMillis = 1000f * timedSeconds / numTimedFrames;
+            String mode = (modeIndex == 0) ? "2 passes" : "single pass";
+            System.out.printf("%s at %dx%d: %.3f ms per frame%n", mode,
+                    cam.getWidth(), cam.getHeight(), meanMillis);
+            nextMode();
+        }
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Replace the control under test with one for the next mode, or stop the
+     * application if no modes remain.
+     */
+    private void nextMode() {
+        if (skyControl != null) {
+            skyControl.setEnabled(false);
+            rootNode.removeControl(skyControl);
+        }
+        ++modeIndex;
+        if (modeIndex > 1) {
+            stop();
+            return;
+        }
+
+        float cloudFlattening = 0.8f;
+        boolean bottomDome = true;
+        boolean singlePass = (modeIndex == 1);
+        this.skyControl = new SkyControl(assetManager, cam, cloudFlattening,
+                StarsOption.TopDome, bottomDome, singlePass);
+        rootNode.addControl(skyControl);
+        skyControl.setCloudiness(0.8f);
+        skyControl.setCloudsYOffset(0.4f);
+        skyControl.getSunAndStars().setHour(10f);
+        skyControl.setEnabled(true);
+
+        this.frameCount = 0;
+        this.timedSeconds = 0f;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky.test;
+
+import com.jme3.math.FastMath;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Logger;
+import jme3utilities.sky.SkyBatch;
+import jme3utilities.sky.SkyEngine;
+import jme3utilities.sky.SunAndStars;
+
+/**
+ * Console app to measure how batch evaluation of sky states scales with the
+ * number of threads.
+ * <p>
+ * It evaluates one sample per minute for a year of days, using pools of 1, 2,
+ * 4, ... threads up to the number of available processors, and prints the
+ * elapsed time and speedup for each pool size.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class SkyBatchBenchmark {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * number of days to sample
+     */
+    final private static int numDays = 365;
+    /**
+     * number of samples per day
+     */
+    final private static int samplesPerDay = 24 * 60;
+    /**
+     * number of timed repetitions for each pool size
+     */
+    final private static int numTrials = 3;
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(SkyBatchBenchmark.class.getName());
+    // *************************************************************************
+    // constructors
+
+    /**
+     * A private constructor to inhibit instantiation of this class.
+     */
+    private SkyBatchBenchmark() {
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Main entry point for the SkyBatchBenchmark application.
+     *
+     * @param arguments array of command-line arguments (not null)
+     */
+    public static void main(String[] arguments) {
+        int numSamples = numDays * samplesPerDay;
+        float[] hours = new float[numSamples];
+        float[] longitudes = new float[numSamples];
+        for (int day = 0; day < numDays; ++day) {
+            float longitude = (FastMath.TWO_PI * day) / numDays;
+            for (int sample = 0; sample < samplesPerDay; ++sample) {
+                int index = day * samplesPerDay + sample;
+                hours[index] = (24f * sample) / samplesPerDay;
+                longitudes[index] = longitude;
+            }
+        }
+
+        SunAndStars sunAndStars = new SunAndStars();
+        sunAndStars.setObserverLatitude(0.6f);
+        SkyEngine prototype = new SkyEngine(sunAndStars);
+        float[] records = null;
+
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        double baseSeconds = 0.0;
+        for (int numThreads = 1; numThreads <= maxThreads; numThreads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(numThreads);
+            records = SkyBatch.evaluate(
+                    prototype, hours, longitudes, pool, records); // warm up
+
+            long bestNanos = Long.MAX_VALUE;
+            for (int trial = 0; trial < numTrials; ++trial) {
+                long start = System.nanoTime();
+                SkyBatch.evaluate(
+                        prototype, hours, longitudes, pool, records);
+                long elapsed = System.nanoTime() - start;
+                bestNanos = Math.min(bestNanos, elapsed);
+            }
+            pool.shutdown();
+
+            double seconds = 1e-9 * bestNanos;
+            if (numThreads == 1) {
+                baseSeconds = seconds;
+            }
+            System.out.printf("%2d thread(s): %d samples in %.3f s,"
+                    + " speedup %.2fx%n", numThreads, numSamples, seconds,
+                    baseSeconds / seconds);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky.test;
+
+import com.jme3.asset.AssetManager;
+import com.jme3.asset.DesktopAssetManager;
+import com.jme3.renderer.Camera;
+import com.jme3.scene.Node;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.logging.Logger;
+import jme3utilities.sky.SkyControl;
+import jme3utilities.sky.StarsOption;
+import jme3utilities.sky.SunAndStars;
+
+/**
+ * Console app to measure the CPU cost of a full SkyControl update.
+ * <p>
+ * It updates a headless sky with clouds and stars, advancing the time of day
+ * on every update so that each one recalculates the sun, moon, colors, and
+ * material parameters, and prints the best time per update and (where the
+ * JVM supports it) the number of bytes allocated per update. Compare the
+ * output before and after a change to SkyControl or its Updater.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class SkyUpdateBenchmark {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * simulated duration of each update (in seconds)
+     */
+    final private static float tpf = 1f / 60f;
+    /**
+     * number of untimed updates before the trials
+     */
+    final private static int numWarmups = 20_000;
+    /**
+     * number of timed repetitions
+     */
+    final private static int numTrials = 3;
+    /**
+     * number of updates in each repetition
+     */
+    final private static int numUpdates = 100_000;
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(SkyUpdateBenchmark.class.getName());
+    // *************************************************************************
+    // constructors
+
+    /**
+     * A private constructor to inhibit instantiation of this class.
+     */
+    private SkyUpdateBenchmark() {
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Main entry point for the SkyUpdateBenchmark application.
+     *
+     * @param arguments array of command-line arguments (not null)
+     */
+    public static void main(String[] arguments) {
+        AssetManager assetManager = new DesktopAssetManager(true);
+        Camera camera = new Camera(640, 480);
+        SkyControl sky = new SkyControl(
+                assetManager, camera, 0.9f, StarsOption.TopDome, true);
+        Node skyParent = new Node("sky parent");
+        skyParent.addControl(sky);
+        sky.setCloudModulation(true);
+        sky.setEnabled(true);
+        SunAndStars sunAndStars = sky.getSunAndStars();
+
+        runUpdates(sky, sunAndStars, numWarmups);
+
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean allocationBean = null;
+        if (threadBean instanceof com.sun.management.ThreadMXBean) {
+            allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        }
+        long threadId = Thread.currentThread().getId();
+
+        long bestNanos = Long.MAX_VALUE;
+        long bestBytes = Long.MAX_VALUE;
+        for (int trial = 0; trial < numTrials; ++trial) {
+            long startBytes = 0L;
+            if (allocationBean != null) {
+                startBytes = allocationBean.getThreadAllocatedBytes(threadId);
+            }
+            long start = System.nanoTime();
+            runUpdates(sky, sunAndStars, numUpdates);
+            long elapsed = System.nanoTime() - start;
+            bestNanos = Math.min(bestNanos, elapsed);
+            if (allocationBean != null) {
+                long bytes = allocationBean.getThreadAllocatedBytes(threadId)
+                        - startBytes;
+                bestBytes = Math.min(bestBytes, bytes);
+            }
+        }
+
+        double nanosPerUpdate = bestNanos / (double) numUpdates;
+        System.out.printf("%d updates: %.0f ns per update%n",
+                numUpdates, nanosPerUpdate);
+        if (allocationBean != null) {
+            double bytesPerUpdate = bestBytes / (double) numUpdates;
+            System.out.printf("allocated %.1f bytes per update%n",
+                    bytesPerUpdate);
+        }
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Perform the specified number of updates, advancing the time of day by
+     * one minute before each.
+     *
+     * @param sky the control to update (not null)
+     * @param sunAndStars the control's orientations (not null)
+     * @param count the number of updates (&ge;0)
+     */
+    private static void runUpdates(
+            SkyControl sky, SunAndStars sunAndStars, int count) {
+        for (int i = 0; i < count; ++i) {
+            float hour = sunAndStars.getHour() + 1f / 60f;
+            if (hour >= 24f) {
+                hour -= 24f;
+            }
+            sunAndStars.setHour(hour);
+            sky.update(tpf);
+        }
+    }
+}
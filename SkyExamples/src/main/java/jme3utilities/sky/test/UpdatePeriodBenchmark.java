@@ -0,0 +1,175 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky.test;
+
+import com.jme3.asset.AssetManager;
+import com.jme3.asset.DesktopAssetManager;
+import com.jme3.light.AmbientLight;
+import com.jme3.light.DirectionalLight;
+import com.jme3.renderer.Camera;
+import com.jme3.renderer.ViewPort;
+import com.jme3.scene.Node;
+import com.jme3.shadow.DirectionalLightShadowFilter;
+import java.util.logging.Logger;
+import jme3utilities.sky.SkyControl;
+import jme3utilities.sky.StarsOption;
+import jme3utilities.sky.SunAndStars;
+import jme3utilities.sky.Updater;
+
+/**
+ * Console app to measure how reduced-rate sky updates affect the CPU cost per
+ * frame in a scene with many shadow filters and viewports.
+ * <p>
+ * It attaches a headless SkyControl to a main light, an ambient light, and
+ * many shadow filters and viewports, advances the time of day every frame,
+ * and prints the best time per frame for full updates every frame, every
+ * 0.25 seconds, and every 15 frames.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class UpdatePeriodBenchmark {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * simulated duration of each frame (in seconds)
+     */
+    final private static float tpf = 1f / 60f;
+    /**
+     * number of shadow filters managed by the Updater
+     */
+    final private static int numFilters = 32;
+    /**
+     * number of untimed frames before the trials of each configuration
+     */
+    final private static int numWarmups = 10_000;
+    /**
+     * number of frames in each repetition
+     */
+    final private static int numFrames = 50_000;
+    /**
+     * number of timed repetitions for each configuration
+     */
+    final private static int numTrials = 3;
+    /**
+     * number of viewports managed by the Updater
+     */
+    final private static int numViewPorts = 32;
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(UpdatePeriodBenchmark.class.getName());
+    // *************************************************************************
+    // constructors
+
+    /**
+     * A private constructor to inhibit instantiation of this class.
+     */
+    private UpdatePeriodBenchmark() {
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Main entry point for the UpdatePeriodBenchmark application.
+     *
+     * @param arguments array of command-line arguments (not null)
+     */
+    public static void main(String[] arguments) {
+        AssetManager assetManager = new DesktopAssetManager(true);
+        Camera camera = new Camera(640, 480);
+        SkyControl sky = new SkyControl(
+                assetManager, camera, 0.9f, StarsOption.TopDome, true);
+        Node skyParent = new Node("sky parent");
+        skyParent.addControl(sky);
+
+        Updater updater = sky.getUpdater();
+        updater.setAmbientLight(new AmbientLight());
+        DirectionalLight mainLight = new DirectionalLight();
+        updater.setMainLight(mainLight);
+        for (int i = 0; i < numFilters; ++i) {
+            DirectionalLightShadowFilter filter
+                    = new DirectionalLightShadowFilter(assetManager, 512, 1);
+            filter.setLight(mainLight);
+            updater.addShadowFilter(filter);
+        }
+        for (int i = 0; i < numViewPorts; ++i) {
+            updater.addViewPort(new ViewPort("view " + i, camera));
+        }
+        sky.setEnabled(true);
+        SunAndStars sunAndStars = sky.getSunAndStars();
+
+        float[] periods = {0f, 0.25f, 0f};
+        int[] frameCounts = {1, 1, 15};
+        String[] descriptions
+                = {"every frame", "every 0.25 s", "every 15 frames"};
+        double baseNanos = 0.0;
+        for (int config = 0; config < periods.length; ++config) {
+            sky.setUpdatePeriod(periods[config]);
+            sky.setUpdateFrames(frameCounts[config]);
+            runFrames(sky, sunAndStars, numWarmups);
+
+            long bestNanos = Long.MAX_VALUE;
+            for (int trial = 0; trial < numTrials; ++trial) {
+                long start = System.nanoTime();
+                runFrames(sky, sunAndStars, numFrames);
+                long elapsed = System.nanoTime() - start;
+                bestNanos = Math.min(bestNanos, elapsed);
+            }
+
+            double nanosPerFrame = bestNanos / (double) numFrames;
+            if (config == 0) {
+                baseNanos = nanosPerFrame;
+            }
+            System.out.printf("full updates %-15s: %.0f ns per frame,"
+                    + " speedup %.2fx%n", descriptions[config], nanosPerFrame,
+                    baseNanos / nanosPerFrame);
+        }
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Simulate the specified number of frames, advancing the time of day by 6
+     * seconds before each.
+     *
+     * @param sky the control to update (not null)
+     * @param sunAndStars the control's orientations (not null)
+     * @param count the number of frames (&ge;0)
+     */
+    private static void runFrames(
+            SkyControl sky, SunAndStars sunAndStars, int count) {
+        for (int i = 0; i < count; ++i) {
+            float hour = sunAndStars.getHour() + 1f / 600f;
+            if (hour >= 24f) {
+                hour -= 24f;
+            }
+            sunAndStars.setHour(hour);
+            sky.update(tpf);
+        }
+    }
+}
@@ -0,0 +1,342 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import com.jme3.export.InputCapsule;
+import com.jme3.export.JmeExporter;
+import com.jme3.export.JmeImporter;
+import com.jme3.export.OutputCapsule;
+import com.jme3.export.Savable;
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.FastMath;
+import com.jme3.math.Vector3f;
+import com.jme3.util.clone.Cloner;
+import com.jme3.util.clone.JmeCloneable;
+import java.io.IOException;
+import java.util.logging.Logger;
+import jme3utilities.Validate;
+
+/**
+ * Component of Updater to decide which changes are large enough to push to
+ * the lights, filters, renderers, and viewports, and to count the pushes
+ * performed and suppressed.
+ * <p>
+ * With the default thresholds (all zero) every change is pushed, and only
+ * exact repeats of the previously pushed values are suppressed.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+public class ChangeThresholds implements JmeCloneable, Savable {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(ChangeThresholds.class.getName());
+    // *************************************************************************
+    // fields
+
+    /**
+     * maximum change in any color component that is suppressed (&ge;0)
+     */
+    private float colorThreshold = 0f;
+    /**
+     * cosine of the maximum change in direction that is suppressed
+     */
+    private float cosDirectionThreshold = 1f;
+    /**
+     * maximum change in direction that is suppressed (in radians, &ge;0)
+     */
+    private float directionThreshold = 0f;
+    /**
+     * maximum change in bloom or shadow intensity that is suppressed (&ge;0)
+     */
+    private float intensityThreshold = 0f;
+    /**
+     * number of changes pushed since the counters were reset: not serialized
+     */
+    private long pushCount = 0L;
+    /**
+     * number of changes suppressed since the counters were reset: not
+     * serialized
+     */
+    private long suppressedCount = 0L;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate a set of thresholds with the default values (all zero).
+     */
+    public ChangeThresholds() {
+        // do nothing
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Return the color threshold.
+     *
+     * @return the maximum suppressed change in any component (&ge;0)
+     */
+    public float getColorThreshold() {
+        assert colorThreshold >= 0f : colorThreshold;
+        return colorThreshold;
+    }
+
+    /**
+     * Return the direction threshold.
+     *
+     * @return the maximum suppressed change in angle (in radians, &ge;0)
+     */
+    public float getDirectionThreshold() {
+        assert directionThreshold >= 0f : directionThreshold;
+        return directionThreshold;
+    }
+
+    /**
+     * Return the intensity threshold.
+     *
+     * @return the maximum suppressed change in intensity (&ge;0)
+     */
+    public float getIntensityThreshold() {
+        assert intensityThreshold >= 0f : intensityThreshold;
+        return intensityThreshold;
+    }
+
+    /**
+     * Return the number of changes pushed since the counters were reset. Each
+     * light property, filter intensity, or background color counts once,
+     * regardless of how many objects receive it.
+     *
+     * @return the count (&ge;0)
+     */
+    public long getPushCount() {
+        assert pushCount >= 0L : pushCount;
+        return pushCount;
+    }
+
+    /**
+     * Return the number of changes suppressed since the counters were reset.
+     *
+     * @return the count (&ge;0)
+     */
+    public long getSuppressedCount() {
+        assert suppressedCount >= 0L : suppressedCount;
+        return suppressedCount;
+    }
+
+    /**
+     * Reset both counters to zero.
+     */
+    public void resetCounters() {
+        this.pushCount = 0L;
+        this.suppressedCount = 0L;
+    }
+
+    /**
+     * Alter the color threshold.
+     *
+     * @param newThreshold the maximum change in any component (of the color
+     * after multipliers are applied) to suppress (&ge;0, default=0)
+     */
+    public void setColorThreshold(float newThreshold) {
+        Validate.nonNegative(newThreshold, "new threshold");
+        this.colorThreshold = newThreshold;
+    }
+
+    /**
+     * Alter the direction threshold.
+     *
+     * @param newThreshold the maximum change in angle to suppress (in
+     * radians, &ge;0, &le;Pi, default=0)
+     */
+    public void setDirectionThreshold(float newThreshold) {
+        Validate.inRange(newThreshold, "new threshold", 0f, FastMath.PI);
+
+        this.directionThreshold = newThreshold;
+        this.cosDirectionThreshold = FastMath.cos(newThreshold);
+    }
+
+    /**
+     * Alter the intensity threshold.
+     *
+     * @param newThreshold the maximum change in bloom or shadow intensity to
+     * suppress (&ge;0, default=0)
+     */
+    public void setIntensityThreshold(float newThreshold) {
+        Validate.nonNegative(newThreshold, "new threshold");
+        this.intensityThreshold = newThreshold;
+    }
+
+    /**
+     * Decide whether to push the specified color and count the decision. If
+     * pushing, the desired color is copied to the pushed color.
+     *
+     * @param force true to push regardless of the threshold
+     * @param pushed the most recently pushed color (not null, modified)
+     * @param desired the desired color (not null, unaffected)
+     * @return true to push, false to suppress
+     */
+    boolean pushColor(boolean force, ColorRGBA pushed, ColorRGBA desired) {
+        boolean result = force
+                || Math.abs(desired.r - pushed.r) > colorThreshold
+                || Math.abs(desired.g - pushed.g) > colorThreshold
+                || Math.abs(desired.b - pushed.b) > colorThreshold
+                || Math.abs(desired.a - pushed.a) > colorThreshold;
+        if (result) {
+            pushed.set(desired);
+        }
+        count(result);
+
+        return result;
+    }
+
+    /**
+     * Decide whether to push the specified direction and count the decision.
+     * If pushing, the desired direction is copied to the pushed direction.
+     *
+     * @param force true to push regardless of the threshold
+     * @param pushed the most recently pushed direction (unit vector, modified)
+     * @param desired the desired direction (unit vector, unaffected)
+     * @return true to push, false to suppress
+     */
+    boolean pushDirection(boolean force, Vector3f pushed, Vector3f desired) {
+        boolean result;
+        if (force) {
+            result = true;
+        } else if (directionThreshold == 0f) {
+            /*
+             * Rounding in the dot product would suppress tiny changes,
+             * so compare exactly.
+             */
+            result = !desired.equals(pushed);
+        } else {
+            result = !desired.equals(pushed)
+                    && desired.dot(pushed) < cosDirectionThreshold;
+        }
+        if (result) {
+            pushed.set(desired);
+        }
+        count(result);
+
+        return result;
+    }
+
+    /**
+     * Decide whether to push the specified intensity and count the decision.
+     *
+     * @param force true to push regardless of the threshold
+     * @param pushed the most recently pushed intensity
+     * @param desired the desired intensity
+     * @return true to push, false to suppress
+     */
+    boolean pushIntensity(boolean force, float pushed, float desired) {
+        boolean result
+                = force || Math.abs(desired - pushed) > intensityThreshold;
+        count(result);
+
+        return result;
+    }
+    // *************************************************************************
+    // JmeCloneable methods
+
+    /**
+     * Convert this shallow-cloned instance into a deep-cloned one, using the
+     * specified cloner and original to resolve copied fields.
+     *
+     * @param cloner the cloner currently cloning this instance
+     * @param original the instance from which this one was shallow-cloned
+     */
+    @Override
+    public void cloneFields(Cloner cloner, Object original) {
+        // do nothing
+    }
+
+    /**
+     * Create a shallow clone for the JME cloner.
+     *
+     * @return a new instance
+     */
+    @Override
+    public ChangeThresholds jmeClone() {
+        try {
+            ChangeThresholds clone = (ChangeThresholds) clone();
+            return clone;
+        } catch (CloneNotSupportedException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+    // *************************************************************************
+    // Savable methods
+
+    /**
+     * De-serialize this instance, for example when loading from a J3O file.
+     *
+     * @param importer (not null)
+     * @throws IOException from importer
+     */
+    @Override
+    public void read(JmeImporter importer) throws IOException {
+        InputCapsule ic = importer.getCapsule(this);
+
+        this.colorThreshold = ic.readFloat("colorThreshold", 0f);
+        float angle = ic.readFloat("directionThreshold", 0f);
+        setDirectionThreshold(angle);
+        this.intensityThreshold = ic.readFloat("intensityThreshold", 0f);
+    }
+
+    /**
+     * Serialize this instance, for example when saving to a J3O file.
+     *
+     * @param exporter (not null)
+     * @throws IOException from exporter
+     */
+    @Override
+    public void write(JmeExporter exporter) throws IOException {
+        OutputCapsule oc = exporter.getCapsule(this);
+
+        oc.write(colorThreshold, "colorThreshold", 0f);
+        oc.write(directionThreshold, "directionThreshold", 0f);
+        oc.write(intensityThreshold, "intensityThreshold", 0f);
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Count a push or suppression.
+     *
+     * @param pushed true for a push, false for a suppression
+     */
+    private void count(boolean pushed) {
+        if (pushed) {
+            ++pushCount;
+        } else {
+            ++suppressedCount;
+        }
+    }
+}
@@ -0,0 +1,333 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.FastMath;
+import com.jme3.texture.Image;
+import com.jme3.texture.image.ImageRaster;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * The red channel of a cloud layer's alpha map, extracted once into a
+ * primitive array so it can be sampled without decoding pixels or
+ * allocating.
+ * <p>
+ * A summed-area table is also built, so the average over any square can be
+ * found in constant time.
+ * <p>
+ * Maps are shared: all materials that use the same image (as returned by the
+ * asset manager's cache) share a single instance, obtained using
+ * {@link #forImage(com.jme3.texture.Image)}.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class CloudAlphaMap {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(CloudAlphaMap.class.getName());
+    /**
+     * shared maps, each weakly keyed by its image (identity comparison, since
+     * Image.equals() compares pixel data)
+     */
+    final private static List<Shared> sharedMaps = new ArrayList<>(6);
+    // *************************************************************************
+    // fields
+
+    /**
+     * summed-area table: the sum of the reds in the rectangle from the origin
+     * up to (but excluding) each (x, y), in row-major order with a stride of
+     * width+1
+     */
+    final private double[] sums;
+    /**
+     * red intensity of each pixel, in row-major order (each &le;1, &ge;0)
+     */
+    final private float[] reds;
+    /**
+     * height of the map (in pixels, &gt;0)
+     */
+    final private int height;
+    /**
+     * width of the map (in pixels, &gt;0)
+     */
+    final private int width;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Extract the red channel of the specified image.
+     *
+     * @param image the alpha map (not null, unaffected)
+     */
+    private CloudAlphaMap(Image image) {
+        ImageRaster raster = ImageRaster.create(image);
+        this.width = raster.getWidth();
+        this.height = raster.getHeight();
+        this.reds = new float[width * height];
+
+        ColorRGBA pixel = new ColorRGBA();
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                raster.getPixel(x, y, pixel);
+                this.reds[x + width * y] = pixel.r;
+            }
+        }
+
+        int stride = width + 1;
+        this.sums = new double[stride * (height + 1)];
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                int index = (x + 1) + stride * (y + 1);
+                sums[index] = reds[x + width * y] + sums[index - 1]
+                        + sums[index - stride] - sums[index - stride - 1];
+            }
+        }
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Average the red channel over a square centered at the specified texture
+     * coordinates, wrapping at the edges.
+     *
+     * @param u the first texture coordinate of the center (&lt;1, &ge;0)
+     * @param v the 2nd texture coordinate of the center (&lt;1, &ge;0)
+     * @param side the length of each side (in texture coordinates, &gt;0)
+     * @return mean red intensity (&le;1, &ge;0)
+     */
+    float averageRed(float u, float v, float side) {
+        assert side > 0f : side;
+        /*
+         * As in sampleRed(), the V coordinate is scaled by the width.
+         * At least one pixel is always included.
+         */
+        float halfSide = 0.5f * side * width;
+        float x = u * width;
+        int xStart = (int) FastMath.floor(x - halfSide);
+        int xEnd = (int) FastMath.floor(x + halfSide);
+        int numX = Math.min(xEnd - xStart + 1, width);
+
+        float y = v * width;
+        int yStart = (int) FastMath.floor(y - halfSide);
+        int yEnd = (int) FastMath.floor(y + halfSide);
+        int numY = Math.min(yEnd - yStart + 1, height);
+
+        int x0 = Math.floorMod(xStart, width);
+        int y0 = Math.floorMod(yStart, height);
+        int numX0 = Math.min(numX, width - x0);
+        int numY0 = Math.min(numY, height - y0);
+        int numX1 = numX - numX0; // pixels wrapped to the left edge
+        int numY1 = numY - numY0; // pixels wrapped to the bottom edge
+
+        double sum = sum(x0, numX0, y0, numY0);
+        if (numX1 > 0) {
+            sum += sum(0, numX1, y0, numY0);
+        }
+        if (numY1 > 0) {
+            sum += sum(x0, numX0, 0, numY1);
+            if (numX1 > 0) {
+                sum += sum(0, numX1, 0, numY1);
+            }
+        }
+
+        float result = (float) (sum / (numX * numY));
+        result = FastMath.saturate(result); // squash rounding errors
+
+        return result;
+    }
+
+    /**
+     * Return the heap memory used by this map.
+     *
+     * @return the number of bytes in its arrays (&gt;0)
+     */
+    long byteCount() {
+        long result = 4L * reds.length + 8L * sums.length;
+        return result;
+    }
+
+    /**
+     * Return the total heap memory used by all shared maps whose images are
+     * still reachable.
+     *
+     * @return the number of bytes (&ge;0)
+     */
+    static long countSharedBytes() {
+        long result = 0L;
+        synchronized (sharedMaps) {
+            purge();
+            for (Shared shared : sharedMaps) {
+                result += shared.map.byteCount();
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Obtain the map for the specified image, extracting it only if no map
+     * for that image exists yet. Safe to invoke from any thread.
+     *
+     * @param image the alpha map (not null, unaffected)
+     * @return a new or shared instance
+     */
+    static CloudAlphaMap forImage(Image image) {
+        assert image != null;
+
+        synchronized (sharedMaps) {
+            purge();
+            for (Shared shared : sharedMaps) {
+                if (shared.image.get() == image) {
+                    return shared.map;
+                }
+            }
+
+            CloudAlphaMap result = new CloudAlphaMap(image);
+            sharedMaps.add(new Shared(image, result));
+            return result;
+        }
+    }
+
+    /**
+     * Sample the red channel at the specified texture coordinates, using the
+     * same arithmetic as sampling the ImageRaster directly.
+     *
+     * @param u the first texture coordinate (&lt;1, &ge;0)
+     * @param v the 2nd texture coordinate (&lt;1, &ge;0)
+     * @return red intensity (&le;1, &ge;0)
+     */
+    float sampleRed(float u, float v) {
+        assert u >= Constants.uvMin : u;
+        assert u < Constants.uvMax : u;
+        assert v >= Constants.uvMin : v;
+        assert v < Constants.uvMax : v;
+
+        // Both coordinates are non-negative, so truncation is the floor.
+        float x = u * width;
+        int x0 = (int) x;
+        float xFraction1 = x - x0;
+        float xFraction0 = 1 - xFraction1;
+        int x1 = (x0 + 1) % width;
+        /*
+         * The V coordinate is scaled by the width, not the height,
+         * for compatibility with earlier releases.
+         */
+        float y = v * width;
+        int y0 = (int) y;
+        float yFraction1 = y - y0;
+        float yFraction0 = 1 - yFraction1;
+        int y1 = (y0 + 1) % height;
+
+        int row0 = width * y0;
+        int row1 = width * y1;
+        float r00 = reds[x0 + row0];
+        float r01 = reds[x1 + row0];
+        float r10 = reds[x0 + row1];
+        float r11 = reds[x1 + row1];
+
+        // Use the same weights as earlier releases, so results are unchanged.
+        float result = r00 * xFraction0 * yFraction0
+                + r01 * xFraction0 * yFraction1
+                + r10 * xFraction1 * yFraction0
+                + r11 * xFraction1 * yFraction1;
+
+        assert result >= Constants.alphaMin : result;
+        assert result <= Constants.alphaMax : result;
+        return result;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Discard shared maps whose images have been garbage collected. Invoked
+     * only while synchronized on sharedMaps.
+     */
+    private static void purge() {
+        Iterator<Shared> iterator = sharedMaps.iterator();
+        while (iterator.hasNext()) {
+            Shared shared = iterator.next();
+            if (shared.image.get() == null) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Sum the reds in a rectangle that doesn't cross the edges.
+     *
+     * @param x0 the X coordinate of the first column (&ge;0)
+     * @param numX the number of columns (&ge;0, &le;width-x0)
+     * @param y0 the Y coordinate of the first row (&ge;0)
+     * @param numY the number of rows (&ge;0, &le;height-y0)
+     * @return the sum (&ge;0)
+     */
+    private double sum(int x0, int numX, int y0, int numY) {
+        int stride = width + 1;
+        int x1 = x0 + numX;
+        int y1 = y0 + numY;
+        double result = sums[x1 + stride * y1] - sums[x0 + stride * y1]
+                - sums[x1 + stride * y0] + sums[x0 + stride * y0];
+
+        return result;
+    }
+    // *************************************************************************
+    // nested classes
+
+    /**
+     * A shared map paired with a weak reference to its image.
+     */
+    private static class Shared {
+        /**
+         * the map
+         */
+        final private CloudAlphaMap map;
+        /**
+         * the image from which the map was extracted
+         */
+        final private WeakReference<Image> image;
+
+        /**
+         * Instantiate a pair.
+         *
+         * @param image the image (not null, weakly referenced)
+         * @param map the map extracted from the image (not null)
+         */
+        Shared(Image image, CloudAlphaMap map) {
+            this.image = new WeakReference<>(image);
+            this.map = map;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import com.jme3.math.Vector2f;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Geometry;
+import java.util.logging.Logger;
+import jme3utilities.Validate;
+import jme3utilities.math.MyMath;
+import jme3utilities.mesh.DomeMesh;
+
+/**
+ * Estimate how much light from a world direction passes through the clouds
+ * of a SkyControl, by intersecting the direction with the cloud dome and
+ * sampling the clouds material.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class CloudDomeSampler implements CloudTransmission {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(CloudDomeSampler.class.getName());
+    // *************************************************************************
+    // fields
+
+    /**
+     * radius of the moon's disc for area averaging (in sky texture
+     * coordinates, 0 &rarr; sample a single point)
+     */
+    private float lunarRadius = 0f;
+    /**
+     * radius of the sun's disc for area averaging (in sky texture
+     * coordinates, 0 &rarr; sample a single point)
+     */
+    private float solarRadius = 0f;
+    /**
+     * calculates texture coordinates on the clouds dome without allocating
+     */
+    final private DomeUV cloudsUV = new DomeUV();
+    /**
+     * control whose clouds are sampled (not null)
+     */
+    final private SkyControl control;
+    /**
+     * reusable texture coordinates of the main light source
+     */
+    final private Vector2f tmpUV = new Vector2f();
+    /**
+     * reusable intersection with the cloud dome
+     */
+    final private Vector3f tmpIntersect = new Vector3f();
+    /**
+     * reusable direction to the sun
+     */
+    final private Vector3f tmpSunDirection = new Vector3f();
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate a sampler for the specified control.
+     *
+     * @param control the control whose clouds will be sampled (not null,
+     * alias created)
+     */
+    CloudDomeSampler(SkyControl control) {
+        assert control != null;
+        this.control = control;
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Compute where the specified direction intersects the cloud dome in the
+     * dome's local coordinates, accounting for the dome's flattening and
+     * vertical offset.
+     *
+     * @param direction (unit vector with non-negative y-component)
+     * @param storeResult storage for the result (not null, modified)
+     * @return a unit vector (storeResult)
+     */
+    Vector3f intersect(Vector3f direction, Vector3f storeResult) {
+        assert direction != null;
+        assert direction.isUnitVector() : direction;
+        assert direction.y >= 0f : direction;
+        assert storeResult != null;
+
+        double cosSquared = MyMath.sumOfSquares(direction.x, direction.z);
+        if (cosSquared == 0.0) {
+            // Special case when the direction is straight up.
+            return storeResult.set(0f, 1f, 0f);
+        }
+
+        float deltaY;
+        float semiMinorAxis;
+        Geometry cloudsOnlyDome = control.getCloudsOnlyDome();
+        if (cloudsOnlyDome == null) {
+            deltaY = 0f;
+            semiMinorAxis = 1f;
+        } else {
+            Vector3f offset = cloudsOnlyDome.getLocalTranslation();
+            assert offset.x == 0f : offset;
+            assert offset.y <= 0f : offset;
+            assert offset.z == 0f : offset;
+            deltaY = offset.y;
+
+            Vector3f scale = cloudsOnlyDome.getLocalScale();
+            assert scale.x == 1f : scale;
+            assert scale.y > 0f : scale;
+            assert scale.z == 1f : scale;
+            semiMinorAxis = scale.y;
+        }
+        /*
+         * Solve for the most positive root of a quadratic equation
+         * in w = sqrt(x^2 + z^2).  Use double precision arithmetic.
+         */
+        double cosAltitude = Math.sqrt(cosSquared);
+        double tanAltitude = direction.y / cosAltitude;
+        double smaSquared = semiMinorAxis * semiMinorAxis;
+        double a = tanAltitude * tanAltitude + smaSquared;
+        assert a > 0.0 : a;
+        double b = -2.0 * deltaY * tanAltitude;
+        double c = deltaY * deltaY - smaSquared;
+        double discriminant = MyMath.discriminant(a, b, c);
+        assert discriminant >= 0.0 : discriminant;
+        double w = (-b + Math.sqrt(discriminant)) / (2.0 * a);
+
+        double distance = w / cosAltitude;
+        if (distance > 1.0) { // Squash rounding errors.
+            distance = 1.0;
+        }
+        float x = (float) (direction.x * distance);
+        float y = (float) MyMath.circle(w);
+        float z = (float) (direction.z * distance);
+        Vector3f result = storeResult.set(x, y, z);
+
+        assert result.isUnitVector() : result;
+        return result;
+    }
+
+    /**
+     * Alter the disc sizes used for area averaging.
+     *
+     * @param solarRadius the radius of the sun's disc (in sky texture
+     * coordinates, &ge;0, 0 &rarr; sample a single point)
+     * @param lunarRadius the radius of the moon's disc (in sky texture
+     * coordinates, &ge;0, 0 &rarr; sample a single point)
+     */
+    void setDiscRadii(float solarRadius, float lunarRadius) {
+        assert solarRadius >= 0f : solarRadius;
+        assert lunarRadius >= 0f : lunarRadius;
+
+        this.solarRadius = solarRadius;
+        this.lunarRadius = lunarRadius;
+    }
+
+    /**
+     * Estimate how much light from each of the specified world directions is
+     * transmitted through the clouds, sampling a single point for each.
+     *
+     * @param directions world directions, packed as (x, y, z) triples (not
+     * null, length a multiple of 3, unaffected)
+     * @param storeResult storage for the result (modified if not null)
+     * @param parallel true to allow multiple threads, false to use only the
+     * current thread
+     * @return the fraction transmitted in each direction (either storeResult
+     * or a new array)
+     */
+    float[] transmissions(
+            float[] directions, float[] storeResult, boolean parallel) {
+        Validate.nonNull(directions, "directions");
+        Validate.require(
+                directions.length % 3 == 0, "a multiple of 3 components");
+        int numDirections = directions.length / 3;
+        TransmissionBatches.Range range = (fromIndex, toIndex, store)
+                -> transmitRange(directions, fromIndex, toIndex, store);
+        float[] result = TransmissionBatches.run(
+                numDirections, storeResult, parallel, range);
+
+        return result;
+    }
+    // *************************************************************************
+    // CloudTransmission methods
+
+    /**
+     * Determine what fraction of the main light passes through the clouds,
+     * averaged over the disc of the sun (if it's above the horizon) or the
+     * moon.
+     *
+     * @param direction the world direction to the main light source (unit
+     * vector with non-negative y-component, unaffected)
+     * @return the fraction transmitted (&le;1, &ge;0)
+     */
+    @Override
+    public float transmission(Vector3f direction) {
+        Vector3f intersection = intersect(direction, tmpIntersect);
+        DomeMesh cloudsMesh = control.getCloudsMesh();
+        Vector2f texCoord
+                = cloudsUV.directionUV(cloudsMesh, intersection, tmpUV);
+
+        float radius = lunarRadius;
+        if (solarRadius != lunarRadius) {
+            SunAndStars sunAndStars = control.getSunAndStars();
+            sunAndStars.sunDirection(tmpSunDirection);
+            if (tmpSunDirection.y >= 0f) {
+                radius = solarRadius;
+            }
+        }
+        SkyMaterial cloudsMaterial = control.getCloudsMaterial();
+        float result = cloudsMaterial.getTransmission(
+                texCoord.x, texCoord.y, radius);
+
+        return result;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Estimate the transmission for a contiguous range of directions.
+     *
+     * @param directions world directions, packed as (x, y, z) triples (not
+     * null, unaffected)
+     * @param fromIndex the index of the first direction (&ge;0)
+     * @param toIndex the index past the last direction (&ge;fromIndex)
+     * @param storeResult storage for the results (not null, modified)
+     */
+    private void transmitRange(float[] directions, int fromIndex, int toIndex,
+            float[] storeResult) {
+        DomeMesh cloudsMesh = control.getCloudsMesh();
+        SkyMaterial cloudsMaterial = control.getCloudsMaterial();
+        Vector3f direction = new Vector3f();
+        Vector3f intersection = new Vector3f();
+
+        for (int index = fromIndex; index < toIndex; ++index) {
+            int offset = 3 * index;
+            direction.set(directions[offset], directions[offset + 1],
+                    directions[offset + 2]);
+            direction.normalizeLocal();
+
+            float fraction = 1f;
+            if (direction.y >= 0f) {
+                intersect(direction, intersection);
+                Vector2f uv = cloudsMesh.directionUV(intersection);
+                if (uv != null) {
+                    fraction = cloudsMaterial.getTransmission(uv.x, uv.y);
+                }
+            }
+            storeResult[index] = fraction;
+        }
+    }
+}
@@ -87,10 +87,19 @@ public class CloudLayer
      * this layer's index within the material: set by constructor
      */
     private int layerIndex;
+    /**
+     * count of changes to the opacity, motion, or texture of this layer: not
+     * serialized
+     */
+    private int version = 0;
     /**
      * cloud material: set by constructor
      */
     private SkyMaterial material;
+    /**
+     * reusable color for the layer: not serialized
+     */
+    private ColorRGBA tmpColor = new ColorRGBA();
     // *************************************************************************
     // constructors
 
@@ -148,6 +157,7 @@ public class CloudLayer
      */
     final public void clearTexture() {
         material.addClouds(layerIndex, "Textures/skies/clouds/clear.png");
+        ++version;
     }
 
     /**
@@ -159,13 +169,24 @@ public class CloudLayer
         return opacity;
     }
 
+    /**
+     * Return the version of this layer's state, which is incremented each time
+     * its opacity, motion, or texture changes. Color changes aren't counted,
+     * since SkyControl recalculates the color during each update.
+     *
+     * @return the version number (wraps around on overflow)
+     */
+    public int getVersion() {
+        return version;
+    }
+
     /**
      * Alter the color of this layer.
      *
      * @param newColor (not null, unaffected, alpha is ignored)
      */
     public void setColor(ColorRGBA newColor) {
-        ColorRGBA layerColor = newColor.clone();
+        ColorRGBA layerColor = tmpColor.set(newColor);
         layerColor.a = opacity;
 
         material.setCloudsColor(layerIndex, layerColor);
@@ -180,6 +201,12 @@ public class CloudLayer
      * @param vRate V-component of the standard motion (cycles per second)
      */
     public void setMotion(float u0, float uRate, float v0, float vRate) {
+        if (u0 == this.u0 && uRate == this.uRate && v0 == this.v0
+                && vRate == this.vRate) {
+            return;
+        }
+
+        ++version;
         this.u0 = u0;
         this.uRate = uRate;
         this.v0 = v0;
@@ -193,11 +220,17 @@ public class CloudLayer
      */
     public void setOpacity(float newAlpha) {
         Validate.fraction(newAlpha, "alpha");
-        opacity = newAlpha;
+
+        if (newAlpha != opacity) {
+            this.opacity = newAlpha;
+            ++version;
+        }
     }
 
     /**
-     * Change the texture and scale of this layer.
+     * Change the texture and scale of this layer. If the material's cloud
+     * layers are packed (see SkyMaterial.packCloudLayers()) and the new alpha
+     * map matches the array, only this layer's slice is updated.
      *
      * @param assetPath asset path to the new alpha map texture (not null)
      * @param scale texture scaling factor (&gt;0, typically &le;2)
@@ -208,6 +241,7 @@ public class CloudLayer
 
         material.addClouds(layerIndex, assetPath);
         material.setCloudsScale(layerIndex, scale);
+        ++version;
     }
 
     /**
@@ -233,6 +267,7 @@ public class CloudLayer
     @Override
     public void cloneFields(Cloner cloner, Object original) {
         this.material = cloner.clone(material);
+        this.tmpColor = new ColorRGBA();
     }
 
     /**
@@ -0,0 +1,118 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import com.jme3.material.MatParam;
+import com.jme3.math.FastMath;
+import com.jme3.math.Vector3f;
+import com.jme3.math.Vector4f;
+import com.jme3.scene.Geometry;
+import java.util.logging.Logger;
+
+/**
+ * Utility methods for single-pass clouds, where the top dome's material
+ * renders the cloud layers as they would appear on the flattened clouds-only
+ * dome, so the sky is drawn in one pass instead of two.
+ * <p>
+ * In this mode, the clouds-only dome remains in the scene graph (never
+ * rendered) because its transform defines the flattening and offset used by
+ * the shader and by CloudDomeSampler.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class CloudProjection {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(CloudProjection.class.getName());
+    /**
+     * asset path to the material definitions for single-pass clouds
+     */
+    final static String matDefsPath = "MatDefs/skies/array66/array66.j3md";
+    /**
+     * name of the material parameter that enables and configures the
+     * projection
+     */
+    final private static String parameterName = "CloudsProjection";
+    // *************************************************************************
+    // constructors
+
+    /**
+     * A private constructor to inhibit instantiation of this class.
+     */
+    private CloudProjection() {
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Test whether the specified control renders its clouds in a single
+     * pass.
+     *
+     * @param control the control to test (not null, unaffected)
+     * @return true if single-pass, otherwise false
+     */
+    static boolean isSinglePass(SkyControlCore control) {
+        Geometry cloudsOnlyDome = control.getCloudsOnlyDome();
+        boolean result = cloudsOnlyDome != null
+                && cloudsOnlyDome.getMaterial() == control.getTopMaterial();
+
+        return result;
+    }
+
+    /**
+     * Update the projection parameter of the top material to reflect the
+     * current shape of the top dome and the clouds-only dome. If the control
+     * doesn't render its clouds in a single pass, this has no effect.
+     *
+     * @param control the control to update (not null)
+     */
+    static void update(SkyControlCore control) {
+        if (!isSinglePass(control)) {
+            return;
+        }
+
+        float topScale = control.getTopVerticalAngle() / Constants.uvScale;
+        Geometry cloudsOnlyDome = control.getCloudsOnlyDome();
+        Vector3f scale = cloudsOnlyDome.getLocalScale();
+        Vector3f offset = cloudsOnlyDome.getLocalTranslation();
+        float cloudsScale = Constants.uvScale / FastMath.HALF_PI;
+
+        SkyMaterial topMaterial = control.getTopMaterial();
+        MatParam parameter = topMaterial.getParam(parameterName);
+        if (parameter == null) {
+            topMaterial.setVector4(parameterName, new Vector4f(
+                    topScale, scale.y, offset.y, cloudsScale));
+        } else {
+            Vector4f value = (Vector4f) parameter.getValue();
+            value.set(topScale, scale.y, offset.y, cloudsScale);
+        }
+    }
+}
@@ -0,0 +1,447 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import com.jme3.math.FastMath;
+import com.jme3.math.Vector2f;
+import com.jme3.math.Vector3f;
+import com.jme3.texture.Image;
+import com.jme3.texture.Texture;
+import com.jme3.texture.Texture2D;
+import com.jme3.texture.image.ColorSpace;
+import com.jme3.util.BufferUtils;
+import java.nio.ByteBuffer;
+import java.util.logging.Logger;
+import jme3utilities.Validate;
+import jme3utilities.mesh.DomeMesh;
+
+/**
+ * A low-resolution texture of the shadows cast on the ground by the clouds of
+ * a SkyControl, for binding into lit materials.
+ * <p>
+ * The texture covers a square region of the world's X-Z plane, centered on
+ * the origin. Each texel records the fraction of the main light that reaches
+ * the ground, assuming the clouds lie in a horizontal plane at a specified
+ * height. Refreshes occur at a reduced rate, and only the layers whose
+ * offsets have moved are resampled, unless the main light has turned by more
+ * than a specified tolerance, or the shape of the cloud dome or a cloud layer
+ * has changed.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+public class CloudShadowMap {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * minimum sine of the main light's altitude used for projection, to keep
+     * the projected clouds at a finite distance
+     */
+    final private static float minSine = 0.02f;
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(CloudShadowMap.class.getName());
+    /**
+     * name of the float parameter for the extent in lit materials
+     */
+    final public static String extentParameter = "CloudShadowExtent";
+    /**
+     * name of the texture parameter for the shadows in lit materials
+     */
+    final public static String textureParameter = "CloudShadowMap";
+    // *************************************************************************
+    // fields
+
+    /**
+     * true if the texture reflects at least one refresh, otherwise false
+     */
+    private boolean refreshedFlag = false;
+    /**
+     * texel data of the texture, one byte per texel
+     */
+    final private ByteBuffer texels;
+    /**
+     * height of the clouds above the ground (in world units, &gt;0)
+     */
+    final private float cloudHeight;
+    /**
+     * width and depth of the shadowed region (in world units, &gt;0)
+     */
+    final private float extent;
+    /**
+     * maximum angle the main light may turn before the clouds are re-projected
+     * (in radians, &ge;0, &le;Pi)
+     */
+    private float directionTolerance = 0.01f;
+    /**
+     * cosine of {@code directionTolerance}
+     */
+    private float minDirectionDot = FastMath.cos(directionTolerance);
+    /**
+     * vertical angle of the clouds mesh at the most recent projection (in
+     * radians)
+     */
+    private float projectedAngle = 0f;
+    /**
+     * vertical offset of the clouds-only dome at the most recent projection
+     */
+    private float projectedYOffset = 0f;
+    /**
+     * simulation time since the most recent refresh (in seconds)
+     */
+    private float sinceRefresh = 0f;
+    /**
+     * minimum interval between refreshes (in seconds, &ge;0)
+     */
+    private float updatePeriod = 0.25f;
+    /**
+     * offset of each cloud layer at its most recent resampling (2 floats per
+     * layer)
+     */
+    private float[] layerOffsets = new float[0];
+    /**
+     * transmission of each texel through each cloud layer (each element null
+     * if the layer hasn't been added)
+     */
+    private float[][] layerTransmissions = new float[0][];
+    /**
+     * sky texture coordinates for each texel (2 floats per texel, NaN if the
+     * texel sees no clouds)
+     */
+    final private float[] skyUVs;
+    /**
+     * number of texels in each row and column (&gt;0)
+     */
+    final private int size;
+    /**
+     * sum of the cloud-layer versions at the most recent full refresh
+     */
+    private int layersVersion = 0;
+    /**
+     * the texture
+     */
+    final private Texture2D texture;
+    /**
+     * direction to the main light at the most recent projection
+     */
+    final private Vector3f lightDirection = new Vector3f();
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate a shadow map with the specified size and geometry.
+     *
+     * @param size the number of texels in each row and column (&gt;0,
+     * &le;1024)
+     * @param extent the width and depth of the shadowed region (in world
+     * units, &gt;0)
+     * @param cloudHeight the height of the clouds above the ground (in world
+     * units, &gt;0)
+     */
+    public CloudShadowMap(int size, float extent, float cloudHeight) {
+        Validate.inRange(size, "size", 1, 1_024);
+        Validate.positive(extent, "extent");
+        Validate.positive(cloudHeight, "cloud height");
+
+        this.size = size;
+        this.extent = extent;
+        this.cloudHeight = cloudHeight;
+
+        int numTexels = size * size;
+        this.skyUVs = new float[2 * numTexels];
+        this.texels = BufferUtils.createByteBuffer(numTexels);
+        for (int texelIndex = 0; texelIndex < numTexels; ++texelIndex) {
+            texels.put((byte) 0xff);
+        }
+        texels.flip();
+
+        Image image = new Image(
+                Image.Format.Luminance8, size, size, texels, ColorSpace.Linear);
+        this.texture = new Texture2D(image);
+        texture.setMagFilter(Texture.MagFilter.Bilinear);
+        texture.setMinFilter(Texture.MinFilter.BilinearNoMipMaps);
+        texture.setWrap(Texture.WrapMode.EdgeClamp);
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Return the height of the clouds above the ground.
+     *
+     * @return the height (in world units, &gt;0)
+     */
+    public float getCloudHeight() {
+        assert cloudHeight > 0f : cloudHeight;
+        return cloudHeight;
+    }
+
+    /**
+     * Return the maximum angle the main light may turn before the clouds are
+     * re-projected.
+     *
+     * @return the angle (in radians, &ge;0, &le;Pi)
+     */
+    public float getDirectionTolerance() {
+        assert directionTolerance >= 0f : directionTolerance;
+        assert directionTolerance <= FastMath.PI : directionTolerance;
+        return directionTolerance;
+    }
+
+    /**
+     * Return the width and depth of the shadowed region.
+     *
+     * @return the extent (in world units, &gt;0)
+     */
+    public float getExtent() {
+        assert extent > 0f : extent;
+        return extent;
+    }
+
+    /**
+     * Return the number of texels in each row and column.
+     *
+     * @return the count (&gt;0)
+     */
+    public int getSize() {
+        assert size > 0 : size;
+        return size;
+    }
+
+    /**
+     * Access the texture. Each texel holds the fraction of the main light
+     * that reaches the corresponding point on the ground. Texel (0, 0)
+     * corresponds to world (-extent/2, -extent/2) in X and Z.
+     *
+     * @return the pre-existing instance (not null)
+     */
+    public Texture2D getTexture() {
+        assert texture != null;
+        return texture;
+    }
+
+    /**
+     * Return the minimum interval between refreshes.
+     *
+     * @return the interval (in seconds, &ge;0)
+     */
+    public float getUpdatePeriod() {
+        assert updatePeriod >= 0f : updatePeriod;
+        return updatePeriod;
+    }
+
+    /**
+     * Alter the maximum angle the main light may turn before the clouds are
+     * re-projected. Smaller turns leave the shadows where they are, so that
+     * slow changes to the time of day don't force a full refresh each period.
+     *
+     * @param newTolerance the desired angle (in radians, &ge;0, &le;Pi, 0
+     * &rarr; re-project on any change, default=0.01)
+     */
+    public void setDirectionTolerance(float newTolerance) {
+        Validate.inRange(newTolerance, "new tolerance", 0f, FastMath.PI);
+
+        this.directionTolerance = newTolerance;
+        if (newTolerance == 0f) {
+            this.minDirectionDot = Float.POSITIVE_INFINITY;
+        } else {
+            this.minDirectionDot = FastMath.cos(newTolerance);
+        }
+    }
+
+    /**
+     * Alter the minimum interval between refreshes.
+     *
+     * @param newPeriod the desired interval (in seconds, &ge;0, 0 &rarr;
+     * refresh every frame, default=0.25)
+     */
+    public void setUpdatePeriod(float newPeriod) {
+        Validate.nonNegative(newPeriod, "new period");
+        this.updatePeriod = newPeriod;
+    }
+
+    /**
+     * Refresh the texture if the update period has elapsed. Invoked by
+     * SkyControl once per frame.
+     *
+     * @param tpf the time interval since the previous frame (in seconds,
+     * &ge;0)
+     * @param control the control whose clouds cast the shadows (not null)
+     * @param sampler the control's cloud sampler (not null)
+     * @param mainDirection the direction to the main light (unit vector with
+     * non-negative y-component, unaffected)
+     */
+    void update(float tpf, SkyControl control, CloudDomeSampler sampler,
+            Vector3f mainDirection) {
+        this.sinceRefresh += tpf;
+        if (refreshedFlag && sinceRefresh < updatePeriod) {
+            return;
+        }
+        this.sinceRefresh = 0f;
+
+        boolean fullRefresh = !refreshedFlag;
+        float angle = control.getCloudsMesh().getVerticalAngle();
+        float yOffset = control.getCloudsYOffset();
+        boolean turned = !mainDirection.equals(lightDirection)
+                && mainDirection.dot(lightDirection) < minDirectionDot;
+        if (fullRefresh || turned || angle != projectedAngle
+                || yOffset != projectedYOffset) {
+            project(control, sampler, mainDirection);
+            fullRefresh = true;
+        }
+        /*
+         * Only the cloud layers matter here: the control's own version
+         * also counts the sun, stars, and lights, which change every frame.
+         */
+        int version = 0;
+        for (int layer = 0; layer < SkyControlCore.numCloudLayers; ++layer) {
+            version += control.getCloudLayer(layer).getVersion();
+        }
+        if (version != layersVersion) {
+            this.layersVersion = version;
+            fullRefresh = true;
+        }
+
+        SkyMaterial material = control.getCloudsMaterial();
+        int numLayers = material.getMaxCloudLayers();
+        if (layerTransmissions.length != numLayers) {
+            this.layerOffsets = new float[2 * numLayers];
+            this.layerTransmissions = new float[numLayers][];
+            fullRefresh = true;
+        }
+
+        boolean changed = fullRefresh;
+        for (int layerIndex = 0; layerIndex < numLayers; ++layerIndex) {
+            Vector2f offset = material.accessCloudsOffset(layerIndex);
+            if (offset == null) {
+                changed |= (layerTransmissions[layerIndex] != null);
+                this.layerTransmissions[layerIndex] = null;
+            } else if (fullRefresh
+                    || offset.x != layerOffsets[2 * layerIndex]
+                    || offset.y != layerOffsets[2 * layerIndex + 1]) {
+                resample(material, layerIndex);
+                this.layerOffsets[2 * layerIndex] = offset.x;
+                this.layerOffsets[2 * layerIndex + 1] = offset.y;
+                changed = true;
+            }
+        }
+
+        if (changed) {
+            combine();
+        }
+        this.refreshedFlag = true;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Multiply the layer transmissions and write the results to the texture.
+     */
+    private void combine() {
+        int numTexels = size * size;
+        for (int texelIndex = 0; texelIndex < numTexels; ++texelIndex) {
+            float fraction = 1f;
+            for (float[] transmissions : layerTransmissions) {
+                if (transmissions != null) {
+                    fraction *= transmissions[texelIndex];
+                }
+            }
+            int level = Math.round(255f * fraction);
+            texels.put(texelIndex, (byte) level);
+        }
+
+        texture.getImage().setUpdateNeeded();
+    }
+
+    /**
+     * Project each texel along the main light onto the cloud plane and
+     * determine the corresponding sky texture coordinates.
+     *
+     * @param control the control whose clouds cast the shadows (not null)
+     * @param sampler the control's cloud sampler (not null)
+     * @param mainDirection the direction to the main light (unit vector,
+     * unaffected)
+     */
+    private void project(SkyControl control, CloudDomeSampler sampler,
+            Vector3f mainDirection) {
+        lightDirection.set(mainDirection);
+        DomeMesh cloudsMesh = control.getCloudsMesh();
+        this.projectedAngle = cloudsMesh.getVerticalAngle();
+        this.projectedYOffset = control.getCloudsYOffset();
+        float sine = Math.max(mainDirection.y, minSine);
+        float run = cloudHeight / sine;
+        float deltaX = mainDirection.x * run;
+        float deltaZ = mainDirection.z * run;
+
+        Vector3f direction = new Vector3f();
+        Vector3f intersection = new Vector3f();
+        for (int row = 0; row < size; ++row) {
+            float groundZ = ((row + 0.5f) / size - 0.5f) * extent;
+            for (int column = 0; column < size; ++column) {
+                float groundX = ((column + 0.5f) / size - 0.5f) * extent;
+                direction.set(groundX + deltaX, cloudHeight, groundZ + deltaZ);
+                direction.normalizeLocal();
+
+                sampler.intersect(direction, intersection);
+                Vector2f uv = cloudsMesh.directionUV(intersection);
+                int texelIndex = column + size * row;
+                if (uv == null) {
+                    skyUVs[2 * texelIndex] = Float.NaN;
+                } else {
+                    skyUVs[2 * texelIndex] = uv.x;
+                    skyUVs[2 * texelIndex + 1] = uv.y;
+                }
+            }
+        }
+    }
+
+    /**
+     * Resample the indexed cloud layer at every texel.
+     *
+     * @param material the clouds material (not null)
+     * @param layerIndex the index of the layer to resample (&ge;0)
+     */
+    private void resample(SkyMaterial material, int layerIndex) {
+        int numTexels = size * size;
+        float[] transmissions = layerTransmissions[layerIndex];
+        if (transmissions == null) {
+            transmissions = new float[numTexels];
+            this.layerTransmissions[layerIndex] = transmissions;
+        }
+
+        for (int texelIndex = 0; texelIndex < numTexels; ++texelIndex) {
+            float u = skyUVs[2 * texelIndex];
+            if (Float.isNaN(u)) {
+                transmissions[texelIndex] = 1f;
+            } else {
+                float v = skyUVs[2 * texelIndex + 1];
+                transmissions[texelIndex]
+                        = material.transparency(layerIndex, u, v, 0f);
+            }
+        }
+    }
+}
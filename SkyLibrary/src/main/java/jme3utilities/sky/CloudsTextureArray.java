@@ -0,0 +1,284 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import com.jme3.texture.Image;
+import com.jme3.texture.Texture;
+import com.jme3.texture.TextureArray;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * The cloud alpha maps of a sky material packed into a single TextureArray,
+ * one slice per layer, so a shader binds one texture unit for all the packed
+ * layers.
+ * <p>
+ * Only maps that match in size and format can share an array. When packing,
+ * the most common size is chosen; layers of other sizes keep their own
+ * textures.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class CloudsTextureArray {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(CloudsTextureArray.class.getName());
+    // *************************************************************************
+    // fields
+
+    /**
+     * slice index of each layer, or -1 if the layer isn't packed (also the
+     * value of the material's slice-array parameter)
+     */
+    final private float[] slices;
+    /**
+     * image shared by all slices
+     */
+    final private Image arrayImage;
+    /**
+     * original texture of each layer, or null if the layer isn't packed
+     */
+    final private Texture[] layerTextures;
+    /**
+     * the array texture
+     */
+    final private TextureArray texture;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate an array from the selected layer textures.
+     *
+     * @param layerTextures the texture of each layer (not null, may contain
+     * nulls, unaffected)
+     * @param selected which layers to pack (not null, unaffected)
+     */
+    private CloudsTextureArray(Texture[] layerTextures, boolean[] selected) {
+        int numLayers = layerTextures.length;
+        this.slices = new float[numLayers];
+        this.layerTextures = new Texture[numLayers];
+
+        List<Image> images = new ArrayList<>(numLayers);
+        for (int layerIndex = 0; layerIndex < numLayers; ++layerIndex) {
+            if (selected[layerIndex]) {
+                Texture layerTexture = layerTextures[layerIndex];
+                this.slices[layerIndex] = images.size();
+                this.layerTextures[layerIndex] = layerTexture;
+                images.add(layerTexture.getImage());
+            } else {
+                this.slices[layerIndex] = -1f;
+            }
+        }
+
+        this.texture = new TextureArray(images);
+        texture.setWrap(Texture.WrapMode.Repeat);
+        this.arrayImage = texture.getImage();
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Access the original texture of the indexed layer.
+     *
+     * @param layerIndex the index of the layer (&ge;0)
+     * @return the pre-existing texture, or null if the layer isn't packed
+     */
+    Texture accessLayerTexture(int layerIndex) {
+        Texture result = layerTextures[layerIndex];
+        return result;
+    }
+
+    /**
+     * Access the slice index of each layer, for use as a material parameter.
+     * Changes to the array are visible to the material.
+     *
+     * @return the pre-existing array (not null)
+     */
+    float[] accessSlices() {
+        return slices;
+    }
+
+    /**
+     * Access the array texture.
+     *
+     * @return the pre-existing instance (not null)
+     */
+    TextureArray accessTexture() {
+        return texture;
+    }
+
+    /**
+     * Create an independent array with the same layers.
+     *
+     * @return a new instance (not null)
+     */
+    CloudsTextureArray copy() {
+        int numLayers = layerTextures.length;
+        boolean[] selected = new boolean[numLayers];
+        for (int layerIndex = 0; layerIndex < numLayers; ++layerIndex) {
+            selected[layerIndex] = (layerTextures[layerIndex] != null);
+        }
+        CloudsTextureArray result
+                = new CloudsTextureArray(layerTextures, selected);
+
+        return result;
+    }
+
+    /**
+     * Count the packed layers.
+     *
+     * @return the count (&ge;0)
+     */
+    int countPacked() {
+        int result = 0;
+        for (Texture layerTexture : layerTextures) {
+            if (layerTexture != null) {
+                ++result;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Test whether the indexed layer is packed.
+     *
+     * @param layerIndex the index of the layer (&ge;0)
+     * @return true if packed, otherwise false
+     */
+    boolean isPacked(int layerIndex) {
+        boolean result = (layerTextures[layerIndex] != null);
+        return result;
+    }
+
+    /**
+     * Pack the specified layer textures, choosing the most common size and
+     * format (the larger one in case of a tie).
+     *
+     * @param layerTextures the texture of each layer (not null, may contain
+     * nulls, unaffected)
+     * @return a new instance, or null if fewer than 2 textures match
+     */
+    static CloudsTextureArray pack(Texture[] layerTextures) {
+        int numLayers = layerTextures.length;
+        boolean[] best = null;
+        int bestCount = 1;
+        int bestPixels = 0;
+        for (int layerIndex = 0; layerIndex < numLayers; ++layerIndex) {
+            if (layerTextures[layerIndex] == null) {
+                continue;
+            }
+            Image reference = layerTextures[layerIndex].getImage();
+            boolean[] selected = new boolean[numLayers];
+            int count = 0;
+            for (int otherIndex = 0; otherIndex < numLayers; ++otherIndex) {
+                Texture other = layerTextures[otherIndex];
+                if (other != null && matches(other.getImage(), reference)) {
+                    selected[otherIndex] = true;
+                    ++count;
+                }
+            }
+
+            int pixels = reference.getWidth() * reference.getHeight();
+            if (count > bestCount
+                    || (count == bestCount && best != null
+                    && pixels > bestPixels)) {
+                best = selected;
+                bestCount = count;
+                bestPixels = pixels;
+            }
+        }
+
+        CloudsTextureArray result = null;
+        if (best != null) {
+            result = new CloudsTextureArray(layerTextures, best);
+        }
+
+        return result;
+    }
+
+    /**
+     * Remove the indexed layer from the array. Its slice is left unused.
+     *
+     * @param layerIndex the index of a packed layer (&ge;0)
+     * @return the layer's original texture (not null)
+     */
+    Texture release(int layerIndex) {
+        Texture result = layerTextures[layerIndex];
+        assert result != null;
+
+        this.layerTextures[layerIndex] = null;
+        this.slices[layerIndex] = -1f;
+
+        return result;
+    }
+
+    /**
+     * Replace the slice of the indexed layer, if the new texture matches the
+     * array's size and format.
+     *
+     * @param layerIndex the index of a packed layer (&ge;0)
+     * @param newTexture the layer's new texture (not null)
+     * @return true if replaced, false if the texture doesn't match
+     */
+    boolean updateSlice(int layerIndex, Texture newTexture) {
+        Image image = newTexture.getImage();
+        if (!matches(image, arrayImage)) {
+            return false;
+        }
+
+        int slice = (int) slices[layerIndex];
+        arrayImage.setData(slice, image.getData(0));
+        arrayImage.setUpdateNeeded();
+        this.layerTextures[layerIndex] = newTexture;
+
+        return true;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Test whether 2 images can share a TextureArray.
+     *
+     * @param image1 the first image (not null, unaffected)
+     * @param image2 the 2nd image (not null, unaffected)
+     * @return true if they match, otherwise false
+     */
+    private static boolean matches(Image image1, Image image2) {
+        boolean result = image1.getFormat() == image2.getFormat()
+                && image1.getWidth() == image2.getWidth()
+                && image1.getHeight() == image2.getHeight()
+                && image1.getColorSpace() == image2.getColorSpace();
+
+        return result;
+    }
+}
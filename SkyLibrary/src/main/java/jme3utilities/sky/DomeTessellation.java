@@ -0,0 +1,472 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import com.jme3.math.FastMath;
+import com.jme3.renderer.Camera;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jme3utilities.mesh.DomeMesh;
+
+/**
+ * Component of SkyControlCore to select dome meshes for each camera that
+ * renders the sky.
+ * <p>
+ * By default, every camera gets the same tessellation. When adaptive, the
+ * density is chosen so that dome edges span about the same number of pixels
+ * whatever the viewport's height and field of view: coarse meshes for small
+ * secondary viewports, fine ones for telescope views. Meshes are cached by
+ * sample counts. Since DomeMesh texture coordinates are a function of
+ * direction alone, DomeMesh.directionUV() gives the same results for every
+ * tessellation.
+ * <p>
+ * Each cache remembers its most recent key and mesh, so the steady-state
+ * per-frame lookup neither hashes nor boxes the key.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class DomeTessellation {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * maximum on-screen length of a dome edge when adaptive (in pixels)
+     */
+    final private static float maxEdgePixels = 128f;
+    /**
+     * default number of samples in each longitudinal arc of a major dome,
+     * including both its top and its rim (&ge;2)
+     */
+    final private static int defaultLongitudinalSamples = 16;
+    /**
+     * default number of samples around the rim of a dome (&ge;3)
+     */
+    final private static int defaultRimSamples = 60;
+    /**
+     * adaptive sample counts are rounded up to multiples of this
+     */
+    final private static int granularity = 4;
+    /**
+     * most samples in each longitudinal arc when adaptive
+     */
+    final private static int maxLongitudinalSamples = 64;
+    /**
+     * most samples around the rim when adaptive
+     */
+    final private static int maxRimSamples = 240;
+    /**
+     * fewest samples in each longitudinal arc when adaptive
+     */
+    final private static int minLongitudinalSamples = 4;
+    /**
+     * fewest samples around the rim when adaptive
+     */
+    final private static int minRimSamples = 12;
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(DomeTessellation.class.getName());
+    /**
+     * immutable hemispheres for the clouds-only dome and star domes, shared
+     * by all controls and indexed by key
+     */
+    final private static Map<Integer, DomeMesh> hemispheres = new HashMap<>(8);
+    // *************************************************************************
+    // fields
+
+    /**
+     * true to adapt the density to each camera, false to use the default
+     * density for every camera
+     */
+    private boolean adaptive;
+    /**
+     * most recently accessed bottom-dome mesh, or null if none
+     */
+    private DomeMesh lastBottom = null;
+    /**
+     * most recently accessed hemisphere, or null if none
+     */
+    private DomeMesh lastHemisphere = null;
+    /**
+     * most recently accessed top-dome mesh, or null if none
+     */
+    private DomeMesh lastTop = null;
+    /**
+     * key of lastBottom, or -1 if none
+     */
+    private int lastBottomKey = -1;
+    /**
+     * key of lastHemisphere, or -1 if none
+     */
+    private int lastHemisphereKey = -1;
+    /**
+     * key of lastTop, or -1 if none
+     */
+    private int lastTopKey = -1;
+    /**
+     * bottom-dome meshes of this control, indexed by key
+     */
+    final private Map<Integer, DomeMesh> bottomMeshes = new HashMap<>(4);
+    /**
+     * top-dome meshes of this control, indexed by key
+     */
+    final private Map<Integer, DomeMesh> topMeshes = new HashMap<>(4);
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate a tessellation with an empty cache.
+     *
+     * @param adaptive true to adapt the density to each camera, false to use
+     * the default density for every camera
+     */
+    DomeTessellation(boolean adaptive) {
+        this.adaptive = adaptive;
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Replace the dome meshes of the specified sky with ones suited to the
+     * specified camera, keeping the vertical angles of the original sky's
+     * top and bottom domes.
+     *
+     * @param sky the subtree or copy to modify (not null)
+     * @param camera the camera that will render it (not null, unaffected)
+     * @param original the subtree that defines the vertical angles (not null,
+     * unaffected)
+     */
+    void apply(Spatial sky, Camera camera, Spatial original) {
+        Geometry originalTop = findGeometry(original, SkyControlCore.topName);
+        float topAngle = ((DomeMesh) originalTop.getMesh()).getVerticalAngle();
+        int key = adaptive ? adaptiveKey(camera) : defaultKey();
+        apply(sky, key, topAngle);
+    }
+
+    /**
+     * Access the bottom-dome mesh with the default density, creating it if
+     * necessary.
+     *
+     * @return the cached mesh (not null, vertical angle Pi/2)
+     */
+    DomeMesh defaultBottom() {
+        DomeMesh result = bottomMesh(defaultKey(), FastMath.HALF_PI);
+        return result;
+    }
+
+    /**
+     * Access the hemisphere mesh with the default density, creating it if
+     * necessary.
+     *
+     * @return the shared mesh (not null)
+     */
+    static DomeMesh defaultHemisphere() {
+        DomeMesh result = hemisphere(defaultKey());
+        return result;
+    }
+
+    /**
+     * Access the top-dome mesh with the default density, creating it if
+     * necessary.
+     *
+     * @return the cached mesh (not null, vertical angle Pi/2)
+     */
+    DomeMesh defaultTop() {
+        DomeMesh result = topMesh(defaultKey(), FastMath.HALF_PI);
+        return result;
+    }
+
+    /**
+     * Test whether the density adapts to each camera.
+     *
+     * @return true if adaptive, otherwise false
+     */
+    boolean isAdaptive() {
+        return adaptive;
+    }
+
+    /**
+     * Alter whether the density adapts to each camera.
+     *
+     * @param newSetting true to adapt, false to use the default density
+     */
+    void setAdaptive(boolean newSetting) {
+        this.adaptive = newSetting;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Choose sample counts for the specified camera.
+     *
+     * @param camera the camera (not null, unaffected)
+     * @return the key of the chosen sample counts
+     */
+    private static int adaptiveKey(Camera camera) {
+        if (camera.isParallelProjection()) {
+            return defaultKey();
+        }
+        /*
+         * Find the largest angle between samples that keeps
+         * each dome edge within the pixel limit.
+         */
+        float fovY = camera.getFov() * FastMath.DEG_TO_RAD;
+        float pixelsPerRadian = camera.getHeight() / fovY;
+        float edgeAngle = maxEdgePixels / pixelsPerRadian;
+
+        int rimSamples = roundUp(FastMath.TWO_PI / edgeAngle);
+        rimSamples = Math.max(minRimSamples, rimSamples);
+        rimSamples = Math.min(maxRimSamples, rimSamples);
+
+        int longitudinalSamples = roundUp(FastMath.HALF_PI / edgeAngle) + 1;
+        longitudinalSamples
+                = Math.max(minLongitudinalSamples, longitudinalSamples);
+        longitudinalSamples
+                = Math.min(maxLongitudinalSamples, longitudinalSamples);
+
+        int result = key(rimSamples, longitudinalSamples);
+        return result;
+    }
+
+    /**
+     * Replace the dome meshes of the specified subtree (or copy) with those
+     * for the specified key.
+     *
+     * @param spatial the spatial to modify (not null)
+     * @param key the key of the desired sample counts
+     * @param topAngle the vertical angle of the top dome (in radians)
+     */
+    private void apply(Spatial spatial, int key, float topAngle) {
+        if (spatial instanceof Node) {
+            List<Spatial> children = ((Node) spatial).getChildren();
+            int numChildren = children.size();
+            for (int childIndex = 0; childIndex < numChildren; ++childIndex) {
+                apply(children.get(childIndex), key, topAngle);
+            }
+            return;
+        }
+        if (!(spatial instanceof Geometry)) {
+            return;
+        }
+
+        Geometry geometry = (Geometry) spatial;
+        Mesh oldMesh = geometry.getMesh();
+        if (!(oldMesh instanceof DomeMesh)) {
+            return;
+        }
+
+        String name = geometry.getName();
+        DomeMesh newMesh;
+        if (SkyControlCore.topName.equals(name)) {
+            newMesh = topMesh(key, topAngle);
+        } else if (SkyControlCore.bottomName.equals(name)) {
+            newMesh = bottomMesh(key, FastMath.PI - topAngle);
+        } else { // the clouds-only dome or a star dome
+            if (key != lastHemisphereKey) {
+                this.lastHemisphere = hemisphere(key);
+                this.lastHemisphereKey = key;
+            }
+            newMesh = lastHemisphere;
+        }
+        if (newMesh != oldMesh) {
+            geometry.setMesh(newMesh);
+        }
+    }
+
+    /**
+     * Access the bottom-dome mesh for the specified key, creating it if
+     * necessary.
+     *
+     * @param key the key of the desired sample counts
+     * @param angle the desired vertical angle (in radians)
+     * @return the cached mesh (not null)
+     */
+    private DomeMesh bottomMesh(int key, float angle) {
+        if (key != lastBottomKey) {
+            DomeMesh mesh = bottomMeshes.get(key);
+            if (mesh == null) {
+                int numLongitudinalSamples = 2;
+                mesh = newMesh(rimSamples(key), numLongitudinalSamples);
+                bottomMeshes.put(key, mesh);
+            }
+            this.lastBottom = mesh;
+            this.lastBottomKey = key;
+        }
+        DomeMesh result = lastBottom;
+        if (result.getVerticalAngle() != angle) {
+            result.setVerticalAngle(angle);
+        }
+
+        return result;
+    }
+
+    /**
+     * Return the key of the default sample counts.
+     *
+     * @return the key
+     */
+    private static int defaultKey() {
+        int result = key(defaultRimSamples, defaultLongitudinalSamples);
+        return result;
+    }
+
+    /**
+     * Find the named child geometry of the specified subtree.
+     *
+     * @param subtree the subtree to search (not null, unaffected)
+     * @param name the name of the geometry (not null)
+     * @return the pre-existing geometry (not null)
+     */
+    private static Geometry findGeometry(Spatial subtree, String name) {
+        Spatial result = ((Node) subtree).getChild(name);
+
+        assert result instanceof Geometry : result;
+        return (Geometry) result;
+    }
+
+    /**
+     * Access the shared hemisphere mesh for the specified key, creating it if
+     * necessary.
+     *
+     * @param key the key of the desired sample counts
+     * @return the shared mesh (not null)
+     */
+    private static DomeMesh hemisphere(int key) {
+        synchronized (hemispheres) {
+            DomeMesh result = hemispheres.get(key);
+            if (result == null) {
+                int rimSamples = rimSamples(key);
+                int longitudinalSamples = longitudinalSamples(key);
+                result = newMesh(rimSamples, longitudinalSamples);
+                hemispheres.put(key, result);
+                logger.log(Level.FINE, "new hemisphere with {0}x{1} samples",
+                        new Object[]{rimSamples, longitudinalSamples});
+            }
+
+            return result;
+        }
+    }
+
+    /**
+     * Encode sample counts as a cache key.
+     *
+     * @param rimSamples the number of samples around the rim (&ge;3,
+     * &lt;1000)
+     * @param longitudinalSamples the number of samples in each longitudinal
+     * arc (&ge;2, &lt;1000)
+     * @return the key
+     */
+    private static int key(int rimSamples, int longitudinalSamples) {
+        assert rimSamples >= 3 && rimSamples < 1_000 : rimSamples;
+        assert longitudinalSamples >= 2 && longitudinalSamples < 1_000 :
+                longitudinalSamples;
+
+        int result = 1_000 * rimSamples + longitudinalSamples;
+        return result;
+    }
+
+    /**
+     * Decode the number of longitudinal samples from a cache key.
+     *
+     * @param key the key
+     * @return the number of samples (&ge;2)
+     */
+    private static int longitudinalSamples(int key) {
+        int result = key % 1_000;
+        return result;
+    }
+
+    /**
+     * Create an inward-facing dome mesh with the standard texture
+     * coordinates.
+     *
+     * @param rimSamples the number of samples around the rim (&ge;3)
+     * @param longitudinalSamples the number of samples in each longitudinal
+     * arc (&ge;2)
+     * @return a new mesh
+     */
+    private static DomeMesh newMesh(int rimSamples, int longitudinalSamples) {
+        DomeMesh result = new DomeMesh(rimSamples, longitudinalSamples,
+                Constants.topU, Constants.topV, Constants.uvScale, true);
+        return result;
+    }
+
+    /**
+     * Decode the number of rim samples from a cache key.
+     *
+     * @param key the key
+     * @return the number of samples (&ge;3)
+     */
+    private static int rimSamples(int key) {
+        int result = key / 1_000;
+        return result;
+    }
+
+    /**
+     * Round the specified count up to a multiple of the granularity.
+     *
+     * @param count the count to round (&gt;0)
+     * @return the rounded count
+     */
+    private static int roundUp(float count) {
+        int result = granularity * (int) FastMath.ceil(count / granularity);
+        return result;
+    }
+
+    /**
+     * Access the top-dome mesh for the specified key, creating it if
+     * necessary.
+     *
+     * @param key the key of the desired sample counts
+     * @param angle the desired vertical angle (in radians)
+     * @return the cached mesh (not null)
+     */
+    private DomeMesh topMesh(int key, float angle) {
+        if (key != lastTopKey) {
+            DomeMesh mesh = topMeshes.get(key);
+            if (mesh == null) {
+                mesh = newMesh(rimSamples(key), longitudinalSamples(key));
+                topMeshes.put(key, mesh);
+            }
+            this.lastTop = mesh;
+            this.lastTopKey = key;
+        }
+        DomeMesh result = lastTop;
+        if (result.getVerticalAngle() != angle) {
+            result.setVerticalAngle(angle);
+        }
+
+        return result;
+    }
+}
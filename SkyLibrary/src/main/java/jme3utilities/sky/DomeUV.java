@@ -0,0 +1,140 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import com.jme3.math.FastMath;
+import com.jme3.math.Vector2f;
+import com.jme3.math.Vector3f;
+import java.util.logging.Logger;
+import jme3utilities.mesh.DomeMesh;
+
+/**
+ * Allocation-free equivalent of DomeMesh.directionUV() for the meshes of a
+ * SkyControl, for use during updates.
+ * <p>
+ * Texture coordinates on a DomeMesh are linear in the zenith angle, so the
+ * mapping is determined by the UV of the top and 2 horizontal axes. These are
+ * measured (with allocation) whenever the mesh's vertical angle changes.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class DomeUV {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(DomeUV.class.getName());
+    // *************************************************************************
+    // fields
+
+    /**
+     * cosine of the calibrated vertical angle
+     */
+    private float cosVerticalAngle = 1f;
+    /**
+     * vertical angle of the calibrated mesh (in radians, or 0 if not
+     * calibrated yet)
+     */
+    private float verticalAngle = 0f;
+    /**
+     * UV of the top
+     */
+    final private Vector2f top = new Vector2f();
+    /**
+     * UV change per radian of zenith angle toward +X
+     */
+    final private Vector2f xAxis = new Vector2f();
+    /**
+     * UV change per radian of zenith angle toward +Z
+     */
+    final private Vector2f zAxis = new Vector2f();
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Calculate the texture coordinates of the specified direction, as
+     * DomeMesh.directionUV() would.
+     *
+     * @param mesh the mesh to sample (not null, unaffected)
+     * @param direction the direction in mesh coordinates (not zero,
+     * unaffected)
+     * @param storeResult storage for the result (not null, modified)
+     * @return the texture coordinates (storeResult, or null if the
+     * direction lies outside the dome)
+     */
+    Vector2f directionUV(
+            DomeMesh mesh, Vector3f direction, Vector2f storeResult) {
+        assert storeResult != null;
+        if (mesh.getVerticalAngle() != verticalAngle) {
+            calibrate(mesh);
+        }
+
+        float length = direction.length();
+        assert length > 0f : direction;
+        float cosAngle = direction.y / length;
+        if (cosAngle < cosVerticalAngle) {
+            return null;
+        }
+
+        storeResult.set(top);
+        float horizontal = FastMath.sqrt(
+                direction.x * direction.x + direction.z * direction.z);
+        if (horizontal > 0f) {
+            float angle = FastMath.acos(cosAngle);
+            float scale = angle / horizontal;
+            storeResult.x += scale
+                    * (direction.x * xAxis.x + direction.z * zAxis.x);
+            storeResult.y += scale
+                    * (direction.x * xAxis.y + direction.z * zAxis.y);
+        }
+
+        return storeResult;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Measure the mapping of the specified mesh, halfway to its rim.
+     *
+     * @param mesh the mesh to measure (not null, unaffected)
+     */
+    private void calibrate(DomeMesh mesh) {
+        this.verticalAngle = mesh.getVerticalAngle();
+        this.cosVerticalAngle = FastMath.cos(verticalAngle);
+
+        float angle = 0.5f * verticalAngle;
+        float sin = FastMath.sin(angle);
+        float cos = FastMath.cos(angle);
+        top.set(mesh.directionUV(Vector3f.UNIT_Y));
+        xAxis.set(mesh.directionUV(new Vector3f(sin, cos, 0f)));
+        xAxis.subtractLocal(top).divideLocal(angle);
+        zAxis.set(mesh.directionUV(new Vector3f(0f, cos, sin)));
+        zAxis.subtractLocal(top).divideLocal(angle);
+    }
+}
@@ -45,7 +45,6 @@ import com.jme3.scene.shape.Quad;
 import com.jme3.util.clone.Cloner;
 import java.io.IOException;
 import java.util.logging.Logger;
-import jme3utilities.MySpatial;
 import jme3utilities.SubtreeControl;
 import jme3utilities.Validate;
 
@@ -190,8 +189,8 @@ public class FloorControl extends SubtreeControl {
         // Translate the floor to center it below the camera.
         Vector3f cameraLocation = camera.getLocation();
         Node subtreeNode = (Node) getSubtree();
-        MySpatial.setWorldLocation(subtreeNode, cameraLocation);
-        MySpatial.setWorldScale(subtreeNode, 1f);
+        WorldTransforms.setWorldLocation(subtreeNode, cameraLocation);
+        WorldTransforms.setWorldScale(subtreeNode, 1f);
 
         Spatial floor = subtreeNode.getChild(0);
         float radius = camera.getFrustumFar();
@@ -201,7 +200,7 @@ public class FloorControl extends SubtreeControl {
 
         if (stabilizeFlag) {
             // Counteract rotation of the controlled node.
-            MySpatial.setWorldOrientation(subtreeNode, rotationIdentity);
+            WorldTransforms.setWorldOrientation(subtreeNode, rotationIdentity);
         }
     }
 
@@ -0,0 +1,348 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.FastMath;
+import java.util.logging.Logger;
+import jme3utilities.Validate;
+import jme3utilities.math.MyMath;
+
+/**
+ * Lighting functions of the sun's altitude, either calculated directly or
+ * looked up in precomputed tables.
+ * <p>
+ * The tables are sampled at intervals of 0.01 in the sine of the solar
+ * altitude, so that every breakpoint of the base-color function is a sample.
+ * Between samples, values are linearly interpolated. Since the base color is
+ * linear in the moon's weight, only the moonless and full-moon colors are
+ * tabulated.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+public class LightingTable {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * sine of the solar altitude above which the base color is fully day
+     */
+    final private static float dayLimit = 0.25f;
+    /**
+     * sine of the solar altitude below which the base color is fully night
+     */
+    final private static float nightLimit = -0.04f;
+    /**
+     * number of samples per unit of sine
+     */
+    final private static float samplesPerUnit = 100f;
+    /**
+     * number of samples in each table: from -1 to +1 inclusive
+     */
+    final private static int numSamples = 201;
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(LightingTable.class.getName());
+    // *************************************************************************
+    // fields
+
+    /**
+     * light color for full moonlight
+     */
+    final private ColorRGBA moonLight = new ColorRGBA();
+    /**
+     * light color for moonless night
+     */
+    final private ColorRGBA starLight = new ColorRGBA();
+    /**
+     * light color for full sunlight
+     */
+    final private ColorRGBA sunLight = new ColorRGBA();
+    /**
+     * color blended in around sunrise and sunset
+     */
+    final private ColorRGBA twilight = new ColorRGBA();
+    /**
+     * reusable color for building the tables
+     */
+    final private ColorRGBA tmpColor = new ColorRGBA();
+    /**
+     * base color with a full moon (4 floats per sample: red, green, blue,
+     * alpha)
+     */
+    final private float[] fullMoonBase = new float[4 * numSamples];
+    /**
+     * base color without a moon (4 floats per sample: red, green, blue, alpha)
+     */
+    final private float[] moonlessBase = new float[4 * numSamples];
+    /**
+     * the sun's contribution to the main light (1 float per sample)
+     */
+    final private float[] sunFactors = new float[numSamples];
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate tables for the specified light colors.
+     *
+     * @param sunLight color for full sunlight (not null, unaffected)
+     * @param twilight color blended in around sunrise and sunset (not null,
+     * unaffected)
+     * @param moonLight color for full moonlight (not null, unaffected)
+     * @param starLight color for moonless night (not null, unaffected)
+     */
+    public LightingTable(ColorRGBA sunLight, ColorRGBA twilight,
+            ColorRGBA moonLight, ColorRGBA starLight) {
+        setColors(sunLight, twilight, moonLight, starLight);
+        rebuild();
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Calculate the base color (applied to horizon haze, bottom dome, and
+     * viewport backgrounds) directly:
+     * <ul>
+     * <li>sunlight when ssa &ge; 0.25,</li>
+     * <li>twilight when ssa = 0,</li>
+     * <li>blend of moonlight and starlight when ssa &le; -0.04,</li>
+     * </ul>
+     * with linearly interpolated transitions.
+     *
+     * @param sineSolarAltitude sine of the sun's altitude (ssa, &le;1,
+     * &ge;-1)
+     * @param moonWeight the moon's contribution to the nighttime blend (&le;1,
+     * &ge;0, 0 if the moon is hidden or below the horizon)
+     * @param storeResult storage for the result (modified if not null)
+     * @return the base color (either storeResult or a new instance)
+     */
+    public ColorRGBA calculateBaseColor(float sineSolarAltitude,
+            float moonWeight, ColorRGBA storeResult) {
+        ColorRGBA result
+                = (storeResult == null) ? new ColorRGBA() : storeResult;
+
+        if (sineSolarAltitude >= 0f) {
+            float dayWeight = FastMath.saturate(sineSolarAltitude / dayLimit);
+            result.interpolateLocal(twilight, sunLight, dayWeight);
+        } else {
+            float nightWeight
+                    = FastMath.saturate(sineSolarAltitude / nightLimit);
+            /*
+             * Blend moonlight with starlight, then twilight with the blend,
+             * using the same arithmetic as ColorRGBA.interpolateLocal().
+             */
+            float m = 1f - moonWeight;
+            float r = m * starLight.r + moonWeight * moonLight.r;
+            float g = m * starLight.g + moonWeight * moonLight.g;
+            float b = m * starLight.b + moonWeight * moonLight.b;
+            float a = m * starLight.a + moonWeight * moonLight.a;
+
+            float n = 1f - nightWeight;
+            result.r = n * twilight.r + nightWeight * r;
+            result.g = n * twilight.g + nightWeight * g;
+            result.b = n * twilight.b + nightWeight * b;
+            result.a = n * twilight.a + nightWeight * a;
+        }
+
+        return result;
+    }
+
+    /**
+     * Calculate the sun's contribution to the main light directly, as the cube
+     * root of the sine of the sun's altitude.
+     *
+     * @param sineSolarAltitude sine of the sun's altitude (&le;1, &ge;-1)
+     * @return the contribution (&le;1, &ge;0)
+     */
+    public static float calculateSunFactor(float sineSolarAltitude) {
+        if (sineSolarAltitude <= 0f) {
+            return 0f;
+        }
+        float result = MyMath.cubeRoot(sineSolarAltitude);
+
+        return result;
+    }
+
+    /**
+     * Look up the base color in the tables.
+     *
+     * @param sineSolarAltitude sine of the sun's altitude (&le;1, &ge;-1)
+     * @param moonWeight the moon's contribution to the nighttime blend (&le;1,
+     * &ge;0, 0 if the moon is hidden or below the horizon)
+     * @param storeResult storage for the result (modified if not null)
+     * @return the base color (either storeResult or a new instance)
+     * @see #calculateBaseColor(float, float, com.jme3.math.ColorRGBA)
+     */
+    public ColorRGBA lookUpBaseColor(float sineSolarAltitude,
+            float moonWeight, ColorRGBA storeResult) {
+        ColorRGBA result
+                = (storeResult == null) ? new ColorRGBA() : storeResult;
+
+        float x = (sineSolarAltitude + 1f) * samplesPerUnit;
+        int index = sampleIndex(x);
+        float t = FastMath.saturate(x - index);
+        float u = 1f - t;
+        float m = 1f - moonWeight;
+
+        int i = 4 * index;
+        int j = i + 4;
+        result.r = u * (m * moonlessBase[i] + moonWeight * fullMoonBase[i])
+                + t * (m * moonlessBase[j] + moonWeight * fullMoonBase[j]);
+        ++i;
+        ++j;
+        result.g = u * (m * moonlessBase[i] + moonWeight * fullMoonBase[i])
+                + t * (m * moonlessBase[j] + moonWeight * fullMoonBase[j]);
+        ++i;
+        ++j;
+        result.b = u * (m * moonlessBase[i] + moonWeight * fullMoonBase[i])
+                + t * (m * moonlessBase[j] + moonWeight * fullMoonBase[j]);
+        ++i;
+        ++j;
+        result.a = u * (m * moonlessBase[i] + moonWeight * fullMoonBase[i])
+                + t * (m * moonlessBase[j] + moonWeight * fullMoonBase[j]);
+
+        return result;
+    }
+
+    /**
+     * Look up the sun's contribution to the main light in the table. Since
+     * the cube root is very steep just above the horizon, the lowest interval
+     * is calculated directly.
+     *
+     * @param sineSolarAltitude sine of the sun's altitude (&le;1, &ge;-1)
+     * @return the contribution (&le;1, &ge;0)
+     * @see #calculateSunFactor(float)
+     */
+    public float lookUpSunFactor(float sineSolarAltitude) {
+        if (sineSolarAltitude <= 0f) {
+            return 0f;
+        } else if (sineSolarAltitude < 1f / samplesPerUnit) {
+            return calculateSunFactor(sineSolarAltitude);
+        }
+
+        float x = (sineSolarAltitude + 1f) * samplesPerUnit;
+        int index = sampleIndex(x);
+        float t = FastMath.saturate(x - index);
+        float result = (1f - t) * sunFactors[index] + t * sunFactors[index + 1];
+
+        return result;
+    }
+
+    /**
+     * Alter the light colors, rebuilding the tables if any color has changed.
+     *
+     * @param sunLight color for full sunlight (not null, unaffected)
+     * @param twilight color blended in around sunrise and sunset (not null,
+     * unaffected)
+     * @param moonLight color for full moonlight (not null, unaffected)
+     * @param starLight color for moonless night (not null, unaffected)
+     * @return true if the tables were rebuilt, otherwise false
+     */
+    public boolean updateColors(ColorRGBA sunLight, ColorRGBA twilight,
+            ColorRGBA moonLight, ColorRGBA starLight) {
+        if (this.sunLight.equals(sunLight) && this.twilight.equals(twilight)
+                && this.moonLight.equals(moonLight)
+                && this.starLight.equals(starLight)) {
+            return false;
+        }
+
+        setColors(sunLight, twilight, moonLight, starLight);
+        rebuild();
+
+        return true;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Recalculate every sample in the tables.
+     */
+    private void rebuild() {
+        for (int index = 0; index < numSamples; ++index) {
+            float ssa = index / samplesPerUnit - 1f;
+            if (index == numSamples - 1) {
+                ssa = 1f;
+            }
+            int i = 4 * index;
+
+            calculateBaseColor(ssa, 0f, tmpColor);
+            moonlessBase[i] = tmpColor.r;
+            moonlessBase[i + 1] = tmpColor.g;
+            moonlessBase[i + 2] = tmpColor.b;
+            moonlessBase[i + 3] = tmpColor.a;
+
+            calculateBaseColor(ssa, 1f, tmpColor);
+            fullMoonBase[i] = tmpColor.r;
+            fullMoonBase[i + 1] = tmpColor.g;
+            fullMoonBase[i + 2] = tmpColor.b;
+            fullMoonBase[i + 3] = tmpColor.a;
+
+            sunFactors[index] = calculateSunFactor(ssa);
+        }
+    }
+
+    /**
+     * Find the lower sample of the interval that contains the specified
+     * position.
+     *
+     * @param x position in the tables (in samples)
+     * @return the index of the sample (&lt;numSamples-1, &ge;0)
+     */
+    private static int sampleIndex(float x) {
+        int result = (int) x;
+        if (result < 0) {
+            result = 0;
+        } else if (result > numSamples - 2) {
+            result = numSamples - 2;
+        }
+
+        return result;
+    }
+
+    /**
+     * Validate and copy the light colors.
+     *
+     * @param sunLight color for full sunlight (not null, unaffected)
+     * @param twilight color blended in around sunrise and sunset (not null,
+     * unaffected)
+     * @param moonLight color for full moonlight (not null, unaffected)
+     * @param starLight color for moonless night (not null, unaffected)
+     */
+    private void setColors(ColorRGBA sunLight, ColorRGBA twilight,
+            ColorRGBA moonLight, ColorRGBA starLight) {
+        Validate.nonNull(sunLight, "sun light");
+        Validate.nonNull(twilight, "twilight");
+        Validate.nonNull(moonLight, "moon light");
+        Validate.nonNull(starLight, "star light");
+
+        this.sunLight.set(sunLight);
+        this.twilight.set(twilight);
+        this.moonLight.set(moonLight);
+        this.starLight.set(starLight);
+    }
+}
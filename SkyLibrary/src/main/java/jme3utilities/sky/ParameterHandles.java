@@ -0,0 +1,393 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import com.jme3.material.MatParam;
+import com.jme3.material.Material;
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.Vector2f;
+import com.jme3.math.Vector4f;
+import com.jme3.shader.VarType;
+import com.jme3.texture.Texture;
+import com.jme3.util.clone.Cloner;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * Precomputed names and cached handles for a family of indexed material
+ * parameters, such as "Clouds0Color", "Clouds1Color", and so on.
+ * <p>
+ * Once a parameter has been set, its handle is retained so that later
+ * updates copy the new value into the existing MatParam, without formatting a
+ * name, hashing, or allocating. The handles are specific to one material: a
+ * cloned material needs its own instance.
+ * <p>
+ * Values are modified in place only if this instance created them. If a
+ * caller re-sets a parameter directly (for instance using
+ * {@code Material.setColor()}), the caller's object is never modified: the
+ * next update binds a new copy instead. Clearing a parameter directly (using
+ * {@code Material.clearParam()}) isn't detected, except with assertions
+ * enabled.
+ * <p>
+ * If the material definition declares a uniform array for the family (named
+ * by dropping the index and appending "Array", such as "CloudsColorArray")
+ * and omits the indexed parameters, the values are stored in that array
+ * instead, so the whole family is uploaded to the shader in one call.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class ParameterHandles {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(ParameterHandles.class.getName());
+    // *************************************************************************
+    // fields
+
+    /**
+     * cached handle of the uniform array, or null if not yet set or if the
+     * indexed parameters are used instead
+     */
+    private MatParam arrayHandle = null;
+    /**
+     * value bound to the array handle by this instance, and thus safe to
+     * modify in place (or null if none)
+     */
+    private Object ownedArray = null;
+    /**
+     * cached handle for each index (each may be null)
+     */
+    final private MatParam[] handles;
+    /**
+     * value this instance bound to each handle, and thus safe to modify in
+     * place (each may be null)
+     */
+    final private Object[] values;
+    /**
+     * name of the uniform array for the family, or null for a single
+     * parameter
+     */
+    final private String arrayName;
+    /**
+     * parameter name for each index (not null)
+     */
+    final private String[] names;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate handles for a single parameter.
+     *
+     * @param name the name of the parameter (not null)
+     */
+    ParameterHandles(String name) {
+        this.handles = new MatParam[1];
+        this.values = new Object[1];
+        this.arrayName = null;
+        this.names = new String[]{name};
+    }
+
+    /**
+     * Instantiate handles for a family of indexed parameters.
+     *
+     * @param format the format string for the names, with a "%d" for the
+     * index (not null)
+     * @param count the number of indices (&ge;0)
+     */
+    ParameterHandles(String format, int count) {
+        this.handles = new MatParam[count];
+        this.values = new Object[count];
+        this.arrayName = format.replace("%d", "") + "Array";
+        this.names = new String[count];
+        for (int index = 0; index < count; ++index) {
+            this.names[index] = String.format(Locale.ROOT, format, index);
+        }
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Copy the value of an indexed color parameter.
+     *
+     * @param material the material to read (not null, unaffected)
+     * @param index the index (&ge;0)
+     * @return a new instance
+     */
+    ColorRGBA copyColor(Material material, int index) {
+        Vector4f[] array
+                = (Vector4f[]) arrayValue(material, VarType.Vector4Array);
+        ColorRGBA result;
+        if (array == null) {
+            MatParam parameter = material.getParam(names[index]);
+            result = ((ColorRGBA) parameter.getValue()).clone();
+        } else {
+            Vector4f value = array[index];
+            result = new ColorRGBA(value.x, value.y, value.z, value.w);
+        }
+
+        return result;
+    }
+
+    /**
+     * Give the specified material its own copy of each mutable parameter
+     * value (colors, vectors, and arrays), since {@code Material.clone()}
+     * shares them with the original. Textures remain shared.
+     *
+     * @param material the material to modify (not null)
+     */
+    static void copyValues(Material material) {
+        Cloner cloner = new Cloner();
+        for (MatParam parameter : material.getParams()) {
+            Object value = parameter.getValue();
+            if (value instanceof Cloneable && !(value instanceof Texture)) {
+                parameter.setValue(cloner.clone(value));
+            }
+        }
+    }
+
+    /**
+     * Return the value of an indexed float parameter.
+     *
+     * @param material the material to read (not null, unaffected)
+     * @param index the index (&ge;0)
+     * @return the value
+     */
+    float getFloat(Material material, int index) {
+        float[] array = (float[]) arrayValue(material, VarType.FloatArray);
+        float result;
+        if (array == null) {
+            MatParam parameter = material.getParam(names[index]);
+            result = (float) parameter.getValue();
+        } else {
+            result = array[index];
+        }
+
+        return result;
+    }
+
+    /**
+     * Return the name of the indexed parameter.
+     *
+     * @param index the index (&ge;0)
+     * @return the pre-existing name (not null)
+     */
+    String name(int index) {
+        String result = names[index];
+        return result;
+    }
+
+    /**
+     * Alter the value of an indexed color parameter.
+     *
+     * @param material the material to modify (not null)
+     * @param index the index (&ge;0)
+     * @param newColor the desired value (not null, unaffected)
+     */
+    void setColor(Material material, int index, ColorRGBA newColor) {
+        MatParam handle = handles[index];
+        if (handle != null && handle.getValue() == values[index]) {
+            assert material.getParam(names[index]) == handle : "stale handle";
+            ((ColorRGBA) values[index]).set(newColor);
+            return;
+        }
+
+        Vector4f[] array
+                = (Vector4f[]) arrayValue(material, VarType.Vector4Array);
+        if (array == null) {
+            String name = names[index];
+            ColorRGBA value = newColor.clone();
+            material.setColor(name, value);
+            this.handles[index] = material.getParam(name);
+            this.values[index] = value;
+        } else {
+            array[index].set(newColor.r, newColor.g, newColor.b, newColor.a);
+        }
+    }
+
+    /**
+     * Alter the value of an indexed float parameter.
+     *
+     * @param material the material to modify (not null)
+     * @param index the index (&ge;0)
+     * @param newValue the desired value
+     */
+    void setFloat(Material material, int index, float newValue) {
+        MatParam handle = handles[index];
+        if (handle != null) {
+            assert material.getParam(names[index]) == handle : "stale handle";
+            /*
+             * Float values are immutable, so a changed value must be boxed.
+             * Skip unchanged values, which don't need to be re-uploaded.
+             */
+            if ((float) handle.getValue() != newValue) {
+                handle.setValue(newValue);
+            }
+            return;
+        }
+
+        float[] array = (float[]) arrayValue(material, VarType.FloatArray);
+        if (array == null) {
+            String name = names[index];
+            material.setFloat(name, newValue);
+            this.handles[index] = material.getParam(name);
+        } else {
+            array[index] = newValue;
+        }
+    }
+
+    /**
+     * Alter the value of an indexed vector2 parameter.
+     *
+     * @param material the material to modify (not null)
+     * @param index the index (&ge;0)
+     * @param newX the desired X component
+     * @param newY the desired Y component
+     */
+    void setVector2(Material material, int index, float newX, float newY) {
+        MatParam handle = handles[index];
+        if (handle != null && handle.getValue() == values[index]) {
+            assert material.getParam(names[index]) == handle : "stale handle";
+            ((Vector2f) values[index]).set(newX, newY);
+            return;
+        }
+
+        Vector2f[] array
+                = (Vector2f[]) arrayValue(material, VarType.Vector2Array);
+        if (array == null) {
+            String name = names[index];
+            Vector2f value = new Vector2f(newX, newY);
+            material.setVector2(name, value);
+            this.handles[index] = material.getParam(name);
+            this.values[index] = value;
+        } else {
+            array[index].set(newX, newY);
+        }
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Access the value of the uniform array, creating it if the material
+     * definition declares it but the material lacks it. The array is always
+     * one this instance bound, so it can be modified in place without
+     * affecting arrays set by callers, loaded, or shared with other
+     * materials.
+     *
+     * @param material the material to access (not null)
+     * @param type the type of the array (Vector4Array, Vector2Array, or
+     * FloatArray)
+     * @return the pre-existing array, or null if the material uses indexed
+     * parameters
+     */
+    private Object arrayValue(Material material, VarType type) {
+        if (arrayHandle == null || arrayHandle.getValue() != ownedArray) {
+            if (arrayName == null || material.getMaterialDef()
+                    .getMaterialParam(arrayName) == null) {
+                return null;
+            }
+
+            MatParam parameter = material.getParam(arrayName);
+            Object value = (parameter == null) ? null : parameter.getValue();
+            Object array = isComplete(value)
+                    ? new Cloner().clone(value) : newArray(type);
+            material.setParam(arrayName, type, array);
+            this.arrayHandle = material.getParam(arrayName);
+            this.ownedArray = array;
+        }
+
+        assert material.getParam(arrayName) == arrayHandle : "stale handle";
+        return ownedArray;
+    }
+
+    /**
+     * Test whether the specified value (perhaps read from a saved material)
+     * is a usable array for this family.
+     *
+     * @param value the value to test (may be null, unaffected)
+     * @return true if usable, otherwise false
+     */
+    private boolean isComplete(Object value) {
+        int count = names.length;
+        boolean result;
+        if (value instanceof float[]) {
+            result = ((float[]) value).length == count;
+        } else if (value instanceof Object[]) {
+            Object[] elements = (Object[]) value;
+            result = elements.length == count;
+            for (Object element : elements) {
+                result = result && element != null;
+            }
+            result = result && (value instanceof Vector2f[]
+                    || value instanceof Vector4f[]);
+        } else {
+            result = false;
+        }
+
+        return result;
+    }
+
+    /**
+     * Create an array with one zero element for each index.
+     *
+     * @param type the type of the array (Vector4Array, Vector2Array, or
+     * FloatArray)
+     * @return a new array
+     */
+    private Object newArray(VarType type) {
+        int count = names.length;
+        Object result;
+        switch (type) {
+            case FloatArray:
+                result = new float[count];
+                break;
+
+            case Vector2Array:
+                Vector2f[] vectors = new Vector2f[count];
+                for (int index = 0; index < count; ++index) {
+                    vectors[index] = new Vector2f();
+                }
+                result = vectors;
+                break;
+
+            case Vector4Array:
+                Vector4f[] colors = new Vector4f[count];
+                for (int index = 0; index < count; ++index) {
+                    colors[index] = new Vector4f();
+                }
+                result = colors;
+                break;
+
+            default:
+                throw new IllegalArgumentException("type = " + type);
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.logging.Logger;
+import jme3utilities.Validate;
+
+/**
+ * Evaluate the sky for many (hour, solar longitude) samples in parallel, for
+ * instance to bake lightmaps for each hour or precompute a timeline.
+ * <p>
+ * The samples are split among the threads of a ForkJoinPool. Each thread
+ * evaluates its samples with its own copies of the SunAndStars and SkyEngine,
+ * using exactly the same calculations as SkyControl, so the results are
+ * identical to those of the per-frame path.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final public class SkyBatch {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * maximum number of samples evaluated by a single task without splitting
+     */
+    final private static int maxSamplesPerTask = 256;
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(SkyBatch.class.getName());
+    // *************************************************************************
+    // constructors
+
+    /**
+     * A private constructor to inhibit instantiation of this class.
+     */
+    private SkyBatch() {
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Evaluate the sky for the specified samples using the common pool.
+     *
+     * @param prototype the engine whose configuration and SunAndStars will be
+     * copied (not null, unaffected)
+     * @param hours the time of day for each sample (in hours, each &ge;0,
+     * &le;24, not null, unaffected)
+     * @param solarLongitudes the solar longitude for each sample (in radians,
+     * each &ge;0, &le;2*Pi, not null, same length as hours, unaffected)
+     * @return a new array containing one record of {@code SkyState.numFloats}
+     * values per sample, laid out according to the offsets in SkyState
+     */
+    public static float[] evaluate(
+            SkyEngine prototype, float[] hours, float[] solarLongitudes) {
+        float[] result = evaluate(prototype, hours, solarLongitudes,
+                ForkJoinPool.commonPool(), null);
+        return result;
+    }
+
+    /**
+     * Evaluate the sky for the specified samples using the specified pool.
+     * <p>
+     * If the prototype has a CloudTransmission function, it will be invoked
+     * from multiple threads, so it must be thread-safe.
+     *
+     * @param prototype the engine whose configuration and SunAndStars will be
+     * copied (not null, unaffected)
+     * @param hours the time of day for each sample (in hours, each &ge;0,
+     * &le;24, not null, unaffected)
+     * @param solarLongitudes the solar longitude for each sample (in radians,
+     * each &ge;0, &le;2*Pi, not null, same length as hours, unaffected)
+     * @param pool the pool to execute the tasks (not null)
+     * @param storeResult storage for the result (modified if not null, length
+     * &ge;{@code hours.length * SkyState.numFloats})
+     * @return an array containing one record of {@code SkyState.numFloats}
+     * values per sample, laid out according to the offsets in SkyState
+     * (either storeResult or a new instance)
+     */
+    public static float[] evaluate(SkyEngine prototype, float[] hours,
+            float[] solarLongitudes, ForkJoinPool pool, float[] storeResult) {
+        Validate.nonNull(prototype, "prototype");
+        Validate.nonNull(hours, "hours");
+        Validate.nonNull(solarLongitudes, "solar longitudes");
+        Validate.nonNull(pool, "pool");
+        int numSamples = hours.length;
+        Validate.require(solarLongitudes.length == numSamples,
+                "equal numbers of hours and longitudes");
+        int length = numSamples * SkyState.numFloats;
+        if (storeResult != null) {
+            Validate.require(
+                    storeResult.length >= length, "sufficient storage");
+        }
+        float[] result
+                = (storeResult == null) ? new float[length] : storeResult;
+
+        // Copy the SunAndStars before forking, so workers never touch it.
+        SunAndStars sunAndStars;
+        try {
+            sunAndStars = prototype.getSunAndStars().clone();
+        } catch (CloneNotSupportedException exception) {
+            throw new RuntimeException(exception);
+        }
+        Task task = new Task(prototype, sunAndStars, hours, solarLongitudes,
+                result, 0, numSamples);
+        pool.invoke(task);
+
+        return result;
+    }
+    // *************************************************************************
+    // Task class
+
+    /**
+     * Evaluate a contiguous range of samples, splitting it if it is large.
+     */
+    private static class Task extends RecursiveAction {
+        // *********************************************************************
+        // fields
+
+        /**
+         * engine whose configuration will be copied (not null, unaffected)
+         */
+        final private SkyEngine prototype;
+        /**
+         * private copy of the prototype's SunAndStars, to be cloned by each
+         * leaf task (not null, unaffected)
+         */
+        final private SunAndStars sunAndStars;
+        /**
+         * the time of day for each sample (not null, unaffected)
+         */
+        final private float[] hours;
+        /**
+         * output storage (not null)
+         */
+        final private float[] output;
+        /**
+         * the solar longitude for each sample (not null, unaffected)
+         */
+        final private float[] solarLongitudes;
+        /**
+         * index of the first sample to evaluate (&ge;0)
+         */
+        final private int fromIndex;
+        /**
+         * index past the last sample to evaluate (&ge;fromIndex)
+         */
+        final private int toIndex;
+        // *********************************************************************
+        // constructors
+
+        /**
+         * Instantiate a task for the specified range of samples.
+         *
+         * @param prototype the engine to copy (not null, alias created)
+         * @param sunAndStars the copy of the prototype's SunAndStars (not
+         * null, alias created)
+         * @param hours the time of day for each sample (not null, alias
+         * created)
+         * @param solarLongitudes the solar longitude for each sample (not
+         * null, alias created)
+         * @param output the output storage (not null, alias created)
+         * @param fromIndex the index of the first sample (&ge;0)
+         * @param toIndex the index past the last sample (&ge;fromIndex)
+         */
+        Task(SkyEngine prototype, SunAndStars sunAndStars, float[] hours,
+                float[] solarLongitudes, float[] output, int fromIndex,
+                int toIndex) {
+            this.prototype = prototype;
+            this.sunAndStars = sunAndStars;
+            this.hours = hours;
+            this.solarLongitudes = solarLongitudes;
+            this.output = output;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+        }
+        // *********************************************************************
+        // RecursiveAction methods
+
+        /**
+         * Evaluate the range, or split it between 2 subtasks.
+         */
+        @Override
+        protected void compute() {
+            int numSamples = toIndex - fromIndex;
+            if (numSamples > maxSamplesPerTask) {
+                int midIndex = fromIndex + numSamples / 2;
+                Task low = new Task(prototype, sunAndStars, hours,
+                        solarLongitudes, output, fromIndex, midIndex);
+                Task high = new Task(prototype, sunAndStars, hours,
+                        solarLongitudes, output, midIndex, toIndex);
+                invokeAll(low, high);
+                return;
+            }
+
+            SunAndStars leafCopy;
+            try {
+                leafCopy = sunAndStars.clone();
+            } catch (CloneNotSupportedException exception) {
+                throw new RuntimeException(exception);
+            }
+            SkyEngine engine = new SkyEngine(prototype, leafCopy);
+            float[] values = engine.accessValues();
+
+            for (int index = fromIndex; index < toIndex; ++index) {
+                leafCopy.setHour(hours[index]);
+                leafCopy.setSolarLongitude(solarLongitudes[index]);
+                engine.update();
+                System.arraycopy(values, 0, output,
+                        index * SkyState.numFloats, SkyState.numFloats);
+            }
+        }
+    }
+}
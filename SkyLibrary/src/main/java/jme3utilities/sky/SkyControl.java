@@ -31,13 +31,14 @@ import com.jme3.export.InputCapsule;
 import com.jme3.export.JmeExporter;
 import com.jme3.export.JmeImporter;
 import com.jme3.export.OutputCapsule;
+import com.jme3.material.MatParam;
 import com.jme3.material.Material;
 import com.jme3.math.ColorRGBA;
 import com.jme3.math.FastMath;
+import com.jme3.math.Quaternion;
 import com.jme3.math.Vector2f;
 import com.jme3.math.Vector3f;
 import com.jme3.renderer.Camera;
-import com.jme3.scene.Geometry;
 import com.jme3.scene.Node;
 import com.jme3.texture.Texture;
 import com.jme3.util.clone.Cloner;
@@ -45,7 +46,6 @@ import java.io.IOException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import jme3utilities.Validate;
-import jme3utilities.math.MyColor;
 import jme3utilities.math.MyMath;
 import jme3utilities.mesh.DomeMesh;
 
@@ -84,31 +84,6 @@ public class SkyControl extends SkyControlCore {
     // *************************************************************************
     // constants and loggers
 
-    /**
-     * light color and intensity for full moonlight: bluish gray
-     */
-    final private static ColorRGBA moonLight
-            = new ColorRGBA(0.4f, 0.4f, 0.6f, Constants.alphaMax);
-    /**
-     * light color and intensity for moonless night: nearly black
-     */
-    final private static ColorRGBA starLight
-            = new ColorRGBA(0.03f, 0.03f, 0.03f, Constants.alphaMax);
-    /**
-     * light color and intensity for full sunlight: yellowish white
-     */
-    final private static ColorRGBA sunLight
-            = new ColorRGBA(0.8f, 0.8f, 0.75f, Constants.alphaMax);
-    /**
-     * color blended in around sunrise and sunset: ruddy orange
-     */
-    final private static ColorRGBA twilight
-            = new ColorRGBA(0.6f, 0.3f, 0.15f, Constants.alphaMax);
-    /**
-     * extent of the twilight periods before sunrise and after sunset, expressed
-     * as the sine of the sun's angle below the horizon (&le;1, &ge;0)
-     */
-    final private static float limitOfTwilight = 0.1f;
     /**
      * object index for the moon
      */
@@ -122,25 +97,51 @@ public class SkyControl extends SkyControlCore {
      */
     final private static Logger logger
             = Logger.getLogger(SkyControl.class.getName());
-    /**
-     * light direction for starlight: don't make this perfectly vertical because
-     * that might cause shadow map aliasing
-     */
-    final private static Vector3f starlightDirection
-            = new Vector3f(1f, 9f, 1f).normalizeLocal();
     // *************************************************************************
     // fields
 
+    /**
+     * true to average cloud modulation over the disc of the sun or moon,
+     * false to sample a single point (the default)
+     */
+    private boolean cloudAveragingFlag = false;
     /**
      * true if clouds modulate the main light, false for steady light (the
      * default)
      */
     private boolean cloudModulationFlag = false;
+    /**
+     * true to look up lighting functions in precomputed tables, false to
+     * calculate them directly (the default)
+     */
+    private boolean lightingTableFlag = false;
+    /**
+     * true if the sky has been fully updated since this control was created,
+     * cloned, or de-serialized: not serialized
+     */
+    private boolean updatedFlag = false;
+    /**
+     * color bound to the bottom material, modified in place during updates:
+     * not serialized
+     */
+    private ColorRGBA bottomColor = new ColorRGBA();
     /**
      * base color of the daytime sky: pale blue
      */
     private ColorRGBA colorDay
             = new ColorRGBA(0.4f, 0.6f, 1f, Constants.alphaMax);
+    /**
+     * reusable color for clear sky: not serialized
+     */
+    private ColorRGBA tmpClear = new ColorRGBA();
+    /**
+     * reusable color for the moon: not serialized
+     */
+    private ColorRGBA tmpMoonColor = new ColorRGBA();
+    /**
+     * reusable color for the sun: not serialized
+     */
+    private ColorRGBA tmpSunColor = new ColorRGBA();
     /**
      * texture scale for moon images; larger value gives a larger moon
      * <p>
@@ -153,6 +154,14 @@ public class SkyControl extends SkyControlCore {
      * The default value (0.08) exaggerates the sun's size by a factor of 8.
      */
     private float sunScale = 0.08f;
+    /**
+     * cloud-animation time at the most recent full update: not serialized
+     */
+    private float updatedCloudsTime = 0f;
+    /**
+     * version of the sky state at the most recent full update: not serialized
+     */
+    private int updatedVersion = 0;
     /**
      * off-screen renderer for the moon
      */
@@ -165,10 +174,55 @@ public class SkyControl extends SkyControlCore {
      * orientations of the sun and stars relative to the observer
      */
     private SunAndStars sunAndStars = null;
+    /**
+     * samples the clouds for cloud modulation and transmission queries
+     * (created on demand): not serialized
+     */
+    private CloudDomeSampler sampler = null;
+    /**
+     * shadows cast on the ground by the clouds (or null for none): not
+     * serialized
+     */
+    private CloudShadowMap cloudShadows = null;
+    /**
+     * calculates texture coordinates on the top dome without allocating: not
+     * serialized
+     */
+    private DomeUV topUV = new DomeUV();
+    /**
+     * calculates the astronomy and lighting (created on demand): not
+     * serialized
+     */
+    private SkyEngine engine = null;
+    /**
+     * when full updates are due (the elapsed time and frames aren't
+     * serialized)
+     */
+    private UpdateSchedule schedule = new UpdateSchedule();
     /**
      * lights, shadows, and viewports to update
      */
     private Updater updater = null;
+    /**
+     * reusable rotation for the top dome's star maps: not serialized
+     */
+    private Quaternion tmpStarsRotation = new Quaternion();
+    /**
+     * reusable rotation vector for the moon's texture: not serialized
+     */
+    private Vector2f tmpRotation = new Vector2f();
+    /**
+     * reusable texture coordinates near the moon: not serialized
+     */
+    private Vector2f tmpNearUV = new Vector2f();
+    /**
+     * reusable texture coordinates of the sun or moon: not serialized
+     */
+    private Vector2f tmpUV = new Vector2f();
+    /**
+     * reusable world direction near the moon: not serialized
+     */
+    private Vector3f tmpNearMoon = new Vector3f();
     // *************************************************************************
     // constructors
 
@@ -198,7 +252,32 @@ public class SkyControl extends SkyControlCore {
     public SkyControl(
             AssetManager assetManager, Camera camera, float cloudFlattening,
             StarsOption starsOption, boolean bottomDome) {
-        super(assetManager, camera, cloudFlattening, starsOption, bottomDome);
+        this(assetManager, camera, cloudFlattening, starsOption, bottomDome,
+                false);
+    }
+
+    /**
+     * Instantiate a disabled control, optionally rendering flattened clouds
+     * in the same pass as the top dome. For a visible sky, the control must
+     * be (1) added to a node of the scene graph and (2) enabled.
+     *
+     * @param assetManager for loading textures and material definitions (not
+     * null)
+     * @param camera the application's camera (not null)
+     * @param cloudFlattening the oblateness (ellipticity) of the dome with the
+     * clouds: 0 &rarr; no flattening (hemisphere), 1 &rarr; maximum flattening
+     * @param starsOption how stars are rendered (not null)
+     * @param bottomDome true to create a material and geometry for the
+     * hemisphere below the horizon, otherwise false
+     * @param singlePass true to render flattened clouds using the top dome's
+     * material, saving a full-screen pass, false to render them on a separate
+     * dome (ignored if cloudFlattening=0)
+     */
+    public SkyControl(AssetManager assetManager, Camera camera,
+            float cloudFlattening, StarsOption starsOption,
+            boolean bottomDome, boolean singlePass) {
+        super(assetManager, camera, cloudFlattening, starsOption, bottomDome,
+                singlePass);
 
         this.sunAndStars = new SunAndStars();
         this.updater = new Updater();
@@ -210,6 +289,32 @@ public class SkyControl extends SkyControlCore {
     // *************************************************************************
     // new methods exposed
 
+    /**
+     * Estimate how much light from each of the specified world directions is
+     * transmitted through the clouds, using the same cloud-dome intersection
+     * as cloud modulation.
+     * <p>
+     * The parallel path splits large batches among the threads of the common
+     * ForkJoinPool. The sky shouldn't be modified until it returns.
+     *
+     * @param directions world directions, packed as (x, y, z) triples (not
+     * null, length a multiple of 3, each direction non-zero, unaffected)
+     * @param storeResult storage for the result (modified if not null, length
+     * &ge;directions.length/3)
+     * @param parallel true to allow multiple threads, false to use only the
+     * current thread
+     * @return the fraction transmitted in each direction (each &le;1, &ge;0,
+     * either storeResult or a new array): 1 for directions below the horizon
+     */
+    public float[] cloudTransmissions(
+            float[] directions, float[] storeResult, boolean parallel) {
+        CloudDomeSampler cloudSampler = getSampler();
+        float[] result
+                = cloudSampler.transmissions(directions, storeResult, parallel);
+
+        return result;
+    }
+
     /**
      * Copy the daytime clear-sky color.
      *
@@ -224,6 +329,26 @@ public class SkyControl extends SkyControlCore {
         return result;
     }
 
+    /**
+     * Test whether the dome tessellation adapts to each camera.
+     *
+     * @return true if adaptive, false if every camera gets the default
+     */
+    public boolean getAdaptiveTessellation() {
+        boolean result = accessTessellation().isAdaptive();
+        return result;
+    }
+
+    /**
+     * Test whether cloud modulation is averaged over the disc of the sun or
+     * moon.
+     *
+     * @return true if averaged, false if sampled at a single point
+     */
+    public boolean getCloudAveraging() {
+        return cloudAveragingFlag;
+    }
+
     /**
      * Test the cloud modulation flag.
      *
@@ -233,6 +358,24 @@ public class SkyControl extends SkyControlCore {
         return cloudModulationFlag;
     }
 
+    /**
+     * Access the cloud-shadow map.
+     *
+     * @return the pre-existing instance (or null for none)
+     */
+    public CloudShadowMap getCloudShadows() {
+        return cloudShadows;
+    }
+
+    /**
+     * Test whether lighting functions are looked up in precomputed tables.
+     *
+     * @return true if looked up, false if calculated directly
+     */
+    public boolean getLightingTable() {
+        return lightingTableFlag;
+    }
+
     /**
      * Return the phase-of-the-moon preset.
      *
@@ -252,6 +395,24 @@ public class SkyControl extends SkyControlCore {
         return sunAndStars;
     }
 
+    /**
+     * Return the minimum number of frames between full updates.
+     *
+     * @return the count (&ge;1, 1 &rarr; every frame)
+     */
+    public int getUpdateFrames() {
+        return schedule.getUpdateFrames();
+    }
+
+    /**
+     * Return the minimum interval between full updates.
+     *
+     * @return the interval (in seconds, &ge;0, 0 &rarr; every frame)
+     */
+    public float getUpdatePeriod() {
+        return schedule.getUpdatePeriod();
+    }
+
     /**
      * Access the updater.
      *
@@ -292,6 +453,35 @@ public class SkyControl extends SkyControlCore {
         return result;
     }
 
+    /**
+     * Alter whether the dome tessellation adapts to each camera. When
+     * adaptive, each camera that renders the sky gets domes whose density
+     * suits its viewport height and field of view, so small secondary
+     * viewports render fewer vertices and narrow telescope views avoid
+     * visibly faceted domes. Meshes are cached by density.
+     *
+     * @param newValue true to adapt, false to use the default density for
+     * every camera (default)
+     */
+    public void setAdaptiveTessellation(boolean newValue) {
+        accessTessellation().setAdaptive(newValue);
+    }
+
+    /**
+     * Alter whether cloud modulation is averaged over the disc of the sun or
+     * moon, which avoids abrupt changes in the main light as cloud edges
+     * cross the disc.
+     *
+     * @param newValue true to average, false to sample a single point
+     * (default=false)
+     */
+    public void setCloudAveraging(boolean newValue) {
+        if (newValue != cloudAveragingFlag) {
+            this.cloudAveragingFlag = newValue;
+            incrementVersion();
+        }
+    }
+
     /**
      * Alter the cloud modulation flag.
      *
@@ -299,7 +489,26 @@ public class SkyControl extends SkyControlCore {
      * steady main light
      */
     public void setCloudModulation(boolean newValue) {
-        this.cloudModulationFlag = newValue;
+        if (newValue != cloudModulationFlag) {
+            this.cloudModulationFlag = newValue;
+            incrementVersion();
+        }
+    }
+
+    /**
+     * Replace the cloud-shadow map, which is refreshed during updates and
+     * bound to the materials registered with the updater. Note that the map
+     * is not serialized.
+     *
+     * @param shadowMap the desired map (alias created) or null for none
+     * (default=null)
+     * @see Updater#addCloudShadowMaterial(com.jme3.material.Material)
+     */
+    public void setCloudShadows(CloudShadowMap shadowMap) {
+        if (shadowMap != cloudShadows) {
+            this.cloudShadows = shadowMap;
+            updater.setCloudShadows(shadowMap);
+        }
     }
 
     /**
@@ -309,7 +518,24 @@ public class SkyControl extends SkyControlCore {
      * default=(0.4,0.6,1))
      */
     public void setColorDay(ColorRGBA newColor) {
-        colorDay.set(newColor);
+        if (!newColor.equals(colorDay)) {
+            colorDay.set(newColor);
+            incrementVersion();
+        }
+    }
+
+    /**
+     * Alter whether lighting functions are looked up in precomputed tables.
+     * Lookups are cheaper than direct calculation and agree with it to within
+     * 0.004 (in each color component).
+     *
+     * @param newValue true to look up, false to calculate directly (default)
+     */
+    public void setLightingTable(boolean newValue) {
+        if (newValue != lightingTableFlag) {
+            this.lightingTableFlag = newValue;
+            incrementVersion();
+        }
     }
 
     /**
@@ -324,7 +550,8 @@ public class SkyControl extends SkyControlCore {
                     "diameter should be between 0 and Pi");
         }
 
-        moonScale = newDiameter * Constants.uvScale / FastMath.HALF_PI;
+        this.moonScale = newDiameter * Constants.uvScale / FastMath.HALF_PI;
+        incrementVersion();
     }
 
     /**
@@ -346,6 +573,7 @@ public class SkyControl extends SkyControlCore {
             SkyMaterial topMaterial = getTopMaterial();
             topMaterial.addObject(moonIndex, dynamicTexture);
         }
+        incrementVersion();
     }
 
     /**
@@ -375,6 +603,7 @@ public class SkyControl extends SkyControlCore {
                 topMaterial.addObject(moonIndex, assetPath);
             }
         }
+        incrementVersion();
     }
 
     /**
@@ -400,6 +629,7 @@ public class SkyControl extends SkyControlCore {
         Texture dynamicTexture = moonRenderer.getTexture();
         SkyMaterial topMaterial = getTopMaterial();
         topMaterial.addObject(moonIndex, dynamicTexture);
+        incrementVersion();
     }
 
     /**
@@ -416,6 +646,7 @@ public class SkyControl extends SkyControlCore {
 
         this.sunScale = newDiameter * Constants.uvScale
                 / (Constants.discDiameter * FastMath.HALF_PI);
+        incrementVersion();
     }
 
     /**
@@ -430,6 +661,32 @@ public class SkyControl extends SkyControlCore {
         topMaterial.addObject(sunIndex, assetPath);
     }
 
+    /**
+     * Alter the minimum number of frames between full updates, as an
+     * alternative (or in addition) to {@link #setUpdatePeriod(float)}. A full
+     * update occurs only once both intervals have elapsed.
+     *
+     * @param newCount the desired count (&ge;1, 1 &rarr; every frame,
+     * default=1)
+     */
+    public void setUpdateFrames(int newCount) {
+        schedule.setUpdateFrames(newCount);
+    }
+
+    /**
+     * Alter the minimum interval between full updates. Since the sun and moon
+     * move slowly at normal time scales, the sky needn't be fully recalculated
+     * every frame. Between full updates, the lights, shadows, and viewports
+     * managed by the Updater are interpolated toward the most recently
+     * calculated values, so they lag behind by up to one interval.
+     *
+     * @param newPeriod the desired interval (in seconds, &ge;0, 0 &rarr; every
+     * frame, default=0)
+     */
+    public void setUpdatePeriod(float newPeriod) {
+        schedule.setUpdatePeriod(newPeriod);
+    }
+
     /**
      * Calculate the angular diameter of the sun.
      *
@@ -471,19 +728,81 @@ public class SkyControl extends SkyControlCore {
 
         this.colorDay = cloner.clone(colorDay);
         this.moonRenderer = cloner.clone(moonRenderer);
+        this.schedule = cloner.clone(schedule);
         this.sunAndStars = cloner.clone(sunAndStars);
         this.updater = cloner.clone(updater);
+
+        this.bottomColor = new ColorRGBA();
+        this.tmpClear = new ColorRGBA();
+        this.tmpMoonColor = new ColorRGBA();
+        this.tmpSunColor = new ColorRGBA();
+        this.tmpRotation = new Vector2f();
+        this.tmpNearUV = new Vector2f();
+        this.tmpUV = new Vector2f();
+        this.topUV = new DomeUV();
+        this.tmpStarsRotation = new Quaternion();
+        this.tmpNearMoon = new Vector3f();
+        this.engine = null;
+        this.sampler = null;
+        this.cloudShadows = null;
+        this.updatedFlag = false;
     }
 
     /**
      * Callback to update this control prior to rendering.
+     * <p>
+     * The astronomical objects, sky colors, and lighting are recalculated only
+     * if the sky state has changed since the previous full update and the
+     * update period has elapsed.
      *
      * @param tpf time interval between frames (in seconds, &ge;0)
      */
     @Override
     public void controlUpdate(float tpf) {
         super.controlUpdate(tpf);
-        updateAll();
+
+        int currentVersion = getVersion();
+        float cloudsTime = getCloudsAnimationTime();
+        boolean cloudsMoved
+                = cloudModulationFlag && cloudsTime != updatedCloudsTime;
+        boolean changed = currentVersion != updatedVersion || cloudsMoved;
+        schedule.advance(tpf);
+        if (!updatedFlag || changed && schedule.isDue()) {
+            updateAll();
+            schedule.restart();
+            this.updatedFlag = true;
+            this.updatedCloudsTime = cloudsTime;
+            this.updatedVersion = currentVersion;
+        }
+        // Move the lights toward their most recently calculated values.
+        updater.interpolate(schedule.fraction());
+        if (cloudShadows != null && engine != null) {
+            cloudShadows.update(
+                    tpf, this, getSampler(), engine.accessMainDirection());
+        }
+        // The stars' orientation also depends on the controlled spatial.
+        Node starsNode = getStarsNode();
+        if (starsNode != null) {
+            sunAndStars.orientEquatorialSky(starsNode, false);
+        }
+        TopDomeStars.update(this, sunAndStars, tmpStarsRotation);
+        CloudProjection.update(this);
+        updatePlacements();
+    }
+
+    /**
+     * Return the version of the sky state, which is incremented each time a
+     * setter alters something that affects the per-frame sky update. The
+     * result includes the versions of the cloud layers, the SunAndStars, and
+     * the Updater.
+     *
+     * @return the version number (wraps around on overflow)
+     */
+    @Override
+    public int getVersion() {
+        int result = super.getVersion() + sunAndStars.getVersion()
+                + updater.getVersion();
+        return result;
     }
 
     /**
@@ -497,11 +816,17 @@ public class SkyControl extends SkyControlCore {
         super.read(importer);
         InputCapsule ic = importer.getCapsule(this);
 
+        boolean adaptive = ic.readBoolean("adaptiveTessellation", false);
+        accessTessellation().setAdaptive(adaptive);
+        this.cloudAveragingFlag = ic.readBoolean("cloudAveragingFlag", false);
         this.cloudModulationFlag = ic.readBoolean("cloudModulationFlag", false);
+        this.lightingTableFlag = ic.readBoolean("lightingTableFlag", false);
         this.colorDay = (ColorRGBA) ic.readSavable(
                 "colorDay", new ColorRGBA(0.4f, 0.6f, 1f, Constants.alphaMax));
         this.moonScale = ic.readFloat("moonScale", 0.02f);
         this.sunScale = ic.readFloat("sunScale", 0.08f);
+        schedule.setUpdateFrames(ic.readInt("updateFrames", 1));
+        schedule.setUpdatePeriod(ic.readFloat("updatePeriod", 0f));
         // moon renderer not serialized
         this.phase = ic.readEnum("phase", LunarPhase.class, LunarPhase.FULL);
         this.sunAndStars = (SunAndStars) ic.readSavable("sunAndStars", null);
@@ -519,11 +844,16 @@ public class SkyControl extends SkyControlCore {
         super.write(exporter);
         OutputCapsule oc = exporter.getCapsule(this);
 
+        oc.write(getAdaptiveTessellation(), "adaptiveTessellation", false);
+        oc.write(cloudAveragingFlag, "cloudAveragingFlag", false);
         oc.write(cloudModulationFlag, "cloudModulationFlag", false);
+        oc.write(lightingTableFlag, "lightingTableFlag", false);
         oc.write(colorDay, "colorDay",
                 new ColorRGBA(0.4f, 0.6f, 1f, Constants.alphaMax));
         oc.write(moonScale, "moonScale", 0.02f);
         oc.write(sunScale, "sunScale", 0.08f);
+        oc.write(schedule.getUpdateFrames(), "updateFrames", 1);
+        oc.write(schedule.getUpdatePeriod(), "updatePeriod", 0f);
         // moon renderer not serialized
         oc.write(phase, "phase", LunarPhase.FULL);
         oc.write(sunAndStars, "sunAndStars", null);
@@ -533,69 +863,43 @@ public class SkyControl extends SkyControlCore {
     // private methods
 
     /**
-     * Compute where mainDirection intersects the cloud dome in the dome's local
-     * coordinates, accounting for the dome's flattening and vertical offset.
+     * Configure the engine to match this control, creating it if necessary.
      *
-     * @param mainDirection (unit vector with non-negative y-component)
-     * @return new unit vector
+     * @return the pre-existing or new instance (not null)
      */
-    private Vector3f intersectCloudDome(Vector3f mainDirection) {
-        assert mainDirection != null;
-        assert mainDirection.isUnitVector() : mainDirection;
-        assert mainDirection.y >= 0f : mainDirection;
-
-        double cosSquared
-                = MyMath.sumOfSquares(mainDirection.x, mainDirection.z);
-        if (cosSquared == 0.0) {
-            // Special case when the main light is directly overhead.
-            return new Vector3f(0f, 1f, 0f);
+    private SkyEngine configureEngine() {
+        if (engine == null) {
+            this.engine = new SkyEngine(sunAndStars);
         }
-
-        float deltaY;
-        float semiMinorAxis;
-        Geometry cloudsOnlyDome = getCloudsOnlyDome();
-        if (cloudsOnlyDome == null) {
-            deltaY = 0f;
-            semiMinorAxis = 1f;
+        CloudDomeSampler cloudSampler = getSampler();
+        if (cloudAveragingFlag) {
+            // Derive the radii from the scales of the object textures.
+            float solarRadius = 0.5f * sunScale * Constants.discDiameter;
+            float lunarRadius = 0.5f * moonScale;
+            cloudSampler.setDiscRadii(solarRadius, lunarRadius);
         } else {
-            Vector3f offset = cloudsOnlyDome.getLocalTranslation();
-            assert offset.x == 0f : offset;
-            assert offset.y <= 0f : offset;
-            assert offset.z == 0f : offset;
-            deltaY = offset.y;
-
-            Vector3f scale = cloudsOnlyDome.getLocalScale();
-            assert scale.x == 1f : scale;
-            assert scale.y > 0f : scale;
-            assert scale.z == 1f : scale;
-            semiMinorAxis = scale.y;
+            cloudSampler.setDiscRadii(0f, 0f);
         }
-        /*
-         * Solve for the most positive root of a quadratic equation
-         * in w = sqrt(x^2 + z^2).  Use double precision arithmetic.
-         */
-        double cosAltitude = Math.sqrt(cosSquared);
-        double tanAltitude = mainDirection.y / cosAltitude;
-        double smaSquared = semiMinorAxis * semiMinorAxis;
-        double a = tanAltitude * tanAltitude + smaSquared;
-        assert a > 0.0 : a;
-        double b = -2.0 * deltaY * tanAltitude;
-        double c = deltaY * deltaY - smaSquared;
-        double discriminant = MyMath.discriminant(a, b, c);
-        assert discriminant >= 0.0 : discriminant;
-        double w = (-b + Math.sqrt(discriminant)) / (2.0 * a);
-
-        double distance = w / cosAltitude;
-        if (distance > 1.0) { // Squash rounding errors.
-            distance = 1.0;
-        }
-        float x = (float) (mainDirection.x * distance);
-        float y = (float) MyMath.circle(w);
-        float z = (float) (mainDirection.z * distance);
-        Vector3f result = new Vector3f(x, y, z);
 
-        assert result.isUnitVector() : result;
-        return result;
+        engine.setSunAndStars(sunAndStars);
+        engine.setPhase(longitudeDifference, lunarLatitude);
+        engine.setMoonHidden(phase == null);
+        engine.setCloudTransmission(cloudModulationFlag ? cloudSampler : null);
+        engine.setLightingTable(lightingTableFlag);
+
+        return engine;
+    }
+
+    /**
+     * Access the cloud sampler, creating it if necessary.
+     *
+     * @return the pre-existing or new instance (not null)
+     */
+    private CloudDomeSampler getSampler() {
+        if (sampler == null) {
+            this.sampler = new CloudDomeSampler(this);
+        }
+        return sampler;
     }
 
     /**
@@ -605,12 +909,15 @@ public class SkyControl extends SkyControlCore {
      * @param longitude the moon's celestial longitude (in radians east of the
      * March equinox)
      * @param uvCenter texture coordinates of the moon's center (not null)
-     * @return new unit vector with its x-component equal to the cosine of the
+     * @param storeResult storage for the result (not null, modified)
+     * @return a unit vector with its x-component equal to the cosine of the
      * rotation angle and its y-component equal to the sine of the rotation
-     * angle
+     * angle (storeResult)
      */
-    private Vector2f lunarRotation(float longitude, Vector2f uvCenter) {
+    private Vector2f lunarRotation(
+            float longitude, Vector2f uvCenter, Vector2f storeResult) {
         assert uvCenter != null;
+        assert storeResult != null;
         /*
          * Compute UV coordinates for 0.01 radians north of the center
          * of the moon.
@@ -618,13 +925,14 @@ public class SkyControl extends SkyControlCore {
         DomeMesh topMesh = getTopMesh();
         float latitude = lunarLatitude + 0.01f;
         if (latitude <= FastMath.HALF_PI) {
-            Vector3f north
-                    = sunAndStars.convertToWorld(latitude, longitude, null);
-            Vector2f uvNorth = topMesh.directionUV(north);
+            Vector3f north = sunAndStars.convertToWorld(
+                    latitude, longitude, tmpNearMoon);
+            Vector2f uvNorth = topUV.directionUV(topMesh, north, tmpNearUV);
             if (uvNorth != null) {
-                Vector2f offset = uvNorth.subtract(uvCenter);
+                Vector2f offset = storeResult.set(uvNorth);
+                offset.subtractLocal(uvCenter);
                 assert offset.length() > 0f : offset;
-                Vector2f result = offset.normalize();
+                Vector2f result = offset.normalizeLocal();
                 return result;
             }
         }
@@ -634,12 +942,14 @@ public class SkyControl extends SkyControlCore {
          */
         latitude = lunarLatitude - 0.01f;
         assert latitude >= -FastMath.HALF_PI : lunarLatitude;
-        Vector3f south = sunAndStars.convertToWorld(latitude, longitude, null);
-        Vector2f uvSouth = topMesh.directionUV(south);
+        Vector3f south
+                = sunAndStars.convertToWorld(latitude, longitude, tmpNearMoon);
+        Vector2f uvSouth = topUV.directionUV(topMesh, south, tmpNearUV);
         if (uvSouth != null) {
-            Vector2f offset = uvCenter.subtract(uvSouth);
+            Vector2f offset = storeResult.set(uvCenter);
+            offset.subtractLocal(uvSouth);
             assert offset.length() > 0f : offset;
-            Vector2f result = offset.normalize();
+            Vector2f result = offset.normalizeLocal();
             return result;
         }
         assert false : south;
@@ -647,172 +957,70 @@ public class SkyControl extends SkyControlCore {
     }
 
     /**
-     * Update astronomical objects, sky color, lighting, and stars.
+     * Calculate the sky's astronomy and lighting, then update astronomical
+     * objects, sky color, cloud colors, lights, shadows, and viewports.
      */
     private void updateAll() {
-        /*
-         * Daytime sky color is phased in during the twilight periods
-         * before sunrise and after sunset. Update the sky material's
-         * clear color accordingly.
-         */
-        Vector3f sunDirection = updateSun();
-        ColorRGBA clearColor = colorDay.clone();
-        clearColor.a = FastMath.saturate(1f + sunDirection.y / limitOfTwilight);
-        SkyMaterial topMaterial = getTopMaterial();
-        topMaterial.setClearColor(clearColor);
+        SkyEngine skyEngine = configureEngine();
+        skyEngine.update();
 
-        Vector3f moonDirection = updateMoon();
-        updateLighting(sunDirection, moonDirection);
-
-        Node starsNode = getStarsNode();
-        if (starsNode != null) {
-            sunAndStars.orientEquatorialSky(starsNode, false);
-        }
-    }
-
-    /**
-     * Update background colors, cloud colors, haze color, sun color, lights,
-     * and shadows.
-     *
-     * @param sunDirection world direction to the sun (length=1)
-     * @param moonDirection world direction to the moon (length=1 or null)
-     */
-    private void updateLighting(Vector3f sunDirection, Vector3f moonDirection) {
-        assert sunDirection != null;
-        assert sunDirection.isUnitVector() : sunDirection;
-        if (moonDirection != null) {
-            assert moonDirection.isUnitVector() : moonDirection;
-        }
+        Vector3f sunDirection = skyEngine.accessSunDirection();
+        updateSun(sunDirection);
+        Vector3f moonDirection = skyEngine.accessMoonDirection();
+        updateMoon(moonDirection);
 
         float sineSolarAltitude = sunDirection.y;
-        float sineLunarAltitude;
-        if (moonDirection != null) {
-            sineLunarAltitude = moonDirection.y;
-        } else {
-            sineLunarAltitude = -1f;
-        }
+        float sineLunarAltitude
+                = (moonDirection == null) ? -1f : moonDirection.y;
         updateObjectColors(sineSolarAltitude, sineLunarAltitude);
 
-        // Determine the world direction to the main light source.
-        boolean moonUp = sineLunarAltitude >= 0f;
-        boolean sunUp = sineSolarAltitude >= 0f;
-        float moonWeight = getMoonIllumination();
-        Vector3f mainDirection;
-        if (sunUp) {
-            mainDirection = sunDirection;
-        } else if (moonUp && moonWeight > 0f) {
-            assert moonDirection != null;
-            mainDirection = moonDirection;
-        } else {
-            mainDirection = starlightDirection;
-        }
-        assert mainDirection.isUnitVector() : mainDirection;
-        assert mainDirection.y >= 0f : mainDirection;
-        /*
-         * Determine the base color (applied to horizon haze, bottom dome, and
-         * viewport backgrounds) using the sun's altitude:
-         *  + sunlight when ssa >= 0.25,
-         *  + twilight when ssa = 0,
-         *  + blend of moonlight and starlight when ssa <= -0.04,
-         * with linearly interpolated transitions.
-         */
-        ColorRGBA baseColor;
-        if (sunUp) {
-            float dayWeight = FastMath.saturate(sineSolarAltitude / 0.25f);
-            baseColor = MyColor.interpolateLinear(
-                    dayWeight, twilight, sunLight);
-        } else {
-            ColorRGBA blend;
-            if (moonUp && moonWeight > 0f) {
-                blend = MyColor.interpolateLinear(
-                        moonWeight, starLight, moonLight);
-            } else {
-                blend = starLight;
-            }
-            float nightWeight = FastMath.saturate(-sineSolarAltitude / 0.04f);
-            baseColor = MyColor.interpolateLinear(nightWeight, twilight, blend);
-        }
+        float[] values = skyEngine.accessValues();
+        ColorRGBA clearColor = tmpClear.set(colorDay);
+        clearColor.a = values[SkyState.clearOffset];
         SkyMaterial topMaterial = getTopMaterial();
+        topMaterial.setClearColor(clearColor);
+
+        ColorRGBA baseColor = skyEngine.accessBaseColor();
         topMaterial.setHazeColor(baseColor);
         Material bottomMaterial = getBottomMaterial();
         if (bottomMaterial != null) {
-            bottomMaterial.setColor("Color", baseColor.clone());
+            bottomColor.set(baseColor);
+            MatParam parameter = bottomMaterial.getParam("Color");
+            if (parameter == null || parameter.getValue() != bottomColor) {
+                bottomMaterial.setColor("Color", bottomColor);
+            }
         }
 
-        ColorRGBA cloudsColor = updateCloudsColor(baseColor, sunUp, moonUp);
-
-        // Determine what fraction of the main light passes through the clouds.
-        float transmit;
-        if (cloudModulationFlag && (sunUp || moonUp && moonWeight > 0f)) {
-            // Modulate light intensity as clouds pass in front.
-            Vector3f intersection = intersectCloudDome(mainDirection);
-            DomeMesh cloudsMesh = getCloudsMesh();
-            Vector2f texCoord = cloudsMesh.directionUV(intersection);
-            SkyMaterial cloudsMaterial = getCloudsMaterial();
-            transmit = cloudsMaterial.getTransmission(texCoord);
-
-        } else {
-            transmit = 1f;
+        ColorRGBA cloudsColor = skyEngine.accessCloudsColor();
+        for (int layer = 0; layer < numCloudLayers; ++layer) {
+            cloudLayers[layer].setColor(cloudsColor);
         }
 
-        // Determine the color and intensity of the main light.
-        ColorRGBA main;
-        if (sunUp) {
-            /*
-             * By day, the main light has the base color, modulated by
-             * clouds and the cube root of the sine of the sun's altitude.
-             */
-            float sunFactor = transmit * MyMath.cubeRoot(sineSolarAltitude);
-            main = baseColor.mult(sunFactor);
-
-        } else if (moonUp) {
-            /*
-             * By night, the main light is a blend of moonlight and starlight,
-             * with the moon's portion modulated by clouds and the moon's phase.
-             */
-            float moonFactor = transmit * moonWeight;
-            main = MyColor.interpolateLinear(moonFactor, starLight, moonLight);
-
+        ColorRGBA ambient = skyEngine.accessAmbientColor();
+        ColorRGBA main = skyEngine.accessMainColor();
+        float bloomIntensity = values[SkyState.bloomOffset];
+        float shadowIntensity = values[SkyState.shadowOffset];
+        Vector3f mainDirection = skyEngine.accessMainDirection();
+        if (schedule.isReduced()) {
+            updater.setTargets(ambient, baseColor, main, bloomIntensity,
+                    shadowIntensity, mainDirection);
         } else {
-            main = starLight.clone();
+            updater.update(ambient, baseColor, main, bloomIntensity,
+                    shadowIntensity, mainDirection);
         }
-        /*
-         * The ambient light color is based on the clouds color;
-         * its intensity is modulated by the "slack" left by
-         * strongest component of the main light.
-         */
-        float slack = 1f - MyMath.max(main.r, main.g, main.b);
-        assert slack >= 0f : slack;
-        ColorRGBA ambient = cloudsColor.mult(slack);
-        /*
-         * Compute the recommended shadow intensity as the fraction of
-         * the total directional light.
-         */
-        float mainAmount = main.r + main.g + main.b;
-        float ambientAmount = ambient.r + ambient.g + ambient.b;
-        float totalAmount = mainAmount + ambientAmount;
-        assert totalAmount > 0f : totalAmount;
-        float shadowIntensity = FastMath.saturate(mainAmount / totalAmount);
-
-        // Determine the recommended bloom intensity using the sun's altitude.
-        float bloomIntensity = 6f * sineSolarAltitude;
-        bloomIntensity = FastMath.clamp(bloomIntensity, 0f, 1.7f);
-
-        updater.update(ambient, baseColor, main, bloomIntensity,
-                shadowIntensity, mainDirection);
     }
 
     /**
      * Update the moon's position and size.
      *
-     * @return world direction to the moon (new unit vector) or null if the moon
-     * is hidden
+     * @param worldDirection world direction to the moon (length=1, unaffected)
+     * or null if the moon is hidden
      */
-    private Vector3f updateMoon() {
+    private void updateMoon(Vector3f worldDirection) {
         if (phase == null) {
             SkyMaterial topMaterial = getTopMaterial();
             topMaterial.hideObject(moonIndex);
-            return null;
+            return;
         }
         if (phase == LunarPhase.CUSTOM) {
             assert moonRenderer != null;
@@ -823,25 +1031,24 @@ public class SkyControl extends SkyControlCore {
         }
 
         // Compute the UV coordinates of the center of the moon.
+        assert worldDirection != null;
         float solarLongitude = sunAndStars.getSolarLongitude();
         float celestialLongitude = solarLongitude + longitudeDifference;
         celestialLongitude = MyMath.modulo(celestialLongitude, FastMath.TWO_PI);
-        Vector3f worldDirection = sunAndStars.convertToWorld(
-                lunarLatitude, celestialLongitude, null);
         DomeMesh topMesh = getTopMesh();
-        Vector2f uvCenter = topMesh.directionUV(worldDirection);
+        Vector2f uvCenter
+                = topUV.directionUV(topMesh, worldDirection, tmpUV);
 
         SkyMaterial topMaterial = getTopMaterial();
         if (uvCenter != null) {
-            Vector2f rotation = lunarRotation(celestialLongitude, uvCenter);
+            Vector2f rotation
+                    = lunarRotation(celestialLongitude, uvCenter, tmpRotation);
             // Reveal the object and update its texture transform.
-            topMaterial.setObjectTransform(
-                    moonIndex, uvCenter, moonScale, rotation);
+            topMaterial.setObjectTransform(moonIndex, uvCenter.x, uvCenter.y,
+                    moonScale, rotation.x, rotation.y);
         } else {
             topMaterial.hideObject(moonIndex);
         }
-
-        return worldDirection;
     }
 
     /**
@@ -860,7 +1067,8 @@ public class SkyControl extends SkyControlCore {
         // Update the sun's color.
         float green = FastMath.saturate(3f * sineSolarAltitude);
         float blue = FastMath.saturate(sineSolarAltitude - 0.1f);
-        ColorRGBA sunColor = new ColorRGBA(1f, green, blue, Constants.alphaMax);
+        ColorRGBA sunColor
+                = tmpSunColor.set(1f, green, blue, Constants.alphaMax);
         SkyMaterial topMaterial = getTopMaterial();
         topMaterial.setObjectColor(sunIndex, sunColor);
         topMaterial.setObjectGlow(sunIndex, sunColor);
@@ -869,27 +1077,24 @@ public class SkyControl extends SkyControlCore {
         green = FastMath.saturate(2f * sineLunarAltitude + 0.6f);
         blue = FastMath.saturate(5f * sineLunarAltitude + 0.1f);
         ColorRGBA moonColor
-                = new ColorRGBA(1f, green, blue, Constants.alphaMax);
+                = tmpMoonColor.set(1f, green, blue, Constants.alphaMax);
         topMaterial.setObjectColor(moonIndex, moonColor);
     }
 
     /**
      * Update the sun's position and size.
      *
-     * @return world direction to the sun (new unit vector)
+     * @param worldDirection world direction to the sun (length=1, unaffected)
      */
-    private Vector3f updateSun() {
+    private void updateSun(Vector3f worldDirection) {
         // Calculate the UV coordinates of the center of the sun.
-        Vector3f worldDirection = sunAndStars.sunDirection(null);
         DomeMesh topMesh = getTopMesh();
-        Vector2f uv = topMesh.directionUV(worldDirection);
+        Vector2f uv = topUV.directionUV(topMesh, worldDirection, tmpUV);
         SkyMaterial topMaterial = getTopMaterial();
         if (uv == null) { // The sun is below the horizon, so hide it.
             topMaterial.hideObject(sunIndex);
         } else {
-            topMaterial.setObjectTransform(sunIndex, uv, sunScale, null);
+            topMaterial.setObjectTransform(sunIndex, uv.x, uv.y, sunScale);
         }
-
-        return worldDirection;
     }
 }
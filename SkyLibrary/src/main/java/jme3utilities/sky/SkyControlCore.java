@@ -50,10 +50,8 @@ import java.io.IOException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import jme3utilities.MyAsset;
-import jme3utilities.MySpatial;
 import jme3utilities.SubtreeControl;
 import jme3utilities.Validate;
-import jme3utilities.math.MyColor;
 import jme3utilities.mesh.DomeMesh;
 
 /**
@@ -85,34 +83,15 @@ public class SkyControlCore extends SubtreeControl {
      * maximum number of cloud layers
      */
     final public static int numCloudLayers = 6;
-    /**
-     * number of samples in each longitudinal arc of a major dome, including
-     * both its top and its rim (&ge;2)
-     */
-    final private static int numLongitudinalSamples = 16;
-    /**
-     * number of samples around the rim of a dome (&ge;3)
-     */
-    final private static int numRimSamples = 60;
     /**
      * message logger for this class
      */
     final private static Logger logger
             = Logger.getLogger(SkyControlCore.class.getName());
-    /**
-     * reusable mesh for smooth, inward-facing domes
-     */
-    final private static DomeMesh hemisphereMesh
-            = new DomeMesh(numRimSamples, numLongitudinalSamples,
-            Constants.topU, Constants.topV, Constants.uvScale, true);
-    /**
-     * local copy of {@link com.jme3.math.Quaternion#IDENTITY}
-     */
-    final private static Quaternion rotationIdentity = new Quaternion();
     /**
      * name for the bottom geometry
      */
-    final private static String bottomName = "bottom";
+    final static String bottomName = "bottom";
     /**
      * name for the clouds-only geometry
      */
@@ -124,7 +103,7 @@ public class SkyControlCore extends SubtreeControl {
     /**
      * name for the top geometry
      */
-    final private static String topName = "top";
+    final static String topName = "top";
     /**
      * local copy of {@link com.jme3.math.Vector3f#UNIT_X}
      */
@@ -158,15 +137,19 @@ public class SkyControlCore extends SubtreeControl {
      */
     private boolean stabilizeFlag = false;
     /**
-     * which camera to track: set by constructor or
-     * {@link #setCamera(com.jme3.renderer.Camera)} or {@link
-     * #render(com.jme3.renderer.RenderManager, com.jme3.renderer.ViewPort)}
+     * which camera to track with the subtree: set by constructor or
+     * {@link #setCamera(com.jme3.renderer.Camera)}, or else by the first
+     * viewport to render
      */
     private Camera camera;
     /**
      * information about individual cloud layers - TODO privatize
      */
     protected CloudLayer[] cloudLayers;
+    /**
+     * dome meshes for each camera
+     */
+    private DomeTessellation tessellation = new DomeTessellation(false);
     /**
      * simulation time for cloud layer animations (initially 0, may be negative)
      */
@@ -175,6 +158,11 @@ public class SkyControlCore extends SubtreeControl {
      * rate of motion for cloud layer animations (default is 1, may be negative)
      */
     private float cloudsRate = 1f;
+    /**
+     * count of changes to the sky state that's managed directly by this
+     * control: not serialized
+     */
+    private int version = 0;
     /**
      * the difference in celestial longitude (lambda) between the moon and the
      * sun (in radians, measured eastward from the sun, default is Pi)
@@ -190,6 +178,11 @@ public class SkyControlCore extends SubtreeControl {
      * how stars are rendered: set by constructor
      */
     protected StarsOption starsOption; // TODO privatize
+    /**
+     * copies of the subtree for cameras other than the tracked one: not
+     * serialized
+     */
+    private ViewPortPlacements placements = new ViewPortPlacements();
     // *************************************************************************
     // constructors
 
@@ -204,6 +197,23 @@ public class SkyControlCore extends SubtreeControl {
         this.cloudLayers = null;
     }
 
+    /**
+     * Instantiate a disabled control that renders any flattened clouds in a
+     * separate pass.
+     *
+     * @param assetManager for loading assets (not null)
+     * @param camera the application's camera (not null)
+     * @param cloudFlattening the oblateness of the dome with the clouds
+     * @param starsOption how stars are rendered (not null)
+     * @param bottomDomeFlag true to create a bottom dome, otherwise false
+     */
+    public SkyControlCore(
+            AssetManager assetManager, Camera camera, float cloudFlattening,
+            StarsOption starsOption, boolean bottomDomeFlag) {
+        this(assetManager, camera, cloudFlattening, starsOption,
+                bottomDomeFlag, false);
+    }
+
     /**
      * Instantiate a disabled control for no clouds, full moon, no cloud
      * modulation, no lights, no shadows, and no viewports. For a visible sky,
@@ -220,10 +230,13 @@ public class SkyControlCore extends SubtreeControl {
      * @param bottomDomeFlag true to create a bottom dome, false to leave this
      * region to background color (if starsOption==TopDome) or stars (if
      * starsOption!=TopDome)
+     * @param singlePass true to render flattened clouds in the same pass as
+     * the top dome, roughly halving the sky's fill cost, false to render them
+     * on a separate dome (ignored if cloudFlattening=0)
      */
-    public SkyControlCore(
-            AssetManager assetManager, Camera camera, float cloudFlattening,
-            StarsOption starsOption, boolean bottomDomeFlag) {
+    public SkyControlCore(AssetManager assetManager, Camera camera,
+            float cloudFlattening, StarsOption starsOption,
+            boolean bottomDomeFlag, boolean singlePass) {
         Validate.nonNull(assetManager, "asset manager");
         Validate.nonNull(camera, "camera");
         if (!(cloudFlattening >= 0f && cloudFlattening < 1f)) {
@@ -240,18 +253,20 @@ public class SkyControlCore extends SubtreeControl {
 
         // Create and initialize the sky material for sun, moon, and haze.
         int topObjects = 2; // a sun and a moon
-        boolean cloudDomeFlag = cloudFlattening != 0f;
-        int topCloudLayers = cloudDomeFlag ? 0 : numCloudLayers;
-        SkyMaterial topMaterial
-                = new SkyMaterial(assetManager, topObjects, topCloudLayers);
+        boolean separateFlag = cloudFlattening != 0f && !singlePass;
+        int topCloudLayers = separateFlag ? 0 : numCloudLayers;
+        SkyMaterial topMaterial = (cloudFlattening != 0f && singlePass
+                || TopDomeStars.usesRotation(starsOption))
+                ? new SkyMaterial(assetManager, CloudProjection.matDefsPath)
+                : new SkyMaterial(assetManager, topObjects, topCloudLayers);
         topMaterial.initialize();
         topMaterial.addHaze();
-        if (starsOption == StarsOption.TopDome) {
-            topMaterial.addStars();
-        }
+        // Rendered after opaque geometry at the far plane, so no depth writes.
+        topMaterial.getAdditionalRenderState().setDepthWrite(false);
+        TopDomeStars.addDefault(assetManager, topMaterial, starsOption);
 
         SkyMaterial cloudsMaterial;
-        if (cloudDomeFlag) {
+        if (separateFlag) {
             // Create and initialize a separate sky material for clouds only.
             int numObjects = 0;
             cloudsMaterial
@@ -270,11 +285,10 @@ public class SkyControlCore extends SubtreeControl {
                     = new CloudLayer(cloudsMaterial, layerIndex);
         }
 
-        Material bottomMaterial;
+        Material bottomMaterial = null;
         if (bottomDomeFlag) {
             bottomMaterial = MyAsset.createUnshadedMaterial(assetManager);
-        } else {
-            bottomMaterial = null;
+            bottomMaterial.getAdditionalRenderState().setDepthWrite(false);
         }
 
         createSpatials(
@@ -285,6 +299,25 @@ public class SkyControlCore extends SubtreeControl {
     // *************************************************************************
     // new methods exposed
 
+    /**
+     * Access the sky node, for copying by a SkyView.
+     *
+     * @return the pre-existing instance (not null)
+     */
+    Spatial accessSubtree() {
+        Spatial result = getSubtree();
+        return result;
+    }
+
+    /**
+     * Access the tessellation, for configuration by a SkyControl.
+     *
+     * @return the pre-existing instance (not null)
+     */
+    DomeTessellation accessTessellation() {
+        return tessellation;
+    }
+
     /**
      * Clear the star maps.
      */
@@ -295,9 +328,10 @@ public class SkyControlCore extends SubtreeControl {
                 removeStarsNode();
                 break;
 
+            case TopCube:
             case TopDome:
-                SkyMaterial topMaterial = getTopMaterial();
-                topMaterial.removeStars();
+            case TopTwoDomes:
+                TopDomeStars.clear(getTopMaterial(), starsOption);
                 break;
 
             default:
@@ -320,6 +354,15 @@ public class SkyControlCore extends SubtreeControl {
         return layer;
     }
 
+    /**
+     * Return the simulation time for cloud-layer animations.
+     *
+     * @return the time (in seconds, may be negative)
+     */
+    public float getCloudsAnimationTime() {
+        return cloudsAnimationTime;
+    }
+
     /**
      * Return the speed and direction of cloud motion (all layers).
      *
@@ -372,21 +415,21 @@ public class SkyControlCore extends SubtreeControl {
      * contribution
      */
     public float getMoonIllumination() {
-        float fullAngle = FastMath.abs(longitudeDifference - FastMath.PI);
-        if (lunarLatitude != 0f) {
-            float cos = FastMath.cos(fullAngle) * FastMath.cos(lunarLatitude);
-            fullAngle = FastMath.acos(cos);
-        }
-        assert fullAngle >= 0f : fullAngle;
-        assert fullAngle <= FastMath.PI : fullAngle;
-
-        float weight = 1f - FastMath.saturate(fullAngle * 0.6f);
-
-        assert weight >= 0f : weight;
-        assert weight <= 1f : weight;
+        float weight = SkyEngine.moonIllumination(
+                longitudeDifference, lunarLatitude);
         return weight;
     }
 
+    /**
+     * Test the stabilize flag.
+     *
+     * @return true if rotation of the controlled node is counteracted,
+     * otherwise false
+     */
+    public boolean getStabilizeFlag() {
+        return stabilizeFlag;
+    }
+
     /**
      * Return the vertical angle of the top dome.
      *
@@ -402,7 +445,24 @@ public class SkyControlCore extends SubtreeControl {
     }
 
     /**
-     * Alter which camera to track.
+     * Return the version of the sky state, which is incremented each time a
+     * setter alters something that affects the per-frame sky update. The
+     * result includes the versions of all cloud layers.
+     *
+     * @return the version number (wraps around on overflow)
+     */
+    public int getVersion() {
+        int result = version;
+        for (int layer = 0; layer < numCloudLayers; ++layer) {
+            result += cloudLayers[layer].getVersion();
+        }
+
+        return result;
+    }
+
+    /**
+     * Alter which camera to track with the subtree. Other cameras that render
+     * the sky are served by lightweight copies of the subtree.
      *
      * @param camera which camera to track (not null, alias created)
      */
@@ -458,6 +518,7 @@ public class SkyControlCore extends SubtreeControl {
 
         float deltaY = -newYOffset * cloudsOnlyDome.getLocalScale().y;
         cloudsOnlyDome.setLocalTranslation(0f, deltaY, 0f);
+        ++version;
     }
 
     /**
@@ -487,11 +548,11 @@ public class SkyControlCore extends SubtreeControl {
     /**
      * Alter the star map.
      *
-     * @param assetName if starsOption==Cube: name of a cube-map folder in
-     * Textures/skies/star-maps (not null, not empty)<br>
+     * @param assetName if starsOption==Cube or TopCube: name of a cube-map
+     * folder in Textures/skies/star-maps (not null, not empty)<br>
      * if starsOption==TopDome: path to texture asset (not null, not empty)<br>
-     * if starsOption==TwoDomes: path to an asset folder containing northern.png
-     * and southern.png (not null, not empty)
+     * if starsOption==TwoDomes or TopTwoDomes: path to an asset folder
+     * containing northern.png and southern.png (not null, not empty)
      */
     final public void setStarMaps(String assetName) {
         Validate.nonEmpty(assetName, "asset name");
@@ -505,9 +566,11 @@ public class SkyControlCore extends SubtreeControl {
                 ((Node) getSubtree()).attachChildAt(starNode, 0);
                 break;
 
+            case TopCube:
             case TopDome:
-                SkyMaterial topMaterial = getTopMaterial();
-                topMaterial.addStars(assetName);
+            case TopTwoDomes:
+                TopDomeStars.load(
+                        assetManager, getTopMaterial(), starsOption, assetName);
                 break;
 
             case TwoDomes:
@@ -543,6 +606,7 @@ public class SkyControlCore extends SubtreeControl {
             DomeMesh bottomMesh = getBottomMesh();
             bottomMesh.setVerticalAngle(FastMath.PI - newAngle);
         }
+        ++version;
     }
     // *************************************************************************
     // protected methods
@@ -554,8 +618,7 @@ public class SkyControlCore extends SubtreeControl {
      */
     protected Geometry getBottomDome() {
         Node subtreeNode = (Node) getSubtree();
-        Geometry bottomDome
-                = (Geometry) MySpatial.findChild(subtreeNode, bottomName);
+        Geometry bottomDome = (Geometry) subtreeNode.getChild(bottomName);
 
         return bottomDome;
     }
@@ -597,8 +660,7 @@ public class SkyControlCore extends SubtreeControl {
      */
     protected Geometry getCloudsOnlyDome() {
         Node subtreeNode = (Node) getSubtree();
-        Geometry cloudsOnlyDome
-                = (Geometry) MySpatial.findChild(subtreeNode, cloudsName);
+        Geometry cloudsOnlyDome = (Geometry) subtreeNode.getChild(cloudsName);
 
         return cloudsOnlyDome;
     }
@@ -610,12 +672,8 @@ public class SkyControlCore extends SubtreeControl {
      */
     protected SkyMaterial getCloudsMaterial() {
         Geometry cloudsOnlyDome = getCloudsOnlyDome();
-        SkyMaterial cloudsMaterial;
-        if (cloudsOnlyDome == null) {
-            cloudsMaterial = getTopMaterial();
-        } else {
-            cloudsMaterial = (SkyMaterial) cloudsOnlyDome.getMaterial();
-        }
+        SkyMaterial cloudsMaterial = (cloudsOnlyDome == null)
+                ? getTopMaterial() : (SkyMaterial) cloudsOnlyDome.getMaterial();
 
         assert cloudsMaterial != null;
         return cloudsMaterial;
@@ -647,7 +705,7 @@ public class SkyControlCore extends SubtreeControl {
      */
     protected Node getStarsNode() {
         Node subtreeNode = (Node) getSubtree();
-        Node starsNode = (Node) MySpatial.findChild(subtreeNode, starsNodeName);
+        Node starsNode = (Node) subtreeNode.getChild(starsNodeName);
 
         return starsNode;
     }
@@ -659,7 +717,7 @@ public class SkyControlCore extends SubtreeControl {
      */
     protected Geometry getTopDome() {
         Node subtreeNode = (Node) getSubtree();
-        Geometry topDome = (Geometry) MySpatial.findChild(subtreeNode, topName);
+        Geometry topDome = (Geometry) subtreeNode.getChild(topName);
 
         assert topDome != null;
         return topDome;
@@ -691,6 +749,14 @@ public class SkyControlCore extends SubtreeControl {
         return topMesh;
     }
 
+    /**
+     * Increment the version of the sky state. Invoke this after altering state
+     * that affects the per-frame sky update.
+     */
+    protected void incrementVersion() {
+        ++version;
+    }
+
     /**
      * Apply a modified version of the base color to each cloud layer.
      * <p>
@@ -703,23 +769,47 @@ public class SkyControlCore extends SubtreeControl {
      */
     protected ColorRGBA updateCloudsColor(
             ColorRGBA baseColor, boolean sunUp, boolean moonUp) {
-        assert baseColor != null;
+        ColorRGBA result = updateCloudsColor(baseColor, sunUp, moonUp, null);
+        return result;
+    }
 
-        ColorRGBA cloudsColor = MyColor.saturate(baseColor);
-        if (!sunUp) {
-            // At night, darken the clouds by 15%-75%.
-            float cloudBrightness = 0.25f;
-            if (moonUp) {
-                cloudBrightness += 0.6f * getMoonIllumination();
-            }
-            cloudsColor.multLocal(cloudBrightness);
-        }
+    /**
+     * Apply a modified version of the base color to each cloud layer.
+     * <p>
+     * The return value is used in calculating ambient light intensity.
+     *
+     * @param baseColor (not null, unaffected, alpha is ignored)
+     * @param sunUp true if sun is above the horizon, otherwise false
+     * @param moonUp true if moon is above the horizon, otherwise false
+     * @param storeResult storage for the result (modified if not null)
+     * @return the clouds color (either storeResult or a new instance, alpha is
+     * undefined)
+     */
+    protected ColorRGBA updateCloudsColor(ColorRGBA baseColor, boolean sunUp,
+            boolean moonUp, ColorRGBA storeResult) {
+        assert baseColor != null;
+        float moonIllumination = getMoonIllumination();
+        ColorRGBA cloudsColor = SkyEngine.cloudsColor(
+                baseColor, sunUp, moonUp, moonIllumination, storeResult);
         for (int layer = 0; layer < numCloudLayers; ++layer) {
             cloudLayers[layer].setColor(cloudsColor);
         }
 
         return cloudsColor;
     }
+
+    /**
+     * Place the copies of the subtree for cameras other than the tracked one.
+     * Subclasses should invoke this at the end of controlUpdate(), after any
+     * further changes to the subtree's descendants.
+     */
+    protected void updatePlacements() {
+        if (camera != null) {
+            Spatial subtree = getSubtree();
+            placements.update(subtree, camera, subtree.getParent(),
+                    stabilizeFlag, tessellation);
+        }
+    }
     // *************************************************************************
     // SubtreeControl methods
 
@@ -748,6 +838,8 @@ public class SkyControlCore extends SubtreeControl {
 
         this.camera = cloner.clone(camera);
         this.cloudLayers = cloner.clone(cloudLayers);
+        this.placements = new ViewPortPlacements();
+        this.tessellation = new DomeTessellation(tessellation.isAdaptive());
     }
 
     /**
@@ -766,24 +858,10 @@ public class SkyControlCore extends SubtreeControl {
 
         updateClouds(updateInterval);
 
-        // Translate the sky node to center the sky on the camera.
-        Vector3f cameraLocation = camera.getLocation();
-        Spatial subtree = getSubtree();
-        MySpatial.setWorldLocation(subtree, cameraLocation);
-        /*
-         * Scale the sky node so that its furthest geometries are midway
-         * between the near and far planes of the view frustum.
-         */
-        float far = camera.getFrustumFar();
-        float near = camera.getFrustumNear();
-        float radius = (near + far) / 2f;
+        // Center and scale the sky node for the tracked camera.
         assert getSubtree().getParent() == spatial;
-        MySpatial.setWorldScale(subtree, radius);
-
-        if (stabilizeFlag) {
-            // Counteract rotation of the controlled node.
-            MySpatial.setWorldOrientation(subtree, rotationIdentity);
-        }
+        ViewPortPlacements.place(getSubtree(), camera, stabilizeFlag);
+        tessellation.apply(getSubtree(), camera, getSubtree());
     }
 
     /**
@@ -818,7 +896,7 @@ public class SkyControlCore extends SubtreeControl {
 
     /**
      * Callback invoked when the controlled spatial is about to be rendered to a
-     * viewport.
+     * viewport. Selects the copy of the sky placed for the viewport's camera.
      *
      * @param renderManager (not null)
      * @param viewPort viewport where the spatial will be rendered (not null)
@@ -826,7 +904,42 @@ public class SkyControlCore extends SubtreeControl {
     @Override
     public void render(RenderManager renderManager, ViewPort viewPort) {
         super.render(renderManager, viewPort);
-        this.camera = viewPort.getCamera();
+
+        Camera viewCamera = viewPort.getCamera();
+        if (camera == null) {
+            this.camera = viewCamera;
+        }
+        placements.select(getSubtree(), camera, viewCamera);
+    }
+
+    /**
+     * Enable or disable this control. Disabling also discards the copies of
+     * the subtree.
+     *
+     * @param newState true to enable, false to disable
+     */
+    @Override
+    public void setEnabled(boolean newState) {
+        // The placements are null during super-class construction.
+        if (!newState && placements != null) {
+            placements.clear();
+        }
+        super.setEnabled(newState);
+    }
+
+    /**
+     * Alter which spatial is controlled, discarding the copies of the
+     * subtree. Invoked when the control is added to or removed from a
+     * spatial.
+     *
+     * @param newSpatial the spatial to control (or null)
+     */
+    @Override
+    public void setSpatial(Spatial newSpatial) {
+        if (newSpatial != spatial && placements != null) {
+            placements.clear();
+        }
+        super.setSpatial(newSpatial);
     }
 
     /**
@@ -884,13 +997,12 @@ public class SkyControlCore extends SubtreeControl {
 
             default:
         }
-        Geometry topDome = new Geometry(topName, hemisphereMesh.clone());
+        Geometry topDome = new Geometry(topName, tessellation.defaultTop());
         subtreeNode.attachChild(topDome);
         topDome.setMaterial(topMaterial);
 
         if (bottomDomeFlag) {
-            DomeMesh bottomMesh = new DomeMesh(numRimSamples, 2, Constants.topU,
-                    Constants.topV, Constants.uvScale, true);
+            DomeMesh bottomMesh = tessellation.defaultBottom();
             Geometry bottomDome = new Geometry(bottomName, bottomMesh);
             subtreeNode.attachChild(bottomDome);
 
@@ -900,11 +1012,13 @@ public class SkyControlCore extends SubtreeControl {
             bottomDome.setMaterial(bottomMaterial);
         }
 
-        if (cloudsMaterial != topMaterial) {
-            assert cloudFlattening > 0f : cloudFlattening;
-            assert cloudFlattening < 1f : cloudFlattening;
-
-            Geometry cloudsOnlyDome = new Geometry(cloudsName, hemisphereMesh);
+        if (cloudFlattening != 0f) { // validated by the constructor
+            // With single-pass clouds, this dome only defines their shape.
+            Geometry cloudsOnlyDome = new Geometry(
+                    cloudsName, DomeTessellation.defaultHemisphere());
+            if (cloudsMaterial == topMaterial) {
+                cloudsOnlyDome.setCullHint(Spatial.CullHint.Always);
+            }
             subtreeNode.attachChild(cloudsOnlyDome);
             /*
              * Flatten the clouds-only dome in order to foreshorten clouds
@@ -929,6 +1043,7 @@ public class SkyControlCore extends SubtreeControl {
 
         Node starNode = new Node(starsNodeName);
 
+        DomeMesh hemisphereMesh = DomeTessellation.defaultHemisphere();
         Geometry northGeometry = new Geometry("northern stars", hemisphereMesh);
         starNode.attachChild(northGeometry);
         String northAssetPath = assetPath + "/northern.png";
@@ -0,0 +1,513 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import com.jme3.app.Application;
+import com.jme3.app.state.AppStateManager;
+import com.jme3.asset.AssetManager;
+import com.jme3.material.Material;
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.FastMath;
+import com.jme3.math.Vector3f;
+import com.jme3.renderer.Camera;
+import com.jme3.renderer.ViewPort;
+import com.jme3.renderer.queue.RenderQueue;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+import com.jme3.scene.shape.Sphere;
+import com.jme3.texture.FrameBuffer;
+import com.jme3.texture.FrameBuffer.FrameBufferTarget;
+import com.jme3.texture.Image;
+import com.jme3.texture.Texture;
+import com.jme3.texture.TextureCubeMap;
+import java.util.logging.Logger;
+import jme3utilities.SimpleAppState;
+import jme3utilities.Validate;
+
+/**
+ * A simple app state to bake the sky of a SkyControl into a cube map, for
+ * secondary consumers such as reflection viewports, water, minimaps, and
+ * light probes, which can sample the cube map instead of rendering the
+ * multi-layer domes themselves.
+ * <p>
+ * A refresh starts when the refresh interval has elapsed or when the sun
+ * has moved more than the direction threshold since the previous refresh.
+ * To spread the cost, each refresh renders one face per frame, so it
+ * completes in 6 frames. Between refreshes the off-screen viewport is
+ * disabled. The faces follow OpenGL conventions, so world directions index
+ * the cube map directly.
+ * <p>
+ * Each instance is enabled at creation.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+public class SkyCubeBaker extends SimpleAppState {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * number of faces in a cube map
+     */
+    final private static int numFaces = 6;
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(SkyCubeBaker.class.getName());
+    /**
+     * name for the off-screen render of the faces
+     */
+    final private static String preViewName = "sky cube baker";
+    /**
+     * camera direction for each face, in the order of the TextureCubeMap.Face
+     * enum
+     */
+    final private static Vector3f[] faceDirection = {
+        new Vector3f(1f, 0f, 0f), new Vector3f(-1f, 0f, 0f),
+        new Vector3f(0f, 1f, 0f), new Vector3f(0f, -1f, 0f),
+        new Vector3f(0f, 0f, 1f), new Vector3f(0f, 0f, -1f)
+    };
+    /**
+     * camera's left direction for each face (opposite the OpenGL S axis)
+     */
+    final private static Vector3f[] faceLeft = {
+        new Vector3f(0f, 0f, 1f), new Vector3f(0f, 0f, -1f),
+        new Vector3f(-1f, 0f, 0f), new Vector3f(-1f, 0f, 0f),
+        new Vector3f(-1f, 0f, 0f), new Vector3f(1f, 0f, 0f)
+    };
+    /**
+     * camera's up direction for each face (the OpenGL T axis)
+     */
+    final private static Vector3f[] faceUp = {
+        new Vector3f(0f, -1f, 0f), new Vector3f(0f, -1f, 0f),
+        new Vector3f(0f, 0f, 1f), new Vector3f(0f, 0f, -1f),
+        new Vector3f(0f, -1f, 0f), new Vector3f(0f, -1f, 0f)
+    };
+    // *************************************************************************
+    // fields
+
+    /**
+     * true to start a refresh at the next update
+     */
+    private boolean refreshRequested = true;
+    /**
+     * camera for the off-screen render of the faces (set by constructor)
+     */
+    final private Camera camera;
+    /**
+     * cosine of the direction threshold
+     */
+    private float cosDirectionThreshold;
+    /**
+     * maximum movement of the sun that doesn't trigger a refresh (in radians,
+     * &ge;0, default=0.01)
+     */
+    private float directionThreshold;
+    /**
+     * maximum time between refreshes (in seconds, &ge;0, default=1)
+     */
+    private float refreshInterval = 1f;
+    /**
+     * time since the start of the most recent refresh (in seconds)
+     */
+    private float sinceRefresh = 0f;
+    /**
+     * frame buffer for each face of the cube map (set by constructor)
+     */
+    final private FrameBuffer[] faceBuffers = new FrameBuffer[numFaces];
+    /**
+     * index of the next face to render, or -1 if no refresh is in progress
+     */
+    private int nextFace = -1;
+    /**
+     * number of faces rendered since the counters were reset
+     */
+    private long faceCount = 0L;
+    /**
+     * number of refreshes completed since the counters were reset
+     */
+    private long refreshCount = 0L;
+    /**
+     * time spent preparing faces since the counters were reset (in
+     * nanoseconds)
+     */
+    private long updateNanos = 0L;
+    /**
+     * root node of the off-screen scene (set by constructor)
+     */
+    final private Node bakeRoot = new Node("sky cube root");
+    /**
+     * control whose sky is baked (set by constructor)
+     */
+    final private SkyControl source;
+    /**
+     * output texture (set by constructor)
+     */
+    final private TextureCubeMap cubeMap;
+    /**
+     * direction to the sun at the start of the most recent refresh (in world
+     * coordinates)
+     */
+    final private Vector3f refreshedSunDirection = new Vector3f();
+    /**
+     * reusable direction to the sun
+     */
+    final private Vector3f tmpSunDirection = new Vector3f();
+    /**
+     * off-screen viewport: set by initialize()
+     */
+    private ViewPort preView = null;
+    /**
+     * to create and place the copy of the source's subtree that's rendered
+     * to the faces
+     */
+    final private ViewPortPlacements placements = new ViewPortPlacements();
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate a new enabled, uninitialized baker for the specified
+     * control.
+     *
+     * @param source the control whose sky will be baked (not null, alias
+     * created)
+     * @param outputFormat the format of the cube map (not null, for example
+     * RGBA8 or RGB16F)
+     * @param resolution number of pixels per side of each face (&gt;0)
+     */
+    public SkyCubeBaker(
+            SkyControl source, Image.Format outputFormat, int resolution) {
+        super(true);
+        Validate.nonNull(source, "source");
+        Validate.nonNull(outputFormat, "format");
+        Validate.positive(resolution, "resolution");
+
+        this.source = source;
+        setDirectionThreshold(0.01f);
+
+        // Aim a square, 90-degree camera from the origin, like a face.
+        this.camera = new Camera(resolution, resolution);
+        float yDegrees = 90f;
+        float aspectRatio = 1f;
+        float near = 1f;
+        float far = 10f;
+        camera.setFrustumPerspective(yDegrees, aspectRatio, near, far);
+        camera.setLocation(new Vector3f(0f, 0f, 0f));
+
+        this.cubeMap = new TextureCubeMap(resolution, resolution, outputFormat);
+        cubeMap.setMagFilter(Texture.MagFilter.Bilinear);
+        cubeMap.setMinFilter(Texture.MinFilter.BilinearNoMipMaps);
+
+        int numSamples = 1;
+        TextureCubeMap.Face[] faces = TextureCubeMap.Face.values();
+        for (int faceIndex = 0; faceIndex < numFaces; ++faceIndex) {
+            FrameBuffer buffer
+                    = new FrameBuffer(resolution, resolution, numSamples);
+            buffer.addColorTarget(
+                    FrameBufferTarget.newTarget(cubeMap, faces[faceIndex]));
+            faceBuffers[faceIndex] = buffer;
+        }
+
+        assert isEnabled();
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Create a geometry that shows the cube map, for a secondary viewport to
+     * use in place of the sky domes. The geometry is a unit sphere in the Sky
+     * bucket that the shader keeps centered on the camera and pinned to the
+     * far plane, so it needn't be placed.
+     *
+     * @param assetManager for loading the material (not null)
+     * @return a new orphan geometry
+     */
+    public Geometry createSkyGeometry(AssetManager assetManager) {
+        Validate.nonNull(assetManager, "asset manager");
+
+        String assetPath = "MatDefs/skies/baked/baked.j3md";
+        Material material = new Material(assetManager, assetPath);
+        material.setTexture("CubeMap", cubeMap);
+
+        int zSamples = 16;
+        int radialSamples = 32;
+        float radius = 1f;
+        boolean useEvenSlices = false;
+        boolean interior = true;
+        Sphere mesh = new Sphere(
+                zSamples, radialSamples, radius, useEvenSlices, interior);
+        Geometry result = new Geometry("baked sky", mesh);
+        result.setCullHint(Spatial.CullHint.Never);
+        result.setMaterial(material);
+        result.setQueueBucket(RenderQueue.Bucket.Sky);
+
+        return result;
+    }
+
+    /**
+     * Return the number of faces rendered since the counters were reset.
+     *
+     * @return the count (&ge;0)
+     */
+    public long getFaceCount() {
+        assert faceCount >= 0L : faceCount;
+        return faceCount;
+    }
+
+    /**
+     * Return the direction threshold.
+     *
+     * @return the maximum movement of the sun that doesn't trigger a refresh
+     * (in radians, &ge;0)
+     */
+    public float getDirectionThreshold() {
+        assert directionThreshold >= 0f : directionThreshold;
+        return directionThreshold;
+    }
+
+    /**
+     * Return the number of refreshes completed since the counters were reset.
+     *
+     * @return the count (&ge;0)
+     */
+    public long getRefreshCount() {
+        assert refreshCount >= 0L : refreshCount;
+        return refreshCount;
+    }
+
+    /**
+     * Return the refresh interval.
+     *
+     * @return the maximum time between refreshes (in seconds, &ge;0)
+     */
+    public float getRefreshInterval() {
+        assert refreshInterval >= 0f : refreshInterval;
+        return refreshInterval;
+    }
+
+    /**
+     * Access the output texture.
+     *
+     * @return the pre-existing instance
+     */
+    public TextureCubeMap getTexture() {
+        assert cubeMap != null;
+        return cubeMap;
+    }
+
+    /**
+     * Return the CPU time spent preparing faces since the counters were
+     * reset. The GPU cost is proportional to the face count.
+     *
+     * @return the total time (in nanoseconds, &ge;0)
+     */
+    public long getUpdateNanos() {
+        assert updateNanos >= 0L : updateNanos;
+        return updateNanos;
+    }
+
+    /**
+     * Test whether a refresh is in progress.
+     *
+     * @return true if refreshing, otherwise false
+     */
+    public boolean isRefreshing() {
+        boolean result = (nextFace >= 0);
+        return result;
+    }
+
+    /**
+     * Start a refresh at the next update, unless one is already in progress.
+     */
+    public void requestRefresh() {
+        this.refreshRequested = true;
+    }
+
+    /**
+     * Reset the face count, refresh count, and update time to zero.
+     */
+    public void resetCounters() {
+        this.faceCount = 0L;
+        this.refreshCount = 0L;
+        this.updateNanos = 0L;
+    }
+
+    /**
+     * Alter the direction threshold.
+     *
+     * @param newThreshold the maximum movement of the sun that doesn't trigger
+     * a refresh (in radians, &ge;0, &le;Pi, default=0.01)
+     */
+    public void setDirectionThreshold(float newThreshold) {
+        Validate.inRange(newThreshold, "new threshold", 0f, FastMath.PI);
+
+        this.directionThreshold = newThreshold;
+        this.cosDirectionThreshold = FastMath.cos(newThreshold);
+    }
+
+    /**
+     * Alter the refresh interval.
+     *
+     * @param newInterval the maximum time between refreshes (in seconds,
+     * &ge;0, default=1, 0 &rarr; refresh continuously)
+     */
+    public void setRefreshInterval(float newInterval) {
+        Validate.nonNegative(newInterval, "new interval");
+        this.refreshInterval = newInterval;
+    }
+    // *************************************************************************
+    // SimpleAppState methods
+
+    /**
+     * Clean up this baker after it has been detached. Should be invoked only
+     * by a subclass or by the AppStateManager.
+     */
+    @Override
+    public void cleanup() {
+        boolean success = renderManager.removePreView(preView);
+        assert success;
+        this.preView = null;
+        placements.clear();
+        this.nextFace = -1;
+
+        super.cleanup();
+    }
+
+    /**
+     * Initialize this baker prior to its first update. Should be invoked only
+     * by a subclass or by the AppStateManager.
+     *
+     * @param stateManager (not null)
+     * @param application which application owns this baker (not null)
+     */
+    @Override
+    public void initialize(
+            AppStateManager stateManager, Application application) {
+        super.initialize(stateManager, application);
+
+        this.preView = renderManager.createPreView(preViewName, camera);
+        preView.attachScene(bakeRoot);
+        preView.setBackgroundColor(ColorRGBA.Black);
+        preView.setClearFlags(true, true, true);
+        preView.setEnabled(false);
+        preView.setOutputFrameBuffer(faceBuffers[0]);
+    }
+
+    /**
+     * Enable or disable this baker. A disabled baker leaves its cube map as
+     * it is.
+     *
+     * @param newSetting true &rarr; enable, false &rarr; disable
+     */
+    @Override
+    public void setEnabled(boolean newSetting) {
+        if (!newSetting && preView != null) {
+            preView.setEnabled(false);
+        }
+        super.setEnabled(newSetting);
+    }
+
+    /**
+     * Start a refresh if one is due, and prepare the next face if a refresh
+     * is in progress.
+     *
+     * @param tpf time interval between frames (in seconds, &ge;0)
+     */
+    @Override
+    public void update(float tpf) {
+        super.update(tpf);
+
+        long startNanos = System.nanoTime();
+        this.sinceRefresh += tpf;
+        if (nextFace < 0 && isRefreshDue()) {
+            this.nextFace = 0;
+            this.refreshRequested = false;
+            this.sinceRefresh = 0f;
+            source.getSunAndStars().sunDirection(refreshedSunDirection);
+        }
+
+        if (nextFace >= 0) {
+            prepareFace(nextFace);
+            preView.setEnabled(true);
+            ++faceCount;
+            ++nextFace;
+            if (nextFace == numFaces) {
+                this.nextFace = -1;
+                ++refreshCount;
+            }
+        } else {
+            preView.setEnabled(false);
+        }
+        this.updateNanos += System.nanoTime() - startNanos;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Test whether a new refresh should start.
+     *
+     * @return true if one is due, otherwise false
+     */
+    private boolean isRefreshDue() {
+        if (refreshRequested || sinceRefresh >= refreshInterval) {
+            return true;
+        }
+
+        Vector3f sunDirection
+                = source.getSunAndStars().sunDirection(tmpSunDirection);
+        float dot = sunDirection.dot(refreshedSunDirection);
+        boolean result = (dot < cosDirectionThreshold);
+
+        return result;
+    }
+
+    /**
+     * Aim the camera at the specified face and update the copy of the sky
+     * that's rendered to it.
+     *
+     * @param faceIndex the index of the face, in the order of the
+     * TextureCubeMap.Face enum (&ge;0, &lt;6)
+     */
+    private void prepareFace(int faceIndex) {
+        camera.setAxes(faceLeft[faceIndex], faceUp[faceIndex],
+                faceDirection[faceIndex]);
+        preView.setOutputFrameBuffer(faceBuffers[faceIndex]);
+        /*
+         * Register the camera before the update that creates and places the
+         * copy, then select again, since a new copy inherits whatever cull
+         * hint the subtree had.
+         */
+        Spatial subtree = source.accessSubtree();
+        boolean stabilize = source.getStabilizeFlag();
+        placements.select(null, null, camera);
+        placements.update(subtree, null, bakeRoot, stabilize, null);
+        placements.select(null, null, camera);
+
+        bakeRoot.updateLogicalState(0f);
+        bakeRoot.updateGeometricState();
+    }
+}
@@ -0,0 +1,544 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.FastMath;
+import com.jme3.math.Vector3f;
+import java.util.logging.Logger;
+import jme3utilities.Validate;
+import jme3utilities.math.MyMath;
+
+/**
+ * Calculate the sky's astronomy and lighting without any dependence on the
+ * scene graph, materials, or renderer.
+ * <p>
+ * An engine is suitable for headless applications, such as game servers, as
+ * well as for SkyControl. Each engine reuses its working storage, so it should
+ * be confined to a single thread.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+public class SkyEngine {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * light color and intensity for full moonlight: bluish gray
+     */
+    final private static ColorRGBA moonLight
+            = new ColorRGBA(0.4f, 0.4f, 0.6f, Constants.alphaMax);
+    /**
+     * light color and intensity for moonless night: nearly black
+     */
+    final private static ColorRGBA starLight
+            = new ColorRGBA(0.03f, 0.03f, 0.03f, Constants.alphaMax);
+    /**
+     * light color and intensity for full sunlight: yellowish white
+     */
+    final private static ColorRGBA sunLight
+            = new ColorRGBA(0.8f, 0.8f, 0.75f, Constants.alphaMax);
+    /**
+     * color blended in around sunrise and sunset: ruddy orange
+     */
+    final private static ColorRGBA twilight
+            = new ColorRGBA(0.6f, 0.3f, 0.15f, Constants.alphaMax);
+    /**
+     * extent of the twilight periods before sunrise and after sunset, expressed
+     * as the sine of the sun's angle below the horizon (&le;1, &ge;0)
+     */
+    final private static float limitOfTwilight = 0.1f;
+    /**
+     * precomputed lighting functions for the colors above
+     */
+    final private static LightingTable lightingTable
+            = new LightingTable(sunLight, twilight, moonLight, starLight);
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(SkyEngine.class.getName());
+    /**
+     * light direction for starlight: don't make this perfectly vertical because
+     * that might cause shadow map aliasing
+     */
+    final private static Vector3f starlightDirection
+            = new Vector3f(1f, 9f, 1f).normalizeLocal();
+    // *************************************************************************
+    // fields
+
+    /**
+     * true to look up lighting functions in precomputed tables, false to
+     * calculate them directly (the default)
+     */
+    private boolean lightingTableFlag = false;
+    /**
+     * true if the moon is hidden, otherwise false
+     */
+    private boolean moonHiddenFlag = false;
+    /**
+     * how clouds attenuate the main light (or null if they don't)
+     */
+    private CloudTransmission clouds = null;
+    /**
+     * most recent color and intensity of the ambient light
+     */
+    final private ColorRGBA ambientColor = new ColorRGBA();
+    /**
+     * most recent base color
+     */
+    final private ColorRGBA baseColor = new ColorRGBA();
+    /**
+     * most recent color of the clouds
+     */
+    final private ColorRGBA cloudsColor = new ColorRGBA();
+    /**
+     * most recent color and intensity of the main light
+     */
+    final private ColorRGBA mainColor = new ColorRGBA();
+    /**
+     * the difference in celestial longitude (lambda) between the moon and the
+     * sun (in radians, measured eastward from the sun, default is Pi)
+     */
+    private float longitudeDifference = FastMath.PI;
+    /**
+     * the moon's celestial latitude (beta, in radians, measured north from the
+     * ecliptic, default is 0)
+     */
+    private float lunarLatitude = 0f;
+    /**
+     * most recent values, laid out as in SkyState
+     */
+    final private float[] values = new float[SkyState.numFloats];
+    /**
+     * orientations of the sun and stars relative to the observer
+     */
+    private SunAndStars sunAndStars;
+    /**
+     * most recent direction to the main light source
+     */
+    final private Vector3f mainDirection = new Vector3f();
+    /**
+     * most recent direction to the moon
+     */
+    final private Vector3f moonDirection = new Vector3f();
+    /**
+     * most recent direction to the sun
+     */
+    final private Vector3f sunDirection = new Vector3f();
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate an engine for a full moon, no clouds, and direct
+     * calculation.
+     *
+     * @param sunAndStars the orientations of the sun and stars (not null,
+     * alias created)
+     */
+    public SkyEngine(SunAndStars sunAndStars) {
+        Validate.nonNull(sunAndStars, "sun and stars");
+        this.sunAndStars = sunAndStars;
+    }
+
+    /**
+     * Instantiate an engine with the same configuration as the specified one,
+     * but with different orientations of the sun and stars.
+     *
+     * @param original the engine to copy (not null, unaffected)
+     * @param sunAndStars the orientations of the sun and stars (not null,
+     * alias created)
+     */
+    SkyEngine(SkyEngine original, SunAndStars sunAndStars) {
+        this(sunAndStars);
+
+        this.lightingTableFlag = original.lightingTableFlag;
+        this.moonHiddenFlag = original.moonHiddenFlag;
+        this.clouds = original.clouds;
+        this.longitudeDifference = original.longitudeDifference;
+        this.lunarLatitude = original.lunarLatitude;
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Access the most recent color of the ambient light.
+     *
+     * @return the pre-existing instance (not null)
+     */
+    ColorRGBA accessAmbientColor() {
+        return ambientColor;
+    }
+
+    /**
+     * Access the most recent base color.
+     *
+     * @return the pre-existing instance (not null)
+     */
+    ColorRGBA accessBaseColor() {
+        return baseColor;
+    }
+
+    /**
+     * Access the most recent clouds color.
+     *
+     * @return the pre-existing instance (not null)
+     */
+    ColorRGBA accessCloudsColor() {
+        return cloudsColor;
+    }
+
+    /**
+     * Access the most recent color of the main light.
+     *
+     * @return the pre-existing instance (not null)
+     */
+    ColorRGBA accessMainColor() {
+        return mainColor;
+    }
+
+    /**
+     * Access the most recent direction to the main light source.
+     *
+     * @return the pre-existing unit vector (not null)
+     */
+    Vector3f accessMainDirection() {
+        return mainDirection;
+    }
+
+    /**
+     * Access the most recent direction to the moon.
+     *
+     * @return the pre-existing unit vector, or null if the moon is hidden
+     */
+    Vector3f accessMoonDirection() {
+        if (moonHiddenFlag) {
+            return null;
+        }
+        return moonDirection;
+    }
+
+    /**
+     * Access the most recent direction to the sun.
+     *
+     * @return the pre-existing unit vector (not null)
+     */
+    Vector3f accessSunDirection() {
+        return sunDirection;
+    }
+
+    /**
+     * Access the most recent values, laid out as in SkyState.
+     *
+     * @return the pre-existing array (not null)
+     */
+    float[] accessValues() {
+        return values;
+    }
+
+    /**
+     * Calculate the color of the clouds, which are darkened at night.
+     *
+     * @param baseColor the base color (not null, unaffected)
+     * @param sunUp true if sun is above the horizon, otherwise false
+     * @param moonUp true if moon is above the horizon, otherwise false
+     * @param moonIllumination the moon's contribution to the nighttime
+     * illumination (&le;1, &ge;0)
+     * @param storeResult storage for the result (modified if not null)
+     * @return the clouds color (either storeResult or a new instance)
+     */
+    public static ColorRGBA cloudsColor(ColorRGBA baseColor, boolean sunUp,
+            boolean moonUp, float moonIllumination, ColorRGBA storeResult) {
+        ColorRGBA result
+                = (storeResult == null) ? new ColorRGBA() : storeResult;
+
+        result.r = FastMath.saturate(baseColor.r);
+        result.g = FastMath.saturate(baseColor.g);
+        result.b = FastMath.saturate(baseColor.b);
+        result.a = FastMath.saturate(baseColor.a);
+        if (!sunUp) {
+            // At night, darken the clouds by 15%-75%.
+            float cloudBrightness = 0.25f;
+            if (moonUp) {
+                cloudBrightness += 0.6f * moonIllumination;
+            }
+            result.multLocal(cloudBrightness);
+        }
+
+        return result;
+    }
+
+    /**
+     * Calculate the current state of the sky.
+     *
+     * @return a new, immutable instance
+     */
+    public SkyState evaluate() {
+        update();
+        SkyState result = new SkyState(values, moonHiddenFlag);
+
+        return result;
+    }
+
+    /**
+     * Access the orientations of the sun and stars.
+     *
+     * @return the pre-existing instance (not null)
+     */
+    public SunAndStars getSunAndStars() {
+        assert sunAndStars != null;
+        return sunAndStars;
+    }
+
+    /**
+     * Compute the contribution of the moon to the nighttime illumination mix
+     * using its phase, assuming it is above the horizon.
+     *
+     * @param longitudeDifference radians east of the sun
+     * @param lunarLatitude radians north of the ecliptic (&ge;-Pi/2,
+     * &le;Pi/2)
+     * @return fraction (&le;1, &ge;0) 1 &rarr; full moon, 0 &rarr; no
+     * contribution
+     */
+    public static float moonIllumination(
+            float longitudeDifference, float lunarLatitude) {
+        float fullAngle = FastMath.abs(longitudeDifference - FastMath.PI);
+        if (lunarLatitude != 0f) {
+            float cos = FastMath.cos(fullAngle) * FastMath.cos(lunarLatitude);
+            fullAngle = FastMath.acos(cos);
+        }
+        assert fullAngle >= 0f : fullAngle;
+        assert fullAngle <= FastMath.PI : fullAngle;
+
+        float weight = 1f - FastMath.saturate(fullAngle * 0.6f);
+
+        assert weight >= 0f : weight;
+        assert weight <= 1f : weight;
+        return weight;
+    }
+
+    /**
+     * Alter how clouds attenuate the main light.
+     *
+     * @param function the function to use (alias created) or null for no
+     * attenuation (the default)
+     */
+    public void setCloudTransmission(CloudTransmission function) {
+        this.clouds = function;
+    }
+
+    /**
+     * Alter whether lighting functions are looked up in precomputed tables.
+     *
+     * @param newValue true to look up, false to calculate directly (default)
+     */
+    public void setLightingTable(boolean newValue) {
+        this.lightingTableFlag = newValue;
+    }
+
+    /**
+     * Hide or reveal the moon.
+     *
+     * @param newValue true to hide the moon, false to reveal it (default)
+     */
+    public void setMoonHidden(boolean newValue) {
+        this.moonHiddenFlag = newValue;
+    }
+
+    /**
+     * Alter the phase of the moon.
+     *
+     * @param longitudeDifference radians east of the sun (&le;2*Pi, &ge;0,
+     * default=Pi)
+     * @param lunarLatitude radians north of the ecliptic (&le;Pi/2, &ge;-Pi/2,
+     * default=0)
+     */
+    public void setPhase(float longitudeDifference, float lunarLatitude) {
+        Validate.inRange(longitudeDifference, "longitude difference",
+                0f, FastMath.TWO_PI);
+        Validate.inRange(lunarLatitude, "lunar latitude",
+                -FastMath.HALF_PI, FastMath.HALF_PI);
+
+        this.longitudeDifference = longitudeDifference;
+        this.lunarLatitude = lunarLatitude;
+    }
+
+    /**
+     * Replace the orientations of the sun and stars.
+     *
+     * @param sunAndStars the desired orientations (not null, alias created)
+     */
+    public void setSunAndStars(SunAndStars sunAndStars) {
+        Validate.nonNull(sunAndStars, "sun and stars");
+        this.sunAndStars = sunAndStars;
+    }
+
+    /**
+     * Recalculate the state of the sky in the working storage.
+     */
+    void update() {
+        sunAndStars.sunDirection(sunDirection);
+        float sineSolarAltitude = sunDirection.y;
+
+        float sineLunarAltitude = -1f;
+        if (moonHiddenFlag) {
+            moonDirection.zero();
+        } else {
+            float solarLongitude = sunAndStars.getSolarLongitude();
+            float celestialLongitude = MyMath.modulo(
+                    solarLongitude + longitudeDifference, FastMath.TWO_PI);
+            sunAndStars.convertToWorld(
+                    lunarLatitude, celestialLongitude, moonDirection);
+            sineLunarAltitude = moonDirection.y;
+        }
+
+        // Determine the world direction to the main light source.
+        boolean moonUp = sineLunarAltitude >= 0f;
+        boolean sunUp = sineSolarAltitude >= 0f;
+        float moonWeight = moonIllumination(longitudeDifference, lunarLatitude);
+        if (sunUp) {
+            mainDirection.set(sunDirection);
+        } else if (moonUp && moonWeight > 0f) {
+            mainDirection.set(moonDirection);
+        } else {
+            mainDirection.set(starlightDirection);
+        }
+        assert mainDirection.isUnitVector() : mainDirection;
+        assert mainDirection.y >= 0f : mainDirection;
+
+        // Determine the base color using the altitudes and the moon's phase.
+        float nightMoon = moonUp ? moonWeight : 0f;
+        if (lightingTableFlag) {
+            lightingTable.lookUpBaseColor(
+                    sineSolarAltitude, nightMoon, baseColor);
+        } else {
+            lightingTable.calculateBaseColor(
+                    sineSolarAltitude, nightMoon, baseColor);
+        }
+        cloudsColor(baseColor, sunUp, moonUp, moonWeight, cloudsColor);
+
+        // Determine what fraction of the main light passes through the clouds.
+        float transmit = 1f;
+        if (clouds != null && (sunUp || moonUp && moonWeight > 0f)) {
+            transmit = clouds.transmission(mainDirection);
+        }
+
+        // Determine the color and intensity of the main light.
+        if (sunUp) {
+            /*
+             * By day, the main light has the base color, modulated by
+             * clouds and the cube root of the sine of the sun's altitude.
+             */
+            float sunFactor = lightingTableFlag
+                    ? lightingTable.lookUpSunFactor(sineSolarAltitude)
+                    : LightingTable.calculateSunFactor(sineSolarAltitude);
+            sunFactor *= transmit;
+            mainColor.set(baseColor).multLocal(sunFactor);
+
+        } else if (moonUp) {
+            /*
+             * By night, the main light is a blend of moonlight and starlight,
+             * with the moon's portion modulated by clouds and the moon's phase.
+             */
+            float moonFactor = transmit * moonWeight;
+            mainColor.interpolateLocal(starLight, moonLight, moonFactor);
+
+        } else {
+            mainColor.set(starLight);
+        }
+        /*
+         * The ambient light color is based on the clouds color;
+         * its intensity is modulated by the "slack" left by
+         * strongest component of the main light.
+         */
+        float strongest = Math.max(mainColor.r, mainColor.g);
+        strongest = Math.max(strongest, mainColor.b);
+        float slack = 1f - strongest;
+        assert slack >= 0f : slack;
+        ambientColor.set(cloudsColor).multLocal(slack);
+        /*
+         * Compute the recommended shadow intensity as the fraction of
+         * the total directional light.
+         */
+        float mainAmount = mainColor.r + mainColor.g + mainColor.b;
+        float ambientAmount = ambientColor.r + ambientColor.g + ambientColor.b;
+        float totalAmount = mainAmount + ambientAmount;
+        assert totalAmount > 0f : totalAmount;
+        float shadowIntensity = FastMath.saturate(mainAmount / totalAmount);
+
+        // Determine the recommended bloom intensity using the sun's altitude.
+        float bloomIntensity = 6f * sineSolarAltitude;
+        bloomIntensity = FastMath.clamp(bloomIntensity, 0f, 1.7f);
+        /*
+         * Daytime sky color is phased in during the twilight periods
+         * before sunrise and after sunset.
+         */
+        float clearAlpha
+                = FastMath.saturate(1f + sineSolarAltitude / limitOfTwilight);
+
+        values[SkyState.hourOffset] = sunAndStars.getHour();
+        values[SkyState.longitudeOffset] = sunAndStars.getSolarLongitude();
+        store(SkyState.sunOffset, sunDirection);
+        store(SkyState.moonOffset, moonDirection);
+        store(SkyState.mainDirOffset, mainDirection);
+        store(SkyState.baseOffset, baseColor);
+        store(SkyState.cloudsOffset, cloudsColor);
+        store(SkyState.mainOffset, mainColor);
+        store(SkyState.ambientOffset, ambientColor);
+        values[SkyState.shadowOffset] = shadowIntensity;
+        values[SkyState.bloomOffset] = bloomIntensity;
+        values[SkyState.transmitOffset] = transmit;
+        values[SkyState.illumOffset] = moonWeight;
+        values[SkyState.clearOffset] = clearAlpha;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Copy a color into the working values.
+     *
+     * @param offset the offset of the red component
+     * @param color the color to copy (not null, unaffected)
+     */
+    private void store(int offset, ColorRGBA color) {
+        values[offset] = color.r;
+        values[offset + 1] = color.g;
+        values[offset + 2] = color.b;
+        values[offset + 3] = color.a;
+    }
+
+    /**
+     * Copy a vector into the working values.
+     *
+     * @param offset the offset of the X component
+     * @param vector the vector to copy (not null, unaffected)
+     */
+    private void store(int offset, Vector3f vector) {
+        values[offset] = vector.x;
+        values[offset + 1] = vector.y;
+        values[offset + 2] = vector.z;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+/**
+ * An object that receives the lighting values computed by a SkyControl, for
+ * instance a fog filter, a light probe, or a custom shader uniform.
+ * <p>
+ * Register listeners using {@link Updater#addListener(SkyListener)}. The
+ * callbacks are invoked on the render thread during SkyControl updates, and
+ * only when the corresponding value has changed by more than its
+ * {@link ChangeThresholds threshold} (or after the updater was
+ * reconfigured). All callbacks default to doing nothing.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+public interface SkyListener {
+    /**
+     * Receive a new color for ambient light, including the updater's ambient
+     * multiplier.
+     *
+     * @param red the red component (&ge;0)
+     * @param green the green component (&ge;0)
+     * @param blue the blue component (&ge;0)
+     * @param alpha the alpha component
+     */
+    default void onAmbientColor(
+            float red, float green, float blue, float alpha) {
+        // do nothing
+    }
+
+    /**
+     * Receive a new color for viewport backgrounds.
+     *
+     * @param red the red component (&ge;0, &le;1)
+     * @param green the green component (&ge;0, &le;1)
+     * @param blue the blue component (&ge;0, &le;1)
+     * @param alpha the alpha component (&ge;0, &le;1)
+     */
+    default void onBackgroundColor(
+            float red, float green, float blue, float alpha) {
+        // do nothing
+    }
+
+    /**
+     * Receive a new intensity for bloom effects.
+     *
+     * @param intensity the intensity (&ge;0)
+     */
+    default void onBloomIntensity(float intensity) {
+        // do nothing
+    }
+
+    /**
+     * Receive a new color for the main directional light, including the
+     * updater's main multiplier.
+     *
+     * @param red the red component (&ge;0)
+     * @param green the green component (&ge;0)
+     * @param blue the blue component (&ge;0)
+     * @param alpha the alpha component
+     */
+    default void onMainColor(float red, float green, float blue, float alpha) {
+        // do nothing
+    }
+
+    /**
+     * Receive a new direction to the main light source.
+     *
+     * @param x the X component of the world direction (length=1)
+     * @param y the Y component of the world direction (&ge;0)
+     * @param z the Z component of the world direction
+     */
+    default void onMainDirection(float x, float y, float z) {
+        // do nothing
+    }
+
+    /**
+     * Receive a new intensity for shadows.
+     *
+     * @param intensity the intensity (&ge;0, &le;1)
+     */
+    default void onShadowIntensity(float intensity) {
+        // do nothing
+    }
+}
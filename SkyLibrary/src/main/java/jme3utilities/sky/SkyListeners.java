@@ -0,0 +1,179 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import java.util.logging.Logger;
+
+/**
+ * A copy-on-write registry of sky listeners, used by Updater.
+ * <p>
+ * Listeners may be added or removed on any thread. Writers synchronize with
+ * one another and publish a new array through a volatile reference, so the
+ * render thread can iterate over the current array without locking or
+ * allocating.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class SkyListeners {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(SkyListeners.class.getName());
+    /**
+     * shared array for an empty registry
+     */
+    final private static SkyListener[] noListeners = new SkyListener[0];
+    // *************************************************************************
+    // fields
+
+    /**
+     * number of times the registry has changed
+     */
+    private volatile int version = 0;
+    /**
+     * lock for writers
+     */
+    final private Object writeLock = new Object();
+    /**
+     * current listeners, in the order they were added (never modified once
+     * published)
+     */
+    private volatile SkyListener[] listeners = noListeners;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate an empty registry.
+     */
+    SkyListeners() {
+        // do nothing
+    }
+
+    /**
+     * Instantiate a registry with the same listeners as the specified one.
+     *
+     * @param original the registry to copy (not null, unaffected)
+     */
+    SkyListeners(SkyListeners original) {
+        this.listeners = original.listeners;
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Add a listener to the end of the array.
+     *
+     * @param listener the listener to add (not null, alias created)
+     */
+    void add(SkyListener listener) {
+        assert listener != null;
+
+        synchronized (writeLock) {
+            int oldLength = listeners.length;
+            SkyListener[] newArray = new SkyListener[oldLength + 1];
+            System.arraycopy(listeners, 0, newArray, 0, oldLength);
+            newArray[oldLength] = listener;
+            publish(newArray);
+        }
+    }
+
+    /**
+     * Access the current array of listeners. Safe to invoke from any thread.
+     *
+     * @return the pre-existing array (not null, do not modify)
+     */
+    SkyListener[] array() {
+        return listeners;
+    }
+
+    /**
+     * Find the listener that adapts the specified object.
+     *
+     * @param target the adapted object (not null, unaffected)
+     * @return the pre-existing listener, or null if not found
+     */
+    TargetListener<?> findAdapter(Object target) {
+        for (SkyListener listener : listeners) {
+            if (listener instanceof TargetListener
+                    && ((TargetListener<?>) listener).getTarget() == target) {
+                return (TargetListener<?>) listener;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Remove the first occurrence of the specified listener.
+     *
+     * @param listener the listener to remove (may be null)
+     * @return true if successful, false if not found
+     */
+    boolean remove(SkyListener listener) {
+        synchronized (writeLock) {
+            SkyListener[] oldArray = listeners;
+            int oldLength = oldArray.length;
+            for (int index = 0; index < oldLength; ++index) {
+                if (oldArray[index] == listener) {
+                    SkyListener[] newArray = new SkyListener[oldLength - 1];
+                    System.arraycopy(oldArray, 0, newArray, 0, index);
+                    System.arraycopy(oldArray, index + 1, newArray, index,
+                            oldLength - index - 1);
+                    publish(newArray);
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Return the number of times the registry has changed.
+     *
+     * @return the count (wraps around on overflow)
+     */
+    int version() {
+        return version;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Publish a new array of listeners. Invoked only while holding the write
+     * lock.
+     *
+     * @param newArray the array to publish (not null, alias created)
+     */
+    private void publish(SkyListener[] newArray) {
+        this.listeners = newArray;
+        ++version;
+    }
+}
@@ -26,9 +26,19 @@
 package jme3utilities.sky;
 
 import com.jme3.asset.AssetManager;
+import com.jme3.export.InputCapsule;
+import com.jme3.export.JmeExporter;
+import com.jme3.export.JmeImporter;
+import com.jme3.export.OutputCapsule;
+import com.jme3.export.Savable;
+import com.jme3.material.MatParamTexture;
+import com.jme3.material.MaterialDef;
 import com.jme3.material.RenderState;
 import com.jme3.math.ColorRGBA;
+import com.jme3.shader.VarType;
 import com.jme3.texture.Texture;
+import java.io.IOException;
+import java.util.Locale;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import jme3utilities.MyAsset;
@@ -54,6 +64,11 @@ import jme3utilities.Validate;
  * <p>
  * Horizon haze can be added to the material by invoking addHaze(); once added,
  * its color may be adjusted by invoking setHazeColor().
+ * <p>
+ * The "array66" material definitions pass objects and cloud layers to the
+ * shaders as uniform arrays, so their number doesn't select a shader variant.
+ * With those definitions, cloud alpha maps of matching size can also be
+ * packed into a single texture array by invoking packCloudLayers().
  *
  * @author Stephen Gold sgold@sonic.net
  */
@@ -89,6 +104,26 @@ public class SkyMaterial extends SkyMaterialCore {
      */
     final public static String sunMapPath = "Textures/skies/suns/hazy-disc.png";
     // *************************************************************************
+    // fields
+
+    /**
+     * cloud alpha maps packed into a texture array, or null if not packed
+     */
+    private CloudsTextureArray packedClouds = null;
+    /**
+     * cached handle of the color parameter of clear sky
+     */
+    private ParameterHandles clearColorParam
+            = new ParameterHandles("ClearColor");
+    /**
+     * cached handle of the glow parameter of clear sky
+     */
+    private ParameterHandles clearGlowParam = new ParameterHandles("ClearGlow");
+    /**
+     * cached handle of the color parameter of the horizon haze
+     */
+    private ParameterHandles hazeColorParam = new ParameterHandles("HazeColor");
+    // *************************************************************************
     // constructors
 
     /**
@@ -288,6 +323,50 @@ public class SkyMaterial extends SkyMaterialCore {
         additional.setBlendMode(RenderState.BlendMode.Alpha);
     }
 
+    /**
+     * Pack the alpha maps of the cloud layers into a single texture array,
+     * for use by the "array66" material definitions. Only maps of the most
+     * common size and format are packed; others keep their own texture
+     * units. Once packed, a layer whose alpha map is replaced with a matching
+     * one has only its slice updated. Requires texture-array support in the
+     * renderer (GLSL 1.30 or higher).
+     *
+     * @return the number of layers packed (&ge;0)
+     */
+    public int packCloudLayers() {
+        if (getMaterialDef().getMaterialParam("CloudsAlphaArray") == null) {
+            throw new IllegalStateException(
+                    "material definitions don't support texture arrays");
+        }
+        unpackCloudLayers();
+
+        Texture[] layerTextures = new Texture[maxCloudLayers];
+        for (int layerIndex = 0; layerIndex < maxCloudLayers; ++layerIndex) {
+            String name = cloudsAlphaMapName(layerIndex);
+            MatParamTexture parameter = getTextureParam(name);
+            if (parameter != null) {
+                layerTextures[layerIndex] = parameter.getTextureValue();
+            }
+        }
+        CloudsTextureArray packed = CloudsTextureArray.pack(layerTextures);
+        if (packed == null) {
+            return 0;
+        }
+
+        this.packedClouds = packed;
+        for (int layerIndex = 0; layerIndex < maxCloudLayers; ++layerIndex) {
+            if (packed.isPacked(layerIndex)) {
+                super.clearParam(cloudsAlphaMapName(layerIndex));
+            }
+        }
+        setParam("CloudsSliceArray", VarType.FloatArray,
+                packed.accessSlices());
+        setTexture("CloudsAlphaArray", packed.accessTexture());
+        int result = packed.countPacked();
+
+        return result;
+    }
+
     /**
      * Remove any stars from this material.
      */
@@ -302,7 +381,7 @@ public class SkyMaterial extends SkyMaterialCore {
      */
     public void setClearColor(ColorRGBA newColor) {
         Validate.nonNull(newColor, "color");
-        setColor("ClearColor", newColor.clone());
+        clearColorParam.setColor(this, 0, newColor);
     }
 
     /**
@@ -312,7 +391,7 @@ public class SkyMaterial extends SkyMaterialCore {
      */
     public void setClearGlow(ColorRGBA newColor) {
         Validate.nonNull(newColor, "color");
-        setColor("ClearGlow", newColor.clone());
+        clearGlowParam.setColor(this, 0, newColor);
     }
 
     /**
@@ -322,11 +401,172 @@ public class SkyMaterial extends SkyMaterialCore {
      */
     public void setHazeColor(ColorRGBA newColor) {
         Validate.nonNull(newColor, "color");
-        setColor("HazeColor", newColor.clone());
+        hazeColorParam.setColor(this, 0, newColor);
+    }
+
+    /**
+     * Restore each packed cloud layer to its own alpha-map texture and
+     * discard the texture array. If no layers are packed, this has no effect.
+     */
+    public void unpackCloudLayers() {
+        CloudsTextureArray packed = packedClouds;
+        if (packed == null) {
+            return;
+        }
+
+        this.packedClouds = null;
+        for (int layerIndex = 0; layerIndex < maxCloudLayers; ++layerIndex) {
+            if (packed.isPacked(layerIndex)) {
+                Texture alphaMap = packed.release(layerIndex);
+                super.setTextureParam(cloudsAlphaMapName(layerIndex),
+                        VarType.Texture2D, alphaMap);
+            }
+        }
+        clearParam("CloudsAlphaArray");
+        clearParam("CloudsSliceArray");
+    }
+    // *************************************************************************
+    // SkyMaterialCore methods
+
+    /**
+     * Create a deep copy of this material.
+     *
+     * @return a new instance, equivalent to this one
+     */
+    @Override
+    public SkyMaterial clone() {
+        SkyMaterial clone = (SkyMaterial) super.clone();
+        clone.clearColorParam = new ParameterHandles("ClearColor");
+        clone.clearGlowParam = new ParameterHandles("ClearGlow");
+        clone.hazeColorParam = new ParameterHandles("HazeColor");
+        if (packedClouds != null) {
+            // Slice updates mustn't affect the original, so copy the array.
+            CloudsTextureArray packed = packedClouds.copy();
+            clone.packedClouds = packed;
+            clone.setParam("CloudsSliceArray", VarType.FloatArray,
+                    packed.accessSlices());
+            clone.setTexture("CloudsAlphaArray", packed.accessTexture());
+        }
+
+        return clone;
+    }
+    // *************************************************************************
+    // Material methods
+
+    /**
+     * Clear the named parameter. If a texture was cleared, a different shader
+     * permutation is selected, so note it for the lazy-compile report.
+     *
+     * @param name the name of the parameter (not null)
+     */
+    @Override
+    public void clearParam(String name) {
+        boolean hadTexture = getTextureParam(name) != null;
+        super.clearParam(name);
+        if (hadTexture) {
+            updateCount(name);
+            SkyShaders.noteSelection(this);
+        }
+    }
+
+    /**
+     * De-serialize this instance when loading. Cloud layers that were packed
+     * when saved are restored unpacked.
+     *
+     * @param importer (not null)
+     * @throws IOException from importer
+     */
+    @Override
+    public void read(JmeImporter importer) throws IOException {
+        super.read(importer);
+
+        InputCapsule capsule = importer.getCapsule(this);
+        Savable[] alphaMaps = capsule.readSavableArray("packedAlphaMaps", null);
+        if (alphaMaps == null) {
+            return;
+        }
+        for (int layerIndex = 0; layerIndex < alphaMaps.length; ++layerIndex) {
+            Texture alphaMap = (Texture) alphaMaps[layerIndex];
+            if (alphaMap != null) {
+                super.setTextureParam(cloudsAlphaMapName(layerIndex),
+                        VarType.Texture2D, alphaMap);
+            }
+        }
+        super.clearParam("CloudsAlphaArray");
+        super.clearParam("CloudsSliceArray");
+    }
+
+    /**
+     * Alter the named texture parameter. If the parameter was previously
+     * absent, a different shader permutation is selected, so note it for the
+     * lazy-compile report.
+     *
+     * @param name the name of the parameter (not null)
+     * @param type the type of the parameter (not null)
+     * @param value the desired texture (not null)
+     */
+    @Override
+    public void setTextureParam(String name, VarType type, Texture value) {
+        int layerIndex = cloudsLayerIndex(name);
+        if (packedClouds != null && layerIndex >= 0
+                && packedClouds.isPacked(layerIndex)) {
+            if (packedClouds.updateSlice(layerIndex, value)) {
+                return;
+            }
+            // The new alpha map doesn't fit the array, so unpack the layer.
+            packedClouds.release(layerIndex);
+        }
+
+        boolean hadTexture = getTextureParam(name) != null;
+        super.setTextureParam(name, type, value);
+        if (!hadTexture) {
+            updateCount(name);
+            SkyShaders.noteSelection(this);
+        }
+    }
+
+    /**
+     * Serialize this instance when saving, without altering it. The original
+     * alpha map of each packed cloud layer is saved, so that read() can
+     * restore the layers unpacked.
+     *
+     * @param exporter (not null)
+     * @throws IOException from exporter
+     */
+    @Override
+    public void write(JmeExporter exporter) throws IOException {
+        super.write(exporter);
+
+        CloudsTextureArray packed = packedClouds;
+        if (packed == null) {
+            return;
+        }
+        Texture[] alphaMaps = new Texture[maxCloudLayers];
+        for (int layerIndex = 0; layerIndex < maxCloudLayers; ++layerIndex) {
+            alphaMaps[layerIndex] = packed.accessLayerTexture(layerIndex);
+        }
+        OutputCapsule capsule = exporter.getCapsule(this);
+        capsule.write(alphaMaps, "packedAlphaMaps", null);
     }
     // *************************************************************************
     // private methods
 
+    /**
+     * Determine which cloud layer an alpha-map parameter belongs to.
+     *
+     * @param name the name of a material parameter (not null)
+     * @return the layer index (&ge;0), or -1 if not an alpha map
+     */
+    private static int cloudsLayerIndex(String name) {
+        int result = -1;
+        if (name.matches("Clouds[0-9]+AlphaMap")) {
+            String digits = name.substring(6, name.length() - 8);
+            result = Integer.parseInt(digits);
+        }
+
+        return result;
+    }
+
     /**
      * Determine the number of cloud layers supported by a specified asset path.
      *
@@ -346,6 +586,7 @@ public class SkyMaterial extends SkyMaterialCore {
             case "MatDefs/skies/dome22/dome22.j3md":
                 result = 2;
                 break;
+            case "MatDefs/skies/array66/array66.j3md":
             case "MatDefs/skies/dome06/dome06.j3md":
             case "MatDefs/skies/dome66/dome66.j3md":
                 result = 6;
@@ -376,6 +617,7 @@ public class SkyMaterial extends SkyMaterialCore {
             case "MatDefs/skies/dome22/dome22.j3md":
                 result = 2;
                 break;
+            case "MatDefs/skies/array66/array66.j3md":
             case "MatDefs/skies/dome60/dome60.j3md":
             case "MatDefs/skies/dome66/dome66.j3md":
                 result = 6;
@@ -423,4 +665,45 @@ public class SkyMaterial extends SkyMaterialCore {
         logger.log(Level.INFO, "asset path={0}", MyString.quote(assetPath));
         return assetPath;
     }
+
+    /**
+     * If the material definitions describe objects or cloud layers with
+     * uniform arrays, update the count that bounds the shader's loop after
+     * the named texture was added or removed.
+     *
+     * @param textureName the name of the texture parameter (not null)
+     */
+    private void updateCount(String textureName) {
+        String countName;
+        String format;
+        if (textureName.matches("Object[0-9]+ColorMap")) {
+            countName = "ObjectCount";
+            format = "Object%dColorMap";
+        } else if (textureName.matches("Clouds[0-9]+AlphaMap")) {
+            countName = "CloudsCount";
+            format = "Clouds%dAlphaMap";
+        } else {
+            return;
+        }
+
+        MaterialDef def = getMaterialDef();
+        if (def.getMaterialParam(countName) == null) {
+            return;
+        }
+
+        // The count is one more than the highest index with a texture.
+        int count = 0;
+        for (int index = 0;; ++index) {
+            String name = String.format(Locale.ROOT, format, index);
+            if (def.getMaterialParam(name) == null) {
+                break;
+            } else if (getTextureParam(name) != null) {
+                count = index + 1;
+            } else if (packedClouds != null && format.startsWith("Clouds")
+                    && packedClouds.isPacked(index)) {
+                count = index + 1;
+            }
+        }
+        setInt(countName, count);
+    }
 }
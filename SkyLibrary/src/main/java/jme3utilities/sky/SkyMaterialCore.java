@@ -38,9 +38,8 @@ import com.jme3.math.FastMath;
 import com.jme3.math.Vector2f;
 import com.jme3.texture.Image;
 import com.jme3.texture.Texture;
-import com.jme3.texture.image.ImageRaster;
+import com.jme3.util.clone.Cloner;
 import java.io.IOException;
-import java.util.Locale;
 import java.util.logging.Logger;
 import jme3utilities.MyAsset;
 import jme3utilities.Validate;
@@ -84,17 +83,17 @@ public class SkyMaterialCore extends Material {
      * scale factors of astronomical objects (each &gt;0)
      */
     private float[] objectScales;
+    /**
+     * red channel of each cloud layer, extracted for sampling
+     */
+    private CloudAlphaMap[] cloudAlphaMaps;
     /**
      * image of each cloud layer
      * <p>
-     * Since ImageRaster does not implement Savable, these are retained for use
-     * by write().
+     * Since CloudAlphaMap does not implement Savable, these are retained for
+     * use by write().
      */
     private Image[] cloudImages;
-    /**
-     * cached rasterization of each cloud layer
-     */
-    private ImageRaster[] cloudsRaster;
     /**
      * maximum number of cloud layers (&ge;0)
      */
@@ -115,6 +114,50 @@ public class SkyMaterialCore extends Material {
      * rotation vectors of astronomical objects (each may be null)
      */
     private Vector2f[] objectRotations;
+    /**
+     * precomputed names of the alpha-map parameters of the cloud layers
+     */
+    private ParameterHandles cloudsAlphaMapParams;
+    /**
+     * names and cached handles of the color parameters of the cloud layers
+     */
+    private ParameterHandles cloudsColorParams;
+    /**
+     * names and cached handles of the glow parameters of the cloud layers
+     */
+    private ParameterHandles cloudsGlowParams;
+    /**
+     * names and cached handles of the offset parameters of the cloud layers
+     */
+    private ParameterHandles cloudsOffsetParams;
+    /**
+     * precomputed names of the scale parameters of the cloud layers
+     */
+    private ParameterHandles cloudsScaleParams;
+    /**
+     * names and cached handles of the center parameters of the objects
+     */
+    private ParameterHandles objectCenterParams;
+    /**
+     * precomputed names of the color-map parameters of the objects
+     */
+    private ParameterHandles objectColorMapParams;
+    /**
+     * names and cached handles of the color parameters of the objects
+     */
+    private ParameterHandles objectColorParams;
+    /**
+     * names and cached handles of the glow parameters of the objects
+     */
+    private ParameterHandles objectGlowParams;
+    /**
+     * names and cached handles of the U-transform parameters of the objects
+     */
+    private ParameterHandles objectTransformUParams;
+    /**
+     * names and cached handles of the V-transform parameters of the objects
+     */
+    private ParameterHandles objectTransformVParams;
     // *************************************************************************
     // constructors
 
@@ -122,18 +165,7 @@ public class SkyMaterialCore extends Material {
      * No-argument constructor needed by SavableClassUtil.
      */
     protected SkyMaterialCore() {
-        this.assetManager = null;
-        this.cloudAlphas = null;
-        this.cloudImages = null;
-        this.cloudScales = null;
-        this.cloudsRaster = null;
-        this.cloudOffsets = null;
-        this.maxCloudLayers = 0;
-        this.maxObjects = 0;
-
-        this.objectCenters = null;
-        this.objectRotations = null;
-        this.objectScales = null;
+        // do nothing
     }
 
     /**
@@ -160,16 +192,28 @@ public class SkyMaterialCore extends Material {
         this.cloudAlphas = new float[maxCloudLayers];
         this.cloudImages = new Image[maxCloudLayers];
         this.cloudOffsets = new Vector2f[maxCloudLayers];
-        this.cloudsRaster = new ImageRaster[maxCloudLayers];
+        this.cloudAlphaMaps = new CloudAlphaMap[maxCloudLayers];
         this.cloudScales = new float[maxCloudLayers];
 
         this.objectCenters = new Vector2f[maxObjects];
         this.objectRotations = new Vector2f[maxObjects];
         this.objectScales = new float[maxObjects];
+        createParameterHandles();
     }
     // *************************************************************************
     // new methods exposed
 
+    /**
+     * Access the texture offset of the indexed cloud layer.
+     *
+     * @param layerIndex (&lt;maxCloudLayers, &ge;0)
+     * @return the pre-existing vector, or null if the layer hasn't been added
+     */
+    Vector2f accessCloudsOffset(int layerIndex) {
+        Vector2f result = cloudOffsets[layerIndex];
+        return result;
+    }
+
     /**
      * Add a cloud layer to this material using the specified alpha map asset
      * path.
@@ -185,14 +229,13 @@ public class SkyMaterialCore extends Material {
         Texture alphaMap
                 = MyAsset.loadTexture(assetManager, assetPath, mipmaps);
         alphaMap.setWrap(Texture.WrapMode.Repeat);
-        String parameterName
-                = String.format(Locale.ROOT, "Clouds%dAlphaMap", layerIndex);
+        String parameterName = cloudsAlphaMapName(layerIndex);
         setTexture(parameterName, alphaMap);
 
-        boolean firstTime = (cloudsRaster[layerIndex] == null);
+        boolean firstTime = (cloudAlphaMaps[layerIndex] == null);
         Image image = alphaMap.getImage();
         this.cloudImages[layerIndex] = image;
-        this.cloudsRaster[layerIndex] = ImageRaster.create(image);
+        this.cloudAlphaMaps[layerIndex] = CloudAlphaMap.forImage(image);
 
         if (firstTime) {
             this.cloudOffsets[layerIndex] = new Vector2f();
@@ -213,8 +256,7 @@ public class SkyMaterialCore extends Material {
         validateObjectIndex(objectIndex);
         Validate.nonNull(colorMap, "texture");
 
-        String parameterName
-                = String.format(Locale.ROOT, "Object%dColorMap", objectIndex);
+        String parameterName = objectColorMapParams.name(objectIndex);
         setTexture(parameterName, colorMap);
 
         if (objectCenters[objectIndex] == null) {
@@ -226,6 +268,17 @@ public class SkyMaterialCore extends Material {
         }
     }
 
+    /**
+     * Return the name of the alpha-map parameter of the indexed cloud layer.
+     *
+     * @param layerIndex (&lt;maxCloudLayers, &ge;0)
+     * @return the pre-existing name (not null)
+     */
+    String cloudsAlphaMapName(int layerIndex) {
+        String result = cloudsAlphaMapParams.name(layerIndex);
+        return result;
+    }
+
     /**
      * Copy the color of the specified cloud layer.
      *
@@ -235,13 +288,11 @@ public class SkyMaterialCore extends Material {
      */
     public ColorRGBA copyCloudsColor(int layerIndex) {
         validateLayerIndex(layerIndex);
-        if (cloudsRaster[layerIndex] == null) {
+        if (cloudAlphaMaps[layerIndex] == null) {
             throw new IllegalStateException("layer not yet added");
         }
 
-        String parameterName
-                = String.format(Locale.ROOT, "Clouds%dColor", layerIndex);
-        ColorRGBA color = copyColor(parameterName);
+        ColorRGBA color = cloudsColorParams.copyColor(this, layerIndex);
         color.a = cloudAlphas[layerIndex];
 
         return color;
@@ -256,13 +307,11 @@ public class SkyMaterialCore extends Material {
      */
     public ColorRGBA copyCloudsGlow(int layerIndex) {
         validateLayerIndex(layerIndex);
-        if (cloudsRaster[layerIndex] == null) {
+        if (cloudAlphaMaps[layerIndex] == null) {
             throw new IllegalStateException("layer not yet added");
         }
 
-        String parameterName
-                = String.format(Locale.ROOT, "Clouds%dGlow", layerIndex);
-        ColorRGBA color = copyColor(parameterName);
+        ColorRGBA color = cloudsGlowParams.copyColor(this, layerIndex);
 
         return color;
     }
@@ -276,7 +325,7 @@ public class SkyMaterialCore extends Material {
      */
     public Vector2f copyCloudsOffset(int layerIndex) {
         validateLayerIndex(layerIndex);
-        if (cloudsRaster[layerIndex] == null) {
+        if (cloudAlphaMaps[layerIndex] == null) {
             throw new IllegalStateException("layer not yet added");
         }
 
@@ -312,9 +361,7 @@ public class SkyMaterialCore extends Material {
             throw new IllegalStateException("object not yet added");
         }
 
-        String parameterName
-                = String.format(Locale.ROOT, "Object%dColor", objectIndex);
-        ColorRGBA color = copyColor(parameterName);
+        ColorRGBA color = objectColorParams.copyColor(this, objectIndex);
 
         return color;
     }
@@ -332,9 +379,7 @@ public class SkyMaterialCore extends Material {
             throw new IllegalStateException("object not yet added");
         }
 
-        String parameterName
-                = String.format(Locale.ROOT, "Object%dGlow", objectIndex);
-        ColorRGBA color = copyColor(parameterName);
+        ColorRGBA color = objectGlowParams.copyColor(this, objectIndex);
 
         return color;
     }
@@ -402,13 +447,11 @@ public class SkyMaterialCore extends Material {
      */
     public float getCloudsScale(int layerIndex) {
         validateLayerIndex(layerIndex);
-        if (cloudsRaster[layerIndex] == null) {
+        if (cloudAlphaMaps[layerIndex] == null) {
             throw new IllegalStateException("layer not yet added");
         }
 
-        String parameterName
-                = String.format(Locale.ROOT, "Clouds%dScale", layerIndex);
-        float result = getFloat(parameterName);
+        float result = cloudsScaleParams.getFloat(this, layerIndex);
 
         assert result > 0f : result;
         return result;
@@ -475,11 +518,44 @@ public class SkyMaterialCore extends Material {
      */
     public float getTransmission(Vector2f skyCoordinates) {
         Validate.nonNull(skyCoordinates, "coordinates");
+        float result = getTransmission(skyCoordinates.x, skyCoordinates.y);
+        return result;
+    }
+
+    /**
+     * Estimate how much light is transmitted through the clouds at the
+     * specified texture coordinates, without validating or allocating.
+     *
+     * @param u the first sky texture coordinate
+     * @param v the 2nd sky texture coordinate
+     * @return fraction of light transmitted (&le;1, &ge;0)
+     */
+    public float getTransmission(float u, float v) {
+        float result = getTransmission(u, v, 0f);
+        return result;
+    }
+
+    /**
+     * Estimate how much light is transmitted through the clouds, averaged
+     * over a disc centered at the specified texture coordinates.
+     * <p>
+     * Each layer's opacity is averaged over a square of the same area as the
+     * disc, using a summed-area table, so the cost doesn't depend on the
+     * radius.
+     *
+     * @param u the first sky texture coordinate of the center
+     * @param v the 2nd sky texture coordinate of the center
+     * @param radius the radius of the disc (in sky texture coordinates,
+     * &ge;0, 0 &rarr; sample a single point)
+     * @return fraction of light transmitted (&le;1, &ge;0)
+     */
+    public float getTransmission(float u, float v, float radius) {
+        assert radius >= 0f : radius;
 
         float result = 1f;
         for (int layerIndex = 0; layerIndex < maxCloudLayers; ++layerIndex) {
-            if (cloudsRaster[layerIndex] != null) {
-                float transparency = transparency(layerIndex, skyCoordinates);
+            if (cloudAlphaMaps[layerIndex] != null) {
+                float transparency = transparency(layerIndex, u, v, radius);
                 result *= transparency;
             }
         }
@@ -489,6 +565,39 @@ public class SkyMaterialCore extends Material {
         return result;
     }
 
+    /**
+     * Estimate how much light is transmitted through the clouds at each of
+     * the specified texture coordinates.
+     * <p>
+     * The parallel path splits large batches among the threads of the common
+     * ForkJoinPool. The material shouldn't be modified until it returns.
+     *
+     * @param uvs sky texture coordinates, packed as (u, v) pairs (not null,
+     * even length, unaffected)
+     * @param storeResult storage for the result (modified if not null, length
+     * &ge;uvs.length/2)
+     * @param parallel true to allow multiple threads, false to use only the
+     * current thread
+     * @return the fraction transmitted at each point (each &le;1, &ge;0,
+     * either storeResult or a new array)
+     */
+    public float[] getTransmissions(
+            float[] uvs, float[] storeResult, boolean parallel) {
+        Validate.nonNull(uvs, "coordinates");
+        Validate.require(uvs.length % 2 == 0, "an even number of coordinates");
+        int numPoints = uvs.length / 2;
+        TransmissionBatches.Range range = (fromIndex, toIndex, store) -> {
+            for (int index = fromIndex; index < toIndex; ++index) {
+                store[index]
+                        = getTransmission(uvs[2 * index], uvs[2 * index + 1]);
+            }
+        };
+        float[] result = TransmissionBatches.run(
+                numPoints, storeResult, parallel, range);
+
+        return result;
+    }
+
     /**
      * Hide an astronomical object temporarily.
      * <p>
@@ -504,19 +613,13 @@ public class SkyMaterialCore extends Material {
             throw new IllegalStateException("object not yet added");
         }
 
-        String objectParameterName
-                = String.format(Locale.ROOT, "Object%dCenter", objectIndex);
-        setVector2(objectParameterName, hidden);
+        objectCenterParams.setVector2(this, objectIndex, hidden.x, hidden.y);
         objectCenters[objectIndex].set(hidden);
 
         // Scale down the object to occupy only a few pixels in texture space.
         float scale = 1000f;
-        String transformUParameterName
-                = String.format(Locale.ROOT, "Object%dTransformU", objectIndex);
-        setVector2(transformUParameterName, new Vector2f(scale, scale));
-        String transformVParameterName
-                = String.format(Locale.ROOT, "Object%dTransformV", objectIndex);
-        setVector2(transformVParameterName, new Vector2f(scale, scale));
+        objectTransformUParams.setVector2(this, objectIndex, scale, scale);
+        objectTransformVParams.setVector2(this, objectIndex, scale, scale);
     }
 
     /**
@@ -528,13 +631,11 @@ public class SkyMaterialCore extends Material {
     public void setCloudsColor(int layerIndex, ColorRGBA newColor) {
         validateLayerIndex(layerIndex);
         Validate.nonNull(newColor, "color");
-        if (cloudsRaster[layerIndex] == null) {
+        if (cloudAlphaMaps[layerIndex] == null) {
             throw new IllegalStateException("layer not yet added");
         }
 
-        String parameterName
-                = String.format(Locale.ROOT, "Clouds%dColor", layerIndex);
-        setColor(parameterName, newColor.clone());
+        cloudsColorParams.setColor(this, layerIndex, newColor);
         this.cloudAlphas[layerIndex] = newColor.a;
     }
 
@@ -547,13 +648,11 @@ public class SkyMaterialCore extends Material {
     public void setCloudsGlow(int layerIndex, ColorRGBA newColor) {
         validateLayerIndex(layerIndex);
         Validate.nonNull(newColor, "color");
-        if (cloudsRaster[layerIndex] == null) {
+        if (cloudAlphaMaps[layerIndex] == null) {
             throw new IllegalStateException("layer not yet added");
         }
 
-        String parameterName
-                = String.format(Locale.ROOT, "Clouds%dGlow", layerIndex);
-        setColor(parameterName, newColor.clone());
+        cloudsGlowParams.setColor(this, layerIndex, newColor);
     }
 
     /**
@@ -565,18 +664,14 @@ public class SkyMaterialCore extends Material {
      */
     public void setCloudsOffset(int layerIndex, float newU, float newV) {
         validateLayerIndex(layerIndex);
-        if (cloudsRaster[layerIndex] == null) {
+        if (cloudAlphaMaps[layerIndex] == null) {
             throw new IllegalStateException("layer not yet added");
         }
 
         float uOffset = MyMath.modulo(newU, 1f);
         float vOffset = MyMath.modulo(newV, 1f);
-        Vector2f offset = new Vector2f(uOffset, vOffset);
-
-        String parameterName
-                = String.format(Locale.ROOT, "Clouds%dOffset", layerIndex);
-        setVector2(parameterName, offset);
-        cloudOffsets[layerIndex].set(offset);
+        cloudsOffsetParams.setVector2(this, layerIndex, uOffset, vOffset);
+        cloudOffsets[layerIndex].set(uOffset, vOffset);
     }
 
     /**
@@ -588,13 +683,11 @@ public class SkyMaterialCore extends Material {
     public void setCloudsScale(int layerIndex, float newScale) {
         validateLayerIndex(layerIndex);
         Validate.positive(newScale, "scale");
-        if (cloudsRaster[layerIndex] == null) {
+        if (cloudAlphaMaps[layerIndex] == null) {
             throw new IllegalStateException("layer not yet added");
         }
 
-        String parameterName
-                = String.format(Locale.ROOT, "Clouds%dScale", layerIndex);
-        setFloat(parameterName, newScale);
+        cloudsScaleParams.setFloat(this, layerIndex, newScale);
         this.cloudScales[layerIndex] = newScale;
     }
 
@@ -611,9 +704,7 @@ public class SkyMaterialCore extends Material {
             throw new IllegalStateException("object not yet added");
         }
 
-        String parameterName
-                = String.format(Locale.ROOT, "Object%dColor", objectIndex);
-        setColor(parameterName, newColor.clone());
+        objectColorParams.setColor(this, objectIndex, newColor);
     }
 
     /**
@@ -629,110 +720,138 @@ public class SkyMaterialCore extends Material {
             throw new IllegalStateException("object not yet added");
         }
 
-        String parameterName
-                = String.format(Locale.ROOT, "Object%dGlow", objectIndex);
-        setColor(parameterName, newColor.clone());
+        objectGlowParams.setColor(this, objectIndex, newColor);
     }
 
     /**
-     * Alter the position and scaling of the specified astronomical object.
+     * Alter the position and scaling of the specified astronomical object,
+     * without regard to its rotation.
      *
      * @param objectIndex (&lt;maxObjects, &ge;0)
-     * @param centerUV sky texture coordinates for the center of the object (not
-     * null, each component &le;1 and &ge;0, unaffected)
+     * @param u the first sky texture coordinate of the object's center (&le;1,
+     * &ge;0)
+     * @param v the 2nd sky texture coordinate of the object's center (&le;1,
+     * &ge;0)
      * @param newScale ratio of the sky's texture scale to that of the object
-     * (&ge;0, usually &lt;1)
-     * @param newRotate (cos, sin) of clockwise rotation angle (length&gt;0,
-     * unaffected) or null if rotation doesn't matter
+     * (&gt;0, usually &lt;1)
      */
-    public void setObjectTransform(int objectIndex, Vector2f centerUV,
-            float newScale, Vector2f newRotate) {
+    public void setObjectTransform(
+            int objectIndex, float u, float v, float newScale) {
         validateObjectIndex(objectIndex);
-        Validate.nonNull(centerUV, "coordinates");
         Validate.positive(newScale, "scale");
-        if (newRotate != null) {
-            Validate.nonZero(newRotate, "rotation vector");
-        }
         if (objectCenters[objectIndex] == null) {
             throw new IllegalStateException("object not yet added");
         }
 
         // Record transform parameters for save().
-        this.objectCenters[objectIndex] = centerUV.clone();
-        if (newRotate == null) {
-            this.objectRotations[objectIndex] = null;
-        } else {
-            this.objectRotations[objectIndex] = newRotate.clone();
-        }
+        objectCenters[objectIndex].set(u, v);
+        this.objectRotations[objectIndex] = null;
         this.objectScales[objectIndex] = newScale;
 
-        String objectParameterName
-                = String.format(Locale.ROOT, "Object%dCenter", objectIndex);
-        setVector2(objectParameterName, centerUV);
+        applyObjectTransform(objectIndex);
+    }
 
-        Vector2f offset = centerUV.subtract(Constants.topUV);
-        float topDist = offset.length();
-        /*
-         * The texture coordinate transforms are broken into pairs of
-         * vectors because there is no Matrix2f class.
-         */
-        Vector2f transformU = new Vector2f();
-        Vector2f transformV = new Vector2f();
-        Vector2f tU = new Vector2f();
-        Vector2f tV = new Vector2f();
+    /**
+     * Alter the position, scaling, and rotation of the specified astronomical
+     * object.
+     *
+     * @param objectIndex (&lt;maxObjects, &ge;0)
+     * @param u the first sky texture coordinate of the object's center (&le;1,
+     * &ge;0)
+     * @param v the 2nd sky texture coordinate of the object's center (&le;1,
+     * &ge;0)
+     * @param newScale ratio of the sky's texture scale to that of the object
+     * (&gt;0, usually &lt;1)
+     * @param cos the cosine of the clockwise rotation angle (or any multiple
+     * thereof)
+     * @param sin the sine of the clockwise rotation angle (or the same
+     * multiple thereof, not both zero)
+     */
+    public void setObjectTransform(int objectIndex, float u, float v,
+            float newScale, float cos, float sin) {
+        validateObjectIndex(objectIndex);
+        Validate.positive(newScale, "scale");
+        if (cos == 0f && sin == 0f) {
+            throw new IllegalArgumentException(
+                    "rotation vector must have length>0");
+        }
+        if (objectCenters[objectIndex] == null) {
+            throw new IllegalStateException("object not yet added");
+        }
 
-        if (topDist > 0f) {
-            /*
-             * Stretch the image horizontally to compensate for UV distortion
-             * near the horizon.
-             */
-            float a = offset.x / topDist;
-            float b = offset.y / topDist;
-            tU.set(b, -a);
-            tV.set(a, b);
+        // Record transform parameters for save().
+        objectCenters[objectIndex].set(u, v);
+        if (objectRotations[objectIndex] == null) {
+            this.objectRotations[objectIndex] = new Vector2f(cos, sin);
+        } else {
+            objectRotations[objectIndex].set(cos, sin);
+        }
+        this.objectScales[objectIndex] = newScale;
 
-            float stretchFactor
-                    = 1f + Constants.stretchCoefficient * topDist * topDist;
-            tU.divideLocal(stretchFactor);
+        applyObjectTransform(objectIndex);
+    }
 
-            if (newRotate != null) {
-                transformU.set(tU.x * b + tV.x * a, tU.y * b + tV.y * a);
-                transformV.set(tV.x * b - tU.x * a, tV.y * b - tU.y * a);
-            } else {
-                transformU.set(tU);
-                transformV.set(tV);
-            }
+    /**
+     * Alter the position and scaling of the specified astronomical object.
+     *
+     * @param objectIndex (&lt;maxObjects, &ge;0)
+     * @param centerUV sky texture coordinates for the center of the object (not
+     * null, each component &le;1 and &ge;0, unaffected)
+     * @param newScale ratio of the sky's texture scale to that of the object
+     * (&ge;0, usually &lt;1)
+     * @param newRotate (cos, sin) of clockwise rotation angle (length&gt;0,
+     * unaffected) or null if rotation doesn't matter
+     */
+    public void setObjectTransform(int objectIndex, Vector2f centerUV,
+            float newScale, Vector2f newRotate) {
+        Validate.nonNull(centerUV, "coordinates");
 
+        if (newRotate == null) {
+            setObjectTransform(objectIndex, centerUV.x, centerUV.y, newScale);
         } else {
-            // No UV distortion at the top of the dome.
-            transformU.set(1f, 0f);
-            transformV.set(0f, 1f);
-        }
-
-        if (newRotate != null) {
-            // Rotate so top is toward the north horizon.
-            tU.set(transformV);
-            tV.set(-transformU.x, -transformU.y);
-
-            // Rotate by newRotate.
-            Vector2f norm = newRotate.normalize();
-            transformU.set(tU.x * norm.x + tV.x * norm.y,
-                    tU.y * norm.x + tV.y * norm.y);
-            transformV.set(tV.x * norm.x - tU.x * norm.y,
-                    tV.y * norm.x - tU.y * norm.y);
+            Validate.nonZero(newRotate, "rotation vector");
+            setObjectTransform(objectIndex, centerUV.x, centerUV.y, newScale,
+                    newRotate.x, newRotate.y);
         }
+    }
 
-        // Scale by newScale.
-        transformU.divideLocal(newScale);
-        transformV.divideLocal(newScale);
+    /**
+     * Estimate how much light is transmitted through an indexed cloud layer at
+     * the specified texture coordinates.
+     *
+     * @param layerIndex (&lt;maxCloudLayers, &ge;0)
+     * @param skyU the first sky texture coordinate
+     * @param skyV the 2nd sky texture coordinate
+     * @param skyRadius the radius to average over (in sky texture
+     * coordinates, &ge;0, 0 &rarr; sample a single point)
+     * @return fraction of light transmitted (&le;1, &ge;0)
+     */
+    float transparency(
+            int layerIndex, float skyU, float skyV, float skyRadius) {
+        assert layerIndex >= 0 : layerIndex;
+        assert layerIndex < maxCloudLayers : layerIndex;
+        assert cloudAlphaMaps[layerIndex] != null : layerIndex;
 
-        String transformUParameterName
-                = String.format(Locale.ROOT, "Object%dTransformU", objectIndex);
-        setVector2(transformUParameterName, transformU);
+        float scale = cloudScales[layerIndex];
+        Vector2f offset = cloudOffsets[layerIndex];
+        float u = skyU * scale + offset.x;
+        float v = skyV * scale + offset.y;
+        u = MyMath.modulo(u, Constants.uvMax);
+        v = MyMath.modulo(v, Constants.uvMax);
+        CloudAlphaMap alphaMap = cloudAlphaMaps[layerIndex];
+        float opacity;
+        if (skyRadius > 0f) {
+            float side = FastMath.sqrt(FastMath.PI) * skyRadius * scale;
+            opacity = alphaMap.averageRed(u, v, side);
+        } else {
+            opacity = alphaMap.sampleRed(u, v);
+        }
+        opacity *= cloudAlphas[layerIndex];
+        float result = Constants.alphaMax - opacity;
 
-        String transformVParameterName
-                = String.format(Locale.ROOT, "Object%dTransformV", objectIndex);
-        setVector2(transformVParameterName, transformV);
+        assert result >= Constants.alphaMin : result;
+        assert result <= Constants.alphaMax : result;
+        return result;
     }
     // *************************************************************************
     // new protected methods
@@ -759,6 +878,35 @@ public class SkyMaterialCore extends Material {
                 objectIndex, "object index", 0, maxObjects - 1);
     }
     // *************************************************************************
+    // Material methods
+
+    /**
+     * Create a deep copy of this material.
+     *
+     * @return a new instance, equivalent to this one
+     */
+    @Override
+    public SkyMaterialCore clone() {
+        SkyMaterialCore clone = (SkyMaterialCore) super.clone();
+        /*
+         * Material.clone() shares the parameter values and arrays, which are
+         * modified in place, so give the clone its own copies and handles.
+         */
+        ParameterHandles.copyValues(clone);
+        clone.createParameterHandles();
+        Cloner cloner = new Cloner();
+        clone.cloudAlphas = cloudAlphas.clone();
+        clone.cloudAlphaMaps = cloudAlphaMaps.clone();
+        clone.cloudImages = cloudImages.clone();
+        clone.cloudOffsets = cloner.clone(cloudOffsets);
+        clone.cloudScales = cloudScales.clone();
+        clone.objectCenters = cloner.clone(objectCenters);
+        clone.objectRotations = cloner.clone(objectRotations);
+        clone.objectScales = objectScales.clone();
+
+        return clone;
+    }
+    // *************************************************************************
     // Savable methods
 
     /**
@@ -800,14 +948,18 @@ public class SkyMaterialCore extends Material {
         this.assetManager = importer.getAssetManager();
         this.maxCloudLayers = cloudImages.length;
         this.maxObjects = objectCenters.length;
+        createParameterHandles();
 
-        this.cloudsRaster = new ImageRaster[maxCloudLayers];
+        this.cloudAlphaMaps = new CloudAlphaMap[maxCloudLayers];
         for (int layerIndex = 0; layerIndex < maxCloudLayers; ++layerIndex) {
             Image image = cloudImages[layerIndex];
             if (image == null) {
-                this.cloudsRaster[layerIndex] = null;
+                this.cloudAlphaMaps[layerIndex] = null;
             } else {
-                this.cloudsRaster[layerIndex] = ImageRaster.create(image);
+                this.cloudAlphaMaps[layerIndex] = CloudAlphaMap.forImage(image);
+                // Float arrays aren't saved with the material parameters.
+                cloudsScaleParams.setFloat(
+                        this, layerIndex, cloudScales[layerIndex]);
             }
         }
     }
@@ -837,79 +989,111 @@ public class SkyMaterialCore extends Material {
     // private methods
 
     /**
-     * Estimate how much light is transmitted through an indexed cloud layer at
-     * the specified texture coordinates.
+     * Update the material parameters of an astronomical object from its
+     * recorded center, rotation, and scale, without allocating any objects.
      *
-     * @param layerIndex (&lt;maxCloudLayers, &ge;0)
-     * @param skyCoordinates (unaffected, not null)
-     * @return fraction of light transmitted (&le;1, &ge;0)
+     * @param objectIndex (&lt;maxObjects, &ge;0)
      */
-    private float transparency(int layerIndex, Vector2f skyCoordinates) {
-        assert layerIndex >= 0 : layerIndex;
-        assert layerIndex < maxCloudLayers : layerIndex;
-        assert skyCoordinates != null;
-        assert cloudsRaster[layerIndex] != null : layerIndex;
-
-        Vector2f coord = skyCoordinates.mult(cloudScales[layerIndex]);
-        coord.addLocal(cloudOffsets[layerIndex]);
-        coord.x = MyMath.modulo(coord.x, Constants.uvMax);
-        coord.y = MyMath.modulo(coord.y, Constants.uvMax);
-        float opacity = sampleRed(cloudsRaster[layerIndex], coord);
-        opacity *= cloudAlphas[layerIndex];
-        float result = Constants.alphaMax - opacity;
+    private void applyObjectTransform(int objectIndex) {
+        Vector2f center = objectCenters[objectIndex];
+        Vector2f rotation = objectRotations[objectIndex]; // may be null
+        float scale = objectScales[objectIndex];
+        objectCenterParams.setVector2(this, objectIndex, center.x, center.y);
 
-        assert result >= Constants.alphaMin : result;
-        assert result <= Constants.alphaMax : result;
-        return result;
+        float offsetX = center.x - Constants.topU;
+        float offsetY = center.y - Constants.topV;
+        float topDist = FastMath.sqrt(offsetX * offsetX + offsetY * offsetY);
+        /*
+         * The texture coordinate transforms are broken into pairs of
+         * vectors because there is no Matrix2f class.
+         */
+        float uX;
+        float uY;
+        float vX;
+        float vY;
+        if (topDist > 0f) {
+            /*
+             * Stretch the image horizontally to compensate for UV distortion
+             * near the horizon.
+             */
+            float a = offsetX / topDist;
+            float b = offsetY / topDist;
+            float stretchFactor
+                    = 1f + Constants.stretchCoefficient * topDist * topDist;
+            float tUX = b / stretchFactor;
+            float tUY = -a / stretchFactor;
+
+            if (rotation != null) {
+                uX = tUX * b + a * a;
+                uY = tUY * b + b * a;
+                vX = a * b - tUX * a;
+                vY = b * b - tUY * a;
+            } else {
+                uX = tUX;
+                uY = tUY;
+                vX = a;
+                vY = b;
+            }
+
+        } else {
+            // No UV distortion at the top of the dome.
+            uX = 1f;
+            uY = 0f;
+            vX = 0f;
+            vY = 1f;
+        }
+
+        if (rotation != null) {
+            // Rotate so top is toward the north horizon.
+            float tUX = vX;
+            float tUY = vY;
+            float tVX = -uX;
+            float tVY = -uY;
+
+            // Rotate by the recorded rotation.
+            float length = FastMath.sqrt(
+                    rotation.x * rotation.x + rotation.y * rotation.y);
+            float cos = rotation.x / length;
+            float sin = rotation.y / length;
+            uX = tUX * cos + tVX * sin;
+            uY = tUY * cos + tVY * sin;
+            vX = tVX * cos - tUX * sin;
+            vY = tVY * cos - tUY * sin;
+        }
+
+        // Scale by the recorded scale.
+        objectTransformUParams.setVector2(
+                this, objectIndex, uX / scale, uY / scale);
+        objectTransformVParams.setVector2(
+                this, objectIndex, vX / scale, vY / scale);
     }
 
     /**
-     * Sample the red component of a rasterized texture at the specified
-     * coordinates.
-     *
-     * @param colorImage the texture to sample (not null, unaffected)
-     * @param uv texture coordinates to sample (not null, each component &lt;1
-     * and &ge;0, unaffected)
-     * @return red intensity (&le;1, &ge;0)
-     */
-    private static float sampleRed(ImageRaster colorImage, Vector2f uv) {
-        assert colorImage != null;
-        assert uv != null;
-        float u = uv.x;
-        float v = uv.y;
-        assert u >= Constants.uvMin : uv;
-        assert u < Constants.uvMax : uv;
-        assert v >= Constants.uvMin : uv;
-        assert v < Constants.uvMax : uv;
-
-        int width = colorImage.getWidth();
-        float x = u * width;
-        int x0 = (int) FastMath.floor(x);
-        float xFraction1 = x - x0;
-        float xFraction0 = 1 - xFraction1;
-        int x1 = (x0 + 1) % width;
-
-        int height = colorImage.getHeight();
-        float y = v * width;
-        int y0 = (int) FastMath.floor(y);
-        float yFraction1 = y - y0;
-        float yFraction0 = 1 - yFraction1;
-        int y1 = (y0 + 1) % height;
-
-        // Access the red values of the four nearest pixels.
-        float r00 = colorImage.getPixel(x0, y0).r;
-        float r01 = colorImage.getPixel(x1, y0).r;
-        float r10 = colorImage.getPixel(x0, y1).r;
-        float r11 = colorImage.getPixel(x1, y1).r;
-
-        // Sample using bidirectional linear interpolation.
-        float result = r00 * xFraction0 * yFraction0
-                + r01 * xFraction0 * yFraction1
-                + r10 * xFraction1 * yFraction0
-                + r11 * xFraction1 * yFraction1;
-
-        assert result >= Constants.alphaMin : result;
-        assert result <= Constants.alphaMax : result;
-        return result;
+     * Precompute the names of the indexed parameters, with no cached handles.
+     */
+    private void createParameterHandles() {
+        this.cloudsAlphaMapParams
+                = new ParameterHandles("Clouds%dAlphaMap", maxCloudLayers);
+        this.cloudsColorParams
+                = new ParameterHandles("Clouds%dColor", maxCloudLayers);
+        this.cloudsGlowParams
+                = new ParameterHandles("Clouds%dGlow", maxCloudLayers);
+        this.cloudsOffsetParams
+                = new ParameterHandles("Clouds%dOffset", maxCloudLayers);
+        this.cloudsScaleParams
+                = new ParameterHandles("Clouds%dScale", maxCloudLayers);
+
+        this.objectCenterParams
+                = new ParameterHandles("Object%dCenter", maxObjects);
+        this.objectColorMapParams
+                = new ParameterHandles("Object%dColorMap", maxObjects);
+        this.objectColorParams
+                = new ParameterHandles("Object%dColor", maxObjects);
+        this.objectGlowParams
+                = new ParameterHandles("Object%dGlow", maxObjects);
+        this.objectTransformUParams
+                = new ParameterHandles("Object%dTransformU", maxObjects);
+        this.objectTransformVParams
+                = new ParameterHandles("Object%dTransformV", maxObjects);
     }
 }
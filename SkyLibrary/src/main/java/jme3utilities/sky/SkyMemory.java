@@ -0,0 +1,170 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import com.jme3.material.MatParam;
+import com.jme3.material.MatParamTexture;
+import com.jme3.material.Material;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.Spatial;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.texture.Image;
+import com.jme3.texture.Texture;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.logging.Logger;
+import jme3utilities.Validate;
+
+/**
+ * Utility methods to account for the memory used by skies, so the savings
+ * from sharing (using SkyView) can be measured.
+ * <p>
+ * For instance, for 2 scene roots A and B, the savings are
+ * {@code countBufferBytes(A) + countBufferBytes(B) - countBufferBytes(A, B)}.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final public class SkyMemory {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(SkyMemory.class.getName());
+    // *************************************************************************
+    // constructors
+
+    /**
+     * A private constructor to inhibit instantiation of this class.
+     */
+    private SkyMemory() {
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Count the bytes in the distinct mesh buffers and texture images used by
+     * all geometries in the specified subtrees. Buffers shared between
+     * geometries (or subtrees) are counted only once.
+     *
+     * @param roots the subtrees to examine (not null, unaffected)
+     * @return the number of bytes (&ge;0)
+     */
+    public static long countBufferBytes(Spatial... roots) {
+        Validate.nonNull(roots, "roots");
+
+        IdentityHashMap<Buffer, Boolean> map = new IdentityHashMap<>(64);
+        Set<Buffer> visited = Collections.newSetFromMap(map);
+        long[] total = {0L};
+        for (Spatial root : roots) {
+            root.depthFirstTraversal(spatial -> {
+                if (spatial instanceof Geometry) {
+                    Geometry geometry = (Geometry) spatial;
+                    total[0] += countMesh(geometry.getMesh(), visited);
+                    total[0] += countMaterial(geometry.getMaterial(), visited);
+                }
+            });
+        }
+
+        return total[0];
+    }
+
+    /**
+     * Count the heap bytes in the cloud rasters used to sample cloud
+     * transmission. Rasters are shared by all materials (in all controls)
+     * that use the same alpha-map image.
+     *
+     * @return the number of bytes (&ge;0)
+     */
+    public static long countRasterBytes() {
+        long result = CloudAlphaMap.countSharedBytes();
+        return result;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Count the bytes in not-yet-visited texture images of the specified
+     * material.
+     *
+     * @param material the material to examine (may be null, unaffected)
+     * @param visited the buffers already counted (not null, added to)
+     * @return the number of bytes (&ge;0)
+     */
+    private static long countMaterial(Material material, Set<Buffer> visited) {
+        long result = 0L;
+        if (material == null) {
+            return result;
+        }
+
+        for (MatParam param : material.getParams()) {
+            if (param instanceof MatParamTexture) {
+                Texture texture = ((MatParamTexture) param).getTextureValue();
+                Image image = (texture == null) ? null : texture.getImage();
+                if (image != null) {
+                    for (ByteBuffer data : image.getData()) {
+                        if (data != null && visited.add(data)) {
+                            result += data.capacity();
+                        }
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Count the bytes in not-yet-visited vertex buffers of the specified mesh.
+     *
+     * @param mesh the mesh to examine (may be null, unaffected)
+     * @param visited the buffers already counted (not null, added to)
+     * @return the number of bytes (&ge;0)
+     */
+    private static long countMesh(Mesh mesh, Set<Buffer> visited) {
+        long result = 0L;
+        if (mesh == null) {
+            return result;
+        }
+
+        for (VertexBuffer vertexBuffer : mesh.getBufferList()) {
+            Buffer data = vertexBuffer.getData();
+            if (data != null && visited.add(data)) {
+                VertexBuffer.Format format = vertexBuffer.getFormat();
+                int bytesPerElement = format.getComponentSize();
+                result += (long) data.capacity() * bytesPerElement;
+            }
+        }
+
+        return result;
+    }
+}
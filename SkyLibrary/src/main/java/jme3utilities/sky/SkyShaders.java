@@ -0,0 +1,366 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import com.jme3.material.MatParam;
+import com.jme3.material.MatParamTexture;
+import com.jme3.material.Material;
+import com.jme3.material.MaterialDef;
+import com.jme3.material.TechniqueDef;
+import com.jme3.renderer.RenderManager;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.shape.Quad;
+import com.jme3.shader.VarType;
+import com.jme3.texture.Image;
+import com.jme3.texture.Texture2D;
+import com.jme3.texture.image.ColorSpace;
+import com.jme3.util.BufferUtils;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jme3utilities.Validate;
+
+/**
+ * Utility methods to precompile the shader permutations of sky materials
+ * during loading, and to report permutations that weren't precompiled.
+ * <p>
+ * In the dome material definitions, each texture parameter (stars, haze,
+ * object color maps, and cloud alpha maps) controls a shader define, so
+ * adding or removing a texture selects a different shader. A permutation is
+ * identified by its material definition and the set of define-controlling
+ * textures present, for instance
+ * "dome22[Clouds0AlphaMap, HazeAlphaMap, Object0ColorMap]".
+ * <p>
+ * Precompilation must occur on the render thread, after the renderer is
+ * initialized.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final public class SkyShaders {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * maximum number of texture parameters toggled while enumerating
+     * permutations of a single material
+     */
+    final private static int maxToggled = 8;
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(SkyShaders.class.getName());
+    /**
+     * permutations selected by a sky material without being precompiled,
+     * sorted by name
+     */
+    final private static Set<String> lazyPermutations = new TreeSet<>();
+    /**
+     * permutations precompiled so far
+     */
+    final private static Set<String> precompiled = new HashSet<>(32);
+    /**
+     * name of the texture parameter for the star map
+     */
+    final private static String starsParameter = "StarsColorMap";
+    /**
+     * material whose textures the current thread is toggling, so its
+     * temporary selections aren't noted (or null if none)
+     */
+    final private static ThreadLocal<Material> toggling = new ThreadLocal<>();
+    /**
+     * placeholder texture used to enable defines during precompilation
+     */
+    private static Texture2D placeholder = null;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * A private constructor to inhibit instantiation of this class.
+     */
+    private SkyShaders() {
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Enumerate the permutations that the specified material can reach from
+     * its current state by adding or removing any of the specified texture
+     * parameters.
+     *
+     * @param material the material to start from (not null, unaffected)
+     * @param toggledParameters the names of the texture parameters to toggle
+     * (not null, at most 8 elements)
+     * @return a new list of new materials, one per permutation, starting with
+     * a copy of the current state
+     */
+    public static List<Material> enumeratePermutations(
+            Material material, Collection<String> toggledParameters) {
+        Validate.nonNull(material, "material");
+        int numToggled = toggledParameters.size();
+        Validate.inRange(numToggled, "number of toggled parameters", 0,
+                maxToggled);
+
+        String[] names = toggledParameters.toArray(new String[numToggled]);
+        int numPermutations = 1 << numToggled;
+        List<Material> result = new ArrayList<>(numPermutations);
+        for (int bits = 0; bits < numPermutations; ++bits) {
+            Material permutation = material.clone();
+            for (int toggleIndex = 0; toggleIndex < numToggled; ++toggleIndex) {
+                if ((bits & (1 << toggleIndex)) != 0) {
+                    toggle(permutation, names[toggleIndex]);
+                }
+            }
+            result.add(permutation);
+        }
+
+        return result;
+    }
+
+    /**
+     * Enumerate the permutations that the materials of the specified control
+     * are likely to reach at runtime: any texture parameter that's currently
+     * absent may be added, and the star map may be removed.
+     *
+     * @param control the control to examine (not null, unaffected)
+     * @return a new list of new materials
+     */
+    public static List<Material> enumeratePermutations(SkyControlCore control) {
+        Validate.nonNull(control, "control");
+
+        List<Material> result = new ArrayList<>(8);
+        SkyMaterial topMaterial = control.getTopMaterial();
+        result.addAll(enumeratePermutations(
+                topMaterial, likelyToggles(topMaterial)));
+
+        SkyMaterial cloudsMaterial = control.getCloudsMaterial();
+        if (cloudsMaterial != topMaterial) {
+            result.addAll(enumeratePermutations(
+                    cloudsMaterial, likelyToggles(cloudsMaterial)));
+        }
+
+        return result;
+    }
+
+    /**
+     * Copy the permutations that were selected by sky materials without
+     * being precompiled, and therefore compiled lazily on the render thread.
+     *
+     * @return a new sorted set of permutation names
+     */
+    public static Set<String> listLazyPermutations() {
+        synchronized (precompiled) {
+            Set<String> result = new TreeSet<>(lazyPermutations);
+            return result;
+        }
+    }
+
+    /**
+     * Name the permutation selected by the specified material's current
+     * state.
+     *
+     * @param material the material to examine (not null, unaffected)
+     * @return the material definition's name followed by the sorted names of
+     * the define-controlling texture parameters present (not null, not empty)
+     */
+    public static String permutationName(Material material) {
+        MaterialDef def = material.getMaterialDef();
+        Set<String> textures = new TreeSet<>();
+        for (MatParam param : material.getParams()) {
+            String name = param.getName();
+            if (param instanceof MatParamTexture && param.getValue() != null
+                    && controlsDefine(def, name)) {
+                textures.add(name);
+            }
+        }
+        String result = def.getName() + textures;
+
+        return result;
+    }
+
+    /**
+     * Compile the shaders (for every technique) of the specified materials,
+     * skipping permutations that were already precompiled. Must be invoked
+     * on the render thread.
+     *
+     * @param renderManager the application's render manager (not null)
+     * @param materials the materials to compile (not null, unaffected)
+     * @return the number of permutations compiled (&ge;0)
+     */
+    public static int precompile(
+            RenderManager renderManager, Collection<Material> materials) {
+        Validate.nonNull(renderManager, "render manager");
+
+        int result = 0;
+        Geometry geometry = new Geometry("precompile", new Quad(1f, 1f));
+        for (Material material : materials) {
+            String name = permutationName(material);
+            synchronized (precompiled) {
+                if (!precompiled.add(name)) {
+                    continue;
+                }
+                lazyPermutations.remove(name);
+            }
+
+            Material copy = material.clone();
+            geometry.setMaterial(copy);
+            MaterialDef def = copy.getMaterialDef();
+            for (String technique : def.getTechniqueDefsNames()) {
+                copy.selectTechnique(technique, renderManager);
+                copy.preload(renderManager, geometry);
+            }
+            ++result;
+        }
+        logger.log(Level.INFO, "precompiled {0} permutation(s)", result);
+
+        return result;
+    }
+
+    /**
+     * Precompile all permutations that the specified control is likely to
+     * reach at runtime. Must be invoked on the render thread.
+     *
+     * @param renderManager the application's render manager (not null)
+     * @param control the control to examine (not null, unaffected)
+     * @return the number of permutations compiled (&ge;0)
+     */
+    public static int precompile(
+            RenderManager renderManager, SkyControlCore control) {
+        List<Material> permutations = enumeratePermutations(control);
+        int result = precompile(renderManager, permutations);
+
+        return result;
+    }
+
+    /**
+     * Forget which permutations were precompiled or compiled lazily.
+     */
+    public static void reset() {
+        synchronized (precompiled) {
+            lazyPermutations.clear();
+            precompiled.clear();
+        }
+    }
+
+    /**
+     * Record the permutation selected by a sky material after one of its
+     * defines changed. Invoked by SkyMaterial.
+     *
+     * @param material the material that changed (not null, unaffected)
+     */
+    static void noteSelection(Material material) {
+        if (material == toggling.get()) {
+            return; // a temporary permutation being enumerated
+        }
+
+        String name = permutationName(material);
+        synchronized (precompiled) {
+            if (!precompiled.contains(name) && lazyPermutations.add(name)) {
+                logger.log(Level.INFO, "not precompiled: {0}", name);
+            }
+        }
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Test whether the named parameter controls a shader define in any
+     * technique of the specified material definition.
+     *
+     * @param def the material definition (not null, unaffected)
+     * @param parameterName the name of the parameter (not null)
+     * @return true if it controls a define, otherwise false
+     */
+    private static boolean controlsDefine(
+            MaterialDef def, String parameterName) {
+        for (String techniqueName : def.getTechniqueDefsNames()) {
+            for (TechniqueDef technique : def.getTechniqueDefs(techniqueName)) {
+                if (technique.getShaderParamDefine(parameterName) != null) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Select the texture parameters to toggle when enumerating the likely
+     * permutations of the specified material.
+     *
+     * @param material the material to examine (not null, unaffected)
+     * @return a new list of parameter names (at most 8 elements)
+     */
+    private static List<String> likelyToggles(Material material) {
+        MaterialDef def = material.getMaterialDef();
+        List<String> result = new ArrayList<>(maxToggled);
+        for (MatParam param : def.getMaterialParams()) {
+            String name = param.getName();
+            boolean absent = material.getTextureParam(name) == null;
+            if (param.getVarType() == VarType.Texture2D
+                    && (absent || name.equals(starsParameter))
+                    && controlsDefine(def, name)) {
+                if (result.size() < maxToggled) {
+                    result.add(name);
+                } else {
+                    logger.log(Level.WARNING, "not toggling {0}", name);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Add or remove the named texture parameter.
+     *
+     * @param material the material to modify (not null)
+     * @param name the name of the parameter (not null)
+     */
+    private static void toggle(Material material, String name) {
+        toggling.set(material);
+        try {
+            if (material.getTextureParam(name) == null) {
+                if (placeholder == null) {
+                    Image image = new Image(Image.Format.RGBA8, 1, 1,
+                            BufferUtils.createByteBuffer(4),
+                            ColorSpace.Linear);
+                    placeholder = new Texture2D(image);
+                }
+                material.setTexture(name, placeholder);
+            } else {
+                material.clearParam(name);
+            }
+        } finally {
+            toggling.remove();
+        }
+    }
+}
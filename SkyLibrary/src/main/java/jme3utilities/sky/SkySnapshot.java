@@ -0,0 +1,259 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.Vector3f;
+import java.util.logging.Logger;
+
+/**
+ * An immutable record of the lighting values computed by an Updater during
+ * one update, so that any thread can read a consistent set of values.
+ * <p>
+ * Like the updater's own getters, the snapshot records the ambient and main
+ * colors before the updater's multipliers are applied, so they may differ
+ * from the colors of the lights themselves.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ * @see Updater#getSnapshot()
+ */
+final public class SkySnapshot {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * offset of the ambient color in the values array
+     */
+    final private static int ambientOffset = 0;
+    /**
+     * offset of the background color in the values array
+     */
+    final private static int backgroundOffset = 4;
+    /**
+     * offset of the main color in the values array
+     */
+    final private static int mainOffset = 8;
+    /**
+     * offset of the direction to the main light in the values array
+     */
+    final private static int directionOffset = 12;
+    /**
+     * offset of the bloom intensity in the values array
+     */
+    final private static int bloomOffset = 15;
+    /**
+     * offset of the shadow intensity in the values array
+     */
+    final private static int shadowOffset = 16;
+    /**
+     * number of floats in the values array
+     */
+    final static int numFloats = 17;
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(SkySnapshot.class.getName());
+    // *************************************************************************
+    // fields
+
+    /**
+     * all values, packed at the offsets above (never modified after
+     * construction)
+     */
+    final private float[] values = new float[numFloats];
+    /**
+     * number of updates before this snapshot was published
+     */
+    final private long sequence;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate a snapshot of the specified packed values.
+     *
+     * @param sequence the number of preceding updates (&ge;0)
+     * @param packedValues the values, as packed by
+     * {@link #packColors(float[], com.jme3.math.ColorRGBA,
+     * com.jme3.math.ColorRGBA, com.jme3.math.ColorRGBA)} and
+     * {@link #packLight(float[], com.jme3.math.Vector3f, float, float)}
+     * (not null, length=numFloats, unaffected)
+     */
+    SkySnapshot(long sequence, float[] packedValues) {
+        assert packedValues.length == numFloats : packedValues.length;
+
+        this.sequence = sequence;
+        System.arraycopy(packedValues, 0, values, 0, numFloats);
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Copy the color of ambient light, excluding the updater's multiplier.
+     *
+     * @param storeResult storage for the result (modified if not null)
+     * @return the color (either storeResult or a new instance)
+     */
+    public ColorRGBA ambientColor(ColorRGBA storeResult) {
+        ColorRGBA result = getColor(ambientOffset, storeResult);
+        return result;
+    }
+
+    /**
+     * Copy the color of viewport backgrounds.
+     *
+     * @param storeResult storage for the result (modified if not null)
+     * @return the color (either storeResult or a new instance)
+     */
+    public ColorRGBA backgroundColor(ColorRGBA storeResult) {
+        ColorRGBA result = getColor(backgroundOffset, storeResult);
+        return result;
+    }
+
+    /**
+     * Return the intensity of bloom.
+     *
+     * @return the intensity (&ge;0)
+     */
+    public float bloomIntensity() {
+        float result = values[bloomOffset];
+        return result;
+    }
+
+    /**
+     * Copy the direction to the main light source.
+     *
+     * @param storeResult storage for the result (modified if not null)
+     * @return a unit vector in world coordinates (either storeResult or a new
+     * instance)
+     */
+    public Vector3f direction(Vector3f storeResult) {
+        Vector3f result = (storeResult == null) ? new Vector3f() : storeResult;
+        result.set(values[directionOffset], values[directionOffset + 1],
+                values[directionOffset + 2]);
+
+        return result;
+    }
+
+    /**
+     * Copy the color of the main light, excluding the updater's multiplier.
+     *
+     * @param storeResult storage for the result (modified if not null)
+     * @return the color (either storeResult or a new instance)
+     */
+    public ColorRGBA mainColor(ColorRGBA storeResult) {
+        ColorRGBA result = getColor(mainOffset, storeResult);
+        return result;
+    }
+
+    /**
+     * Pack the specified colors into an array for later snapshots.
+     *
+     * @param storeResult the array to modify (not null, length=numFloats)
+     * @param ambientColor the color of ambient light (not null, unaffected)
+     * @param backgroundColor the color of viewport backgrounds (not null,
+     * unaffected)
+     * @param mainColor the color of the main light (not null, unaffected)
+     */
+    static void packColors(float[] storeResult, ColorRGBA ambientColor,
+            ColorRGBA backgroundColor, ColorRGBA mainColor) {
+        putColor(storeResult, ambientOffset, ambientColor);
+        putColor(storeResult, backgroundOffset, backgroundColor);
+        putColor(storeResult, mainOffset, mainColor);
+    }
+
+    /**
+     * Pack the specified direction and intensities into an array for later
+     * snapshots.
+     *
+     * @param storeResult the array to modify (not null, length=numFloats)
+     * @param direction the direction to the main light (unit vector, not
+     * null, unaffected)
+     * @param bloomIntensity the intensity of bloom (&ge;0)
+     * @param shadowIntensity the intensity of shadows (&ge;0, &le;1)
+     */
+    static void packLight(float[] storeResult, Vector3f direction,
+            float bloomIntensity, float shadowIntensity) {
+        storeResult[directionOffset] = direction.x;
+        storeResult[directionOffset + 1] = direction.y;
+        storeResult[directionOffset + 2] = direction.z;
+        storeResult[bloomOffset] = bloomIntensity;
+        storeResult[shadowOffset] = shadowIntensity;
+    }
+
+    /**
+     * Return the number of updates that preceded this snapshot, which
+     * increases with each published snapshot.
+     *
+     * @return the count (&ge;0)
+     */
+    public long sequence() {
+        return sequence;
+    }
+
+    /**
+     * Return the intensity of shadows.
+     *
+     * @return the intensity (&ge;0, &le;1)
+     */
+    public float shadowIntensity() {
+        float result = values[shadowOffset];
+        return result;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Copy the color at the specified offset.
+     *
+     * @param offset the offset of the red component
+     * @param storeResult storage for the result (modified if not null)
+     * @return the color (either storeResult or a new instance)
+     */
+    private ColorRGBA getColor(int offset, ColorRGBA storeResult) {
+        ColorRGBA result
+                = (storeResult == null) ? new ColorRGBA() : storeResult;
+        result.set(values[offset], values[offset + 1], values[offset + 2],
+                values[offset + 3]);
+
+        return result;
+    }
+
+    /**
+     * Store the specified color at the specified offset.
+     *
+     * @param storeResult the array to modify (not null)
+     * @param offset the offset of the red component
+     * @param color the color to store (not null, unaffected)
+     */
+    private static void putColor(
+            float[] storeResult, int offset, ColorRGBA color) {
+        storeResult[offset] = color.r;
+        storeResult[offset + 1] = color.g;
+        storeResult[offset + 2] = color.b;
+        storeResult[offset + 3] = color.a;
+    }
+}
@@ -0,0 +1,350 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.Vector3f;
+import java.util.logging.Logger;
+
+/**
+ * An immutable snapshot of the sky's astronomy and lighting, as calculated by
+ * a SkyEngine.
+ * <p>
+ * Instances are safe to share among threads. The public offsets also describe
+ * the layout of each record in the arrays produced by SkyBatch.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final public class SkyState {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * offset of the hour
+     */
+    final public static int hourOffset = 0;
+    /**
+     * offset of the solar longitude
+     */
+    final public static int longitudeOffset = 1;
+    /**
+     * offset of the direction to the sun (3 floats)
+     */
+    final public static int sunOffset = 2;
+    /**
+     * offset of the direction to the moon (3 floats)
+     */
+    final public static int moonOffset = 5;
+    /**
+     * offset of the direction to the main light source (3 floats)
+     */
+    final public static int mainDirOffset = 8;
+    /**
+     * offset of the base color (4 floats)
+     */
+    final public static int baseOffset = 11;
+    /**
+     * offset of the clouds color (4 floats)
+     */
+    final public static int cloudsOffset = 15;
+    /**
+     * offset of the main-light color (4 floats)
+     */
+    final public static int mainOffset = 19;
+    /**
+     * offset of the ambient-light color (4 floats)
+     */
+    final public static int ambientOffset = 23;
+    /**
+     * offset of the shadow intensity
+     */
+    final public static int shadowOffset = 27;
+    /**
+     * offset of the bloom intensity
+     */
+    final public static int bloomOffset = 28;
+    /**
+     * offset of the cloud transmission
+     */
+    final public static int transmitOffset = 29;
+    /**
+     * offset of the moon's illumination
+     */
+    final public static int illumOffset = 30;
+    /**
+     * offset of the clear-sky opacity
+     */
+    final public static int clearOffset = 31;
+    /**
+     * number of floats in a state
+     */
+    final public static int numFloats = 32;
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(SkyState.class.getName());
+    // *************************************************************************
+    // fields
+
+    /**
+     * true if the moon is hidden, otherwise false
+     */
+    final private boolean moonHidden;
+    /**
+     * state values, laid out according to the offsets above
+     */
+    final private float[] values;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate a snapshot of the specified values.
+     *
+     * @param values the values to copy (not null, length&ge;numFloats,
+     * unaffected)
+     * @param moonHidden true if the moon is hidden, otherwise false
+     */
+    SkyState(float[] values, boolean moonHidden) {
+        assert values.length >= numFloats : values.length;
+
+        this.values = new float[numFloats];
+        System.arraycopy(values, 0, this.values, 0, numFloats);
+        this.moonHidden = moonHidden;
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Copy the color and intensity of the ambient light.
+     *
+     * @param storeResult storage for the result (modified if not null)
+     * @return the color (either storeResult or a new instance)
+     */
+    public ColorRGBA ambientColor(ColorRGBA storeResult) {
+        ColorRGBA result = copyColor(ambientOffset, storeResult);
+        return result;
+    }
+
+    /**
+     * Copy the base color, which is applied to horizon haze, the bottom dome,
+     * and viewport backgrounds.
+     *
+     * @param storeResult storage for the result (modified if not null)
+     * @return the color (either storeResult or a new instance)
+     */
+    public ColorRGBA baseColor(ColorRGBA storeResult) {
+        ColorRGBA result = copyColor(baseOffset, storeResult);
+        return result;
+    }
+
+    /**
+     * Copy the color of the clouds.
+     *
+     * @param storeResult storage for the result (modified if not null)
+     * @return the color (either storeResult or a new instance, alpha is
+     * undefined)
+     */
+    public ColorRGBA cloudsColor(ColorRGBA storeResult) {
+        ColorRGBA result = copyColor(cloudsOffset, storeResult);
+        return result;
+    }
+
+    /**
+     * Return the recommended bloom intensity.
+     *
+     * @return the intensity (&le;1.7, &ge;0)
+     */
+    public float getBloomIntensity() {
+        return values[bloomOffset];
+    }
+
+    /**
+     * Return the opacity of the daytime clear-sky color, which is phased in
+     * during the twilight periods before sunrise and after sunset.
+     *
+     * @return the opacity (&le;1, &ge;0)
+     */
+    public float getClearAlpha() {
+        return values[clearOffset];
+    }
+
+    /**
+     * Return the time of day.
+     *
+     * @return hours since solar midnight (&le;24, &ge;0)
+     */
+    public float getHour() {
+        return values[hourOffset];
+    }
+
+    /**
+     * Return the contribution of the moon to the nighttime illumination,
+     * based on its phase.
+     *
+     * @return the fraction (&le;1, &ge;0)
+     */
+    public float getMoonIllumination() {
+        return values[illumOffset];
+    }
+
+    /**
+     * Return the recommended shadow intensity.
+     *
+     * @return the intensity (&le;1, &ge;0)
+     */
+    public float getShadowIntensity() {
+        return values[shadowOffset];
+    }
+
+    /**
+     * Return the sun's celestial longitude.
+     *
+     * @return radians east of the March equinox (&le;2*Pi, &ge;0)
+     */
+    public float getSolarLongitude() {
+        return values[longitudeOffset];
+    }
+
+    /**
+     * Return the fraction of the main light that passes through the clouds.
+     *
+     * @return the fraction (&le;1, &ge;0)
+     */
+    public float getTransmission() {
+        return values[transmitOffset];
+    }
+
+    /**
+     * Test whether the moon is hidden.
+     *
+     * @return true if hidden, otherwise false
+     */
+    public boolean isMoonHidden() {
+        return moonHidden;
+    }
+
+    /**
+     * Copy the color and intensity of the main directional light.
+     *
+     * @param storeResult storage for the result (modified if not null)
+     * @return the color (either storeResult or a new instance)
+     */
+    public ColorRGBA mainColor(ColorRGBA storeResult) {
+        ColorRGBA result = copyColor(mainOffset, storeResult);
+        return result;
+    }
+
+    /**
+     * Copy the direction to the main light source.
+     *
+     * @param storeResult storage for the result (modified if not null)
+     * @return a unit vector in world coordinates (either storeResult or a new
+     * vector)
+     */
+    public Vector3f mainDirection(Vector3f storeResult) {
+        Vector3f result = copyVector(mainDirOffset, storeResult);
+        return result;
+    }
+
+    /**
+     * Copy the direction to the center of the moon.
+     *
+     * @param storeResult storage for the result (modified if not null)
+     * @return a unit vector in world coordinates (either storeResult or a new
+     * vector) or null if the moon is hidden
+     */
+    public Vector3f moonDirection(Vector3f storeResult) {
+        if (moonHidden) {
+            return null;
+        }
+        Vector3f result = copyVector(moonOffset, storeResult);
+
+        return result;
+    }
+
+    /**
+     * Copy the direction to the center of the sun.
+     *
+     * @param storeResult storage for the result (modified if not null)
+     * @return a unit vector in world coordinates (either storeResult or a new
+     * vector)
+     */
+    public Vector3f sunDirection(Vector3f storeResult) {
+        Vector3f result = copyVector(sunOffset, storeResult);
+        return result;
+    }
+    // *************************************************************************
+    // Object methods
+
+    /**
+     * Represent this state as a text string.
+     *
+     * @return descriptive string of text (not null)
+     */
+    @Override
+    public String toString() {
+        String result = String.format(
+                "[hour=%f, sun=(%f, %f, %f), shadow=%f, bloom=%f]",
+                values[hourOffset], values[sunOffset], values[sunOffset + 1],
+                values[sunOffset + 2], values[shadowOffset],
+                values[bloomOffset]);
+
+        return result;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Copy the color at the specified offset.
+     *
+     * @param offset the offset of the red component
+     * @param storeResult storage for the result (modified if not null)
+     * @return the color (either storeResult or a new instance)
+     */
+    private ColorRGBA copyColor(int offset, ColorRGBA storeResult) {
+        ColorRGBA result
+                = (storeResult == null) ? new ColorRGBA() : storeResult;
+        result.set(values[offset], values[offset + 1], values[offset + 2],
+                values[offset + 3]);
+
+        return result;
+    }
+
+    /**
+     * Copy the vector at the specified offset.
+     *
+     * @param offset the offset of the X component
+     * @param storeResult storage for the result (modified if not null)
+     * @return the vector (either storeResult or a new vector)
+     */
+    private Vector3f copyVector(int offset, Vector3f storeResult) {
+        Vector3f result = (storeResult == null) ? new Vector3f() : storeResult;
+        result.set(values[offset], values[offset + 1], values[offset + 2]);
+
+        return result;
+    }
+}
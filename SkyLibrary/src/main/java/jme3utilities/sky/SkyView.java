@@ -0,0 +1,185 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import com.jme3.renderer.RenderManager;
+import com.jme3.renderer.ViewPort;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+import com.jme3.scene.control.AbstractControl;
+import com.jme3.util.clone.Cloner;
+import java.util.logging.Logger;
+import jme3utilities.Validate;
+
+/**
+ * Lightweight control to show the sky of a SkyControl in another scene, such
+ * as an editor preview or a minimap.
+ * <p>
+ * The SkyControl acts as a shared sky model: it alone owns the materials,
+ * textures, and cloud rasters, and it alone animates the clouds and computes
+ * the astronomy and lighting. The view attaches copies of the control's sky
+ * node (sharing its meshes and materials) to the controlled spatial, which
+ * must be a scene-graph node, and places a copy for each camera that renders
+ * it.
+ * <p>
+ * The source SkyControl must be enabled and updated each frame for the view
+ * to change. Views aren't serialized.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ * @see SkyMemory
+ */
+public class SkyView extends AbstractControl {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(SkyView.class.getName());
+    // *************************************************************************
+    // fields
+
+    /**
+     * the control that owns and updates the shared sky (not null except
+     * during de-serialization)
+     */
+    private SkyControlCore source;
+    /**
+     * per-camera copies of the source's sky node: not serialized
+     */
+    private ViewPortPlacements placements = new ViewPortPlacements();
+    // *************************************************************************
+    // constructors
+
+    /**
+     * No-argument constructor needed by SavableClassUtil.
+     */
+    protected SkyView() {
+        this.source = null;
+    }
+
+    /**
+     * Instantiate an enabled view of the specified sky.
+     *
+     * @param source the control that owns and updates the shared sky (not
+     * null, alias created)
+     */
+    public SkyView(SkyControlCore source) {
+        Validate.nonNull(source, "source");
+        this.source = source;
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Access the control that owns and updates the shared sky.
+     *
+     * @return the pre-existing instance (not null)
+     */
+    public SkyControlCore getSource() {
+        assert source != null;
+        return source;
+    }
+    // *************************************************************************
+    // AbstractControl methods
+
+    /**
+     * Convert this shallow-cloned control into a deep-cloned one, using the
+     * specified cloner and original to resolve copied fields. The clone
+     * shares the source.
+     *
+     * @param cloner the cloner currently cloning this control
+     * @param original the control from which this control was shallow-cloned
+     */
+    @Override
+    public void cloneFields(Cloner cloner, Object original) {
+        super.cloneFields(cloner, original);
+        this.placements = new ViewPortPlacements();
+    }
+
+    /**
+     * Callback to select the copy placed for the viewport's camera, invoked
+     * when the controlled spatial is about to be rendered to a viewport.
+     *
+     * @param renderManager (not null)
+     * @param viewPort the viewport where the spatial will be rendered (not
+     * null)
+     */
+    @Override
+    protected void controlRender(
+            RenderManager renderManager, ViewPort viewPort) {
+        placements.select(null, null, viewPort.getCamera());
+    }
+
+    /**
+     * Callback to create, place, and discard copies of the sky, invoked once
+     * per frame while the control is attached and enabled.
+     *
+     * @param updateInterval time interval between updates (in seconds, &ge;0)
+     */
+    @Override
+    protected void controlUpdate(float updateInterval) {
+        if (source != null) {
+            Spatial subtree = source.accessSubtree();
+            boolean stabilize = source.getStabilizeFlag();
+            DomeTessellation tessellation = null; // share the source's domes
+            placements.update(
+                    subtree, null, (Node) spatial, stabilize, tessellation);
+        }
+    }
+
+    /**
+     * Enable or disable this control. Disabling also discards the copies.
+     *
+     * @param newState true to enable, false to disable
+     */
+    @Override
+    public void setEnabled(boolean newState) {
+        if (!newState && placements != null) {
+            placements.clear();
+        }
+        super.setEnabled(newState);
+    }
+
+    /**
+     * Alter which spatial is controlled, discarding the copies. Invoked when
+     * the control is added to or removed from a spatial.
+     *
+     * @param newSpatial the spatial to control (a Node or null)
+     */
+    @Override
+    public void setSpatial(Spatial newSpatial) {
+        if (newSpatial != null && !(newSpatial instanceof Node)) {
+            throw new IllegalArgumentException(
+                    "The controlled spatial must be a Node.");
+        }
+        if (newSpatial != spatial) {
+            placements.clear();
+        }
+        super.setSpatial(newSpatial);
+    }
+}
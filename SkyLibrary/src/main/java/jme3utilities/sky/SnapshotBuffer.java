@@ -0,0 +1,175 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.Vector3f;
+import java.util.concurrent.locks.StampedLock;
+import java.util.logging.Logger;
+
+/**
+ * The values from an Updater's most recent update, published under a lock so
+ * that other threads can copy them into an immutable SkySnapshot.
+ * <p>
+ * Publishing never allocates: the render thread overwrites a single packed
+ * array, and each snapshot is copied by the thread that requests it. Readers
+ * first try an optimistic read, falling back on a read lock only if an update
+ * intervened.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class SnapshotBuffer {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(SnapshotBuffer.class.getName());
+    // *************************************************************************
+    // fields
+
+    /**
+     * most recently published values, packed for SkySnapshot (guarded by lock)
+     */
+    final private float[] values = new float[SkySnapshot.numFloats];
+    /**
+     * number of updates published (guarded by lock)
+     */
+    private long count = 0L;
+    /**
+     * most recent snapshot returned by {@link #snapshot()} (or null if none
+     * yet)
+     */
+    private volatile SkySnapshot cached = null;
+    /**
+     * guards the published values and their count
+     */
+    final private StampedLock lock = new StampedLock();
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate an empty buffer.
+     */
+    SnapshotBuffer() {
+        // do nothing
+    }
+
+    /**
+     * Instantiate a buffer with the same published values as the specified
+     * one.
+     *
+     * @param original the buffer to copy (not null, unaffected)
+     */
+    SnapshotBuffer(SnapshotBuffer original) {
+        long stamp = original.lock.readLock();
+        try {
+            System.arraycopy(original.values, 0, values, 0, values.length);
+            this.count = original.count;
+        } finally {
+            original.lock.unlockRead(stamp);
+        }
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Publish the specified values, replacing those of the previous update.
+     * Doesn't allocate.
+     *
+     * @param ambientColor the color of ambient light (not null, unaffected)
+     * @param backgroundColor the color of viewport backgrounds (not null,
+     * unaffected)
+     * @param mainColor the color of the main light (not null, unaffected)
+     * @param direction the direction to the main light (unit vector, not
+     * null, unaffected)
+     * @param bloomIntensity the intensity of bloom (&ge;0)
+     * @param shadowIntensity the intensity of shadows (&ge;0, &le;1)
+     */
+    void publish(ColorRGBA ambientColor, ColorRGBA backgroundColor,
+            ColorRGBA mainColor, Vector3f direction, float bloomIntensity,
+            float shadowIntensity) {
+        long stamp = lock.writeLock();
+        try {
+            SkySnapshot.packColors(
+                    values, ambientColor, backgroundColor, mainColor);
+            SkySnapshot.packLight(
+                    values, direction, bloomIntensity, shadowIntensity);
+            ++count;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Obtain a snapshot of the most recently published values. Safe to
+     * invoke from any thread. Until the next update, repeated invocations
+     * return the same instance.
+     *
+     * @return a new or pre-existing instance (or null if nothing has been
+     * published yet)
+     */
+    SkySnapshot snapshot() {
+        long stamp = lock.tryOptimisticRead();
+        SkySnapshot result = copy();
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = copy();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (result != null) {
+            this.cached = result;
+        }
+
+        return result;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Copy the published values into a snapshot, unless the cached snapshot
+     * already holds them. The caller must validate the result.
+     *
+     * @return a new or pre-existing instance (or null if nothing has been
+     * published yet)
+     */
+    private SkySnapshot copy() {
+        long numPublished = count;
+        SkySnapshot result = cached;
+        if (numPublished == 0L) {
+            result = null;
+        } else if (result == null || result.sequence() != numPublished - 1L) {
+            result = new SkySnapshot(numPublished - 1L, values);
+        }
+
+        return result;
+    }
+}
@@ -36,11 +36,25 @@ public enum StarsOption {
      * most efficient option, requiring only 12 additional triangles.
      */
     Cube,
+    /**
+     * Render stars from a cube map sampled by the top dome's shader. Like
+     * Cube, this allows star motion, but it needs no additional geometry, so
+     * it avoids drawing stars behind an opaque daytime sky. The top dome uses
+     * the array66 material definitions.
+     */
+    TopCube,
     /**
      * Render stars on the top dome. This uses the fewest triangles, but star
      * motion will be disabled. A fine option for daytime use.
      */
     TopDome,
+    /**
+     * Render stars from northern and southern dome maps sampled by the top
+     * dome's shader. Like TwoDomes, this allows star motion, but it needs no
+     * additional geometry. The top dome uses the array66 material
+     * definitions.
+     */
+    TopTwoDomes,
     /**
      * Render stars on 2 separate domes, one for the northern hemisphere and one
      * for the southern hemisphere. Use this option when combining star motion
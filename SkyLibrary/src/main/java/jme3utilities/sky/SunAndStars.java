@@ -38,10 +38,8 @@ import java.io.IOException;
 import java.time.LocalDate;
 import java.time.Month;
 import java.util.logging.Logger;
-import jme3utilities.MySpatial;
 import jme3utilities.Validate;
 import jme3utilities.math.MyMath;
-import jme3utilities.math.MyQuaternion;
 import jme3utilities.math.MyVector3f;
 
 /**
@@ -81,6 +79,14 @@ public class SunAndStars implements Cloneable, Savable {
      * obliquity of the ecliptic, in radians
      */
     final private static float obliquity = MyMath.toRadians(23.44f);
+    /**
+     * cosine of the obliquity of the ecliptic
+     */
+    final private static float cosObliquity = FastMath.cos(obliquity);
+    /**
+     * sine of the obliquity of the ecliptic
+     */
+    final private static float sinObliquity = FastMath.sin(obliquity);
     /**
      * Earth's rate of rotation (radians per sidereal hour)
      */
@@ -112,6 +118,22 @@ public class SunAndStars implements Cloneable, Savable {
      * &ge;0)
      */
     private float solarRaHours = 0f;
+    /**
+     * count of changes to the state of this instance: not serialized
+     */
+    private int version = 0;
+    /**
+     * reusable orientation for star geometries: not serialized
+     */
+    private Quaternion tmpOrientation = new Quaternion();
+    /**
+     * reusable rotation for orienting star geometries: not serialized
+     */
+    private Quaternion tmpRotation = new Quaternion();
+    /**
+     * reusable east direction: not serialized
+     */
+    private Vector3f tmpEast = new Vector3f();
     /**
      * north direction (unit vector in world coordinates)
      */
@@ -147,17 +169,8 @@ public class SunAndStars implements Cloneable, Savable {
                 latitude, "latitude", -FastMath.HALF_PI, FastMath.HALF_PI);
         Validate.inRange(longitude, "longitude", 0f, FastMath.TWO_PI);
 
-        // Convert angles to Cartesian ecliptical coordinates.
-        float cosLat = FastMath.cos(latitude);
-        float sinLat = FastMath.sin(latitude);
-        float cosLon = FastMath.cos(longitude);
-        float sinLon = FastMath.sin(longitude);
-        Vector3f ecliptical
-                = new Vector3f(cosLat * cosLon, cosLat * sinLon, sinLat);
-        assert ecliptical.isUnitVector() : ecliptical;
-
-        // Convert to equatorial coordinates.
-        Vector3f equatorial = convertToEquatorial(ecliptical);
+        Vector3f equatorial = new Vector3f();
+        eclipticalToEquatorial(latitude, longitude, equatorial);
 
         assert equatorial.isUnitVector() : equatorial;
         return equatorial;
@@ -171,12 +184,10 @@ public class SunAndStars implements Cloneable, Savable {
      */
     public static Vector3f convertToEquatorial(Vector3f ecliptical) {
         Validate.nonNull(ecliptical, "coordinates");
-        /*
-         * The conversion consists of a rotation about the +X
-         * (March equinox) axis.
-         */
-        Quaternion rotate = new Quaternion().fromAngles(obliquity, 0f, 0f);
-        Vector3f equatorial = MyQuaternion.rotate(rotate, ecliptical, null);
+
+        Vector3f equatorial = new Vector3f();
+        rotateByObliquity(
+                ecliptical.x, ecliptical.y, ecliptical.z, equatorial);
 
         return equatorial;
     }
@@ -199,8 +210,8 @@ public class SunAndStars implements Cloneable, Savable {
         Validate.inRange(longitude, "longitude", 0f, FastMath.TWO_PI);
         Vector3f result = (storeResult == null) ? new Vector3f() : storeResult;
 
-        Vector3f equatorial = convertToEquatorial(latitude, longitude);
-        convertToWorld(equatorial, result);
+        eclipticalToEquatorial(latitude, longitude, result);
+        convertToWorld(result, result);
 
         assert result.isUnitVector();
         return result;
@@ -236,9 +247,7 @@ public class SunAndStars implements Cloneable, Savable {
         Validate.nonNull(rotation, "rotation");
 
         Quaternion horizon2World = new Quaternion();
-        Vector3f east = eastDirection(null);
-        horizon2World.fromAxes(northDirection, upDirection, east);
-        horizon2World.mult(rotation, rotation);  // TODO invert?
+        convertToWorld(rotation, horizon2World);
     }
 
     /**
@@ -253,24 +262,30 @@ public class SunAndStars implements Cloneable, Savable {
         Validate.nonNull(equatorial, "equatorial coordinates");
         Vector3f result = (storeResult == null) ? new Vector3f() : storeResult;
 
-        float siderealAngle = siderealAngle();
+        float x = equatorial.x;
+        float y = equatorial.y;
+        float z = equatorial.z;
         /*
          * Convert to horizontal coordinates:
          * 1. rotate by (-siderealAngle) around +Z (north celestial pole)
          * 2. rotate by (latitude - Pi/2) around +Y (east horizon)
          * 3. permute the axes
          */
-        Quaternion rotation = new Quaternion();
-        rotation.fromAngles(0f, 0f, -siderealAngle);
-        Vector3f rotated = MyQuaternion.rotate(rotation, equatorial, null);
+        float siderealAngle = siderealAngle();
+        float cosSidereal = FastMath.cos(siderealAngle);
+        float sinSidereal = FastMath.sin(siderealAngle);
+        float x1 = x * cosSidereal + y * sinSidereal;
+        float y1 = y * cosSidereal - x * sinSidereal;
 
         float coLatitude = FastMath.HALF_PI - observerLatitude;
-        rotation.fromAngles(0f, -coLatitude, 0f);
-        MyQuaternion.rotate(rotation, rotated, rotated);
+        float cosCoLatitude = FastMath.cos(coLatitude);
+        float sinCoLatitude = FastMath.sin(coLatitude);
+        float x2 = x1 * cosCoLatitude - z * sinCoLatitude;
+        float z2 = x1 * sinCoLatitude + z * cosCoLatitude;
 
-        float northing = -rotated.x;
-        float height = rotated.z;
-        float easting = rotated.y;
+        float northing = -x2;
+        float height = z2;
+        float easting = y1;
 
         // Convert to world coordinates.
         convertToWorld(northing, height, easting, result);
@@ -292,6 +307,26 @@ public class SunAndStars implements Cloneable, Savable {
         return result;
     }
 
+    /**
+     * Calculate the world orientation of a sky whose local axes are
+     * equatorial, as applied by orientEquatorialSky() to ordinary materials.
+     *
+     * @param storeResult storage for the result (modified if not null)
+     * @return the orientation (either storeResult or a new instance)
+     */
+    public Quaternion equatorialOrientation(Quaternion storeResult) {
+        Quaternion result
+                = (storeResult == null) ? new Quaternion() : storeResult;
+
+        float siderealAngle = siderealAngle();
+        result.fromAngles(0f, 0f, observerLatitude);
+        tmpRotation.fromAngles(-siderealAngle, 0f, 0f);
+        result.multLocal(tmpRotation);
+        convertToWorld(result, tmpRotation);
+
+        return result;
+    }
+
     /**
      * Return the time of day.
      *
@@ -325,6 +360,16 @@ public class SunAndStars implements Cloneable, Savable {
         return solarLongitude;
     }
 
+    /**
+     * Return the version of this instance's state, which is incremented each
+     * time the hour, latitude, solar longitude, or axes actually change.
+     *
+     * @return the version number (wraps around on overflow)
+     */
+    public int getVersion() {
+        return version;
+    }
+
     /**
      * Determine the direction to the north horizon.
      *
@@ -355,18 +400,11 @@ public class SunAndStars implements Cloneable, Savable {
     public void orientEquatorialSky(Spatial spatial, boolean invertRotation) {
         Validate.nonNull(spatial, "spatial");
 
-        float siderealAngle = siderealAngle();
-        Quaternion xRotation = new Quaternion();
-        xRotation.fromAngles(-siderealAngle, 0f, 0f);
-        Quaternion zRotation = new Quaternion();
-        zRotation.fromAngles(0f, 0f, observerLatitude);
-        Quaternion orientation = zRotation.mult(xRotation);
-
-        convertToWorld(orientation);
+        Quaternion orientation = equatorialOrientation(tmpOrientation);
         if (invertRotation) {
             orientation.inverseLocal();
         }
-        MySpatial.setWorldOrientation(spatial, orientation);
+        WorldTransforms.setWorldOrientation(spatial, orientation);
     }
 
     /**
@@ -377,23 +415,22 @@ public class SunAndStars implements Cloneable, Savable {
      */
     public void orientStarDomes(Spatial northDome, Spatial southDome) {
         float siderealAngle = siderealAngle();
-        Quaternion yRotation = new Quaternion();
-        Quaternion zRotation = new Quaternion();
         if (northDome != null) { // Orient the north dome.
-            yRotation.fromAngles(0f, -siderealAngle, 0f);
             float coLatitude = FastMath.HALF_PI - observerLatitude;
-            zRotation.fromAngles(0f, 0f, -coLatitude);
-            Quaternion orientation = zRotation.mult(yRotation);
-            convertToWorld(orientation);
-            MySpatial.setWorldOrientation(northDome, orientation);
+            Quaternion orientation
+                    = tmpOrientation.fromAngles(0f, 0f, -coLatitude);
+            tmpRotation.fromAngles(0f, -siderealAngle, 0f);
+            orientation.multLocal(tmpRotation);
+            convertToWorld(orientation, tmpRotation);
+            WorldTransforms.setWorldOrientation(northDome, orientation);
         }
         if (southDome != null) { // Orient the south dome.
-            yRotation.fromAngles(0f, siderealAngle, 0f);
             float angle = FastMath.HALF_PI + observerLatitude;
-            zRotation.fromAngles(0f, 0f, angle);
-            Quaternion orientation = zRotation.mult(yRotation);
-            convertToWorld(orientation);
-            MySpatial.setWorldOrientation(southDome, orientation);
+            Quaternion orientation = tmpOrientation.fromAngles(0f, 0f, angle);
+            tmpRotation.fromAngles(0f, siderealAngle, 0f);
+            orientation.multLocal(tmpRotation);
+            convertToWorld(orientation, tmpRotation);
+            WorldTransforms.setWorldOrientation(southDome, orientation);
         }
     }
 
@@ -409,14 +446,26 @@ public class SunAndStars implements Cloneable, Savable {
         Validate.nonZero(north, "north");
         Validate.nonZero(up, "up");
 
+        float dot = north.dot(up);
+        Validate.require(FastMath.abs(dot) < 0.0001f, "up orthogonal to north");
+
+        float oldNorthX = northDirection.x;
+        float oldNorthY = northDirection.y;
+        float oldNorthZ = northDirection.z;
         northDirection.set(north);
         northDirection.normalizeLocal();
 
+        float oldUpX = upDirection.x;
+        float oldUpY = upDirection.y;
+        float oldUpZ = upDirection.z;
         upDirection.set(up);
         upDirection.normalizeLocal();
 
-        float dot = north.dot(up);
-        Validate.require(FastMath.abs(dot) < 0.0001f, "up orthogonal to north");
+        if (northDirection.x != oldNorthX || northDirection.y != oldNorthY
+                || northDirection.z != oldNorthZ || upDirection.x != oldUpX
+                || upDirection.y != oldUpY || upDirection.z != oldUpZ) {
+            ++version;
+        }
     }
 
     /**
@@ -427,7 +476,11 @@ public class SunAndStars implements Cloneable, Savable {
      */
     public void setHour(float newHour) {
         Validate.inRange(newHour, "new hour", 0f, Constants.hoursPerDay);
-        this.hour = newHour;
+
+        if (newHour != hour) {
+            this.hour = newHour;
+            ++version;
+        }
     }
 
     /**
@@ -439,7 +492,11 @@ public class SunAndStars implements Cloneable, Savable {
     public void setObserverLatitude(float latitude) {
         Validate.inRange(
                 latitude, "latitude", -FastMath.HALF_PI, FastMath.HALF_PI);
-        this.observerLatitude = latitude;
+
+        if (latitude != observerLatitude) {
+            this.observerLatitude = latitude;
+            ++version;
+        }
     }
 
     /**
@@ -450,11 +507,16 @@ public class SunAndStars implements Cloneable, Savable {
      */
     public void setSolarLongitude(float longitude) {
         Validate.inRange(longitude, "longitude", 0f, FastMath.TWO_PI);
+        if (longitude == solarLongitude) {
+            return;
+        }
 
         this.solarLongitude = longitude;
+        ++version;
 
         // Update the cached solar right ascension.
-        Vector3f equatorial = convertToEquatorial(0f, longitude);
+        Vector3f equatorial = new Vector3f();
+        eclipticalToEquatorial(0f, longitude, equatorial);
         float ra = -FastMath.atan2(equatorial.y, equatorial.x);
         this.solarRaHours
                 = MyMath.modulo(ra / radiansPerHour, Constants.hoursPerDay);
@@ -566,8 +628,11 @@ public class SunAndStars implements Cloneable, Savable {
     @Override
     public SunAndStars clone() throws CloneNotSupportedException {
         SunAndStars clone = (SunAndStars) super.clone();
-        this.northDirection = northDirection.clone();
-        this.upDirection = upDirection.clone();
+        clone.northDirection = northDirection.clone();
+        clone.upDirection = upDirection.clone();
+        clone.tmpEast = new Vector3f();
+        clone.tmpOrientation = new Quaternion();
+        clone.tmpRotation = new Quaternion();
 
         return clone;
     }
@@ -634,4 +699,57 @@ public class SunAndStars implements Cloneable, Savable {
         capsule.write(northDirection, "north", null);
         capsule.write(upDirection, "up", null);
     }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Convert the specified rotation from horizontal coordinates to world
+     * coordinates, using the specified storage for the coordinate transform.
+     *
+     * @param rotation (not null, modified)
+     * @param horizon2World storage for the transform (not null, modified)
+     */
+    private void convertToWorld(Quaternion rotation, Quaternion horizon2World) {
+        Vector3f east = eastDirection(tmpEast);
+        horizon2World.fromAxes(northDirection, upDirection, east);
+        horizon2World.mult(rotation, rotation);  // TODO invert?
+    }
+
+    /**
+     * Convert ecliptical angles into an equatorial direction vector without
+     * allocating any objects.
+     *
+     * @param latitude celestial latitude (radians north of the ecliptic)
+     * @param longitude celestial longitude (radians east of the March equinox)
+     * @param storeResult storage for the result (not null, modified)
+     */
+    private static void eclipticalToEquatorial(
+            float latitude, float longitude, Vector3f storeResult) {
+        // Convert angles to Cartesian ecliptical coordinates.
+        float cosLat = FastMath.cos(latitude);
+        float sinLat = FastMath.sin(latitude);
+        float cosLon = FastMath.cos(longitude);
+        float sinLon = FastMath.sin(longitude);
+
+        // Convert to equatorial coordinates.
+        rotateByObliquity(
+                cosLat * cosLon, cosLat * sinLon, sinLat, storeResult);
+        assert storeResult.isUnitVector() : storeResult;
+    }
+
+    /**
+     * Convert ecliptical coordinates to equatorial coordinates. The conversion
+     * consists of a rotation about the +X (March equinox) axis.
+     *
+     * @param x the ecliptical X coordinate
+     * @param y the ecliptical Y coordinate
+     * @param z the ecliptical Z coordinate
+     * @param storeResult storage for the result (not null, modified)
+     */
+    private static void rotateByObliquity(
+            float x, float y, float z, Vector3f storeResult) {
+        float equatorialY = y * cosObliquity - z * sinObliquity;
+        float equatorialZ = y * sinObliquity + z * cosObliquity;
+        storeResult.set(x, equatorialY, equatorialZ);
+    }
 }
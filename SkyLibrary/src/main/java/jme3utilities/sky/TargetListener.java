@@ -0,0 +1,182 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import com.jme3.math.ColorRGBA;
+import com.jme3.post.filters.BloomFilter;
+import com.jme3.renderer.ViewPort;
+import com.jme3.shadow.AbstractShadowFilter;
+import com.jme3.shadow.AbstractShadowRenderer;
+
+/**
+ * A built-in sky listener that adapts a single filter, renderer, or viewport,
+ * used by Updater to drive the types it has always supported.
+ *
+ * @param <T> the type of the adapted object
+ * @author Stephen Gold sgold@sonic.net
+ */
+abstract class TargetListener<T> implements SkyListener {
+    // *************************************************************************
+    // fields
+
+    /**
+     * the adapted object
+     */
+    final private T target;
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate a listener for the specified object.
+     *
+     * @param target the object to adapt (not null, alias created)
+     */
+    private TargetListener(T target) {
+        assert target != null;
+        this.target = target;
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Access the adapted object.
+     *
+     * @return the pre-existing instance (not null)
+     */
+    T getTarget() {
+        return target;
+    }
+    // *************************************************************************
+    // nested classes
+
+    /**
+     * Update the background color of a viewport.
+     */
+    final static class Background extends TargetListener<ViewPort> {
+        /**
+         * reusable color, since viewports copy their background colors
+         */
+        final private ColorRGBA tmpColor = new ColorRGBA();
+
+        /**
+         * Instantiate a listener for the specified viewport.
+         *
+         * @param viewPort the viewport to update (not null, alias created)
+         */
+        Background(ViewPort viewPort) {
+            super(viewPort);
+        }
+
+        /**
+         * Apply a new background color to the viewport.
+         *
+         * @param red the red component (&ge;0, &le;1)
+         * @param green the green component (&ge;0, &le;1)
+         * @param blue the blue component (&ge;0, &le;1)
+         * @param alpha the alpha component (&ge;0, &le;1)
+         */
+        @Override
+        public void onBackgroundColor(
+                float red, float green, float blue, float alpha) {
+            tmpColor.set(red, green, blue, alpha);
+            getTarget().setBackgroundColor(tmpColor);
+        }
+    }
+
+    /**
+     * Update the intensity of a bloom filter.
+     */
+    final static class Bloom extends TargetListener<BloomFilter> {
+        /**
+         * Instantiate a listener for the specified filter.
+         *
+         * @param filter the filter to update (not null, alias created)
+         */
+        Bloom(BloomFilter filter) {
+            super(filter);
+        }
+
+        /**
+         * Apply a new intensity to the filter.
+         *
+         * @param intensity the intensity (&ge;0)
+         */
+        @Override
+        public void onBloomIntensity(float intensity) {
+            getTarget().setBloomIntensity(intensity);
+        }
+    }
+
+    /**
+     * Update the intensity of a shadow filter.
+     */
+    final static class ShadowFilter
+            extends TargetListener<AbstractShadowFilter<?>> {
+        /**
+         * Instantiate a listener for the specified filter.
+         *
+         * @param filter the filter to update (not null, alias created)
+         */
+        ShadowFilter(AbstractShadowFilter<?> filter) {
+            super(filter);
+        }
+
+        /**
+         * Apply a new shadow intensity to the adapted object.
+         *
+         * @param intensity the intensity (&ge;0, &le;1)
+         */
+        @Override
+        public void onShadowIntensity(float intensity) {
+            getTarget().setShadowIntensity(intensity);
+        }
+    }
+
+    /**
+     * Update the intensity of a shadow renderer.
+     */
+    final static class ShadowRenderer
+            extends TargetListener<AbstractShadowRenderer> {
+        /**
+         * Instantiate a listener for the specified renderer.
+         *
+         * @param renderer the renderer to update (not null, alias created)
+         */
+        ShadowRenderer(AbstractShadowRenderer renderer) {
+            super(renderer);
+        }
+
+        /**
+         * Apply a new shadow intensity to the adapted object.
+         *
+         * @param intensity the intensity (&ge;0, &le;1)
+         */
+        @Override
+        public void onShadowIntensity(float intensity) {
+            getTarget().setShadowIntensity(intensity);
+        }
+    }
+}
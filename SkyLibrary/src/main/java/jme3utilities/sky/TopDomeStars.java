@@ -0,0 +1,386 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import com.jme3.asset.AssetManager;
+import com.jme3.asset.TextureKey;
+import com.jme3.material.MatParam;
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.FastMath;
+import com.jme3.math.Matrix3f;
+import com.jme3.math.Quaternion;
+import com.jme3.math.Vector2f;
+import com.jme3.math.Vector3f;
+import com.jme3.math.Vector4f;
+import com.jme3.scene.Geometry;
+import com.jme3.texture.Image;
+import com.jme3.texture.Texture;
+import com.jme3.texture.TextureCubeMap;
+import com.jme3.texture.image.ColorSpace;
+import com.jme3.texture.image.ImageRaster;
+import com.jme3.util.BufferUtils;
+import java.nio.ByteBuffer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jme3utilities.MyAsset;
+import jme3utilities.Validate;
+import jme3utilities.math.MyVector3f;
+import jme3utilities.mesh.DomeMesh;
+
+/**
+ * Utility methods for star maps sampled by the top dome's shader
+ * (StarsOption.TopCube or TopTwoDomes), which replace the separate stars node
+ * and its overdraw. Once per update, the control computes a rotation from the
+ * top dome's mesh coordinates to the equatorial coordinates of the star maps.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class TopDomeStars {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * major axis of each face of an OpenGL cube map, in the order of the
+     * TextureCubeMap.Face enum
+     */
+    final private static Vector3f[] glMajorAxis = {
+        new Vector3f(1f, 0f, 0f), new Vector3f(-1f, 0f, 0f),
+        new Vector3f(0f, 1f, 0f), new Vector3f(0f, -1f, 0f),
+        new Vector3f(0f, 0f, 1f), new Vector3f(0f, 0f, -1f)
+    };
+    /**
+     * direction of increasing S on each face of an OpenGL cube map
+     */
+    final private static Vector3f[] glSAxis = {
+        new Vector3f(0f, 0f, -1f), new Vector3f(0f, 0f, 1f),
+        new Vector3f(1f, 0f, 0f), new Vector3f(1f, 0f, 0f),
+        new Vector3f(1f, 0f, 0f), new Vector3f(-1f, 0f, 0f)
+    };
+    /**
+     * direction of increasing T on each face of an OpenGL cube map
+     */
+    final private static Vector3f[] glTAxis = {
+        new Vector3f(0f, -1f, 0f), new Vector3f(0f, -1f, 0f),
+        new Vector3f(0f, 0f, 1f), new Vector3f(0f, 0f, -1f),
+        new Vector3f(0f, -1f, 0f), new Vector3f(0f, -1f, 0f)
+    };
+    /**
+     * dome mesh for which the northern and southern star maps were generated
+     * (see MakeStarMaps)
+     */
+    final private static DomeMesh starDomeMesh = new DomeMesh(3, 2);
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(TopDomeStars.class.getName());
+    /**
+     * name of the material parameter for the mapping from dome directions to
+     * texture coordinates on the star domes
+     */
+    final private static String axesParameter = "StarsDomeAxes";
+    /**
+     * name of the material parameter for the star cube map
+     */
+    final private static String cubeParameter = "StarsCubeMap";
+    /**
+     * asset path to the folder of cube-map folders, which also holds the
+     * default northern and southern star maps
+     */
+    final private static String cubesPath = "Textures/skies/star-maps";
+    /**
+     * file names of the cube faces, in the order of their numeric suffixes
+     */
+    final private static String[] faceName = {
+        "right", "left", "top", "bottom", "front", "back"
+    };
+    /**
+     * name of the material parameter for the northern star map
+     */
+    final private static String northParameter = "StarsNorthMap";
+    /**
+     * name of the material parameter for the rotation from top-dome mesh
+     * coordinates to equatorial coordinates
+     */
+    final private static String rotationParameter = "StarsRotation";
+    /**
+     * name of the material parameter for the southern star map
+     */
+    final private static String southParameter = "StarsSouthMap";
+    /**
+     * name of the material parameter for the texture coordinates of the
+     * zenith on the star domes
+     */
+    final private static String topParameter = "StarsDomeTop";
+    // *************************************************************************
+    // constructors
+
+    /**
+     * A private constructor to inhibit instantiation of this class.
+     */
+    private TopDomeStars() {
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Add the default star maps to the specified top material, if it renders
+     * stars.
+     *
+     * @param assetManager for loading textures (not null)
+     * @param material the material to modify (not null)
+     * @param option how stars are rendered (not null)
+     */
+    static void addDefault(AssetManager assetManager, SkyMaterial material,
+            StarsOption option) {
+        switch (option) {
+            case TopCube:
+                load(assetManager, material, option, "equator");
+                break;
+
+            case TopDome:
+                material.addStars();
+                break;
+
+            case TopTwoDomes:
+                load(assetManager, material, option, cubesPath);
+                break;
+
+            default:
+        }
+    }
+
+    /**
+     * Remove any star maps from the specified top material.
+     *
+     * @param material the material to modify (not null)
+     * @param option how stars are rendered (TopCube, TopDome, or
+     * TopTwoDomes)
+     */
+    static void clear(SkyMaterial material, StarsOption option) {
+        if (option == StarsOption.TopDome) {
+            material.removeStars();
+            return;
+        }
+
+        assert usesRotation(option) : option;
+        material.clearParam(cubeParameter);
+        material.clearParam(northParameter);
+        material.clearParam(southParameter);
+    }
+
+    /**
+     * Load star maps into the specified top material.
+     *
+     * @param assetManager for loading textures (not null)
+     * @param material the material to modify (not null)
+     * @param option how stars are rendered (TopCube, TopDome, or
+     * TopTwoDomes)
+     * @param assetName if option==TopCube: name of a cube-map folder in
+     * Textures/skies/star-maps (not null, not empty)<br>
+     * if option==TopDome: path to texture asset (not null, not empty)<br>
+     * if option==TopTwoDomes: path to an asset folder containing northern.png
+     * and southern.png (not null, not empty)
+     */
+    static void load(AssetManager assetManager, SkyMaterial material,
+            StarsOption option, String assetName) {
+        if (option == StarsOption.TopDome) {
+            material.addStars(assetName);
+            return;
+        }
+
+        clear(material, option);
+        if (option == StarsOption.TopCube) {
+            TextureCubeMap cubeMap = loadCubeMap(assetManager, assetName);
+            material.setTexture(cubeParameter, cubeMap);
+            return;
+        }
+
+        boolean mipmaps = false;
+        Texture north = MyAsset.loadTexture(
+                assetManager, assetName + "/northern.png", mipmaps);
+        material.setTexture(northParameter, north);
+        Texture south = MyAsset.loadTexture(
+                assetManager, assetName + "/southern.png", mipmaps);
+        material.setTexture(southParameter, south);
+        /*
+         * Texture coordinates on a star dome are linear in the zenith angle,
+         * so the shader needs only the top and 2 horizontal axes.
+         */
+        Vector2f top = starDomeMesh.directionUV(Vector3f.UNIT_Y);
+        Vector2f xAxis = starDomeMesh.directionUV(Vector3f.UNIT_X);
+        xAxis.subtractLocal(top).divideLocal(FastMath.HALF_PI);
+        Vector2f zAxis = starDomeMesh.directionUV(Vector3f.UNIT_Z);
+        zAxis.subtractLocal(top).divideLocal(FastMath.HALF_PI);
+        material.setVector2(topParameter, top);
+        material.setVector4(axesParameter,
+                new Vector4f(xAxis.x, xAxis.y, zAxis.x, zAxis.y));
+    }
+
+    /**
+     * Update the rotation parameter of the top material to reflect the
+     * current orientation of the stars and the top dome. If the top material
+     * has no star maps, this has no effect.
+     *
+     * @param control the control to update (not null)
+     * @param sunAndStars the orientation of the stars (not null, unaffected)
+     * @param tmpRotation reusable storage for the rotation (not null,
+     * modified)
+     */
+    static void update(SkyControlCore control, SunAndStars sunAndStars,
+            Quaternion tmpRotation) {
+        SkyMaterial topMaterial = control.getTopMaterial();
+        if (topMaterial.getParam(cubeParameter) == null
+                && topMaterial.getParam(northParameter) == null) {
+            return;
+        }
+        /*
+         * The star maps' world orientation is the one that
+         * orientEquatorialSky() would give a stars node,
+         * so invert it and apply the top dome's world rotation.
+         */
+        Quaternion rotation = sunAndStars.equatorialOrientation(tmpRotation);
+        rotation.inverseLocal();
+        Geometry topDome = control.getTopDome();
+        rotation.multLocal(topDome.getWorldRotation());
+
+        MatParam parameter = topMaterial.getParam(rotationParameter);
+        if (parameter == null) {
+            Matrix3f matrix = rotation.toRotationMatrix();
+            topMaterial.setMatrix3(rotationParameter, matrix);
+        } else {
+            Matrix3f matrix = (Matrix3f) parameter.getValue();
+            rotation.toRotationMatrix(matrix);
+        }
+    }
+
+    /**
+     * Test whether the specified option renders moving stars using the top
+     * dome's shader and a rotation uniform.
+     *
+     * @param option the option to test (not null)
+     * @return true if rotated by the top dome's shader, otherwise false
+     */
+    static boolean usesRotation(StarsOption option) {
+        boolean result = option == StarsOption.TopCube
+                || option == StarsOption.TopTwoDomes;
+        return result;
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Load the 6 faces of a star cube map, like those used by
+     * MyAsset.createStarMapQuads(), and resample them into an OpenGL cube
+     * map. This is done once per load, so the shader needs no per-face
+     * conversions.
+     *
+     * @param assetManager for loading textures (not null)
+     * @param name the name of the cube-map folder (not null, not empty)
+     * @return a new cube map
+     */
+    private static TextureCubeMap loadCubeMap(
+            AssetManager assetManager, String name) {
+        Validate.nonEmpty(name, "name");
+
+        ImageRaster[] sources = new ImageRaster[6];
+        Image firstImage = null;
+        for (int faceIndex = 0; faceIndex < 6; ++faceIndex) {
+            String assetPath = String.format("%s/%s/%s_%s%d.png", cubesPath,
+                    name, name, faceName[faceIndex], faceIndex + 1);
+            boolean flipY = true;
+            TextureKey key = new TextureKey(assetPath, flipY);
+            Image image = assetManager.loadTexture(key).getImage();
+            if (firstImage == null) {
+                firstImage = image;
+            }
+            Validate.require(image.getWidth() == firstImage.getWidth()
+                    && image.getHeight() == firstImage.getWidth(),
+                    "square faces of equal size");
+            sources[faceIndex] = ImageRaster.create(image);
+        }
+
+        Image.Format format = firstImage.getFormat();
+        int size = firstImage.getWidth();
+        ColorSpace colorSpace = firstImage.getColorSpace();
+        Image cubeImage = new Image(format, size, size, null, colorSpace);
+        int bytesPerFace = size * size * format.getBitsPerPixel() / 8;
+
+        ColorRGBA pixel = new ColorRGBA();
+        Vector3f direction = new Vector3f();
+        for (int glFace = 0; glFace < 6; ++glFace) {
+            // Find the source face that shares this face's major axis.
+            int sourceFace = 0;
+            for (int faceIndex = 1; faceIndex < 6; ++faceIndex) {
+                Vector3f faceDir = MyAsset.copyFaceDirection(faceIndex);
+                if (faceDir.dot(glMajorAxis[glFace]) > 0.5f) {
+                    sourceFace = faceIndex;
+                }
+            }
+            Vector3f uDir = MyAsset.copyUDirection(sourceFace);
+            Vector3f vDir = MyAsset.copyVDirection(sourceFace);
+
+            ByteBuffer data = BufferUtils.createByteBuffer(bytesPerFace);
+            Image faceImage = new Image(format, size, size, data, colorSpace);
+            ImageRaster target = ImageRaster.create(faceImage);
+            for (int y = 0; y < size; ++y) {
+                float t = (2f * y + 1f) / size - 1f;
+                for (int x = 0; x < size; ++x) {
+                    float s = (2f * x + 1f) / size - 1f;
+                    direction.set(glMajorAxis[glFace]);
+                    MyVector3f.accumulateScaled(direction, glSAxis[glFace], s);
+                    MyVector3f.accumulateScaled(direction, glTAxis[glFace], t);
+
+                    int u = texel(uDir.dot(direction), size);
+                    int v = texel(vDir.dot(direction), size);
+                    sources[sourceFace].getPixel(u, v, pixel);
+                    target.setPixel(x, y, pixel);
+                }
+            }
+            cubeImage.addData(data);
+        }
+
+        TextureCubeMap result = new TextureCubeMap(cubeImage);
+        result.setMinFilter(Texture.MinFilter.BilinearNoMipMaps);
+        logger.log(Level.FINE, "resampled star cube map {0}", name);
+
+        return result;
+    }
+
+    /**
+     * Convert a face coordinate to a texel index.
+     *
+     * @param coordinate the coordinate (&ge;-1, &le;1)
+     * @param size the number of texels per side (&gt;0)
+     * @return the texel index (&ge;0, &lt;size)
+     */
+    private static int texel(float coordinate, int size) {
+        int result = (int) (0.5f * (coordinate + 1f) * size);
+        result = Math.max(0, Math.min(size - 1, result));
+
+        return result;
+    }
+}
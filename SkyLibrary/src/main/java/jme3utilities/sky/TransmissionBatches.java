@@ -0,0 +1,115 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+import jme3utilities.Validate;
+
+/**
+ * Utility methods to split batches of transmission queries into fixed-size
+ * chunks, which may run in parallel on the common ForkJoinPool. Each chunk
+ * is a contiguous range, so a task's per-query overhead is a loop iteration,
+ * not a stream element.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class TransmissionBatches {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * number of queries per task when queries are run in parallel
+     */
+    final private static int queriesPerChunk = 256;
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(TransmissionBatches.class.getName());
+    // *************************************************************************
+    // constructors
+
+    /**
+     * A private constructor to inhibit instantiation of this class.
+     */
+    private TransmissionBatches() {
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Run a batch of queries, in chunks.
+     *
+     * @param numQueries the number of queries in the batch (&ge;0)
+     * @param storeResult storage for the results (modified if not null,
+     * length &ge;numQueries)
+     * @param parallel true to allow multiple threads, false to use only the
+     * current thread
+     * @param range the function that answers a range of queries (not null)
+     * @return the fraction transmitted for each query (either storeResult or
+     * a new array)
+     */
+    static float[] run(int numQueries, float[] storeResult, boolean parallel,
+            Range range) {
+        assert numQueries >= 0 : numQueries;
+        if (storeResult != null) {
+            Validate.require(
+                    storeResult.length >= numQueries, "sufficient storage");
+        }
+        float[] result
+                = (storeResult == null) ? new float[numQueries] : storeResult;
+
+        int numChunks = (numQueries + queriesPerChunk - 1) / queriesPerChunk;
+        if (parallel && numChunks > 1) {
+            IntStream.range(0, numChunks).parallel().forEach(chunkIndex -> {
+                int fromIndex = chunkIndex * queriesPerChunk;
+                int toIndex = Math.min(numQueries, fromIndex + queriesPerChunk);
+                range.transmit(fromIndex, toIndex, result);
+            });
+        } else {
+            range.transmit(0, numQueries, result);
+        }
+
+        return result;
+    }
+    // *************************************************************************
+    // nested classes
+
+    /**
+     * A function that answers a contiguous range of queries.
+     */
+    interface Range {
+        /**
+         * Estimate the transmission for each query in the specified range.
+         *
+         * @param fromIndex the index of the first query (&ge;0)
+         * @param toIndex the index past the last query (&ge;fromIndex)
+         * @param storeResult storage for the results (not null, modified)
+         */
+        void transmit(int fromIndex, int toIndex, float[] storeResult);
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import com.jme3.math.FastMath;
+import com.jme3.util.clone.Cloner;
+import com.jme3.util.clone.JmeCloneable;
+import java.util.logging.Logger;
+import jme3utilities.Validate;
+
+/**
+ * Component of SkyControl to decide when a full update is due, based on the
+ * simulation time and the number of frames since the previous one.
+ * <p>
+ * A full update is due once both the update period (in seconds) and the
+ * update interval (in frames) have elapsed. With the defaults (0 seconds and
+ * 1 frame) every frame is eligible.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class UpdateSchedule implements JmeCloneable {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(UpdateSchedule.class.getName());
+    // *************************************************************************
+    // fields
+
+    /**
+     * simulation time since the most recent full update (in seconds, &ge;0)
+     */
+    private float sinceUpdate = 0f;
+    /**
+     * minimum interval between full updates (in seconds, &ge;0)
+     */
+    private float updatePeriod = 0f;
+    /**
+     * number of frames since the most recent full update (&ge;0)
+     */
+    private int framesSinceUpdate = 0;
+    /**
+     * minimum number of frames between full updates (&ge;1)
+     */
+    private int updateFrames = 1;
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Count one frame of the specified duration.
+     *
+     * @param tpf the time interval since the previous frame (in seconds,
+     * &ge;0)
+     */
+    void advance(float tpf) {
+        this.sinceUpdate += tpf;
+        if (framesSinceUpdate < updateFrames) {
+            ++framesSinceUpdate;
+        }
+    }
+
+    /**
+     * Return how far the current interval has progressed, for interpolating
+     * between full updates.
+     *
+     * @return the fraction (&ge;0, &le;1, 1 if no interval is configured)
+     */
+    float fraction() {
+        float result = 1f;
+        if (updatePeriod > 0f) {
+            result = FastMath.saturate(sinceUpdate / updatePeriod);
+        }
+        if (updateFrames > 1) {
+            float frameFraction = framesSinceUpdate / (float) updateFrames;
+            result = Math.min(result, frameFraction);
+        }
+
+        assert result >= 0f : result;
+        assert result <= 1f : result;
+        return result;
+    }
+
+    /**
+     * Return the minimum number of frames between full updates.
+     *
+     * @return the count (&ge;1)
+     */
+    int getUpdateFrames() {
+        assert updateFrames >= 1 : updateFrames;
+        return updateFrames;
+    }
+
+    /**
+     * Return the minimum interval between full updates.
+     *
+     * @return the interval (in seconds, &ge;0)
+     */
+    float getUpdatePeriod() {
+        assert updatePeriod >= 0f : updatePeriod;
+        return updatePeriod;
+    }
+
+    /**
+     * Test whether a full update is due.
+     *
+     * @return true if both intervals have elapsed, otherwise false
+     */
+    boolean isDue() {
+        boolean result = sinceUpdate >= updatePeriod
+                && framesSinceUpdate >= updateFrames;
+        return result;
+    }
+
+    /**
+     * Test whether full updates may be skipped, in which case the Updater
+     * should interpolate toward its targets.
+     *
+     * @return true if either interval is configured, otherwise false
+     */
+    boolean isReduced() {
+        boolean result = updatePeriod > 0f || updateFrames > 1;
+        return result;
+    }
+
+    /**
+     * Start a new interval after a full update.
+     */
+    void restart() {
+        this.sinceUpdate = 0f;
+        this.framesSinceUpdate = 0;
+    }
+
+    /**
+     * Alter the minimum number of frames between full updates.
+     *
+     * @param newCount the desired count (&ge;1, 1 &rarr; every frame)
+     */
+    void setUpdateFrames(int newCount) {
+        Validate.positive(newCount, "new count");
+        this.updateFrames = newCount;
+    }
+
+    /**
+     * Alter the minimum interval between full updates.
+     *
+     * @param newPeriod the desired interval (in seconds, &ge;0, 0 &rarr; every
+     * frame)
+     */
+    void setUpdatePeriod(float newPeriod) {
+        Validate.nonNegative(newPeriod, "new period");
+        this.updatePeriod = newPeriod;
+    }
+    // *************************************************************************
+    // JmeCloneable methods
+
+    /**
+     * Convert this shallow-cloned instance into a deep-cloned one, using the
+     * specified cloner and original to resolve copied fields.
+     *
+     * @param cloner the cloner currently cloning this instance
+     * @param original the instance from which this one was shallow-cloned
+     */
+    @Override
+    public void cloneFields(Cloner cloner, Object original) {
+        // do nothing
+    }
+
+    /**
+     * Create a shallow clone for the JME cloner.
+     *
+     * @return a new instance
+     */
+    @Override
+    public UpdateSchedule jmeClone() {
+        try {
+            UpdateSchedule clone = (UpdateSchedule) clone();
+            return clone;
+        } catch (CloneNotSupportedException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+}
@@ -32,7 +32,9 @@ import com.jme3.export.OutputCapsule;
 import com.jme3.export.Savable;
 import com.jme3.light.AmbientLight;
 import com.jme3.light.DirectionalLight;
+import com.jme3.material.Material;
 import com.jme3.math.ColorRGBA;
+import com.jme3.math.FastMath;
 import com.jme3.math.Vector3f;
 import com.jme3.post.filters.BloomFilter;
 import com.jme3.renderer.ViewPort;
@@ -72,6 +74,11 @@ public class Updater
      * which ambient light to update (or null for none)
      */
     private AmbientLight ambientLight = null;
+    /**
+     * true while gradually approaching the target values, otherwise false:
+     * not serialized
+     */
+    private boolean interpolatingFlag = false;
     /**
      * most recent color for ambient light (or null if not updated yet)
      */
@@ -80,10 +87,60 @@ public class Updater
      * most recent color for viewport background (or null if not updated yet)
      */
     private ColorRGBA backgroundColor = null;
+    /**
+     * cloud-shadow map bound to the shadowed materials (or null for none)
+     */
+    private CloudShadowMap cloudShadows = null;
+    /**
+     * decides which changes are large enough to push
+     */
+    private ChangeThresholds thresholds = new ChangeThresholds();
     /**
      * most recent color for main directional light (or null if not updated yet)
      */
     private ColorRGBA mainColor = null;
+    /**
+     * ambient color most recently pushed to the ambient light, including the
+     * multiplier: not serialized
+     */
+    private ColorRGBA pushedAmbient = new ColorRGBA();
+    /**
+     * background color most recently pushed to the viewports: not serialized
+     */
+    private ColorRGBA pushedBackground = new ColorRGBA();
+    /**
+     * main color most recently pushed to the main light, including the
+     * multiplier: not serialized
+     */
+    private ColorRGBA pushedMain = new ColorRGBA();
+    /**
+     * ambient color at the start of the current interpolation: not serialized
+     */
+    private ColorRGBA startAmbient = new ColorRGBA();
+    /**
+     * background color at the start of the current interpolation: not
+     * serialized
+     */
+    private ColorRGBA startBackground = new ColorRGBA();
+    /**
+     * main-light color at the start of the current interpolation: not
+     * serialized
+     */
+    private ColorRGBA startMain = new ColorRGBA();
+    /**
+     * ambient color at the end of the current interpolation: not serialized
+     */
+    private ColorRGBA targetAmbient = new ColorRGBA();
+    /**
+     * background color at the end of the current interpolation: not
+     * serialized
+     */
+    private ColorRGBA targetBackground = new ColorRGBA();
+    /**
+     * main-light color at the end of the current interpolation: not
+     * serialized
+     */
+    private ColorRGBA targetMain = new ColorRGBA();
     /**
      * which directional light to update (or null for none)
      */
@@ -100,35 +157,91 @@ public class Updater
      * multiplier when applying the main light color (1 &rarr; default)
      */
     private float mainMultiplier = 1f;
+    /**
+     * bloom intensity most recently pushed to the bloom filters: not
+     * serialized
+     */
+    private float pushedBloom = 0f;
+    /**
+     * shadow intensity most recently pushed to the shadow filters and
+     * renderers: not serialized
+     */
+    private float pushedShadow = 0f;
     /**
      * most recent shadow intensity
      */
     private float shadowIntensity = 0f;
     /**
-     * shadow filters whose intensities are updated by the control - not
-     * synchronized
+     * bloom intensity at the start of the current interpolation: not
+     * serialized
      */
-    private List<AbstractShadowFilter<?>> shadowFilters = new ArrayList<>(1);
+    private float startBloom = 0f;
     /**
-     * shadow renderers whose intensities are updated by the control - not
-     * synchronized
+     * shadow intensity at the start of the current interpolation: not
+     * serialized
      */
-    private List<AbstractShadowRenderer> shadowRenderers = new ArrayList<>(1);
+    private float startShadow = 0f;
     /**
-     * bloom filters whose intensities are updated by the control - not
-     * synchronized
+     * bloom intensity at the end of the current interpolation: not serialized
      */
-    private List<BloomFilter> bloomFilters = new ArrayList<>(1);
+    private float targetBloom = 0f;
     /**
-     * viewports whose background colors are updated by the control - not
+     * shadow intensity at the end of the current interpolation: not
      * serialized
      */
-    private List<ViewPort> viewPorts = new ArrayList<>(3);
+    private float targetShadow = 0f;
+    /**
+     * count of changes to the lights, multipliers, filters, renderers, and
+     * viewports to update: not serialized
+     */
+    private int version = 0;
+    /**
+     * configuration version at the most recent push, to force a full push
+     * after any reconfiguration: not serialized
+     */
+    private int pushedVersion = -1;
+    /**
+     * materials to which the cloud-shadow map is bound: set by
+     * {@link #addCloudShadowMaterial(com.jme3.material.Material)}
+     */
+    private List<Material> shadowedMaterials = new ArrayList<>(1);
+    /**
+     * listeners, including built-in adapters for the filters, renderers, and
+     * viewports updated by the control: not serialized
+     */
+    private SkyListeners listeners = new SkyListeners();
+    /**
+     * values from the most recent update, for snapshots: not serialized
+     */
+    private SnapshotBuffer snapshots = new SnapshotBuffer();
+    /**
+     * reusable color for applying a multiplier: not serialized
+     */
+    private ColorRGBA tmpColor = new ColorRGBA();
     /**
      * most recent direction for main directional light (length=1, or null if
      * not updated yet)
      */
     private Vector3f direction = null;
+    /**
+     * propagation direction most recently pushed to the main light: not
+     * serialized
+     */
+    private Vector3f pushedDirection = new Vector3f();
+    /**
+     * reusable propagation direction for the main light: not serialized
+     */
+    private Vector3f tmpDirection = new Vector3f();
+    /**
+     * light-source direction at the start of the current interpolation: not
+     * serialized
+     */
+    private Vector3f startDirection = new Vector3f();
+    /**
+     * light-source direction at the end of the current interpolation: not
+     * serialized
+     */
+    private Vector3f targetDirection = new Vector3f();
     // *************************************************************************
     // constructors
 
@@ -150,7 +263,37 @@ public class Updater
     public void addBloomFilter(BloomFilter filter) {
         Validate.nonNull(filter, "filter");
 
-        bloomFilters.add(filter);
+        listeners.add(new TargetListener.Bloom(filter));
+    }
+
+    /**
+     * Add a material to the list of materials to which the control's
+     * cloud-shadow map is bound. The material's definition must declare a
+     * Texture2D parameter named {@link CloudShadowMap#textureParameter} and a
+     * Float parameter named {@link CloudShadowMap#extentParameter}. Note that
+     * the list is not serialized.
+     *
+     * @param material (not null, alias created)
+     */
+    public void addCloudShadowMaterial(Material material) {
+        Validate.nonNull(material, "material");
+
+        shadowedMaterials.add(material);
+        if (cloudShadows != null) {
+            bindCloudShadows(material);
+        }
+        ++version;
+    }
+
+    /**
+     * Add a listener to receive the lighting values computed by the control.
+     * Safe to invoke from any thread. Note that listeners are not serialized.
+     *
+     * @param listener the listener to add (not null, alias created)
+     */
+    public void addListener(SkyListener listener) {
+        Validate.nonNull(listener, "listener");
+        listeners.add(listener);
     }
 
     /**
@@ -162,7 +305,7 @@ public class Updater
     @SuppressWarnings("rawtypes")
     public void addShadowFilter(AbstractShadowFilter filter) {
         Validate.nonNull(filter, "filter");
-        shadowFilters.add(filter);
+        listeners.add(new TargetListener.ShadowFilter(filter));
     }
 
     /**
@@ -173,7 +316,7 @@ public class Updater
      */
     public void addShadowRenderer(AbstractShadowRenderer renderer) {
         Validate.nonNull(renderer, "renderer");
-        shadowRenderers.add(renderer);
+        listeners.add(new TargetListener.ShadowRenderer(renderer));
     }
 
     /**
@@ -228,6 +371,15 @@ public class Updater
         return bloomIntensity;
     }
 
+    /**
+     * Access the cloud-shadow map bound to the shadowed materials.
+     *
+     * @return the pre-existing instance (or null for none)
+     */
+    public CloudShadowMap getCloudShadows() {
+        return cloudShadows;
+    }
+
     /**
      * Copy the most recent direction for the main directional light.
      *
@@ -280,6 +432,42 @@ public class Updater
         return shadowIntensity;
     }
 
+    /**
+     * Obtain an immutable snapshot of the values from the most recent update.
+     * Safe to invoke from any thread. The snapshot is copied by the invoking
+     * thread, so updates never allocate, and until the next update, repeated
+     * invocations return the same instance.
+     *
+     * @return a new or pre-existing instance (or null if not updated yet)
+     */
+    public SkySnapshot getSnapshot() {
+        SkySnapshot result = snapshots.snapshot();
+        return result;
+    }
+
+    /**
+     * Access the thresholds that decide which changes are pushed to the
+     * lights, filters, renderers, and viewports.
+     *
+     * @return the pre-existing instance (not null)
+     */
+    public ChangeThresholds getThresholds() {
+        assert thresholds != null;
+        return thresholds;
+    }
+
+    /**
+     * Return the version of this updater's configuration, which is
+     * incremented each time a light, multiplier, listener, filter, renderer,
+     * or viewport is added, removed, or replaced.
+     *
+     * @return the version number (wraps around on overflow)
+     */
+    public int getVersion() {
+        int result = version + listeners.version();
+        return result;
+    }
+
     /**
      * Remove a bloom filter from the list of filters whose intensities are
      * updated by the control. Note that the list is not serialized.
@@ -289,7 +477,41 @@ public class Updater
     public void removeBloomFilter(BloomFilter filter) {
         Validate.nonNull(filter, "filter");
 
-        boolean success = bloomFilters.remove(filter);
+        SkyListener adapter = listeners.findAdapter(filter);
+        boolean success = listeners.remove(adapter);
+        if (!success) {
+            logger.log(Level.WARNING, "not removed");
+        }
+    }
+
+    /**
+     * Remove a material from the list of materials to which the control's
+     * cloud-shadow map is bound. The material's parameters are left as they
+     * are. Note that the list is not serialized.
+     *
+     * @param material (not null)
+     */
+    public void removeCloudShadowMaterial(Material material) {
+        Validate.nonNull(material, "material");
+
+        boolean success = shadowedMaterials.remove(material);
+        if (success) {
+            ++version;
+        } else {
+            logger.log(Level.WARNING, "not removed");
+        }
+    }
+
+    /**
+     * Remove a listener added by {@link #addListener(SkyListener)}. Safe to
+     * invoke from any thread.
+     *
+     * @param listener the listener to remove (not null)
+     */
+    public void removeListener(SkyListener listener) {
+        Validate.nonNull(listener, "listener");
+
+        boolean success = listeners.remove(listener);
         if (!success) {
             logger.log(Level.WARNING, "not removed");
         }
@@ -305,7 +527,8 @@ public class Updater
     public void removeShadowFilter(AbstractShadowFilter filter) {
         Validate.nonNull(filter, "filter");
 
-        boolean success = shadowFilters.remove(filter);
+        SkyListener adapter = listeners.findAdapter(filter);
+        boolean success = listeners.remove(adapter);
         if (!success) {
             logger.log(Level.WARNING, "not removed");
         }
@@ -320,7 +543,8 @@ public class Updater
     public void removeShadowRenderer(AbstractShadowRenderer renderer) {
         Validate.nonNull(renderer, "renderer");
 
-        boolean success = shadowRenderers.remove(renderer);
+        SkyListener adapter = listeners.findAdapter(renderer);
+        boolean success = listeners.remove(adapter);
         if (!success) {
             logger.log(Level.WARNING, "not removed");
         }
@@ -336,6 +560,7 @@ public class Updater
      */
     public void setAmbientLight(AmbientLight ambientLight) {
         this.ambientLight = ambientLight;
+        ++version;
     }
 
     /**
@@ -346,6 +571,7 @@ public class Updater
     public void setAmbientMultiplier(float factor) {
         Validate.nonNegative(factor, "factor");
         this.ambientMultiplier = factor;
+        ++version;
     }
 
     /**
@@ -354,22 +580,24 @@ public class Updater
      * @param newState true to enable, false to disable
      */
     public void setBloomEnabled(boolean newState) {
-        for (BloomFilter filter : bloomFilters) {
-            filter.setEnabled(newState);
+        for (SkyListener listener : listeners.array()) {
+            if (listener instanceof TargetListener.Bloom) {
+                BloomFilter filter
+                        = ((TargetListener.Bloom) listener).getTarget();
+                filter.setEnabled(newState);
+            }
         }
     }
 
     /**
-     * Set filters, renderers, and viewports based on another updater. TODO
-     * rename
+     * Share the listeners (including filters, renderers, and viewports) of
+     * another updater. TODO rename
      *
-     * @param otherUpdater updater to copy from (not null)
+     * @param otherUpdater updater to share with (not null)
      */
     public void setFRV(Updater otherUpdater) {
-        this.bloomFilters = otherUpdater.bloomFilters;
-        this.shadowFilters = otherUpdater.shadowFilters;
-        this.shadowRenderers = otherUpdater.shadowRenderers;
-        this.viewPorts = otherUpdater.viewPorts;
+        this.listeners = otherUpdater.listeners;
+        ++version;
     }
 
     /**
@@ -382,6 +610,7 @@ public class Updater
      */
     public void setMainLight(DirectionalLight mainLight) {
         this.mainLight = mainLight;
+        ++version;
     }
 
     /**
@@ -392,6 +621,7 @@ public class Updater
     public void setMainMultiplier(float factor) {
         Validate.nonNegative(factor, "factor");
         this.mainMultiplier = factor;
+        ++version;
     }
 
     /**
@@ -400,11 +630,127 @@ public class Updater
      * @param newState true to enable, false to disable
      */
     public void setShadowFiltersEnabled(boolean newState) {
-        for (AbstractShadowFilter<?> filter : shadowFilters) {
-            filter.setEnabled(newState);
+        for (SkyListener listener : listeners.array()) {
+            if (listener instanceof TargetListener.ShadowFilter) {
+                AbstractShadowFilter<?> filter
+                        = ((TargetListener.ShadowFilter) listener).getTarget();
+                filter.setEnabled(newState);
+            }
         }
     }
 
+    /**
+     * Move the lights, shadows, and viewports part way from the values at the
+     * start of the current interpolation toward its target values. If no
+     * interpolation is in progress, this has no effect.
+     *
+     * @param fraction how far to move: 0 &rarr; start values, 1 &rarr; target
+     * values (&le;1, &ge;0)
+     * @see #setTargets(com.jme3.math.ColorRGBA, com.jme3.math.ColorRGBA,
+     * com.jme3.math.ColorRGBA, float, float, com.jme3.math.Vector3f)
+     */
+    void interpolate(float fraction) {
+        assert fraction >= 0f : fraction;
+        assert fraction <= 1f : fraction;
+
+        if (!interpolatingFlag) {
+            return;
+        }
+
+        ambientColor.interpolateLocal(startAmbient, targetAmbient, fraction);
+        backgroundColor.interpolateLocal(
+                startBackground, targetBackground, fraction);
+        mainColor.interpolateLocal(startMain, targetMain, fraction);
+        this.bloomIntensity = FastMath.interpolateLinear(
+                fraction, startBloom, targetBloom);
+        this.shadowIntensity = FastMath.interpolateLinear(
+                fraction, startShadow, targetShadow);
+        /*
+         * Normalize the interpolated direction, falling back
+         * on the target if the start and target are nearly opposite.
+         */
+        direction.interpolateLocal(startDirection, targetDirection, fraction);
+        if (direction.lengthSquared() > 1e-4f) {
+            direction.normalizeLocal();
+        } else {
+            direction.set(targetDirection);
+        }
+
+        // The end of each transition is pushed regardless of thresholds.
+        boolean force = false;
+        if (fraction >= 1f) {
+            this.interpolatingFlag = false;
+            force = true;
+        }
+        publishSnapshot();
+        apply(force);
+    }
+
+    /**
+     * Bind the specified cloud-shadow map to all shadowed materials. Invoked
+     * by SkyControl.
+     *
+     * @param shadowMap the map to bind (or null to unbind)
+     */
+    void setCloudShadows(CloudShadowMap shadowMap) {
+        this.cloudShadows = shadowMap;
+        for (Material material : shadowedMaterials) {
+            bindCloudShadows(material);
+        }
+        ++version;
+    }
+
+    /**
+     * Begin a gradual transition from the most recent values to the specified
+     * target values. The lights, shadows, and viewports aren't altered until
+     * {@link #interpolate(float)} is invoked. If there are no recent values
+     * yet, the target values are applied immediately.
+     *
+     * @param ambientColor color and intensity of ambient light (not null,
+     * unaffected)
+     * @param backgroundColor color of viewport backgrounds (not null,
+     * unaffected)
+     * @param mainColor color and intensity of the main directional light (not
+     * null, unaffected)
+     * @param bloomIntensity intensity of bloom effect (&ge;0)
+     * @param shadowIntensity intensity of shadows (&lt;1, &ge;0)
+     * @param direction direction to the main light source (length=1,
+     * unaffected)
+     */
+    void setTargets(ColorRGBA ambientColor, ColorRGBA backgroundColor,
+            ColorRGBA mainColor, float bloomIntensity, float shadowIntensity,
+            Vector3f direction) {
+        if (this.direction == null) {
+            update(ambientColor, backgroundColor, mainColor, bloomIntensity,
+                    shadowIntensity, direction);
+            return;
+        }
+        assert ambientColor != null;
+        assert backgroundColor != null;
+        assert mainColor != null;
+        assert bloomIntensity >= 0f : bloomIntensity;
+        assert shadowIntensity >= 0f : shadowIntensity;
+        assert shadowIntensity <= 1f : shadowIntensity;
+        assert direction != null;
+        assert direction.isUnitVector() : direction;
+
+        startAmbient.set(this.ambientColor);
+        startBackground.set(this.backgroundColor);
+        startMain.set(this.mainColor);
+        this.startBloom = this.bloomIntensity;
+        this.startShadow = this.shadowIntensity;
+        startDirection.set(this.direction);
+
+        targetAmbient.set(ambientColor);
+        targetBackground.set(backgroundColor);
+        targetMain.set(mainColor);
+        this.targetBloom = bloomIntensity;
+        this.targetShadow = shadowIntensity;
+        targetDirection.set(direction);
+
+        this.interpolatingFlag = true;
+    }
+
     /**
      * Update all the lights, shadows, and viewports.
      *
@@ -455,33 +801,9 @@ public class Updater
             this.direction.set(direction);
         }
 
-        if (mainLight != null) {
-            ColorRGBA color = mainColor.mult(mainMultiplier);
-            mainLight.setColor(color);
-            /*
-             * The direction of the main light is the direction in which it
-             * propagates, which is the opposite of the direction to the
-             * light source.
-             */
-            Vector3f propagationDirection = direction.negate();
-            mainLight.setDirection(propagationDirection);
-        }
-        if (ambientLight != null) {
-            ColorRGBA color = ambientColor.mult(ambientMultiplier);
-            ambientLight.setColor(color);
-        }
-        for (BloomFilter filter : bloomFilters) {
-            filter.setBloomIntensity(bloomIntensity);
-        }
-        for (AbstractShadowFilter<?> filter : shadowFilters) {
-            filter.setShadowIntensity(shadowIntensity);
-        }
-        for (AbstractShadowRenderer renderer : shadowRenderers) {
-            renderer.setShadowIntensity(shadowIntensity);
-        }
-        for (ViewPort viewPort : viewPorts) {
-            viewPort.setBackgroundColor(backgroundColor);
-        }
+        this.interpolatingFlag = false;
+        publishSnapshot();
+        apply(false);
     }
     // *************************************************************************
     // JmeCloneable methods
@@ -496,15 +818,31 @@ public class Updater
     @Override
     public void cloneFields(Cloner cloner, Object original) {
         this.ambientLight = cloner.clone(ambientLight);
-        this.shadowFilters = cloner.clone(shadowFilters);
-        this.shadowRenderers = cloner.clone(shadowRenderers);
-        this.bloomFilters = cloner.clone(bloomFilters);
-        this.viewPorts = new ArrayList<>(viewPorts);
+        this.listeners = new SkyListeners(listeners);
+        this.shadowedMaterials = new ArrayList<>(shadowedMaterials);
+        this.cloudShadows = null;
         this.ambientColor = cloner.clone(ambientColor);
         this.backgroundColor = cloner.clone(backgroundColor);
         this.mainColor = cloner.clone(mainColor);
         this.mainLight = cloner.clone(mainLight);
         this.direction = cloner.clone(direction);
+        this.startAmbient = cloner.clone(startAmbient);
+        this.startBackground = cloner.clone(startBackground);
+        this.startMain = cloner.clone(startMain);
+        this.targetAmbient = cloner.clone(targetAmbient);
+        this.targetBackground = cloner.clone(targetBackground);
+        this.targetMain = cloner.clone(targetMain);
+        this.startDirection = cloner.clone(startDirection);
+        this.targetDirection = cloner.clone(targetDirection);
+        this.thresholds = cloner.clone(thresholds);
+        this.tmpColor = new ColorRGBA();
+        this.tmpDirection = new Vector3f();
+        this.pushedAmbient = new ColorRGBA();
+        this.pushedBackground = new ColorRGBA();
+        this.pushedMain = new ColorRGBA();
+        this.pushedDirection = new Vector3f();
+        this.pushedVersion = getVersion() - 1;
+        this.snapshots = new SnapshotBuffer(snapshots);
     }
 
     /**
@@ -545,6 +883,10 @@ public class Updater
         mainMultiplier = ic.readFloat("mainMultiplier", 1f);
         shadowIntensity = ic.readFloat("shadowIntensity", 0f);
         direction = (Vector3f) ic.readSavable("direction", null);
+        Savable savable = ic.readSavable("thresholds", null);
+        if (savable != null) {
+            thresholds = (ChangeThresholds) savable;
+        }
     }
 
     /**
@@ -568,6 +910,7 @@ public class Updater
         oc.write(mainMultiplier, "mainMultiplier", 1f);
         oc.write(shadowIntensity, "shadowIntensity", 0f);
         oc.write(direction, "direction", null);
+        oc.write(thresholds, "thresholds", null);
     }
     // *************************************************************************
     // ViewPortListener methods
@@ -581,7 +924,7 @@ public class Updater
     @Override
     public void addViewPort(ViewPort viewPort) {
         Validate.nonNull(viewPort, "viewport");
-        viewPorts.add(viewPort);
+        listeners.add(new TargetListener.Background(viewPort));
     }
 
     /**
@@ -594,9 +937,130 @@ public class Updater
     public void removeViewPort(ViewPort viewPort) {
         Validate.nonNull(viewPort, "viewport");
 
-        boolean success = viewPorts.remove(viewPort);
+        SkyListener adapter = listeners.findAdapter(viewPort);
+        boolean success = listeners.remove(adapter);
         if (!success) {
             logger.log(Level.WARNING, "not removed");
         }
     }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Apply the most recent values to the lights and listeners, skipping any
+     * value whose change since the previous push doesn't exceed its
+     * threshold. All values are pushed after a reconfiguration.
+     *
+     * @param force true to push all values regardless of thresholds
+     */
+    private void apply(boolean force) {
+        int currentVersion = getVersion();
+        boolean pushAll = force || pushedVersion != currentVersion;
+        this.pushedVersion = currentVersion;
+
+        // Read the volatile array once, so the whole push sees one snapshot.
+        SkyListener[] array = listeners.array();
+        boolean hasListeners = array.length > 0;
+
+        if (mainLight != null || hasListeners) {
+            applyMain(pushAll, array);
+        }
+        if (ambientLight != null || hasListeners) {
+            ColorRGBA color = tmpColor.set(ambientColor);
+            color.multLocal(ambientMultiplier);
+            if (thresholds.pushColor(pushAll, pushedAmbient, color)) {
+                if (ambientLight != null) {
+                    ambientLight.setColor(color);
+                }
+                for (SkyListener listener : array) {
+                    listener.onAmbientColor(color.r, color.g, color.b, color.a);
+                }
+            }
+        }
+        if (!hasListeners) {
+            return;
+        }
+
+        if (thresholds.pushIntensity(pushAll, pushedBloom, bloomIntensity)) {
+            this.pushedBloom = bloomIntensity;
+            for (SkyListener listener : array) {
+                listener.onBloomIntensity(bloomIntensity);
+            }
+        }
+        if (thresholds.pushIntensity(
+                pushAll, pushedShadow, shadowIntensity)) {
+            this.pushedShadow = shadowIntensity;
+            for (SkyListener listener : array) {
+                listener.onShadowIntensity(shadowIntensity);
+            }
+        }
+        ColorRGBA bg = backgroundColor;
+        if (thresholds.pushColor(pushAll, pushedBackground, bg)) {
+            for (SkyListener listener : array) {
+                listener.onBackgroundColor(bg.r, bg.g, bg.b, bg.a);
+            }
+        }
+    }
+
+    /**
+     * Apply the most recent color and direction of the main light to the
+     * main light (if any) and the specified listeners.
+     *
+     * @param pushAll true to push regardless of thresholds
+     * @param array the listeners to notify (not null, unaffected)
+     */
+    private void applyMain(boolean pushAll, SkyListener[] array) {
+        ColorRGBA color = tmpColor.set(mainColor);
+        color.multLocal(mainMultiplier);
+        if (thresholds.pushColor(pushAll, pushedMain, color)) {
+            if (mainLight != null) {
+                mainLight.setColor(color);
+            }
+            for (SkyListener listener : array) {
+                listener.onMainColor(color.r, color.g, color.b, color.a);
+            }
+        }
+        /*
+         * The direction of the main light is the direction in which it
+         * propagates, which is the opposite of the direction to the
+         * light source.
+         */
+        Vector3f propagationDirection = tmpDirection.set(direction);
+        propagationDirection.negateLocal();
+        if (thresholds.pushDirection(
+                pushAll, pushedDirection, propagationDirection)) {
+            if (mainLight != null) {
+                mainLight.setDirection(propagationDirection);
+            }
+            Vector3f toSource = direction;
+            for (SkyListener listener : array) {
+                listener.onMainDirection(toSource.x, toSource.y, toSource.z);
+            }
+        }
+    }
+
+    /**
+     * Bind the current cloud-shadow map (if any) to the specified material.
+     *
+     * @param material the material to modify (not null)
+     */
+    private void bindCloudShadows(Material material) {
+        if (cloudShadows == null) {
+            material.clearParam(CloudShadowMap.textureParameter);
+            material.clearParam(CloudShadowMap.extentParameter);
+        } else {
+            material.setTexture(CloudShadowMap.textureParameter,
+                    cloudShadows.getTexture());
+            material.setFloat(CloudShadowMap.extentParameter,
+                    cloudShadows.getExtent());
+        }
+    }
+
+    /**
+     * Publish the most recent values for snapshots, without allocating.
+     */
+    private void publishSnapshot() {
+        snapshots.publish(ambientColor, backgroundColor, mainColor, direction,
+                bloomIntensity, shadowIntensity);
+    }
 }
@@ -0,0 +1,329 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import com.jme3.math.Quaternion;
+import com.jme3.math.Vector3f;
+import com.jme3.renderer.Camera;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import jme3utilities.mesh.DomeMesh;
+
+/**
+ * Component of SkyControlCore and SkyView to place the sky for each camera
+ * that renders it.
+ * <p>
+ * A control's own subtree is placed for its tracked camera. Each other
+ * camera gets a lightweight copy of the subtree that shares its meshes and
+ * materials, so the astronomy, lighting, and material updates run once per
+ * frame no matter how many viewports show the sky. During rendering, cull
+ * hints select the copy that matches the viewport's camera.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class ViewPortPlacements {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * number of consecutive updates a camera can go unrendered before its
+     * copy is discarded
+     */
+    final private static int maxMissedUpdates = 60;
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(ViewPortPlacements.class.getName());
+    /**
+     * local copy of {@link com.jme3.math.Quaternion#IDENTITY}
+     */
+    final private static Quaternion rotationIdentity = new Quaternion();
+    // *************************************************************************
+    // fields
+
+    /**
+     * cameras that rendered the sky since the previous update
+     */
+    final private List<Camera> renderedCameras = new ArrayList<>(4);
+    /**
+     * per-camera copies of the subtree, each with the number of consecutive
+     * updates since its camera last rendered
+     */
+    final private Map<Camera, Copy> copies = new HashMap<>(4);
+    // *************************************************************************
+    // constructors
+
+    /**
+     * Instantiate an empty set of placements.
+     */
+    ViewPortPlacements() {
+        // do nothing
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Detach and discard all copies.
+     */
+    void clear() {
+        for (Copy copy : copies.values()) {
+            copy.spatial.removeFromParent();
+        }
+        copies.clear();
+        renderedCameras.clear();
+    }
+
+    /**
+     * Center and scale the specified sky for the specified camera.
+     *
+     * @param sky the subtree or copy to place (not null, modified)
+     * @param camera the camera to place it for (not null, unaffected)
+     * @param stabilize true to counteract rotation of the parent
+     */
+    static void place(Spatial sky, Camera camera, boolean stabilize) {
+        // Translate the sky to center it on the camera.
+        Vector3f cameraLocation = camera.getLocation();
+        WorldTransforms.setWorldLocation(sky, cameraLocation);
+        /*
+         * Scale the sky so that its furthest geometries are midway
+         * between the near and far planes of the view frustum.
+         */
+        float far = camera.getFrustumFar();
+        float near = camera.getFrustumNear();
+        float radius = (near + far) / 2f;
+        WorldTransforms.setWorldScale(sky, radius);
+
+        if (stabilize) {
+            // Counteract rotation of the parent.
+            WorldTransforms.setWorldOrientation(sky, rotationIdentity);
+        }
+    }
+
+    /**
+     * Show only the sky placed for the specified camera. Invoked when the sky
+     * is about to be rendered to a viewport.
+     *
+     * @param subtree the control's subtree (or null if not in this scene)
+     * @param tracked the control's tracked camera (or null if none)
+     * @param camera the camera of the viewport (not null)
+     */
+    void select(Spatial subtree, Camera tracked, Camera camera) {
+        if (!renderedCameras.contains(camera)) {
+            renderedCameras.add(camera);
+        }
+        if (copies.isEmpty()) {
+            return; // the common case: only the subtree is attached
+        }
+        /*
+         * Cull hints don't invalidate the scene graph, so they can be
+         * altered during rendering. A camera without a copy yet sees the
+         * subtree for one frame.
+         */
+        Copy match = copies.get(camera);
+        if (subtree != null) {
+            boolean showSubtree = (camera == tracked || match == null);
+            subtree.setCullHint(showSubtree
+                    ? Spatial.CullHint.Inherit : Spatial.CullHint.Always);
+        }
+        for (Copy copy : copies.values()) {
+            copy.spatial.setCullHint((copy == match)
+                    ? Spatial.CullHint.Inherit : Spatial.CullHint.Always);
+        }
+    }
+
+    /**
+     * Create, place, and discard copies based on the cameras that rendered
+     * since the previous update. Invoked after the subtree has been placed
+     * and its descendants have been updated.
+     *
+     * @param subtree the subtree to copy (not null, unaffected)
+     * @param tracked the camera for which the subtree itself is placed (or
+     * null if the subtree isn't in this scene)
+     * @param parent the node to which copies are attached (or null to
+     * discard all copies)
+     * @param stabilize true to counteract rotation of the parent
+     * @param tessellation to select dome meshes for each copy (or null to
+     * share the subtree's dome meshes)
+     */
+    void update(Spatial subtree, Camera tracked, Node parent,
+            boolean stabilize, DomeTessellation tessellation) {
+        int numRendered = renderedCameras.size();
+        for (int cameraIndex = 0; cameraIndex < numRendered; ++cameraIndex) {
+            Camera camera = renderedCameras.get(cameraIndex);
+            if (camera != tracked && !copies.containsKey(camera)) {
+                Copy copy = new Copy(subtree.clone(false));
+                copies.put(camera, copy);
+            }
+        }
+        if (!copies.isEmpty()) { // Avoid creating an iterator every update.
+            updateCopies(subtree, tracked, parent, stabilize, tessellation);
+        }
+        renderedCameras.clear();
+
+        if (copies.isEmpty() && tracked != null) {
+            subtree.setCullHint(Spatial.CullHint.Inherit);
+        }
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Make the descendants of a copy match those of the original: local
+     * transforms of nodes, plus meshes and materials of geometries.
+     *
+     * @param original the original spatial (not null, unaffected)
+     * @param copy the copy to update (not null, modified)
+     * @param shareDomes true to copy dome meshes, false to leave them to a
+     * DomeTessellation
+     * @return true if the structures match, false if the copy is obsolete
+     */
+    private static boolean matches(
+            Spatial original, Spatial copy, boolean shareDomes) {
+        if (original instanceof Geometry) {
+            if (!(copy instanceof Geometry)) {
+                return false;
+            }
+            Geometry originalGeometry = (Geometry) original;
+            Geometry copyGeometry = (Geometry) copy;
+            Mesh mesh = originalGeometry.getMesh();
+            boolean isDome = mesh instanceof DomeMesh;
+            if ((shareDomes || !isDome) && copyGeometry.getMesh() != mesh) {
+                copyGeometry.setMesh(mesh);
+            }
+            if (copyGeometry.getMaterial() != originalGeometry.getMaterial()) {
+                copyGeometry.setMaterial(originalGeometry.getMaterial());
+            }
+            return true;
+        }
+
+        if (!(original instanceof Node) || !(copy instanceof Node)) {
+            return false;
+        }
+        List<Spatial> originalChildren = ((Node) original).getChildren();
+        List<Spatial> copyChildren = ((Node) copy).getChildren();
+        int numChildren = originalChildren.size();
+        if (copyChildren.size() != numChildren) {
+            return false;
+        }
+        for (int childIndex = 0; childIndex < numChildren; ++childIndex) {
+            Spatial originalChild = originalChildren.get(childIndex);
+            Spatial copyChild = copyChildren.get(childIndex);
+            if (!matches(originalChild, copyChild, shareDomes)) {
+                return false;
+            }
+            if (!copyChild.getLocalTransform().equals(
+                    originalChild.getLocalTransform())) {
+                copyChild.setLocalTransform(originalChild.getLocalTransform());
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Discard obsolete copies, then place the rest for their cameras.
+     *
+     * @param subtree the subtree to copy (not null, unaffected)
+     * @param tracked the camera for which the subtree itself is placed (or
+     * null if the subtree isn't in this scene)
+     * @param parent the node to which copies are attached (or null to
+     * discard all copies)
+     * @param stabilize true to counteract rotation of the parent
+     * @param tessellation to select dome meshes for each copy (or null to
+     * share the subtree's dome meshes)
+     */
+    private void updateCopies(Spatial subtree, Camera tracked, Node parent,
+            boolean stabilize, DomeTessellation tessellation) {
+        Iterator<Map.Entry<Camera, Copy>> iterator
+                = copies.entrySet().iterator();
+        while (iterator.hasNext()) {
+
+            Map.Entry<Camera, Copy> entry = iterator.next();
+            Camera camera = entry.getKey();
+            Copy copy = entry.getValue();
+            if (renderedCameras.contains(camera)) {
+                copy.missedUpdates = 0;
+            } else {
+                ++copy.missedUpdates;
+            }
+
+            if (camera == tracked || parent == null
+                    || copy.missedUpdates > maxMissedUpdates) {
+                copy.spatial.removeFromParent();
+                iterator.remove();
+                continue;
+            }
+
+            boolean shareDomes = (tessellation == null);
+            if (!matches(subtree, copy.spatial, shareDomes)) {
+                // The subtree's structure changed, so replace the copy.
+                copy.spatial.removeFromParent();
+                copy.spatial = subtree.clone(false);
+            }
+            if (copy.spatial.getParent() != parent) {
+                parent.attachChild(copy.spatial);
+            }
+            place(copy.spatial, camera, stabilize);
+            if (tessellation != null) {
+                tessellation.apply(copy.spatial, camera, subtree);
+            }
+        }
+    }
+    // *************************************************************************
+    // nested classes
+
+    /**
+     * A copy of the subtree, placed for a single camera.
+     */
+    private static class Copy {
+        /**
+         * number of consecutive updates since the camera last rendered
+         */
+        private int missedUpdates = 0;
+        /**
+         * the copy, sharing meshes and materials with the subtree
+         */
+        private Spatial spatial;
+
+        /**
+         * Instantiate a copy.
+         *
+         * @param spatial the copied subtree (not null, alias created)
+         */
+        Copy(Spatial spatial) {
+            this.spatial = spatial;
+        }
+    }
+}
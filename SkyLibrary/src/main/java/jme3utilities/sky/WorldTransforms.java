@@ -0,0 +1,132 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import com.jme3.math.Quaternion;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+import com.jme3.util.TempVars;
+import java.util.logging.Logger;
+
+/**
+ * Allocation-free equivalents of the MySpatial methods that set world
+ * transforms, for use during updates.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+final class WorldTransforms {
+    // *************************************************************************
+    // constants and loggers
+
+    /**
+     * message logger for this class
+     */
+    final private static Logger logger
+            = Logger.getLogger(WorldTransforms.class.getName());
+    // *************************************************************************
+    // constructors
+
+    /**
+     * A private constructor to inhibit instantiation of this class.
+     */
+    private WorldTransforms() {
+    }
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Alter the world location of the specified spatial.
+     *
+     * @param spatial the spatial to modify (not null)
+     * @param worldLocation the desired world location (not null, unaffected)
+     */
+    static void setWorldLocation(Spatial spatial, Vector3f worldLocation) {
+        Node parent = spatial.getParent();
+        if (parent == null) {
+            spatial.setLocalTranslation(worldLocation);
+            return;
+        }
+
+        Vector3f parentLocation = parent.getWorldTranslation();
+        Quaternion parentRotation = parent.getWorldRotation();
+        Vector3f parentScale = parent.getWorldScale();
+
+        TempVars tempVars = TempVars.get();
+        Vector3f local = worldLocation.subtract(parentLocation, tempVars.vect1);
+        Quaternion inverse = tempVars.quat1.set(parentRotation);
+        inverse.inverseLocal();
+        inverse.multLocal(local);
+        local.divideLocal(parentScale);
+        spatial.setLocalTranslation(local);
+        tempVars.release();
+    }
+
+    /**
+     * Alter the world orientation of the specified spatial.
+     *
+     * @param spatial the spatial to modify (not null)
+     * @param worldOrientation the desired world orientation (not null,
+     * unaffected)
+     */
+    static void setWorldOrientation(
+            Spatial spatial, Quaternion worldOrientation) {
+        Node parent = spatial.getParent();
+        if (parent == null) {
+            spatial.setLocalRotation(worldOrientation);
+            return;
+        }
+
+        Quaternion parentRotation = parent.getWorldRotation();
+
+        TempVars tempVars = TempVars.get();
+        Quaternion local = tempVars.quat1.set(parentRotation);
+        local.inverseLocal();
+        local.multLocal(worldOrientation);
+        spatial.setLocalRotation(local);
+        tempVars.release();
+    }
+
+    /**
+     * Alter the world scale of the specified spatial.
+     *
+     * @param spatial the spatial to modify (not null)
+     * @param worldScale the desired world scale (&gt;0)
+     */
+    static void setWorldScale(Spatial spatial, float worldScale) {
+        assert worldScale > 0f : worldScale;
+
+        Node parent = spatial.getParent();
+        if (parent == null) {
+            spatial.setLocalScale(worldScale);
+            return;
+        }
+
+        Vector3f parentScale = parent.getWorldScale();
+        spatial.setLocalScale(worldScale / parentScale.x,
+                worldScale / parentScale.y, worldScale / parentScale.z);
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ Copyright (c) 2026, Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the copyright holder nor the names of its contributors
+      may be used to endorse or promote products derived from this software
+      without specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+/*
+ * fragment shader used by array66.j3md
+ *
+ * Objects and cloud layers are described by uniform arrays and counts,
+ * so a single shader serves any number of them, up to the limits below.
+ * GLSL 1.00 can't index an array of samplers with a loop index, so their
+ * textures remain separate uniforms, selected by the texel functions.
+ */
+#import "Common/ShaderLib/GLSLCompat.glsllib"
+#define MAX_CLOUD_LAYERS 6
+#define MAX_OBJECTS 6
+
+uniform vec2 m_TopCoord;
+uniform vec4 m_ClearColor;
+varying vec2 skyTexCoord;
+
+#ifdef HAS_STARS
+        uniform sampler2D m_StarsColorMap;
+#endif
+
+#if defined(HAS_STARS_CUBE) || defined(HAS_STARS_DOMES)
+        // rotation from mesh coordinates to the star maps' coordinates
+        uniform mat3 m_StarsRotation;
+        varying vec3 skyDirection;
+#endif
+#ifdef HAS_STARS_CUBE
+        uniform samplerCube m_StarsCubeMap;
+#endif
+#ifdef HAS_STARS_DOMES
+        uniform sampler2D m_StarsNorthMap;
+        uniform sampler2D m_StarsSouthMap;
+        // texture offsets per radian toward the dome's +X (xy) and +Z (zw)
+        uniform vec4 m_StarsDomeAxes;
+        uniform vec2 m_StarsDomeTop;
+#endif
+
+uniform int m_ObjectCount;
+uniform vec2 m_ObjectCenterArray[MAX_OBJECTS];
+uniform vec4 m_ObjectColorArray[MAX_OBJECTS];
+uniform vec2 m_ObjectTransformUArray[MAX_OBJECTS];
+uniform vec2 m_ObjectTransformVArray[MAX_OBJECTS];
+uniform sampler2D m_Object0ColorMap;
+uniform sampler2D m_Object1ColorMap;
+uniform sampler2D m_Object2ColorMap;
+uniform sampler2D m_Object3ColorMap;
+uniform sampler2D m_Object4ColorMap;
+uniform sampler2D m_Object5ColorMap;
+
+#ifdef HAS_HAZE
+        uniform sampler2D m_HazeAlphaMap;
+        uniform vec4 m_HazeColor;
+#endif
+
+uniform int m_CloudsCount;
+uniform vec4 m_CloudsColorArray[MAX_CLOUD_LAYERS];
+uniform vec2 m_CloudsOffsetArray[MAX_CLOUD_LAYERS];
+uniform float m_CloudsScaleArray[MAX_CLOUD_LAYERS];
+uniform sampler2D m_Clouds0AlphaMap;
+uniform sampler2D m_Clouds1AlphaMap;
+uniform sampler2D m_Clouds2AlphaMap;
+uniform sampler2D m_Clouds3AlphaMap;
+uniform sampler2D m_Clouds4AlphaMap;
+uniform sampler2D m_Clouds5AlphaMap;
+
+#ifdef HAS_CLOUDS_ARRAY
+        #if __VERSION__ < 130
+                #error packed cloud layers require GLSL 1.30 or higher
+        #endif
+        uniform mediump sampler2DArray m_CloudsAlphaArray;
+        uniform float m_CloudsSliceArray[MAX_CLOUD_LAYERS];
+#endif
+
+#ifdef HAS_CLOUDS_PROJECTION
+        // x: radians per unit of texture distance on the top dome
+        // y: vertical scale of the clouds-only dome
+        // z: vertical offset of the clouds-only dome
+        // w: units of texture distance per radian on the clouds-only dome
+        uniform vec4 m_CloudsProjection;
+#endif
+
+vec4 mixColors(vec4 color0, vec4 color1) {
+        vec4 result;
+        float a0 = color0.a * (1.0 - color1.a);
+        result.a = a0 + color1.a;
+        if (result.a > 0.0) {
+                result.rgb = (a0 * color0.rgb + color1.a * color1.rgb)/result.a;
+        } else {
+                result.rgb = vec3(0.0);
+        }
+        return result;
+}
+
+#ifdef HAS_CLOUDS_PROJECTION
+/*
+ * Convert sky texture coordinates on the top dome to those where the same
+ * view ray meets the flattened clouds-only dome, so that the clouds can be
+ * rendered in the same pass. This must be kept consistent with
+ * CloudDomeSampler.intersect(Vector3f,Vector3f) . Returns false if the ray
+ * passes below the rim of the clouds-only dome.
+ */
+bool projectClouds(inout vec2 coord) {
+        vec2 offset = coord - m_TopCoord;
+        float radius = length(offset);
+        if (radius == 0.0) {
+                return true;
+        }
+
+        float zenithAngle = radius * m_CloudsProjection.x;
+        float cosZenith = cos(zenithAngle);
+        float sinZenith = sin(zenithAngle);
+        float yScale = m_CloudsProjection.y;
+        float deltaY = m_CloudsProjection.z;
+        /*
+         * Solve for the most positive root of a quadratic equation in the
+         * horizontal distance w to the intersection.
+         */
+        float a = cosZenith * cosZenith + yScale * yScale * sinZenith * sinZenith;
+        float b = -2.0 * deltaY * cosZenith * sinZenith;
+        float c = (deltaY * deltaY - yScale * yScale) * sinZenith * sinZenith;
+        float w = (-b + sqrt(b * b - 4.0 * a * c)) / (2.0 * a);
+        if (w * cosZenith < deltaY * sinZenith) {
+                return false;
+        }
+
+        float cloudsAngle = asin(min(w, 1.0));
+        coord = m_TopCoord + offset * (m_CloudsProjection.w * cloudsAngle / radius);
+        return true;
+}
+#endif
+
+#ifdef HAS_STARS_DOMES
+/*
+ * Sample the northern or southern star map in the specified direction,
+ * in the coordinates of the stars node, where +X points to the north
+ * celestial pole. This must be kept consistent with
+ * SkyControlCore.createStarMapDomes() .
+ */
+vec4 sampleStarDomes(vec3 direction) {
+        // local coordinates of the northern dome, whose zenith is +X
+        vec3 local = vec3(-direction.y, direction.x, direction.z);
+        if (local.y < 0.0) {
+                // the southern dome is rotated half a turn about Z
+                local.xy = -local.xy;
+        }
+        float zenithAngle = acos(clamp(local.y, -1.0, 1.0));
+        vec2 coord = m_StarsDomeTop;
+        float horizontal = length(local.xz);
+        if (horizontal > 0.0) {
+                vec2 axes = local.xz * (zenithAngle / horizontal);
+                coord += axes.x * m_StarsDomeAxes.xy + axes.y * m_StarsDomeAxes.zw;
+        }
+        /*
+         * Sample both maps outside of any branch, so that texture
+         * derivatives remain defined.
+         */
+        vec4 north = texture2D(m_StarsNorthMap, coord);
+        vec4 south = texture2D(m_StarsSouthMap, coord);
+        return (direction.x >= 0.0) ? north : south;
+}
+#endif
+
+float sampleClouds(int index, vec2 coord) {
+        vec4 texel;
+        #ifdef HAS_CLOUDS_ARRAY
+                float slice = m_CloudsSliceArray[index];
+                if (slice >= 0.0) {
+                        texel = texture(m_CloudsAlphaArray, vec3(coord, slice));
+                        return texel.r;
+                }
+        #endif
+        if (index == 0) {
+                texel = texture2D(m_Clouds0AlphaMap, coord);
+        } else if (index == 1) {
+                texel = texture2D(m_Clouds1AlphaMap, coord);
+        } else if (index == 2) {
+                texel = texture2D(m_Clouds2AlphaMap, coord);
+        } else if (index == 3) {
+                texel = texture2D(m_Clouds3AlphaMap, coord);
+        } else if (index == 4) {
+                texel = texture2D(m_Clouds4AlphaMap, coord);
+        } else {
+                texel = texture2D(m_Clouds5AlphaMap, coord);
+        }
+        return texel.r;
+}
+
+vec4 sampleObject(int index, vec2 coord) {
+        vec4 texel;
+        if (index == 0) {
+                texel = texture2D(m_Object0ColorMap, coord);
+        } else if (index == 1) {
+                texel = texture2D(m_Object1ColorMap, coord);
+        } else if (index == 2) {
+                texel = texture2D(m_Object2ColorMap, coord);
+        } else if (index == 3) {
+                texel = texture2D(m_Object3ColorMap, coord);
+        } else if (index == 4) {
+                texel = texture2D(m_Object4ColorMap, coord);
+        } else {
+                texel = texture2D(m_Object5ColorMap, coord);
+        }
+        return texel;
+}
+
+void main() {
+        vec4 stars = vec4(0.0);
+        #if defined(HAS_STARS_CUBE) || defined(HAS_STARS_DOMES)
+                // Opaque clear sky hides the stars, so skip sampling them.
+                if (m_ClearColor.a < 1.0) {
+                        vec3 direction = m_StarsRotation * skyDirection;
+                        #ifdef HAS_STARS_CUBE
+                                stars = textureCube(m_StarsCubeMap, direction);
+                        #else
+                                stars = sampleStarDomes(normalize(direction));
+                        #endif
+                }
+        #elif defined(HAS_STARS)
+                stars = texture2D(m_StarsColorMap, skyTexCoord);
+        #endif
+
+        vec4 objects = vec4(0.0);
+        for (int i = 0; i < MAX_OBJECTS; ++i) {
+                if (i >= m_ObjectCount) {
+                        break;
+                }
+                vec2 offset = skyTexCoord - m_ObjectCenterArray[i];
+                vec2 coord;
+                coord.x = dot(m_ObjectTransformUArray[i], offset);
+                coord.y = dot(m_ObjectTransformVArray[i], offset);
+                coord += m_TopCoord;
+                if (floor(coord.s) == 0.0 && floor(coord.t) == 0.0) {
+                        vec4 object = m_ObjectColorArray[i];
+                        object *= sampleObject(i, coord);
+                        objects = mixColors(objects, object);
+                }
+        }
+
+        vec4 color = mixColors(stars, objects);
+
+        vec4 clear = m_ClearColor;
+	#ifdef HAS_HAZE
+                vec4 haze = m_HazeColor;
+                haze.a *= texture2D(m_HazeAlphaMap, skyTexCoord).r;
+	        clear = mixColors(clear, haze);
+	#endif
+        color = mixColors(color, clear);
+        // Bright parts of objects shine through the clear areas.
+        color.rgb += objects.rgb * objects.a * (1.0 - clear.rgb) * clear.a;
+
+        vec2 cloudsCoord = skyTexCoord;
+        int cloudsCount = m_CloudsCount;
+        #ifdef HAS_CLOUDS_PROJECTION
+                if (!projectClouds(cloudsCoord)) {
+                        cloudsCount = 0;
+                }
+        #endif
+        for (int i = 0; i < MAX_CLOUD_LAYERS; ++i) {
+                if (i >= cloudsCount) {
+                        break;
+                }
+                /*
+                 * The following texture coordinate calculation must be kept
+                 * consistent with SkyMaterial.getTransparency(int,Vector2f) .
+                 */
+                vec2 coord = cloudsCoord * m_CloudsScaleArray[i]
+                        + m_CloudsOffsetArray[i];
+                vec4 clouds = m_CloudsColorArray[i];
+                clouds.a *= sampleClouds(i, coord);
+                color = mixColors(color, clouds);
+        }
+
+	gl_FragColor = color;
+}
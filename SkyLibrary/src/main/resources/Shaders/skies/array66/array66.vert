@@ -0,0 +1,52 @@
+/*
+ Copyright (c) 2026, Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the copyright holder nor the names of its contributors
+      may be used to endorse or promote products derived from this software
+      without specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+/*
+ * vertex shader used by array66.j3md
+ */
+#import "Common/ShaderLib/GLSLCompat.glsllib"
+attribute vec2 inTexCoord;
+attribute vec3 inPosition;
+uniform mat4 g_WorldViewProjectionMatrix;
+varying vec2 skyTexCoord;
+
+#if defined(HAS_STARS_CUBE) || defined(HAS_STARS_DOMES)
+        varying vec3 skyDirection;
+#endif
+
+void main(){
+        /*
+         * Object and cloud texture coordinates are affine in skyTexCoord,
+         * so the fragment shader derives them from it instead of
+         * interpolating a varying per object and per layer.
+         */
+        skyTexCoord = inTexCoord;
+        #if defined(HAS_STARS_CUBE) || defined(HAS_STARS_DOMES)
+                // The dome is centered on its origin, so this is a direction.
+                skyDirection = inPosition;
+        #endif
+        gl_Position = g_WorldViewProjectionMatrix * vec4(inPosition, 1);
+}
@@ -0,0 +1,153 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.FastMath;
+import com.jme3.math.Quaternion;
+import com.jme3.math.Vector3f;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test the ChangeThresholds class.
+ * <p>
+ * The push methods are package-private, so this test resides in their
+ * package.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+public class TestChangeThresholds {
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Test pushColor() and the counters.
+     */
+    @Test
+    public void testPushColor() {
+        ChangeThresholds thresholds = new ChangeThresholds();
+        thresholds.setColorThreshold(0.01f);
+
+        ColorRGBA pushed = new ColorRGBA(0.5f, 0.5f, 0.5f, 1f);
+        ColorRGBA desired = new ColorRGBA(0.505f, 0.5f, 0.5f, 1f);
+        Assert.assertFalse(thresholds.pushColor(false, pushed, desired));
+        Assert.assertEquals(0.5f, pushed.r, 0f);
+
+        desired.set(0.5f, 0.5f, 0.5f, 0.98f);
+        Assert.assertTrue(thresholds.pushColor(false, pushed, desired));
+        Assert.assertEquals(desired, pushed);
+
+        // A forced push ignores the threshold.
+        Assert.assertTrue(thresholds.pushColor(true, pushed, desired));
+
+        Assert.assertEquals(2L, thresholds.getPushCount());
+        Assert.assertEquals(1L, thresholds.getSuppressedCount());
+        thresholds.resetCounters();
+        Assert.assertEquals(0L, thresholds.getPushCount());
+        Assert.assertEquals(0L, thresholds.getSuppressedCount());
+    }
+
+    /**
+     * Test pushDirection() with a non-zero threshold.
+     */
+    @Test
+    public void testPushDirection() {
+        ChangeThresholds thresholds = new ChangeThresholds();
+        thresholds.setDirectionThreshold(0.1f);
+
+        Vector3f pushed = new Vector3f(0f, 1f, 0f);
+        Vector3f desired = rotate(pushed, 0.05f);
+        Assert.assertFalse(thresholds.pushDirection(false, pushed, desired));
+        Assert.assertEquals(Vector3f.UNIT_Y, pushed);
+
+        desired = rotate(pushed, 0.2f);
+        Assert.assertTrue(thresholds.pushDirection(false, pushed, desired));
+        Assert.assertEquals(desired, pushed);
+
+        Assert.assertTrue(thresholds.pushDirection(true, pushed, desired));
+    }
+
+    /**
+     * Test pushDirection() with the default threshold, which should push any
+     * change at all.
+     */
+    @Test
+    public void testPushDirectionZero() {
+        ChangeThresholds thresholds = new ChangeThresholds();
+        Assert.assertEquals(0f, thresholds.getDirectionThreshold(), 0f);
+
+        Vector3f pushed = new Vector3f(0f, 1f, 0f);
+        Vector3f desired = pushed.clone();
+        Assert.assertFalse(thresholds.pushDirection(false, pushed, desired));
+
+        // small enough that the dot product rounds to 1
+        desired = rotate(pushed, 1e-4f);
+        Assert.assertEquals(1f, desired.dot(pushed), 0f);
+        Assert.assertTrue(thresholds.pushDirection(false, pushed, desired));
+        Assert.assertEquals(desired, pushed);
+    }
+
+    /**
+     * Test pushIntensity().
+     */
+    @Test
+    public void testPushIntensity() {
+        ChangeThresholds thresholds = new ChangeThresholds();
+        Assert.assertTrue(thresholds.pushIntensity(false, 0.5f, 0.5001f));
+        Assert.assertFalse(thresholds.pushIntensity(false, 0.5f, 0.5f));
+
+        thresholds.setIntensityThreshold(0.01f);
+        Assert.assertFalse(thresholds.pushIntensity(false, 0.5f, 0.505f));
+        Assert.assertTrue(thresholds.pushIntensity(false, 0.5f, 0.52f));
+        Assert.assertTrue(thresholds.pushIntensity(true, 0.5f, 0.5f));
+    }
+
+    /**
+     * Test validation of the direction threshold.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetDirectionThreshold() {
+        ChangeThresholds thresholds = new ChangeThresholds();
+        thresholds.setDirectionThreshold(FastMath.PI + 0.01f);
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Rotate the specified direction about the X axis.
+     *
+     * @param direction the direction to rotate (not null, unaffected)
+     * @param angle the rotation angle (in radians)
+     * @return a new unit vector
+     */
+    private static Vector3f rotate(Vector3f direction, float angle) {
+        Quaternion rotation = new Quaternion().fromAngles(angle, 0f, 0f);
+        Vector3f result = rotation.mult(direction);
+
+        return result;
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import com.jme3.math.FastMath;
+import com.jme3.texture.Image;
+import com.jme3.texture.image.ColorSpace;
+import com.jme3.texture.image.ImageRaster;
+import com.jme3.util.BufferUtils;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test the CloudAlphaMap class against direct sampling of an ImageRaster.
+ * <p>
+ * CloudAlphaMap is package-private, so this test resides in its package.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+public class TestCloudAlphaMap {
+    // *************************************************************************
+    // constants
+
+    /**
+     * width and height of the test image (in pixels)
+     */
+    final private static int size = 8;
+    /**
+     * texture coordinates to sample, including values close enough to 1 that
+     * the 2nd pixel wraps to the opposite edge
+     */
+    final private static float[] coordinates = {
+        0f, 0.01f, 0.0625f, 0.3f, 0.5f, 0.77f, 0.875f, 0.9f, 0.99f, 0.9999f
+    };
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Compare averageRed() with a brute-force mean over wrapped pixels.
+     */
+    @Test
+    public void testAverageRed() {
+        Image image = createImage();
+        ImageRaster raster = ImageRaster.create(image);
+        CloudAlphaMap map = CloudAlphaMap.forImage(image);
+
+        // squares that cross no edge, each edge, both edges, or cover the map:
+        float[] sides = {0.001f, 0.1f, 0.25f, 0.5f, 0.99f, 1f, 3f};
+        for (float side : sides) {
+            for (float u : coordinates) {
+                for (float v : coordinates) {
+                    float expected = bruteAverage(raster, u, v, side);
+                    float actual = map.averageRed(u, v, side);
+                    Assert.assertEquals(expected, actual, 1e-6f);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compare sampleRed() with the bilinear sampling of earlier releases.
+     */
+    @Test
+    public void testSampleRed() {
+        Image image = createImage();
+        ImageRaster raster = ImageRaster.create(image);
+        CloudAlphaMap map = CloudAlphaMap.forImage(image);
+
+        for (float u : coordinates) {
+            for (float v : coordinates) {
+                float expected = rasterSample(raster, u, v);
+                float actual = map.sampleRed(u, v);
+                Assert.assertEquals(expected, actual, 0f);
+            }
+        }
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Average the red channel over a square by visiting each pixel.
+     *
+     * @param raster the image to sample (not null, unaffected)
+     * @param u the first texture coordinate of the center
+     * @param v the 2nd texture coordinate of the center
+     * @param side the length of each side (in texture coordinates)
+     * @return the mean red intensity
+     */
+    private static float bruteAverage(
+            ImageRaster raster, float u, float v, float side) {
+        int width = raster.getWidth();
+        int height = raster.getHeight();
+
+        float halfSide = 0.5f * side * width;
+        float x = u * width;
+        int xStart = (int) FastMath.floor(x - halfSide);
+        int xEnd = (int) FastMath.floor(x + halfSide);
+        int numX = Math.min(xEnd - xStart + 1, width);
+
+        float y = v * width;
+        int yStart = (int) FastMath.floor(y - halfSide);
+        int yEnd = (int) FastMath.floor(y + halfSide);
+        int numY = Math.min(yEnd - yStart + 1, height);
+
+        double sum = 0.0;
+        for (int i = 0; i < numX; ++i) {
+            int xIndex = Math.floorMod(xStart + i, width);
+            for (int j = 0; j < numY; ++j) {
+                int yIndex = Math.floorMod(yStart + j, height);
+                sum += raster.getPixel(xIndex, yIndex).r;
+            }
+        }
+        float result = (float) (sum / (numX * numY));
+
+        return result;
+    }
+
+    /**
+     * Generate a square RGBA8 image with pseudo-random pixels.
+     *
+     * @return a new image
+     */
+    private static Image createImage() {
+        ByteBuffer data = BufferUtils.createByteBuffer(4 * size * size);
+        Random generator = new Random(62_315L);
+        byte[] bytes = new byte[4 * size * size];
+        generator.nextBytes(bytes);
+        data.put(bytes);
+        data.flip();
+
+        Image result = new Image(
+                Image.Format.RGBA8, size, size, data, ColorSpace.Linear);
+        return result;
+    }
+
+    /**
+     * Sample the red channel of an ImageRaster using bilinear interpolation,
+     * as SkyMaterialCore did before CloudAlphaMap was introduced.
+     *
+     * @param raster the image to sample (not null, unaffected)
+     * @param u the first texture coordinate (&lt;1, &ge;0)
+     * @param v the 2nd texture coordinate (&lt;1, &ge;0)
+     * @return red intensity
+     */
+    private static float rasterSample(ImageRaster raster, float u, float v) {
+        int width = raster.getWidth();
+        float x = u * width;
+        int x0 = (int) FastMath.floor(x);
+        float xFraction1 = x - x0;
+        float xFraction0 = 1 - xFraction1;
+        int x1 = (x0 + 1) % width;
+
+        int height = raster.getHeight();
+        float y = v * width;
+        int y0 = (int) FastMath.floor(y);
+        float yFraction1 = y - y0;
+        float yFraction0 = 1 - yFraction1;
+        int y1 = (y0 + 1) % height;
+
+        float r00 = raster.getPixel(x0, y0).r;
+        float r01 = raster.getPixel(x1, y0).r;
+        float r10 = raster.getPixel(x0, y1).r;
+        float r11 = raster.getPixel(x1, y1).r;
+
+        float result = r00 * xFraction0 * yFraction0
+                + r01 * xFraction0 * yFraction1
+                + r10 * xFraction1 * yFraction0
+                + r11 * xFraction1 * yFraction1;
+
+        return result;
+    }
+}
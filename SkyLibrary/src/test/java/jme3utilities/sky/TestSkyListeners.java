@@ -0,0 +1,125 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import com.jme3.post.filters.BloomFilter;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test the SkyListeners class.
+ * <p>
+ * SkyListeners is package-private, so this test resides in its package.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+public class TestSkyListeners {
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Test adding and removing listeners, and that published arrays are never
+     * modified.
+     */
+    @Test
+    public void testAddRemove() {
+        SkyListeners registry = new SkyListeners();
+        SkyListener first = new SkyListener() { };
+        SkyListener second = new SkyListener() { };
+
+        SkyListener[] empty = registry.array();
+        Assert.assertEquals(0, empty.length);
+
+        registry.add(first);
+        registry.add(second);
+        SkyListener[] both = registry.array();
+        Assert.assertArrayEquals(new SkyListener[]{first, second}, both);
+        Assert.assertEquals(0, empty.length);
+        Assert.assertEquals(2, registry.version());
+
+        Assert.assertTrue(registry.remove(first));
+        Assert.assertArrayEquals(
+                new SkyListener[]{second}, registry.array());
+        Assert.assertArrayEquals(new SkyListener[]{first, second}, both);
+        Assert.assertEquals(3, registry.version());
+
+        // Removing an absent listener changes nothing.
+        Assert.assertFalse(registry.remove(first));
+        Assert.assertFalse(registry.remove(null));
+        Assert.assertEquals(3, registry.version());
+
+        // A copy is independent of its original.
+        SkyListeners copy = new SkyListeners(registry);
+        copy.add(first);
+        Assert.assertEquals(2, copy.array().length);
+        Assert.assertEquals(1, registry.array().length);
+    }
+
+    /**
+     * Test adding listeners from several threads at once.
+     *
+     * @throws InterruptedException if interrupted while joining
+     */
+    @Test
+    public void testConcurrentAdd() throws InterruptedException {
+        SkyListeners registry = new SkyListeners();
+        int numThreads = 4;
+        int numPerThread = 500;
+
+        Thread[] threads = new Thread[numThreads];
+        for (int i = 0; i < numThreads; ++i) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < numPerThread; ++j) {
+                    registry.add(new SkyListener() { });
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int expected = numThreads * numPerThread;
+        Assert.assertEquals(expected, registry.array().length);
+        Assert.assertEquals(expected, registry.version());
+    }
+
+    /**
+     * Test findAdapter().
+     */
+    @Test
+    public void testFindAdapter() {
+        SkyListeners registry = new SkyListeners();
+        BloomFilter filter = new BloomFilter();
+        Assert.assertNull(registry.findAdapter(filter));
+
+        registry.add(new SkyListener() { });
+        TargetListener<?> adapter = new TargetListener.Bloom(filter);
+        registry.add(adapter);
+        Assert.assertSame(adapter, registry.findAdapter(filter));
+        Assert.assertNull(registry.findAdapter(new BloomFilter()));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test the UpdateSchedule class.
+ * <p>
+ * The class is package-private, so this test resides in its package.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+public class TestUpdateSchedule {
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Test the default schedule, which allows a full update every frame.
+     */
+    @Test
+    public void testDefaults() {
+        UpdateSchedule schedule = new UpdateSchedule();
+        Assert.assertFalse(schedule.isReduced());
+
+        schedule.advance(0.01f);
+        Assert.assertTrue(schedule.isDue());
+        Assert.assertEquals(1f, schedule.fraction(), 0f);
+    }
+
+    /**
+     * Test an interval measured in frames.
+     */
+    @Test
+    public void testFrames() {
+        UpdateSchedule schedule = new UpdateSchedule();
+        schedule.setUpdateFrames(4);
+        Assert.assertTrue(schedule.isReduced());
+
+        schedule.restart();
+        for (int frame = 1; frame < 4; ++frame) {
+            schedule.advance(1f);
+            Assert.assertFalse(schedule.isDue());
+            Assert.assertEquals(frame / 4f, schedule.fraction(), 0f);
+        }
+        schedule.advance(1f);
+        Assert.assertTrue(schedule.isDue());
+        Assert.assertEquals(1f, schedule.fraction(), 0f);
+    }
+
+    /**
+     * Test that both intervals must elapse when both are configured.
+     */
+    @Test
+    public void testPeriodAndFrames() {
+        UpdateSchedule schedule = new UpdateSchedule();
+        schedule.setUpdatePeriod(0.25f);
+        schedule.setUpdateFrames(2);
+
+        schedule.restart();
+        schedule.advance(0.5f);
+        Assert.assertFalse(schedule.isDue()); // only 1 frame
+        Assert.assertEquals(0.5f, schedule.fraction(), 0f);
+
+        schedule.advance(0.01f);
+        Assert.assertTrue(schedule.isDue());
+
+        schedule.restart();
+        schedule.advance(0.1f);
+        schedule.advance(0.1f);
+        Assert.assertFalse(schedule.isDue()); // only 0.2 seconds
+        Assert.assertEquals(0.8f, schedule.fraction(), 1e-6f);
+    }
+
+    /**
+     * Test the validation of an invalid frame count.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetUpdateFrames() {
+        UpdateSchedule schedule = new UpdateSchedule();
+        schedule.setUpdateFrames(0);
+    }
+}
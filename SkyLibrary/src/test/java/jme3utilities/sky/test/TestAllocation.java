@@ -0,0 +1,199 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky.test;
+
+import com.jme3.asset.AssetManager;
+import com.jme3.asset.DesktopAssetManager;
+import com.jme3.asset.plugins.ClasspathLocator;
+import com.jme3.material.plugins.J3MLoader;
+import com.jme3.math.Vector3f;
+import com.jme3.renderer.Camera;
+import com.jme3.scene.Node;
+import com.jme3.texture.plugins.AWTLoader;
+import java.lang.management.ManagementFactory;
+import jme3utilities.sky.SkyControl;
+import jme3utilities.sky.StarsOption;
+import jme3utilities.sky.SunAndStars;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Verify that per-frame sky computations don't allocate heap objects.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+public class TestAllocation {
+    // *************************************************************************
+    // constants
+
+    /**
+     * number of iterations in each measured loop
+     */
+    final private static int numIterations = 10_000;
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Test the per-frame update of a SkyControl, without a renderer.
+     */
+    @Test
+    public void testSkyControl() {
+        Assume.assumeTrue(isMeasurable());
+
+        AssetManager assetManager = new DesktopAssetManager();
+        assetManager.registerLoader(J3MLoader.class, "j3m", "j3md");
+        assetManager.registerLoader(AWTLoader.class, "jpg", "png");
+        assetManager.registerLocator(null, ClasspathLocator.class);
+
+        Camera camera = new Camera(640, 480);
+        float cloudFlattening = 0.1f;
+        boolean bottomDome = true;
+        SkyControl sky = new SkyControl(assetManager, camera, cloudFlattening,
+                StarsOption.TopDome, bottomDome);
+        Node parent = new Node("parent");
+        parent.move(1f, 2f, 3f);
+        parent.rotate(0.1f, 0.2f, 0.3f);
+        parent.addControl(sky);
+        sky.setEnabled(true);
+
+        // Warm up, so that lazy initialization isn't measured.
+        iterate(sky);
+
+        long before = allocatedBytes();
+        iterate(sky);
+        long after = allocatedBytes();
+        assertNoAllocation(before, after);
+    }
+
+    /**
+     * Test the SunAndStars class.
+     */
+    @Test
+    public void testSunAndStars() {
+        Assume.assumeTrue(isMeasurable());
+
+        SunAndStars sas = new SunAndStars();
+        Vector3f storeResult = new Vector3f();
+
+        // Warm up, so that class initialization isn't measured.
+        iterate(sas, storeResult);
+
+        long before = allocatedBytes();
+        iterate(sas, storeResult);
+        long after = allocatedBytes();
+        assertNoAllocation(before, after);
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Return the number of bytes allocated by the current thread.
+     *
+     * @return the byte count (&ge;0)
+     */
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean bean = threadBean();
+        long threadId = Thread.currentThread().getId();
+        long result = bean.getThreadAllocatedBytes(threadId);
+
+        return result;
+    }
+
+    /**
+     * Verify that the measured loop allocated less than one byte per
+     * iteration, which tolerates overhead in the measurement itself.
+     *
+     * @param before the byte count before the loop
+     * @param after the byte count after the loop
+     */
+    private static void assertNoAllocation(long before, long after) {
+        long allocated = after - before;
+        String message = allocated + " bytes allocated in " + numIterations
+                + " iterations";
+        Assert.assertTrue(message, allocated < numIterations);
+    }
+
+    /**
+     * Test whether the JVM can measure per-thread allocation.
+     *
+     * @return true if measurable, otherwise false
+     */
+    private static boolean isMeasurable() {
+        com.sun.management.ThreadMXBean bean = threadBean();
+        if (bean == null || !bean.isThreadAllocatedMemorySupported()) {
+            return false;
+        }
+        bean.setThreadAllocatedMemoryEnabled(true);
+
+        return true;
+    }
+
+    /**
+     * Update the specified control, altering the hour each time so that
+     * every update recalculates the sky.
+     *
+     * @param sky the control to update (not null)
+     */
+    private static void iterate(SkyControl sky) {
+        SunAndStars sas = sky.getSunAndStars();
+        for (int i = 0; i < numIterations; ++i) {
+            float hour = (i % 240) / 10f;
+            sas.setHour(hour);
+            sky.update(1f / 60f);
+        }
+    }
+
+    /**
+     * Exercise the per-frame methods of the specified SunAndStars.
+     *
+     * @param sas the instance to exercise (not null)
+     * @param storeResult storage for results (not null, modified)
+     */
+    private static void iterate(SunAndStars sas, Vector3f storeResult) {
+        for (int i = 0; i < numIterations; ++i) {
+            float hour = (i % 240) / 10f;
+            sas.setHour(hour);
+            sas.sunDirection(storeResult);
+            sas.convertToWorld(0.1f, 2f, storeResult);
+            sas.convertToWorld(storeResult, storeResult);
+        }
+    }
+
+    /**
+     * Access the platform's thread MXBean, if it can measure allocation.
+     *
+     * @return the pre-existing instance, or null if not supported
+     */
+    private static com.sun.management.ThreadMXBean threadBean() {
+        Object bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return (com.sun.management.ThreadMXBean) bean;
+        } else {
+            return null;
+        }
+    }
+}
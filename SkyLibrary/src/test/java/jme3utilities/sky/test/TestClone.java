@@ -29,12 +29,16 @@ import com.jme3.asset.AssetManager;
 import com.jme3.asset.DesktopAssetManager;
 import com.jme3.asset.plugins.ClasspathLocator;
 import com.jme3.export.binary.BinaryExporter;
+import com.jme3.material.MatParam;
 import com.jme3.material.plugins.J3MLoader;
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.Vector2f;
 import com.jme3.renderer.Camera;
 import com.jme3.texture.plugins.AWTLoader;
 import jme3utilities.Heart;
 import jme3utilities.sky.LunarPhase;
 import jme3utilities.sky.SkyControl;
+import jme3utilities.sky.SkyMaterial;
 import jme3utilities.sky.StarsOption;
 import org.junit.Assert;
 import org.junit.Test;
@@ -55,6 +59,63 @@ public class TestClone {
     // *************************************************************************
     // new methods exposed
 
+    /**
+     * Test that cloned sky materials don't share cloud colors or offsets
+     * with their originals, using both uniform arrays and indexed
+     * parameters.
+     */
+    @Test
+    public void testCloneMaterial() {
+        assetManager.registerLoader(J3MLoader.class, "j3m", "j3md");
+        assetManager.registerLoader(AWTLoader.class, "jpg", "png");
+        assetManager.registerLocator(null, ClasspathLocator.class);
+
+        String[] matDefs = {
+            "MatDefs/skies/array66/array66.j3md",
+            "MatDefs/skies/dome66/dome66.j3md"
+        };
+        for (String assetPath : matDefs) {
+            SkyMaterial material = new SkyMaterial(assetManager, assetPath);
+            material.initialize();
+            material.addClouds(0);
+            material.setCloudsColor(0, ColorRGBA.Red);
+            material.setCloudsOffset(0, 0.1f, 0.2f);
+
+            SkyMaterial clone = material.clone();
+            SkyMaterial deepCopy = Heart.deepCopy(material);
+            for (SkyMaterial copy : new SkyMaterial[]{clone, deepCopy}) {
+                copy.setCloudsColor(0, ColorRGBA.Blue);
+                copy.setCloudsOffset(0, 0.3f, 0.4f);
+                Assert.assertEquals(ColorRGBA.Blue, copy.copyCloudsColor(0));
+                Assert.assertEquals(new Vector2f(0.3f, 0.4f),
+                        copy.copyCloudsOffset(0));
+            }
+
+            // The original is unaffected.
+            Assert.assertEquals(ColorRGBA.Red, material.copyCloudsColor(0));
+            Assert.assertEquals(new Vector2f(0.1f, 0.2f),
+                    material.copyCloudsOffset(0));
+
+            // Altering the original doesn't affect the copies.
+            material.setCloudsOffset(0, 0.5f, 0.6f);
+            Assert.assertEquals(new Vector2f(0.3f, 0.4f),
+                    clone.copyCloudsOffset(0));
+
+            // The shader sees separate values.
+            String[] names = {"Clouds0Color", "Clouds0Offset",
+                "CloudsColorArray", "CloudsOffsetArray"};
+            for (String name : names) {
+                MatParam parameter = material.getParam(name);
+                if (parameter != null) {
+                    Assert.assertNotSame(parameter.getValue(),
+                            clone.getParam(name).getValue());
+                    Assert.assertNotSame(parameter.getValue(),
+                            deepCopy.getParam(name).getValue());
+                }
+            }
+        }
+    }
+
     /**
      * Test cloning/saving/loading a {@code SkyControl} object.
      */
@@ -70,11 +131,14 @@ public class TestClone {
         SkyControl s = new SkyControl(assetManager, camera, cloudFlattening,
                 StarsOption.Cube, bottomDome);
         s.setPhase(LunarPhase.WAXING_CRESCENT);
+        s.setAdaptiveTessellation(true);
 
         SkyControl sClone = Heart.deepCopy(s);
         Assert.assertEquals(LunarPhase.WAXING_CRESCENT, sClone.getPhase());
+        Assert.assertTrue(sClone.getAdaptiveTessellation());
 
         SkyControl sCopy = BinaryExporter.saveAndLoad(assetManager, s);
         Assert.assertEquals(LunarPhase.WAXING_CRESCENT, sCopy.getPhase());
+        Assert.assertTrue(sCopy.getAdaptiveTessellation());
     }
 }
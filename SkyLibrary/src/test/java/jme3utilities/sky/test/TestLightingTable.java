@@ -0,0 +1,118 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky.test;
+
+import com.jme3.math.ColorRGBA;
+import jme3utilities.sky.LightingTable;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test the LightingTable class.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+public class TestLightingTable {
+    // *************************************************************************
+    // constants
+
+    /**
+     * maximum difference between looked-up and calculated values
+     */
+    final private static float tolerance = 0.004f;
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Compare table lookups with direct calculations.
+     */
+    @Test
+    public void testLightingTable() {
+        ColorRGBA sunLight = new ColorRGBA(0.8f, 0.8f, 0.75f, 1f);
+        ColorRGBA twilight = new ColorRGBA(0.6f, 0.3f, 0.15f, 1f);
+        ColorRGBA moonLight = new ColorRGBA(0.4f, 0.4f, 0.6f, 1f);
+        ColorRGBA starLight = new ColorRGBA(0.03f, 0.03f, 0.03f, 1f);
+        LightingTable table
+                = new LightingTable(sunLight, twilight, moonLight, starLight);
+        compare(table);
+
+        // Unchanged colors don't rebuild the tables.
+        boolean rebuilt
+                = table.updateColors(sunLight, twilight, moonLight, starLight);
+        Assert.assertFalse(rebuilt);
+
+        // Changed colors do.
+        ColorRGBA dusk = new ColorRGBA(0.7f, 0.2f, 0.3f, 1f);
+        rebuilt = table.updateColors(sunLight, dusk, moonLight, starLight);
+        Assert.assertTrue(rebuilt);
+        compare(table);
+        ColorRGBA base = table.lookUpBaseColor(0f, 0f, null);
+        assertEquals(dusk, base, 1e-6f);
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Verify that 2 colors are approximately equal.
+     *
+     * @param expected the expected color (not null, unaffected)
+     * @param actual the actual color (not null, unaffected)
+     * @param tolerance the maximum difference for each component (&ge;0)
+     */
+    private static void assertEquals(
+            ColorRGBA expected, ColorRGBA actual, float tolerance) {
+        Assert.assertEquals(expected.r, actual.r, tolerance);
+        Assert.assertEquals(expected.g, actual.g, tolerance);
+        Assert.assertEquals(expected.b, actual.b, tolerance);
+        Assert.assertEquals(expected.a, actual.a, tolerance);
+    }
+
+    /**
+     * Compare lookups with calculations across the full range of altitudes
+     * and moon weights.
+     *
+     * @param table the tables to test (not null)
+     */
+    private static void compare(LightingTable table) {
+        ColorRGBA calculated = new ColorRGBA();
+        ColorRGBA lookedUp = new ColorRGBA();
+
+        int numSteps = 2_857; // not a multiple of the sample spacing
+        for (int step = 0; step <= numSteps; ++step) {
+            float ssa = -1f + (2f * step) / numSteps;
+
+            for (float moonWeight = 0f; moonWeight <= 1f; moonWeight += 0.25f) {
+                table.calculateBaseColor(ssa, moonWeight, calculated);
+                table.lookUpBaseColor(ssa, moonWeight, lookedUp);
+                assertEquals(calculated, lookedUp, tolerance);
+            }
+
+            float expected = LightingTable.calculateSunFactor(ssa);
+            float actual = table.lookUpSunFactor(ssa);
+            Assert.assertEquals(expected, actual, tolerance);
+        }
+    }
+}
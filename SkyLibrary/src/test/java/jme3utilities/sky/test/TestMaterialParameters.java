@@ -0,0 +1,85 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky.test;
+
+import com.jme3.asset.AssetManager;
+import com.jme3.asset.DesktopAssetManager;
+import com.jme3.asset.plugins.ClasspathLocator;
+import com.jme3.material.plugins.J3MLoader;
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.Vector2f;
+import com.jme3.texture.plugins.AWTLoader;
+import jme3utilities.sky.SkyMaterial;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test that sky materials never modify parameter values supplied by callers.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+public class TestMaterialParameters {
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Test a color and an offset that were set directly using the Material
+     * API.
+     */
+    @Test
+    public void testCallerValues() {
+        AssetManager assetManager = new DesktopAssetManager();
+        assetManager.registerLoader(J3MLoader.class, "j3m", "j3md");
+        assetManager.registerLoader(AWTLoader.class, "jpg", "png");
+        assetManager.registerLocator(null, ClasspathLocator.class);
+
+        SkyMaterial material = new SkyMaterial(
+                assetManager, "MatDefs/skies/dome66/dome66.j3md");
+        material.initialize();
+        material.addClouds(0);
+        material.setClearColor(ColorRGBA.Red);
+        material.setCloudsOffset(0, 0.1f, 0.2f);
+
+        ColorRGBA callerColor = new ColorRGBA(0f, 0f, 1f, 1f);
+        material.setColor("ClearColor", callerColor);
+        Vector2f callerOffset = new Vector2f(0.3f, 0.4f);
+        material.setVector2("Clouds0Offset", callerOffset);
+
+        material.setClearColor(ColorRGBA.Green);
+        material.setCloudsOffset(0, 0.5f, 0.6f);
+
+        // The caller's objects are unchanged.
+        Assert.assertEquals(new ColorRGBA(0f, 0f, 1f, 1f), callerColor);
+        Assert.assertEquals(new Vector2f(0.3f, 0.4f), callerOffset);
+
+        // The material has the new values.
+        Assert.assertEquals(ColorRGBA.Green, material.copyColor("ClearColor"));
+        Assert.assertEquals(new Vector2f(0.5f, 0.6f),
+                material.copyCloudsOffset(0));
+        Assert.assertNotSame(
+                callerColor, material.getParam("ClearColor").getValue());
+    }
+}
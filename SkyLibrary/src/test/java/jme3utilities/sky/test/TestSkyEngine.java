@@ -0,0 +1,164 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky.test;
+
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.FastMath;
+import com.jme3.math.Vector3f;
+import java.util.concurrent.ForkJoinPool;
+import jme3utilities.sky.SkyBatch;
+import jme3utilities.sky.SkyEngine;
+import jme3utilities.sky.SkyState;
+import jme3utilities.sky.SunAndStars;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test the SkyEngine and SkyState classes without a renderer.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+public class TestSkyEngine {
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Verify that batch evaluation matches sequential evaluation.
+     */
+    @Test
+    public void testSkyBatch() {
+        SunAndStars sas = new SunAndStars();
+        sas.setObserverLatitude(0.7f);
+        SkyEngine engine = new SkyEngine(sas);
+        engine.setCloudTransmission(direction -> 0.8f);
+        engine.setPhase(2f, 0.05f);
+
+        int numSamples = 1_000; // enough to split the work among threads
+        float[] hours = new float[numSamples];
+        float[] longitudes = new float[numSamples];
+        for (int index = 0; index < numSamples; ++index) {
+            hours[index] = (24f * index) / numSamples;
+            longitudes[index] = (FastMath.TWO_PI * (index % 37)) / 37;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(3);
+        float[] records
+                = SkyBatch.evaluate(engine, hours, longitudes, pool, null);
+        pool.shutdown();
+        Assert.assertEquals(numSamples * SkyState.numFloats, records.length);
+
+        for (int index = 0; index < numSamples; ++index) {
+            sas.setHour(hours[index]);
+            sas.setSolarLongitude(longitudes[index]);
+            SkyState state = engine.evaluate();
+
+            int base = index * SkyState.numFloats;
+            Assert.assertEquals(state.getHour(),
+                    records[base + SkyState.hourOffset], 0f);
+            Assert.assertEquals(state.getSolarLongitude(),
+                    records[base + SkyState.longitudeOffset], 0f);
+            Vector3f sun = state.sunDirection(null);
+            Assert.assertEquals(
+                    sun.y, records[base + SkyState.sunOffset + 1], 0f);
+            ColorRGBA main = state.mainColor(null);
+            Assert.assertEquals(
+                    main.r, records[base + SkyState.mainOffset], 0f);
+            ColorRGBA ambient = state.ambientColor(null);
+            Assert.assertEquals(ambient.b,
+                    records[base + SkyState.ambientOffset + 2], 0f);
+            Assert.assertEquals(state.getShadowIntensity(),
+                    records[base + SkyState.shadowOffset], 0f);
+            Assert.assertEquals(state.getClearAlpha(),
+                    records[base + SkyState.clearOffset], 0f);
+        }
+    }
+
+    /**
+     * Test the SkyEngine class.
+     */
+    @Test
+    public void testSkyEngine() {
+        SunAndStars sas = new SunAndStars();
+        SkyEngine engine = new SkyEngine(sas);
+
+        // At noon, the sun is the main light source.
+        sas.setHour(12f);
+        SkyState noon = engine.evaluate();
+        Assert.assertEquals(12f, noon.getHour(), 0f);
+        Vector3f sunDirection = noon.sunDirection(null);
+        Assert.assertTrue(sunDirection.isUnitVector());
+        Assert.assertTrue(sunDirection.y > 0f);
+        Assert.assertEquals(sunDirection, noon.mainDirection(null));
+        Assert.assertEquals(1f, noon.getTransmission(), 0f);
+        Assert.assertEquals(1f, noon.getClearAlpha(), 0f);
+        assertValid(noon);
+
+        // Snapshots are unaffected by later changes.
+        sas.setHour(0f);
+        SkyState midnight = engine.evaluate();
+        Assert.assertEquals(12f, noon.getHour(), 0f);
+        Assert.assertEquals(sunDirection, noon.sunDirection(null));
+        Assert.assertTrue(midnight.sunDirection(null).y < 0f);
+        Assert.assertEquals(0f, midnight.getBloomIntensity(), 0f);
+        assertValid(midnight);
+
+        // Clouds attenuate the main light.
+        engine.setCloudTransmission(direction -> 0.5f);
+        sas.setHour(12f);
+        SkyState cloudy = engine.evaluate();
+        Assert.assertEquals(0.5f, cloudy.getTransmission(), 0f);
+        float clearRed = noon.mainColor(null).r;
+        Assert.assertTrue(cloudy.mainColor(null).r < clearRed);
+        assertValid(cloudy);
+
+        // Hiding the moon.
+        engine.setMoonHidden(true);
+        SkyState moonless = engine.evaluate();
+        Assert.assertTrue(moonless.isMoonHidden());
+        Assert.assertNull(moonless.moonDirection(null));
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Verify that the specified state is self-consistent.
+     *
+     * @param state the state to test (not null, unaffected)
+     */
+    private static void assertValid(SkyState state) {
+        Assert.assertTrue(state.mainDirection(null).isUnitVector());
+        Assert.assertTrue(state.mainDirection(null).y >= 0f);
+
+        float shadow = state.getShadowIntensity();
+        Assert.assertTrue(shadow >= 0f && shadow <= 1f);
+
+        float illumination = state.getMoonIllumination();
+        Assert.assertTrue(illumination >= 0f && illumination <= 1f);
+
+        ColorRGBA ambient = state.ambientColor(null);
+        Assert.assertTrue(ambient.r >= 0f && ambient.r <= 1f);
+    }
+}
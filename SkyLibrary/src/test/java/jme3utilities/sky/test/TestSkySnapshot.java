@@ -0,0 +1,152 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky.test;
+
+import com.jme3.asset.AssetManager;
+import com.jme3.asset.DesktopAssetManager;
+import com.jme3.asset.plugins.ClasspathLocator;
+import com.jme3.material.plugins.J3MLoader;
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.Vector3f;
+import com.jme3.renderer.Camera;
+import com.jme3.scene.Node;
+import com.jme3.texture.plugins.AWTLoader;
+import java.util.concurrent.atomic.AtomicReference;
+import jme3utilities.sky.SkyControl;
+import jme3utilities.sky.SkySnapshot;
+import jme3utilities.sky.StarsOption;
+import jme3utilities.sky.Updater;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test the publication of SkySnapshot instances by an Updater.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+public class TestSkySnapshot {
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Test that later updates don't alter an existing snapshot.
+     */
+    @Test
+    public void testImmutability() {
+        SkyControl sky = createSky();
+        Updater updater = sky.getUpdater();
+        sky.getSunAndStars().setHour(9f);
+        sky.update(1f / 60f);
+
+        SkySnapshot morning = updater.getSnapshot();
+        ColorRGBA mainColor = morning.mainColor(null);
+        Vector3f direction = morning.direction(null);
+        long sequence = morning.sequence();
+
+        // Modifying a copy doesn't affect the snapshot.
+        morning.mainColor(null).set(0f, 0f, 0f, 0f);
+        morning.direction(null).set(0f, 0f, 1f);
+        Assert.assertEquals(mainColor, morning.mainColor(null));
+        Assert.assertEquals(direction, morning.direction(null));
+
+        sky.getSunAndStars().setHour(15f);
+        sky.update(1f / 60f);
+
+        SkySnapshot afternoon = updater.getSnapshot();
+        Assert.assertNotSame(morning, afternoon);
+        Assert.assertTrue(afternoon.sequence() > sequence);
+        Assert.assertNotEquals(direction, afternoon.direction(null));
+
+        // The earlier snapshot is unchanged.
+        Assert.assertEquals(sequence, morning.sequence());
+        Assert.assertEquals(mainColor, morning.mainColor(null));
+        Assert.assertEquals(direction, morning.direction(null));
+    }
+
+    /**
+     * Test that a snapshot is available from another thread after a single
+     * update, even if no snapshot was requested beforehand and the sky is
+     * never updated again.
+     *
+     * @throws InterruptedException if interrupted while joining
+     */
+    @Test
+    public void testPublication() throws InterruptedException {
+        SkyControl sky = createSky();
+        Updater updater = sky.getUpdater();
+        Assert.assertNull(updater.getSnapshot());
+
+        sky.getSunAndStars().setHour(9f);
+        sky.update(1f / 60f);
+
+        AtomicReference<SkySnapshot> fromWorker = new AtomicReference<>();
+        Thread worker = new Thread(
+                () -> fromWorker.set(updater.getSnapshot()));
+        worker.start();
+        worker.join();
+
+        SkySnapshot snapshot = fromWorker.get();
+        Assert.assertNotNull(snapshot);
+        Assert.assertEquals(updater.getAmbientColor(),
+                snapshot.ambientColor(null));
+        Assert.assertEquals(updater.getBackgroundColor(),
+                snapshot.backgroundColor(null));
+        Assert.assertEquals(updater.getMainColor(), snapshot.mainColor(null));
+        Assert.assertEquals(updater.getDirection(), snapshot.direction(null));
+        Assert.assertEquals(updater.getBloomIntensity(),
+                snapshot.bloomIntensity(), 0f);
+        Assert.assertEquals(updater.getShadowIntensity(),
+                snapshot.shadowIntensity(), 0f);
+
+        // Without another update, the same instance is returned.
+        Assert.assertSame(snapshot, updater.getSnapshot());
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Create an enabled SkyControl, without a renderer.
+     *
+     * @return a new control, added to a new node
+     */
+    private static SkyControl createSky() {
+        AssetManager assetManager = new DesktopAssetManager();
+        assetManager.registerLoader(J3MLoader.class, "j3m", "j3md");
+        assetManager.registerLoader(AWTLoader.class, "jpg", "png");
+        assetManager.registerLocator(null, ClasspathLocator.class);
+
+        Camera camera = new Camera(640, 480);
+        float cloudFlattening = 0.1f;
+        boolean bottomDome = true;
+        SkyControl result = new SkyControl(assetManager, camera,
+                cloudFlattening, StarsOption.TopDome, bottomDome);
+        Node parent = new Node("parent");
+        parent.addControl(result);
+        result.setEnabled(true);
+
+        return result;
+    }
+}
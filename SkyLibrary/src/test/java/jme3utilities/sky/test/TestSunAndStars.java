@@ -86,6 +86,8 @@ public class TestSunAndStars {
         sas.orientEquatorialSky(node, doNotInvert);
         assertEquals(
                 -0.9019f, -0.4319f, 0f, 0f, node.getWorldRotation(), 0.0001f);
+        assertEquals(-0.9019f, -0.4319f, 0f, 0f,
+                sas.equatorialOrientation(null), 0.0001f);
 
         sas.orientStarDomes(node, null);
         assertEquals(
@@ -202,6 +204,38 @@ public class TestSunAndStars {
         }
         // TODO verify the copy
     }
+
+    /**
+     * Test the version counter of the SunAndStars class.
+     */
+    @Test
+    public void testVersion() {
+        SunAndStars sas = new SunAndStars();
+        int version = sas.getVersion();
+
+        // Setters that don't alter the state leave the version unchanged.
+        sas.setHour(sas.getHour());
+        sas.setObserverLatitude(sas.getObserverLatitude());
+        sas.setSolarLongitude(sas.getSolarLongitude());
+        sas.setAxes(sas.northDirection(null), sas.upDirection(null));
+        Assert.assertEquals(version, sas.getVersion());
+
+        // Each actual change increments the version.
+        sas.setHour(6f);
+        Assert.assertNotEquals(version, sas.getVersion());
+        version = sas.getVersion();
+
+        sas.setObserverLatitude(0f);
+        Assert.assertNotEquals(version, sas.getVersion());
+        version = sas.getVersion();
+
+        sas.setSolarLongitude(1f);
+        Assert.assertNotEquals(version, sas.getVersion());
+        version = sas.getVersion();
+
+        sas.setAxes(new Vector3f(0f, 0f, 1f), new Vector3f(0f, 1f, 0f));
+        Assert.assertNotEquals(version, sas.getVersion());
+    }
     // *************************************************************************
     // private methods
 
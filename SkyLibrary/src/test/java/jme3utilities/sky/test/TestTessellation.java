@@ -0,0 +1,110 @@
+/*
+ Copyright (c) 2026 Stephen Gold
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright
+ notice, this list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright
+ notice, this list of conditions and the following disclaimer in the
+ documentation and/or other materials provided with the distribution.
+ * Neither the name of the copyright holder nor the names of its contributors
+ may be used to endorse or promote products derived from this software without
+ specific prior written permission.
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package jme3utilities.sky.test;
+
+import com.jme3.asset.AssetManager;
+import com.jme3.asset.DesktopAssetManager;
+import com.jme3.asset.plugins.ClasspathLocator;
+import com.jme3.material.plugins.J3MLoader;
+import com.jme3.renderer.Camera;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Node;
+import com.jme3.texture.plugins.AWTLoader;
+import jme3utilities.sky.SkyControl;
+import jme3utilities.sky.StarsOption;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test the adaptive tessellation of sky domes without a renderer.
+ *
+ * @author Stephen Gold sgold@sonic.net
+ */
+public class TestTessellation {
+    // *************************************************************************
+    // new methods exposed
+
+    /**
+     * Verify that small viewports get coarser domes and narrow fields of view
+     * get finer ones.
+     */
+    @Test
+    public void testAdaptiveTessellation() {
+        AssetManager assetManager = new DesktopAssetManager();
+        assetManager.registerLoader(J3MLoader.class, "j3m", "j3md");
+        assetManager.registerLoader(AWTLoader.class, "jpg", "png");
+        assetManager.registerLocator(null, ClasspathLocator.class);
+
+        Camera camera = new Camera(640, 480);
+        camera.setFrustumPerspective(45f, 640f / 480f, 1f, 1000f);
+        float cloudFlattening = 0f;
+        boolean bottomDome = true;
+        SkyControl sky = new SkyControl(assetManager, camera, cloudFlattening,
+                StarsOption.TopDome, bottomDome);
+        Node parent = new Node("parent");
+        parent.addControl(sky);
+        sky.setEnabled(true);
+
+        int defaultCount = countTopVertices(sky, parent);
+        sky.setAdaptiveTessellation(true);
+        int mediumCount = countTopVertices(sky, parent);
+        Assert.assertNotEquals(defaultCount, mediumCount);
+
+        // A small viewport gets a coarser dome.
+        boolean fixAspect = true;
+        camera.resize(160, 120, fixAspect);
+        int smallCount = countTopVertices(sky, parent);
+        Assert.assertTrue(smallCount < mediumCount);
+
+        // A narrow field of view gets a finer dome.
+        camera.resize(640, 480, fixAspect);
+        camera.setFrustumPerspective(5f, 640f / 480f, 1f, 1000f);
+        int narrowCount = countTopVertices(sky, parent);
+        Assert.assertTrue(narrowCount > mediumCount);
+
+        // Disabling adaptation restores the default density.
+        sky.setAdaptiveTessellation(false);
+        Assert.assertEquals(defaultCount, countTopVertices(sky, parent));
+    }
+    // *************************************************************************
+    // private methods
+
+    /**
+     * Update the specified control and count the vertices in its top dome.
+     *
+     * @param sky the control to update (not null)
+     * @param parent the controlled node (not null, unaffected)
+     * @return the vertex count (&gt;0)
+     */
+    private static int countTopVertices(SkyControl sky, Node parent) {
+        sky.update(0.01f);
+
+        Geometry topDome = (Geometry) parent.getChild("top");
+        int result = topDome.getMesh().getVertexCount();
+
+        return result;
+    }
+}